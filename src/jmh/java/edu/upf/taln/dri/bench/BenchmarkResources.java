@@ -0,0 +1,110 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.bench;
+
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Paths;
+
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
+import edu.upf.taln.dri.common.util.ResourcePool;
+import edu.upf.taln.dri.lib.Factory;
+import edu.upf.taln.dri.lib.exception.DRIexception;
+import edu.upf.taln.dri.lib.exception.InternalProcessingException;
+import edu.upf.taln.dri.lib.model.Document;
+import edu.upf.taln.dri.lib.model.DocumentImpl;
+
+/**
+ * Shared set-up of the benchmarks: initialization of the framework with the test configuration
+ * (src/test/resources/DRIconfig.properties) and loading of the bundled test papers.
+ *
+ *
+ */
+public class BenchmarkResources {
+
+	private static boolean initialized = false;
+
+	/**
+	 * Initialize the framework with the test configuration (only the first invocation has effect)
+	 *
+	 * @throws DRIexception
+	 */
+	public static synchronized void initFramework() throws DRIexception {
+		if(initialized) {
+			return;
+		}
+
+		Factory.setDRIPropertyFilePath(getResourcePath("/DRIconfig.properties"));
+		Factory.initFramework();
+		initialized = true;
+	}
+
+	/**
+	 * Get the absolute path of a test resource
+	 *
+	 * @param resourceName the name of the resource, relative to src/test/resources (e.g. /JATSfiles/paper_1.xml)
+	 * @return
+	 * @throws InternalProcessingException
+	 */
+	public static String getResourcePath(String resourceName) throws InternalProcessingException {
+		URL resourceUrl = BenchmarkResources.class.getResource(resourceName);
+		if(resourceUrl == null) {
+			throw new InternalProcessingException("Benchmark resource not found in classpath: " + resourceName);
+		}
+
+		try {
+			return Paths.get(resourceUrl.toURI()).toString();
+		} catch (URISyntaxException e) {
+			throw new InternalProcessingException("Invalid benchmark resource path " + resourceName + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Load one of the JATS test papers (src/test/resources/JATSfiles)
+	 *
+	 * @param fileName the name of the file (e.g. paper_1.xml)
+	 * @return
+	 * @throws DRIexception
+	 */
+	public static DocumentImpl loadJATSdocument(String fileName) throws DRIexception {
+		initFramework();
+
+		Document doc = Factory.getJATSloader().parseJATS(getResourcePath("/JATSfiles/" + fileName));
+		if(doc == null) {
+			throw new InternalProcessingException("Impossible to load the JATS test paper " + fileName);
+		}
+
+		return (DocumentImpl) doc;
+	}
+
+	/**
+	 * Get the pool of instances of a GATE plugin by its name (e.g. RhetoricalClassifier), so that a benchmark
+	 * can execute a module directly on a document
+	 *
+	 * @param poolName
+	 * @return
+	 * @throws DRIexception
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ResourcePool<T> getResourcePool(String poolName) throws DRIexception {
+		initFramework();
+
+		for(ResourcePool<?> pool : MetricsRegistry.getInstance().getResourcePools()) {
+			if(pool != null && pool.getName().equals(poolName)) {
+				return (ResourcePool<T>) pool;
+			}
+		}
+
+		throw new InternalProcessingException("Resource pool not initialized: " + poolName);
+	}
+
+}
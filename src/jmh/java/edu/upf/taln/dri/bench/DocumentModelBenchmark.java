@@ -0,0 +1,105 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.upf.taln.dri.common.util.GateUtil;
+import edu.upf.taln.dri.lib.exception.DRIexception;
+import edu.upf.taln.dri.lib.model.DocumentImpl;
+import edu.upf.taln.dri.lib.model.util.ObjectGenerator;
+import edu.upf.taln.dri.lib.model.util.serializer.JSONgenerator;
+import edu.upf.taln.dri.module.importer.ImporterBase;
+import gate.Annotation;
+
+/**
+ * Benchmarks of the generation of the document model from the annotations of an already analyzed JATS test paper:
+ * dependency graphs (ObjectGenerator.getDepGraphFromSentId), JSON serialization (JSONgenerator.getDocumentJSON)
+ * and the GateUtil annotation queries all the object generators rely on.<br/>
+ * The set-up executes all the analysis stages once (the header enrichment may query remote services).
+ *
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DocumentModelBenchmark {
+
+	@Param({"paper_1.xml", "paper_2.xml"})
+	public String paper;
+
+	private DocumentImpl doc;
+	private List<Annotation> sentenceAnnList;
+
+	@Setup(Level.Trial)
+	public void setup() throws DRIexception {
+		doc = BenchmarkResources.loadJATSdocument(paper);
+
+		// Execute all the analysis stages needed by the JSON serialization
+		JSONgenerator.getDocumentJSON(doc, true, false);
+
+		sentenceAnnList = GateUtil.getAnnInDocOrder(doc.cacheManager.getGateDoc(), ImporterBase.driAnnSet, ImporterBase.sentenceAnnType);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws DRIexception {
+		if(doc != null) {
+			doc.cleanUp();
+		}
+	}
+
+	@Benchmark
+	public void depGraphs(Blackhole blackhole) {
+		for(Annotation sentenceAnn : sentenceAnnList) {
+			blackhole.consume(ObjectGenerator.getDepGraphFromSentId(sentenceAnn.getId(), doc.cacheManager, false));
+		}
+	}
+
+	@Benchmark
+	public String documentJSON() {
+		// Sentences, tokens and citations are generated again from the annotations
+		doc.cacheManager.clearCache();
+		return JSONgenerator.getDocumentJSON(doc, true, false);
+	}
+
+	@Benchmark
+	public List<Annotation> sentencesInDocOrder() {
+		return GateUtil.getAnnInDocOrder(doc.cacheManager.getGateDoc(), ImporterBase.driAnnSet, ImporterBase.sentenceAnnType);
+	}
+
+	@Benchmark
+	public void tokensContainedInSentences(Blackhole blackhole) {
+		for(Annotation sentenceAnn : sentenceAnnList) {
+			blackhole.consume(GateUtil.getAnnInDocOrderContainedAnn(doc.cacheManager.getGateDoc(), ImporterBase.driAnnSet, ImporterBase.tokenAnnType, sentenceAnn));
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.upf.taln.dri.module.summary.lexrank.summ.DummyItem;
+import edu.upf.taln.dri.module.summary.lexrank.summ.LexRankResults;
+import edu.upf.taln.dri.module.summary.lexrank.summ.LexRanker;
+
+/**
+ * Benchmark of LexRanker.rank on a symmetric similarity matrix with the size of the sentence set of a paper
+ * (the matrix is randomly generated with a fixed seed, so that results are comparable across runs).
+ *
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LexRankBenchmark {
+
+	@Param({"100", "300"})
+	public int sentenceNumber;
+
+	@Param({"true", "false"})
+	public boolean continuous;
+
+	private List<DummyItem> items;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random random = new Random(1234l);
+
+		double[][] similarityMatrix = new double[sentenceNumber][sentenceNumber];
+		for(int x_val = 0; x_val < sentenceNumber; x_val++) {
+			similarityMatrix[x_val][x_val] = 1d;
+			for(int y_val = 0; y_val < x_val; y_val++) {
+				// Sparse similarities, as between the TF-IDF vectors of the sentences of a paper
+				double similarityValue = (random.nextDouble() < 0.3d) ? random.nextDouble() : 0d;
+				similarityMatrix[y_val][x_val] = similarityMatrix[x_val][y_val] = similarityValue;
+			}
+		}
+
+		items = new ArrayList<DummyItem>();
+		for(int i = 0; i < sentenceNumber; i++) {
+			items.add(new DummyItem(i, similarityMatrix));
+		}
+	}
+
+	@Benchmark
+	public LexRankResults<DummyItem> rank() {
+		return LexRanker.rank(items, 0.01d, continuous);
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.upf.taln.dri.common.connector.pdfext.localappo.PDFEXTparser;
+import edu.upf.taln.dri.common.connector.pdfext.localappo.PDFEXTresult;
+import edu.upf.taln.dri.common.connector.pdfext.localappo.PDFextStatic;
+import edu.upf.taln.dri.lib.exception.DRIexception;
+import edu.upf.taln.dri.lib.exception.InternalProcessingException;
+
+/**
+ * Benchmark of the conversion of the HTML generated from the PDF test paper (src/test/resources/PDFfiles/paper3.pdf)
+ * to XML (PDFEXTparser.parse) by a single parser instance.<br/>
+ * IMPORTANT: the set-up converts the PDF to HTML, thus pdf2htmlEX has to be installed in the PC where the benchmark is executed.
+ *
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PDFEXTparserBenchmark {
+
+	private String HTMLcontents;
+	private PDFEXTparser parser;
+
+	@Setup(Level.Trial)
+	public void setup() throws DRIexception, IOException {
+		Path appoFolder = Files.createTempDirectory("DRI_bench_PDFEXT_");
+
+		String HTMLfilePath = PDFextStatic.convertPDFtoHTML(BenchmarkResources.getResourcePath("/PDFfiles/paper3.pdf"), appoFolder.toString());
+		if(HTMLfilePath == null) {
+			throw new InternalProcessingException("Impossible to convert the PDF test paper to HTML - check that pdf2htmlEX is installed.");
+		}
+
+		HTMLcontents = new String(Files.readAllBytes(Paths.get(HTMLfilePath)), StandardCharsets.UTF_8);
+		parser = new PDFEXTparser();
+	}
+
+	@Benchmark
+	public PDFEXTresult parse() {
+		return parser.parse(new PDFEXTresult(HTMLcontents, ""));
+	}
+
+}
@@ -0,0 +1,197 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.bench;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import edu.upf.taln.dri.common.util.ResourcePool;
+import edu.upf.taln.dri.lib.exception.DRIexception;
+import edu.upf.taln.dri.lib.model.DocumentImpl;
+import edu.upf.taln.dri.lib.model.ext.LangENUM;
+import edu.upf.taln.dri.module.coref.CorefChainBuilder;
+import edu.upf.taln.dri.module.parser.MateParser;
+import edu.upf.taln.dri.module.rhetclassifier.RhetoricalClassifier;
+import edu.upf.taln.dri.module.summary.lexrank.LexRankSummarizer;
+import edu.upf.taln.dri.module.summary.titlesim.TitleSimSummarizer;
+import gate.Corpus;
+import gate.CorpusController;
+import gate.Document;
+import gate.creole.ExecutionException;
+import gate.creole.ResourceInstantiationException;
+
+/**
+ * Benchmarks of the modules of the analysis stages of a document, executed on the JATS test papers.<br/>
+ * The set-up computes once the stages the modules depend on and checks out one instance of each module
+ * from its pool: each benchmark invokes only the execute() method of the module on the already analyzed
+ * document, without the stage bookkeeping and the garbage collection of the DocumentImpl.parsingX methods.<br/>
+ * - mateParser: dependency parsing of all the sentences (MateParser.execute, English parser)<br/>
+ * - rhetoricalClassifier: rhetorical classification of all the sentences (RhetoricalClassifier.execute)<br/>
+ * - corefChainBuilder: coreference chain identification (CorefChainBuilder.execute); the candidate mentions
+ * consumed by the builder are spotted again before each invocation, out of the measured time<br/>
+ * - summary: LexRank and title similarity summarization (LexRankSummarizer.execute and TitleSimSummarizer.execute)
+ *
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StageBenchmark {
+
+	@Param({"paper_1.xml", "paper_2.xml"})
+	public String paper;
+
+	private DocumentImpl doc;
+	private Document gateDoc;
+
+	private ResourcePool<Map<LangENUM, MateParser>> mateParserPool;
+	private ResourcePool<RhetoricalClassifier> rhetoricalClassifierPool;
+	private ResourcePool<CorefChainBuilder> corefChainBuilderPool;
+	private ResourcePool<CorpusController> corefMentionSpotPool;
+	private ResourcePool<LexRankSummarizer> lexRankSummarizerPool;
+	private ResourcePool<TitleSimSummarizer> titleSimSummarizerPool;
+
+	private Map<LangENUM, MateParser> mateParsers;
+	private RhetoricalClassifier rhetoricalClassifier;
+	private CorefChainBuilder corefChainBuilder;
+	private CorpusController corefMentionSpot;
+	private LexRankSummarizer lexRankSummarizer;
+	private TitleSimSummarizer titleSimSummarizer;
+
+	private Corpus corpus;
+	private boolean spotCorefMentions = false;
+
+	@Setup(Level.Trial)
+	public void setup(BenchmarkParams params) throws DRIexception, ResourceInstantiationException {
+		doc = BenchmarkResources.loadJATSdocument(paper);
+
+		// Compute once the stages the benchmarked modules depend on
+		doc.parsingDep(false);
+		doc.parsingCoref(false);
+		gateDoc = doc.cacheManager.getGateDoc();
+
+		mateParserPool = BenchmarkResources.getResourcePool("MateParser");
+		rhetoricalClassifierPool = BenchmarkResources.getResourcePool("RhetoricalClassifier");
+		corefChainBuilderPool = BenchmarkResources.getResourcePool("CorefChainBuilder");
+		corefMentionSpotPool = BenchmarkResources.getResourcePool("XGAPPcorefMentionSpot");
+		lexRankSummarizerPool = BenchmarkResources.getResourcePool("LexRankSummarizer");
+		titleSimSummarizerPool = BenchmarkResources.getResourcePool("TitleSimSummarizer");
+
+		mateParsers = mateParserPool.checkout();
+		mateParsers.get(LangENUM.EN).setDocument(gateDoc);
+
+		rhetoricalClassifier = rhetoricalClassifierPool.checkout();
+		rhetoricalClassifier.setDocument(gateDoc);
+
+		corefChainBuilder = corefChainBuilderPool.checkout();
+		corefChainBuilder.setDocument(gateDoc);
+
+		corefMentionSpot = corefMentionSpotPool.checkout();
+		corpus = gate.Factory.newCorpus("StageBenchmark");
+		corpus.add(gateDoc);
+		corefMentionSpot.setCorpus(corpus);
+
+		lexRankSummarizer = lexRankSummarizerPool.checkout();
+		lexRankSummarizer.setDocument(gateDoc);
+
+		titleSimSummarizer = titleSimSummarizerPool.checkout();
+		titleSimSummarizer.setDocument(gateDoc);
+
+		spotCorefMentions = params.getBenchmark().endsWith(".corefChainBuilder");
+	}
+
+	@Setup(Level.Invocation)
+	public void setupInvocation() throws ExecutionException {
+		if(spotCorefMentions) {
+			// The chain builder prunes the candidate mentions: reset its results and spot them again
+			corefChainBuilder.resetAnnotations();
+			corefMentionSpot.execute();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws DRIexception {
+		if(mateParsers != null) {
+			mateParsers.get(LangENUM.EN).setDocument(null);
+			mateParserPool.release(mateParsers);
+		}
+		if(rhetoricalClassifier != null) {
+			rhetoricalClassifier.setDocument(null);
+			rhetoricalClassifierPool.release(rhetoricalClassifier);
+		}
+		if(corefChainBuilder != null) {
+			corefChainBuilder.setDocument(null);
+			corefChainBuilderPool.release(corefChainBuilder);
+		}
+		if(corefMentionSpot != null) {
+			corefMentionSpot.setCorpus(null);
+			corefMentionSpotPool.release(corefMentionSpot);
+		}
+		if(lexRankSummarizer != null) {
+			lexRankSummarizer.setDocument(null);
+			lexRankSummarizerPool.release(lexRankSummarizer);
+		}
+		if(titleSimSummarizer != null) {
+			titleSimSummarizer.setDocument(null);
+			titleSimSummarizerPool.release(titleSimSummarizer);
+		}
+
+		if(corpus != null) {
+			corpus.clear();
+			gate.Factory.deleteResource(corpus);
+		}
+
+		if(doc != null) {
+			doc.cleanUp();
+		}
+	}
+
+	@Benchmark
+	public void mateParser() {
+		mateParsers.get(LangENUM.EN).execute();
+	}
+
+	@Benchmark
+	public void rhetoricalClassifier() throws ExecutionException {
+		rhetoricalClassifier.execute();
+	}
+
+	@Benchmark
+	public void corefChainBuilder() throws ExecutionException {
+		corefChainBuilder.execute();
+	}
+
+	@Benchmark
+	public void summary() throws ExecutionException {
+		lexRankSummarizer.execute();
+		titleSimSummarizer.execute();
+	}
+
+}
@@ -0,0 +1,223 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.common.connector.babelnet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import edu.upf.taln.dri.common.connector.cache.ConnectorCache;
+import it.uniroma1.lcl.babelfy.commons.annotation.SemanticAnnotation;
+
+/**
+ * Cache of the Babelfy disambiguation results of single sentences, stored in the
+ * {@link edu.upf.taln.dri.common.connector.cache.ConnectorCache ConnectorCache} (service name: {@value #SERVICE_NAME}).<br/>
+ * The key of a sentence is built by {@link #getSentenceKey(String, List) getSentenceKey(String, List)} from the language
+ * and the sequence of tokens (word, lemma, POS) sent to Babelfy; the cache hashes it.<br/>
+ * Results are stored as {@link edu.upf.taln.dri.common.connector.babelnet.BabelfyCache.CachedAnnotation CachedAnnotation}s,
+ * with token offsets relative to the first token of the sentence.
+ *
+ *
+ */
+public class BabelfyCache {
+
+	private static Logger logger = Logger.getLogger(BabelfyCache.class);
+
+	public static final String SERVICE_NAME = "Babelfy";
+
+	// Increase when the format of the cached results or of the sentence key changes
+	private static final String FORMAT_VERSION = "1";
+
+	private static final String FIELD_SEPARATOR = "\t";
+
+	/**
+	 * Disambiguation result of a span of tokens of a sentence
+	 *
+	 *
+	 */
+	public static class CachedAnnotation {
+
+		private final int startToken;
+		private final int endToken;
+		private final String babelSynsetID;
+		private final String babelNetURL;
+		private final String DBpediaURL;
+		private final Double score;
+		private final Double coherenceScore;
+		private final Double globalScore;
+		private final String source;
+
+		public CachedAnnotation(int startToken, int endToken, String babelSynsetID, String babelNetURL, String DBpediaURL,
+				Double score, Double coherenceScore, Double globalScore, String source) {
+			this.startToken = startToken;
+			this.endToken = endToken;
+			this.babelSynsetID = babelSynsetID;
+			this.babelNetURL = babelNetURL;
+			this.DBpediaURL = DBpediaURL;
+			this.score = score;
+			this.coherenceScore = coherenceScore;
+			this.globalScore = globalScore;
+			this.source = source;
+		}
+
+		/**
+		 * Convert a Babelfy result
+		 * 
+		 * @param semanticAnnotation
+		 * @param firstSentenceToken position of the first token of the sentence in the list of tokens sent to Babelfy
+		 * @return
+		 */
+		public static CachedAnnotation fromSemanticAnnotation(SemanticAnnotation semanticAnnotation, int firstSentenceToken) {
+			Double score = null;
+			Double coherenceScore = null;
+			Double globalScore = null;
+			try {
+				score = new Double(semanticAnnotation.getScore());
+				coherenceScore = new Double(semanticAnnotation.getCoherenceScore());
+				globalScore = new Double(semanticAnnotation.getGlobalScore());
+			}
+			catch (Exception e) {
+				logger.debug("Error reading Babelfy scores: " + e.getMessage());
+			}
+
+			return new CachedAnnotation(semanticAnnotation.getTokenOffsetFragment().getStart() - firstSentenceToken,
+					semanticAnnotation.getTokenOffsetFragment().getEnd() - firstSentenceToken,
+					semanticAnnotation.getBabelSynsetID(), semanticAnnotation.getBabelNetURL(), semanticAnnotation.getDBpediaURL(),
+					score, coherenceScore, globalScore, (semanticAnnotation.getSource() != null) ? semanticAnnotation.getSource().toString() : null);
+		}
+
+		public int getStartToken() {
+			return startToken;
+		}
+
+		public int getEndToken() {
+			return endToken;
+		}
+
+		public String getBabelSynsetID() {
+			return babelSynsetID;
+		}
+
+		public String getBabelNetURL() {
+			return babelNetURL;
+		}
+
+		public String getDBpediaURL() {
+			return DBpediaURL;
+		}
+
+		public Double getScore() {
+			return score;
+		}
+
+		public Double getCoherenceScore() {
+			return coherenceScore;
+		}
+
+		public Double getGlobalScore() {
+			return globalScore;
+		}
+
+		public String getSource() {
+			return source;
+		}
+
+		private String serialize() {
+			return startToken + FIELD_SEPARATOR + endToken + FIELD_SEPARATOR + StringUtils.defaultString(babelSynsetID) + FIELD_SEPARATOR
+					+ StringUtils.defaultString(babelNetURL) + FIELD_SEPARATOR + StringUtils.defaultString(DBpediaURL) + FIELD_SEPARATOR
+					+ ((score != null) ? score : "") + FIELD_SEPARATOR + ((coherenceScore != null) ? coherenceScore : "") + FIELD_SEPARATOR
+					+ ((globalScore != null) ? globalScore : "") + FIELD_SEPARATOR + StringUtils.defaultString(source);
+		}
+
+		private static CachedAnnotation parse(String serialized) {
+			String[] fields = serialized.split(FIELD_SEPARATOR, -1);
+			if(fields.length != 9) {
+				throw new IllegalArgumentException("Invalid number of fields: " + fields.length);
+			}
+
+			return new CachedAnnotation(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), StringUtils.defaultIfEmpty(fields[2], null),
+					StringUtils.defaultIfEmpty(fields[3], null), StringUtils.defaultIfEmpty(fields[4], null), parseDouble(fields[5]),
+					parseDouble(fields[6]), parseDouble(fields[7]), StringUtils.defaultIfEmpty(fields[8], null));
+		}
+
+		private static Double parseDouble(String field) {
+			return (StringUtils.isNotEmpty(field)) ? Double.valueOf(field) : null;
+		}
+	}
+
+	/**
+	 * Build the key of a sentence
+	 * 
+	 * @param language the language of the disambiguation
+	 * @param tokenDescriptions one description of each token sent to Babelfy (word, lemma and POS)
+	 * @return
+	 */
+	public static String getSentenceKey(String language, List<String> tokenDescriptions) {
+		StringBuilder key = new StringBuilder("v" + FORMAT_VERSION + " " + language);
+		for(String tokenDescription : tokenDescriptions) {
+			key.append(" ").append(tokenDescription);
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Get the cached disambiguation results of a sentence
+	 * 
+	 * @param sentenceKey
+	 * @return null if not cached
+	 */
+	public static List<CachedAnnotation> get(String sentenceKey) {
+		String cachedResults = ConnectorCache.get(SERVICE_NAME, sentenceKey);
+		if(cachedResults == null) {
+			return null;
+		}
+
+		List<CachedAnnotation> annotations = new ArrayList<CachedAnnotation>();
+		try {
+			for(String serializedAnnotation : cachedResults.split("\n")) {
+				if(StringUtils.isNotEmpty(serializedAnnotation)) {
+					annotations.add(CachedAnnotation.parse(serializedAnnotation));
+				}
+			}
+		}
+		catch (Exception e) {
+			logger.warn("Invalid cached Babelfy results, ignored: " + e.getMessage());
+			return null;
+		}
+
+		return annotations;
+	}
+
+	/**
+	 * Cache the disambiguation results of a sentence (also if no annotation has been identified)
+	 * 
+	 * @param sentenceKey
+	 * @param annotations
+	 */
+	public static void put(String sentenceKey, List<CachedAnnotation> annotations) {
+		if(annotations == null) {
+			return;
+		}
+
+		StringBuilder serializedAnnotations = new StringBuilder();
+		for(CachedAnnotation annotation : annotations) {
+			if(annotation != null) {
+				serializedAnnotations.append(annotation.serialize()).append("\n");
+			}
+		}
+
+		ConnectorCache.put(SERVICE_NAME, sentenceKey, serializedAnnotations.toString());
+	}
+
+}
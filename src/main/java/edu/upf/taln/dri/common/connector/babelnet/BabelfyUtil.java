@@ -18,6 +18,8 @@ import java.util.List;
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
 
+import edu.upf.taln.dri.common.connector.guard.ServiceGuard;
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
 import edu.upf.taln.dri.lib.exception.InternalProcessingException;
 import edu.upf.taln.dri.lib.util.PropertyManager;
 import it.uniroma1.lcl.babelfy.commons.BabelfyConfiguration;
@@ -36,6 +38,39 @@ public class BabelfyUtil {
 
 	private static Logger logger = Logger.getLogger(BabelfyUtil.class);
 
+	// Rate limiter and circuit breaker of the requests to Babelfy
+	private static final ServiceGuard guard = ServiceGuard.getGuard("Babelfy").setRateLimit(5d, 5);
+
+	// API key set in the Babelfy configuration (null if the configuration has not been initialized yet)
+	private static String configuredAPIkey = null;
+
+	/**
+	 * Initialize the Babelfy configuration, a singleton shared by all the Babelfy clients: the configuration file is set only once,
+	 * the API key only when it changes (the clients of concurrent requests read the same configuration, thus
+	 * it is never modified while a request with the same API key is in progress).
+	 * 
+	 * @param apiKey
+	 */
+	private static synchronized void configureBabelfy(String apiKey) {
+		BabelfyConfiguration bconfig = it.uniroma1.lcl.babelfy.commons.BabelfyConfiguration.getInstance();
+
+		if(configuredAPIkey == null) {
+			try {
+				bconfig.setConfigurationFile( new File(PropertyManager.getProperty(PropertyManager.resourceFolder_fullPath) + File.separator + "conf" + File.separator + "babelfy.properties") );
+			} catch (Exception e) {
+				logger.error("Impossible to set the proper configuration file of BabelNet");
+			}
+		}
+		else if(!configuredAPIkey.equals(apiKey)) {
+			logger.warn("Babelfy API key changed: the new key is used by all the following requests.");
+		}
+
+		if(!apiKey.equals(configuredAPIkey)) {
+			bconfig.setRFkey(apiKey);
+			configuredAPIkey = apiKey;
+		}
+	}
+
 	/**
 	 * Disambiguate a list of tokens belonging to the same or different sentences. Each sentence is constituted by a list of tokens of type
 	 * {@link it.uniroma1.lcl.babelfy.commons.BabelfyToken BabelfyToken}.<br/>
@@ -57,15 +92,7 @@ public class BabelfyUtil {
 			return retList;
 		}
 
-		BabelfyConfiguration bconfig = it.uniroma1.lcl.babelfy.commons.BabelfyConfiguration.getInstance();
-
-		try {
-			bconfig.setConfigurationFile( new File(PropertyManager.getProperty(PropertyManager.resourceFolder_fullPath) + File.separator + "conf" + File.separator + "babelfy.properties") );
-		} catch (Exception e) {
-			logger.error("Impossible to set the proper configuration file of BabelNet");
-		}
-
-		bconfig.setRFkey(apiKey);
+		configureBabelfy(apiKey);
 
 		// Instantiate BabelNet connection class
 		BabelfyParameters bParam = new BabelfyParameters();
@@ -76,7 +103,22 @@ public class BabelfyUtil {
 			logger.debug("Token " + i + " " + sentTokens.get(i).getWord());
 		}
 
-		List<SemanticAnnotation> bfyAnnotations = bfy.babelfy(sentTokens, lang);
+		if(!guard.tryAcquire()) {
+			logger.warn("Babelfy request rejected (circuit " + guard.getCircuitState() + ")");
+			return retList;
+		}
+
+		long startTime = System.nanoTime();
+		List<SemanticAnnotation> bfyAnnotations = null;
+		try {
+			bfyAnnotations = bfy.babelfy(sentTokens, lang);
+		} catch (RuntimeException e) {
+			MetricsRegistry.getInstance().getConnectorMetrics("Babelfy").recordError();
+			guard.recordFailure();
+			throw e;
+		}
+		MetricsRegistry.getInstance().getConnectorMetrics("Babelfy").record(System.nanoTime() - startTime, sentTokens.size());
+		guard.recordSuccess((System.nanoTime() - startTime) / 1000000l);
 
 		return bfyAnnotations;
 	}
@@ -131,14 +173,7 @@ public class BabelfyUtil {
 			e1.printStackTrace();
 		}
 
-		BabelfyConfiguration bconfig = it.uniroma1.lcl.babelfy.commons.BabelfyConfiguration.getInstance();
-
-		bconfig.setRFkey("72f9a677-054b-4d6c-a58b-8ab74988a615");
-		try {
-			bconfig.setConfigurationFile( new File(PropertyManager.getProperty(PropertyManager.resourceFolder_fullPath) + File.separator + "conf" + File.separator + "babelfy.properties") );
-		} catch (Exception e) {
-			logger.error("Impossible to set the proper configuration file of BabelNet");
-		}
+		configureBabelfy("72f9a677-054b-4d6c-a58b-8ab74988a615");
 
 		// Instantiate BabelNet connection class
 		System.out.println("Invoking Babelfy...");
@@ -26,6 +26,7 @@ import javax.xml.parsers.ParserConfigurationException;
 
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.http.HeaderElement;
 import org.apache.http.HeaderElementIterator;
 import org.apache.http.HttpResponse;
@@ -53,6 +54,9 @@ import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 import edu.upf.taln.dri.common.connector.bibsonomy.model.BibTexWrap;
+import edu.upf.taln.dri.common.connector.cache.ConnectorCache;
+import edu.upf.taln.dri.common.connector.guard.ServiceGuard;
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
 import edu.upf.taln.dri.common.util.Util;
 
 
@@ -70,6 +74,9 @@ public class BibsonomyStandaloneConn {
 
 	private static CloseableHttpClient httpClient = null;
 
+	// Rate limiter, circuit breaker and adaptive timeout of the requests to Bibsonomy
+	private static final ServiceGuard guard = ServiceGuard.getGuard("Bibsonomy").setRateLimit(5d, 5);
+
 	static {
 		ConnectionKeepAliveStrategy myStrategy = new ConnectionKeepAliveStrategy() {
 
@@ -155,55 +162,79 @@ public class BibsonomyStandaloneConn {
 		RequestConfig config = RequestConfig.custom()
 				.setConnectTimeout(timeout * 1000)
 				.setConnectionRequestTimeout(15 * 1000)
-				.setSocketTimeout(30 * 1000).build();
+				.setSocketTimeout(guard.getTimeoutMs(30 * 1000)).build();
 
 		get.setConfig(config);
 
-		// Invoke Bibsonomy Post suggestion service
-		Map<String, String> response = null;
-		try {
-			// When using a ResponseHandler, HttpClient will automatically take care of ensuring release of the connection 
-			// back to the connection manager regardless whether the request execution succeeds or causes an exception.
-			ResponseHandler<Map<String, String>> responseHandler = new ResponseHandler<Map<String, String>>() {
-
-				@Override
-				public Map<String, String> handleResponse(final HttpResponse response) throws ClientProtocolException, IOException {
-					int status = response.getStatusLine().getStatusCode();
-					String respString = "";
-					if (status >= 200 && status < 300) {
-						BufferedReader rd = new BufferedReader(new InputStreamReader(response.getEntity().getContent(), "UTF-8"));
-						StringBuffer result = new StringBuffer();
-						String line = "";
-						while ((line = rd.readLine()) != null) {
-							result.append(line + "\n");
+		// Invoke Bibsonomy Post suggestion service, if the response is not cached: concurrent identical requests
+		// are coalesced into a single one
+		String parsingResults = ConnectorCache.fetch("Bibsonomy", ConnectorCache.normalizeQuery(title), () -> {
+			if(!guard.tryAcquire()) {
+				logger.warn("Bibsonomy request rejected (circuit " + guard.getCircuitState() + ")");
+				return null;
+			}
+
+			Map<String, String> response = null;
+			try {
+				// When using a ResponseHandler, HttpClient will automatically take care of ensuring release of the connection 
+				// back to the connection manager regardless whether the request execution succeeds or causes an exception.
+				ResponseHandler<Map<String, String>> responseHandler = new ResponseHandler<Map<String, String>>() {
+
+					@Override
+					public Map<String, String> handleResponse(final HttpResponse response) throws ClientProtocolException, IOException {
+						int status = response.getStatusLine().getStatusCode();
+						String respString = "";
+						if (status >= 200 && status < 300) {
+							BufferedReader rd = new BufferedReader(new InputStreamReader(response.getEntity().getContent(), "UTF-8"));
+							StringBuffer result = new StringBuffer();
+							String line = "";
+							while ((line = rd.readLine()) != null) {
+								result.append(line + "\n");
+							}
+							rd.close();
+							respString = result.length() > 0 ? result.toString() : null;
+						} else {
+							respString = "ERROR CODE: " + status;
 						}
-						rd.close();
-						respString = result.length() > 0 ? result.toString() : null;
-					} else {
-						respString = "ERROR CODE: " + status;
+
+						Map<String, String> retMap = new HashMap<String, String>();
+						retMap.put("body", respString);
+						retMap.put("status", status + "");
+						return retMap;
 					}
 
-					Map<String, String> retMap = new HashMap<String, String>();
-					retMap.put("body", respString);
-					retMap.put("status", status + "");
-					return retMap;
+				};
+
+				logger.debug("Sending Bibsonomy bibliographic entry parsing request...");
+				long startTime = System.currentTimeMillis();
+				response = httpClient.execute(get, responseHandler);
+				long endTime = System.currentTimeMillis();
+				MetricsRegistry.getInstance().getConnectorMetrics("Bibsonomy").record((endTime - startTime) * 1000000l);
+				logger.debug("Bibsonomy bibliographic entry processed in " + (endTime - startTime)  + " milliseconds with response Code : " + response.get("status"));
+				if(ServiceGuard.isServiceFailure(NumberUtils.toInt(response.get("status")))) {
+					guard.recordFailure();
+				}
+				else {
+					guard.recordSuccess(endTime - startTime);
 				}
+			} catch (ClientProtocolException e) {
+				logger.error("Bibsonomy processing exception / client protocol " + e.getMessage());
+				MetricsRegistry.getInstance().getConnectorMetrics("Bibsonomy").recordError();
+				guard.recordFailure();
+			} catch (Exception e) {
+				logger.error("Bibsonomy processing exception / Exception " + e.getMessage());
+				MetricsRegistry.getInstance().getConnectorMetrics("Bibsonomy").recordError();
+				guard.recordFailure();
+			}
 
-			};
-
-			logger.debug("Sending Bibsonomy bibliographic entry parsing request...");
-			long startTime = System.currentTimeMillis();
-			response = httpClient.execute(get, responseHandler);
-			long endTime = System.currentTimeMillis();
-			logger.debug("Bibsonomy bibliographic entry processed in " + (endTime - startTime)  + " milliseconds with response Code : " + response.get("status"));
-		} catch (ClientProtocolException e) {
-			logger.error("Bibsonomy processing exception / client protocol " + e.getMessage());
-		} catch (Exception e) {
-			logger.error("Bibsonomy processing exception / Exception " + e.getMessage());
-		}
+			// Only successful responses are cached
+			if(response != null && response.get("status") != null && response.get("status").startsWith("2")) {
+				return response.get("body");
+			}
+			return null;
+		});
 
 		List<BibTexWrap> BibTexWrapList = new ArrayList<BibTexWrap>();
-		String parsingResults = response.get("body");
 		if(StringUtils.isNotBlank(parsingResults)) {
 
 			try {
@@ -0,0 +1,213 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.common.connector.cache;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
+import edu.upf.taln.dri.lib.util.PropertyManager;
+
+/**
+ * Cache of the responses of the remote services queried by the connectors (Bibsonomy, Google Scholar, etc.), shared
+ * by all the modules that rely on them (bibliographic entries parser, header analyzer).<br/>
+ * By default responses are persisted in the folder cache/connectors of the DRI resource folder and expire after
+ * {@value #DEFAULT_TTL_DAYS} days; at most {@value edu.upf.taln.dri.common.connector.cache.FileResponseCache#DEFAULT_MAX_ENTRIES} responses are kept.
+ * The folder, the time to live and the maximum number of responses can be set in the DRI property file by the properties
+ * {@value #cacheFolder_fullPath}, {@value #cacheTTL_days} and {@value #cacheMaxEntries}; the cache can be replaced or disabled by 
+ * {@link #setCache(ResponseCache) setCache(ResponseCache)}.<br/>
+ * Identical requests to a service issued concurrently by different threads are coalesced into a single one by
+ * {@link #fetch(String, String, Supplier) fetch(String, String, Supplier)}.<br/>
+ * Hits and misses of each service are reported by the {@link edu.upf.taln.dri.common.metrics.MetricsRegistry MetricsRegistry}
+ * (cache name: service name + " cache"; coalesced requests: service name + " in-flight").
+ *
+ *
+ */
+public class ConnectorCache {
+
+	private static Logger logger = Logger.getLogger(ConnectorCache.class);
+
+	public static final String cacheFolder_fullPath = "connector.cache.fullPath";
+	public static final String cacheTTL_days = "connector.cache.ttlDays";
+	public static final String cacheMaxEntries = "connector.cache.maxEntries";
+	public static final int DEFAULT_TTL_DAYS = 30;
+
+	private static ResponseCache cache = null;
+	private static boolean initialized = false;
+
+	private static final Map<String, RequestCoalescer<String>> coalescers = new ConcurrentHashMap<String, RequestCoalescer<String>>();
+
+	/**
+	 * Set the cache of the responses of the connectors
+	 *
+	 * @param responseCache if null, responses are not cached
+	 */
+	public static synchronized void setCache(ResponseCache responseCache) {
+		cache = responseCache;
+		initialized = true;
+	}
+
+	/**
+	 * Get the cache of the responses of the connectors, creating the default persistent cache the first time
+	 *
+	 * @return null if responses are not cached
+	 */
+	public static synchronized ResponseCache getCache() {
+		if(!initialized) {
+			initialized = true;
+			try {
+				cache = createDefaultCache();
+			} catch (Exception e) {
+				logger.warn("Responses of remote services not cached: " + e.getMessage());
+				cache = null;
+			}
+		}
+		return cache;
+	}
+
+	private static ResponseCache createDefaultCache() {
+		String cacheFolderPath = PropertyManager.getProperty(cacheFolder_fullPath);
+		if(StringUtils.isBlank(cacheFolderPath)) {
+			String resourceFolderPath = PropertyManager.getProperty(PropertyManager.resourceFolder_fullPath);
+			if(StringUtils.isBlank(resourceFolderPath) || !(new File(resourceFolderPath)).isDirectory()) {
+				logger.warn("Responses of remote services not cached: the DRI resource folder is not defined.");
+				return null;
+			}
+			cacheFolderPath = resourceFolderPath + File.separator + "cache" + File.separator + "connectors";
+		}
+
+		long ttlDays = DEFAULT_TTL_DAYS;
+		String ttlDaysStr = PropertyManager.getProperty(cacheTTL_days);
+		if(StringUtils.isNotBlank(ttlDaysStr)) {
+			try {
+				ttlDays = Long.parseLong(ttlDaysStr.trim());
+			} catch (NumberFormatException e) {
+				logger.warn("Invalid value of the property " + cacheTTL_days + ": " + ttlDaysStr + " - using " + DEFAULT_TTL_DAYS + " days.");
+			}
+		}
+
+		int maxEntries = FileResponseCache.DEFAULT_MAX_ENTRIES;
+		String maxEntriesStr = PropertyManager.getProperty(cacheMaxEntries);
+		if(StringUtils.isNotBlank(maxEntriesStr)) {
+			try {
+				maxEntries = Integer.parseInt(maxEntriesStr.trim());
+			} catch (NumberFormatException e) {
+				logger.warn("Invalid value of the property " + cacheMaxEntries + ": " + maxEntriesStr + " - using " + FileResponseCache.DEFAULT_MAX_ENTRIES + " responses.");
+			}
+		}
+
+		logger.info("Caching responses of remote services in " + cacheFolderPath + " (time to live: " + ttlDays + " days, max responses: " + maxEntries + ").");
+		return new FileResponseCache(new File(cacheFolderPath), ttlDays * 24l * 3600l * 1000l, maxEntries);
+	}
+
+	/**
+	 * Get the cached response of a service to a query, recording a hit or a miss
+	 *
+	 * @param service
+	 * @param query the normalized query (see {@link #normalizeQuery(String) normalizeQuery(String)})
+	 * @return null if the response is not cached
+	 */
+	public static String get(String service, String query) {
+		ResponseCache currentCache = getCache();
+		if(currentCache == null || StringUtils.isBlank(query)) {
+			return null;
+		}
+
+		String response = null;
+		try {
+			response = currentCache.get(service, query);
+		} catch (Exception e) {
+			logger.warn("Error reading " + service + " cached response: " + e.getMessage());
+		}
+
+		if(response != null) {
+			MetricsRegistry.getInstance().getCacheMetrics(service + " cache").recordHit();
+			logger.debug(service + " response retrieved from cache: " + query);
+		}
+		else {
+			MetricsRegistry.getInstance().getCacheMetrics(service + " cache").recordMiss();
+		}
+
+		return response;
+	}
+
+	/**
+	 * Store the response of a service to a query. Only valid responses should be stored (not errors).
+	 *
+	 * @param service
+	 * @param query the normalized query (see {@link #normalizeQuery(String) normalizeQuery(String)})
+	 * @param response
+	 */
+	public static void put(String service, String query, String response) {
+		ResponseCache currentCache = getCache();
+		if(currentCache == null || StringUtils.isBlank(query) || response == null) {
+			return;
+		}
+
+		try {
+			currentCache.put(service, query, response);
+			MetricsRegistry.getInstance().getCacheMetrics(service + " cache").recordPut();
+		} catch (Exception e) {
+			logger.warn("Error caching " + service + " response: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Get the response of a service to a query: if not cached, the request is executed and its response cached.<br/>
+	 * If the same query to the same service is already in flight, the request is not executed again: the response of
+	 * the in-flight request is returned.
+	 *
+	 * @param service
+	 * @param query the normalized query (see {@link #normalizeQuery(String) normalizeQuery(String)})
+	 * @param request invokes the service, returning null if the response is not valid (not cached)
+	 * @return the response, null if not valid
+	 */
+	public static String fetch(String service, String query, Supplier<String> request) {
+		if(StringUtils.isBlank(query)) {
+			return request.get();
+		}
+
+		String response = get(service, query);
+		if(response != null) {
+			return response;
+		}
+
+		RequestCoalescer<String> coalescer = coalescers.computeIfAbsent(service, (serviceName) -> new RequestCoalescer<String>(serviceName + " in-flight"));
+		return coalescer.execute(query, () -> {
+			String remoteResponse = request.get();
+			if(remoteResponse != null) {
+				put(service, query, remoteResponse);
+			}
+			return remoteResponse;
+		});
+	}
+
+	/**
+	 * Normalize a textual query (bibliographic entry, title, etc.) to be used as cache key: lower-cased,
+	 * with sequences of white spaces replaced by a single space and trimmed
+	 *
+	 * @param query
+	 * @return
+	 */
+	public static String normalizeQuery(String query) {
+		if(query == null) {
+			return null;
+		}
+		return query.replaceAll("\\s+", " ").trim().toLowerCase();
+	}
+
+}
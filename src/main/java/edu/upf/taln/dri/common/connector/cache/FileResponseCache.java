@@ -0,0 +1,282 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.common.connector.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.log4j.Logger;
+
+/**
+ * Persistent {@link edu.upf.taln.dri.common.connector.cache.ResponseCache ResponseCache}: each response is stored in a file of
+ * the cache folder, named by the SHA-256 hash of the query (cacheFolder/service/first two chars of the hash/hash).<br/>
+ * Each file contains the time the response has been stored, the query and the response. Responses older than the time to live
+ * are ignored and deleted when accessed. Files are written to a temporary file and then moved, thus concurrent readers
+ * (also of other processes sharing the same folder) never see partially written responses.<br/>
+ * The number of responses stored in the cache folder (all services) is bounded: once in a while (at the first response stored 
+ * and then every tenth of the maximum number of entries stored) the cache folder is swept, deleting the expired responses and then, 
+ * if the responses are still more than the maximum number of entries, the oldest ones.
+ *
+ *
+ */
+public class FileResponseCache implements ResponseCache {
+
+	private static Logger logger = Logger.getLogger(FileResponseCache.class);
+
+	public static final int DEFAULT_MAX_ENTRIES = 50000;
+
+	private final File cacheFolder;
+	private final long timeToLiveMs;
+	private final int maxEntries;
+	private final int sweepInterval;
+
+	// Responses stored since the last sweep of the cache folder (the first response stored starts a sweep)
+	private final AtomicInteger putsSinceSweep;
+	private final AtomicBoolean sweeping = new AtomicBoolean(false);
+
+	/**
+	 * Create a cache that stores at most {@value #DEFAULT_MAX_ENTRIES} responses in the folder provided
+	 *
+	 * @param cacheFolder created if it does not exist
+	 * @param timeToLiveMs time to live of the responses in milliseconds (if lower than or equal to 0, responses never expire)
+	 */
+	public FileResponseCache(File cacheFolder, long timeToLiveMs) {
+		this(cacheFolder, timeToLiveMs, DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * Create a cache that stores responses in the folder provided
+	 *
+	 * @param cacheFolder created if it does not exist
+	 * @param timeToLiveMs time to live of the responses in milliseconds (if lower than or equal to 0, responses never expire)
+	 * @param maxEntries maximum number of responses stored (if lower than or equal to 0, the number of responses is not bounded)
+	 */
+	public FileResponseCache(File cacheFolder, long timeToLiveMs, int maxEntries) {
+		this.cacheFolder = cacheFolder;
+		this.timeToLiveMs = timeToLiveMs;
+		this.maxEntries = maxEntries;
+		this.sweepInterval = Math.max(maxEntries / 10, 1);
+		this.putsSinceSweep = new AtomicInteger(this.sweepInterval);
+
+		if(!cacheFolder.exists() && !cacheFolder.mkdirs()) {
+			logger.warn("Impossible to create the response cache folder " + cacheFolder.getAbsolutePath());
+		}
+	}
+
+	public File getCacheFolder() {
+		return cacheFolder;
+	}
+
+	public long getTimeToLiveMs() {
+		return timeToLiveMs;
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	@Override
+	public String get(String service, String query) {
+		if(service == null || query == null) {
+			return null;
+		}
+
+		Path entryPath = getEntryFile(service, query).toPath();
+		try {
+			String entry = new String(Files.readAllBytes(entryPath), StandardCharsets.UTF_8);
+
+			// Entry format: timestamp \n query \n response
+			int timestampEnd = entry.indexOf('\n');
+			int queryEnd = (timestampEnd >= 0) ? entry.indexOf('\n', timestampEnd + 1) : -1;
+			if(queryEnd < 0) {
+				Files.deleteIfExists(entryPath);
+				return null;
+			}
+
+			long timestamp = Long.parseLong(entry.substring(0, timestampEnd));
+			if(timeToLiveMs > 0l && System.currentTimeMillis() - timestamp > timeToLiveMs) {
+				Files.deleteIfExists(entryPath);
+				return null;
+			}
+
+			// Check the query to exclude hash collisions
+			if(!entry.substring(timestampEnd + 1, queryEnd).equals(escapeQuery(query))) {
+				return null;
+			}
+
+			return entry.substring(queryEnd + 1);
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException | NumberFormatException e) {
+			logger.warn("Error reading " + service + " cached response from " + entryPath + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	@Override
+	public void put(String service, String query, String response) {
+		if(service == null || query == null || response == null) {
+			return;
+		}
+
+		File entryFile = getEntryFile(service, query);
+		Path tempPath = null;
+		try {
+			File entryFolder = entryFile.getParentFile();
+			if(!entryFolder.exists()) {
+				entryFolder.mkdirs();
+			}
+
+			String entry = System.currentTimeMillis() + "\n" + escapeQuery(query) + "\n" + response;
+			tempPath = Files.createTempFile(entryFolder.toPath(), entryFile.getName(), ".tmp");
+			Files.write(tempPath, entry.getBytes(StandardCharsets.UTF_8));
+			Files.move(tempPath, entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			logger.warn("Error caching " + service + " response to " + entryFile.getAbsolutePath() + ": " + e.getMessage());
+			if(tempPath != null) {
+				try {
+					Files.deleteIfExists(tempPath);
+				} catch (IOException exc) {
+					/* Do nothing */
+				}
+			}
+		}
+
+		sweepIfNeeded();
+	}
+
+	/**
+	 * Sweep the cache folder, if enough responses have been stored since the last sweep and no other thread is sweeping it
+	 */
+	private void sweepIfNeeded() {
+		if(maxEntries <= 0 && timeToLiveMs <= 0l) {
+			return;
+		}
+
+		if(putsSinceSweep.incrementAndGet() < sweepInterval || !sweeping.compareAndSet(false, true)) {
+			return;
+		}
+
+		try {
+			putsSinceSweep.set(0);
+			sweep();
+		} finally {
+			sweeping.set(false);
+		}
+	}
+
+	/**
+	 * Delete the expired responses of the cache folder (by the last modification time of their files), then the oldest ones
+	 * if the responses are more than the maximum number of entries
+	 */
+	private void sweep() {
+		List<Path> entryPaths = null;
+		try (Stream<Path> cachedFiles = Files.walk(cacheFolder.toPath())) {
+			entryPaths = cachedFiles.filter((cachedFile) -> Files.isRegularFile(cachedFile) && !cachedFile.getFileName().toString().endsWith(".tmp")).collect(Collectors.toList());
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Error sweeping the response cache folder " + cacheFolder.getAbsolutePath() + ": " + e.getMessage());
+			return;
+		}
+
+		long now = System.currentTimeMillis();
+		List<Path> validEntryPaths = new ArrayList<Path>();
+		List<Long> validEntryTimes = new ArrayList<Long>();
+		int deletedCount = 0;
+		for(Path entryPath : entryPaths) {
+			try {
+				long lastModified = Files.getLastModifiedTime(entryPath).toMillis();
+				if(timeToLiveMs > 0l && now - lastModified > timeToLiveMs) {
+					Files.deleteIfExists(entryPath);
+					deletedCount++;
+				}
+				else {
+					validEntryPaths.add(entryPath);
+					validEntryTimes.add(lastModified);
+				}
+			} catch (IOException e) {
+				/* Deleted meanwhile */
+			}
+		}
+
+		if(maxEntries > 0 && validEntryPaths.size() > maxEntries) {
+			List<Integer> entryIndexes = new ArrayList<Integer>();
+			for(int i = 0; i < validEntryPaths.size(); i++) {
+				entryIndexes.add(i);
+			}
+			entryIndexes.sort(Comparator.comparing(validEntryTimes::get));
+
+			for(int i = 0; i < validEntryPaths.size() - maxEntries; i++) {
+				try {
+					Files.deleteIfExists(validEntryPaths.get(entryIndexes.get(i)));
+					deletedCount++;
+				} catch (IOException e) {
+					logger.warn("Error deleting cached response " + validEntryPaths.get(entryIndexes.get(i)) + ": " + e.getMessage());
+				}
+			}
+		}
+
+		if(deletedCount > 0) {
+			logger.debug("Response cache folder " + cacheFolder.getAbsolutePath() + " swept: " + deletedCount + " responses deleted.");
+		}
+	}
+
+	@Override
+	public void clear(String service) {
+		if(service == null) {
+			return;
+		}
+
+		Path serviceFolder = new File(cacheFolder, getServiceFolderName(service)).toPath();
+		if(!Files.exists(serviceFolder)) {
+			return;
+		}
+
+		try (Stream<Path> cachedFiles = Files.walk(serviceFolder)) {
+			cachedFiles.sorted(Comparator.reverseOrder()).forEach((cachedFile) -> {
+				try {
+					Files.deleteIfExists(cachedFile);
+				} catch (IOException e) {
+					logger.warn("Error deleting cached response " + cachedFile + ": " + e.getMessage());
+				}
+			});
+		} catch (IOException e) {
+			logger.warn("Error clearing " + service + " cached responses: " + e.getMessage());
+		}
+	}
+
+	private File getEntryFile(String service, String query) {
+		String queryHash = DigestUtils.sha256Hex(query);
+		return new File(new File(new File(cacheFolder, getServiceFolderName(service)), queryHash.substring(0, 2)), queryHash);
+	}
+
+	private static String getServiceFolderName(String service) {
+		return service.replaceAll("[^A-Za-z0-9_\\-]", "_");
+	}
+
+	private static String escapeQuery(String query) {
+		return query.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.common.connector.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
+
+/**
+ * Coalescing of identical requests: while a request with a given key is in flight, the threads that issue a request with
+ * the same key do not execute it, but wait for the in-flight one and share its result.<br/>
+ * Once the in-flight request completes its key is released, thus results are not retained: combine with a
+ * {@link edu.upf.taln.dri.common.connector.cache.ResponseCache ResponseCache} to reuse them later.<br/>
+ * Coalesced requests are reported by the {@link edu.upf.taln.dri.common.metrics.MetricsRegistry MetricsRegistry} as
+ * hits of the cache with the name of the coalescer, requests actually executed as misses.
+ *
+ * @param <T> type of the result of the requests
+ *
+ *
+ */
+public class RequestCoalescer<T> {
+
+	private final String name;
+	private final ConcurrentHashMap<String, CompletableFuture<T>> inFlightRequests = new ConcurrentHashMap<String, CompletableFuture<T>>();
+
+	/**
+	 * Create a request coalescer
+	 *
+	 * @param name name of the coalescer, used to report metrics
+	 */
+	public RequestCoalescer(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Execute the request, unless a request with the same key is in flight: in this case wait for its completion
+	 * and return its result
+	 *
+	 * @param key the key of the request (if null the request is always executed)
+	 * @param request
+	 * @return the result of the request
+	 * @throws RuntimeException the exception thrown by the request (also to the threads that waited for it)
+	 */
+	public T execute(String key, Supplier<T> request) {
+		if(key == null) {
+			return request.get();
+		}
+
+		CompletableFuture<T> requestFuture = new CompletableFuture<T>();
+		CompletableFuture<T> inFlightFuture = inFlightRequests.putIfAbsent(key, requestFuture);
+		if(inFlightFuture != null) {
+			MetricsRegistry.getInstance().getCacheMetrics(name).recordHit();
+			try {
+				return inFlightFuture.join();
+			} catch (CompletionException e) {
+				if(e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw e;
+			}
+		}
+
+		MetricsRegistry.getInstance().getCacheMetrics(name).recordMiss();
+		try {
+			T result = request.get();
+			requestFuture.complete(result);
+			return result;
+		} catch (RuntimeException e) {
+			requestFuture.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlightRequests.remove(key, requestFuture);
+		}
+	}
+
+	/**
+	 * Number of requests currently in flight
+	 *
+	 * @return
+	 */
+	public int getInFlightCount() {
+		return inFlightRequests.size();
+	}
+
+}
@@ -0,0 +1,48 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.common.connector.cache;
+
+/**
+ * Cache of the responses of remote services, keyed by service name and (normalized) query.<br/>
+ * Implementations have to be thread-safe. Set the cache used by the connectors by
+ * {@link edu.upf.taln.dri.common.connector.cache.ConnectorCache#setCache(ResponseCache) ConnectorCache.setCache(ResponseCache)}.
+ *
+ *
+ */
+public interface ResponseCache {
+
+	/**
+	 * Get the cached response of a service to a query
+	 *
+	 * @param service
+	 * @param query
+	 * @return null if the response is not cached or expired
+	 */
+	public String get(String service, String query);
+
+	/**
+	 * Store the response of a service to a query
+	 *
+	 * @param service
+	 * @param query
+	 * @param response
+	 */
+	public void put(String service, String query, String response);
+
+	/**
+	 * Delete all the cached responses of a service
+	 *
+	 * @param service
+	 */
+	public void clear(String service);
+
+}
@@ -53,6 +53,7 @@ import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 import edu.upf.taln.dri.common.connector.freecite.model.FreeCiteResult;
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
 import edu.upf.taln.dri.common.util.Util;
 
 /**
@@ -187,11 +188,14 @@ public class FreeCiteConn {
 			long startTime = System.currentTimeMillis();
 			response = httpClient.execute(post, responseHandler);
 			long endTime = System.currentTimeMillis();
+			MetricsRegistry.getInstance().getConnectorMetrics("FreeCite").record((endTime - startTime) * 1000000l);
 			logger.debug("FreeCite bibliographic entry processed in " + (endTime - startTime)  + " milliseconds with response Code : " + response.get("status"));
 		} catch (ClientProtocolException e) {
 			logger.error("FreeCite processing exception / client protocol " + e.getMessage());
+			MetricsRegistry.getInstance().getConnectorMetrics("FreeCite").recordError();
 		} catch (Exception e) {
 			logger.error("FreeCite processing exception / Exception " + e.getMessage());
+			MetricsRegistry.getInstance().getConnectorMetrics("FreeCite").recordError();
 		}
 
 		List<FreeCiteResult> citationList = new ArrayList<FreeCiteResult>();
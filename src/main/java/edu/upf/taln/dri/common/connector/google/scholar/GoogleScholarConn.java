@@ -31,6 +31,7 @@ import org.apache.http.HeaderElementIterator;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.CookieStore;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.protocol.HttpClientContext;
@@ -56,7 +57,10 @@ import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
+import edu.upf.taln.dri.common.connector.cache.ConnectorCache;
 import edu.upf.taln.dri.common.connector.google.scholar.model.GoogleScholarResult;
+import edu.upf.taln.dri.common.connector.guard.ServiceGuard;
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
 import edu.upf.taln.dri.common.util.Util;
 
 /**
@@ -76,6 +80,13 @@ public class GoogleScholarConn {
 	// Wait time after a query
 	public static Integer maxSleepTimeInSec = 1;
 
+	// Markers (lower-cased) of the pages Google Scholar returns with HTTP status code 200 when it blocks the queries 
+	// (captcha, unusual traffic): these pages are not valid responses, thus they are not cached
+	private static final String[] blockedResponseMarkers = new String[] {"gs_captcha", "g-recaptcha", "detected unusual traffic", "/sorry/index"};
+
+	// Rate limiter, circuit breaker and adaptive timeout of the requests to Google Scholar
+	private static final ServiceGuard guard = ServiceGuard.getGuard("GoogleScholar").setRateLimit(1d, 1);
+
 	// Proxy usage parameters
 	public static boolean useProxy = false;
 	public static String proxyScheme = "http";
@@ -597,12 +608,55 @@ public class GoogleScholarConn {
 
 	private static String performQuery(URI queryURI) {
 
+		// Cluster ids and query parameters are case sensitive: the URI is not normalized.
+		// Concurrent identical queries are coalesced into a single request.
+		String cacheKey = (queryURI != null) ? queryURI.toASCIIString() : null;
+		return ConnectorCache.fetch("GoogleScholar", cacheKey, () -> performRemoteQuery(queryURI));
+	}
+
+	/**
+	 * Check if a page returned by Google Scholar is a captcha or unusual traffic page, returned when queries are blocked
+	 * 
+	 * @param response
+	 * @return
+	 */
+	private static boolean isBlockedResponse(String response) {
+		if(response == null) {
+			return false;
+		}
+
+		String lowerCaseResponse = response.toLowerCase();
+		for(String blockedResponseMarker : blockedResponseMarkers) {
+			if(lowerCaseResponse.contains(blockedResponseMarker)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Send the query to Google Scholar, then pause before the next query
+	 * 
+	 * @param queryURI
+	 * @return null if the query failed, the HTTP status code is not 200 or Google Scholar returned a captcha or unusual traffic page
+	 */
+	private static String performRemoteQuery(URI queryURI) {
+
+		if(!guard.tryAcquire()) {
+			logger.warn("Google Scholar request rejected (circuit " + guard.getCircuitState() + ")");
+			return null;
+		}
+
 		String queryResult = null;
-		
+		boolean validResponse = false;
 		HttpGet httpGetCite = null;
 		CloseableHttpResponse responseGet = null;
 		try {
 			httpGetCite = new HttpGet(queryURI);
+			httpGetCite.setConfig(RequestConfig.custom()
+					.setConnectTimeout(15 * 1000)
+					.setConnectionRequestTimeout(15 * 1000)
+					.setSocketTimeout(guard.getTimeoutMs(30 * 1000)).build());
 
 			httpGetCite.setHeader("user-agent", "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/42.0.2311.135 Safari/537.36");
 			httpGetCite.setHeader("accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8");
@@ -610,17 +664,36 @@ public class GoogleScholarConn {
 			httpGetCite.setHeader("cache-control", "max-age=0");
 			
 			try {
+				long startTime = System.currentTimeMillis();
 				responseGet = httpClient.execute(httpGetCite, httpContext);
+				long latencyMs = System.currentTimeMillis() - startTime;
+				MetricsRegistry.getInstance().getConnectorMetrics("GoogleScholar").record(latencyMs * 1000000l);
 
 				org.apache.http.StatusLine status = responseGet.getStatusLine();
+				if(ServiceGuard.isServiceFailure(status.getStatusCode())) {
+					guard.recordFailure();
+				}
+				else {
+					guard.recordSuccess(latencyMs);
+				}
 				if (status.getStatusCode() != 200) {
 					logger.warn("Failed Google Scholar Query - HTTP Status code: " + httpGetCite.getURI());
 				}
+				else {
+					validResponse = true;
+				}
 				
 				HttpEntity entity = responseGet.getEntity();
 				queryResult = EntityUtils.toString(entity, "UTF-8");
+
+				if(validResponse && isBlockedResponse(queryResult)) {
+					logger.warn("Failed Google Scholar Query - captcha or unusual traffic page returned: " + httpGetCite.getURI());
+					validResponse = false;
+				}
 				
 			} catch (IOException e) {
+				MetricsRegistry.getInstance().getConnectorMetrics("GoogleScholar").recordError();
+				guard.recordFailure();
 				Util.notifyException("Invoking service (proxy: " + useProxy + ")", e, logger);
 			} finally {
 				try {
@@ -631,6 +704,11 @@ public class GoogleScholarConn {
 				}
 			}
 			
+		} catch (RuntimeException e) {
+			// Record the failure, otherwise the half-open circuit would never release the probe request
+			MetricsRegistry.getInstance().getConnectorMetrics("GoogleScholar").recordError();
+			guard.recordFailure();
+			Util.notifyException("Invoking service (proxy: " + useProxy + ")", e, logger);
 		}
 		finally {
 			try {
@@ -647,7 +725,7 @@ public class GoogleScholarConn {
 			Util.notifyException("Sleep between two consecutive calls (proxy: " + useProxy + ")", e, logger);
 		}
 
-		return queryResult;
+		return (validResponse) ? queryResult : null;
 	}
 
 	private static String sanitizeTitle(String searchTitle) {
@@ -0,0 +1,24 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.common.connector.guard;
+
+/**
+ * State of the circuit breaker of a {@link edu.upf.taln.dri.common.connector.guard.ServiceGuard ServiceGuard}:<br/>
+ * - CLOSED: requests are sent to the service;<br/>
+ * - OPEN: the service failed repeatedly, requests fail immediately without being sent;<br/>
+ * - HALF_OPEN: a single probe request is sent to check if the service has recovered.
+ *
+ *
+ */
+public enum CircuitStateENUM {
+	CLOSED, OPEN, HALF_OPEN;
+}
@@ -0,0 +1,373 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.common.connector.guard;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
+
+/**
+ * Client-side protection of the requests sent to a remote service, shared by all the threads that invoke the service:<br/>
+ * - <b>rate limiter</b> (token bucket): at most {@link #getPermitsPerSecond() permits per second} requests, with bursts up to
+ * {@link #getBurstSize() burst size} requests; a request that would have to wait more than {@link #getMaxRateWaitMs() max rate wait}
+ * milliseconds is rejected;<br/>
+ * - <b>circuit breaker</b>: after {@link #getFailureThreshold() failure threshold} consecutive failures the circuit opens and
+ * all the requests are rejected immediately for {@link #getOpenStateMs() open state} milliseconds, then a single probe request
+ * is let through: if it succeeds the circuit closes, otherwise it opens again;<br/>
+ * - <b>adaptive timeout</b>: the timeout to apply to a request is derived from the latencies of the latest successful requests
+ * (smoothed mean plus four times the smoothed deviation), bounded by the minimum timeout and the configured one.<br/><br/>
+ * 
+ * Usage by a connector:
+ * <pre>
+ * ServiceGuard guard = ServiceGuard.getGuard("MyService");
+ * if(!guard.tryAcquire()) {
+ *    return null; // Fast fail
+ * }
+ * int timeoutMs = guard.getTimeoutMs(30000);
+ * ... send request ...
+ * guard.recordSuccess(latencyMs); // or guard.recordFailure();
+ * </pre>
+ * Guards are registered in the {@link edu.upf.taln.dri.common.metrics.MetricsRegistry MetricsRegistry} with the name
+ * service name + " guard".
+ *
+ *
+ */
+public class ServiceGuard {
+
+	private static Logger logger = Logger.getLogger(ServiceGuard.class);
+
+	private static final Map<String, ServiceGuard> guards = new ConcurrentHashMap<String, ServiceGuard>();
+
+	// Minimum number of latency samples to adapt the timeout
+	private static final int MIN_LATENCY_SAMPLES = 10;
+
+	private final String serviceName;
+
+	// Rate limiter
+	private double permitsPerSecond = 0d;
+	private int burstSize = 1;
+	private long maxRateWaitMs = 60000l;
+	private double availablePermits = 1d;
+	private long lastRefillNanos = System.nanoTime();
+
+	// Circuit breaker
+	private int failureThreshold = 5;
+	private long openStateMs = 30000l;
+	private CircuitStateENUM circuitState = CircuitStateENUM.CLOSED;
+	private int consecutiveFailures = 0;
+	private long openUntilMs = 0l;
+	private boolean probeInFlight = false;
+
+	// Adaptive timeout
+	private long minTimeoutMs = 2000l;
+	private double smoothedLatencyMs = 0d;
+	private double smoothedDeviationMs = 0d;
+	private long latencySamples = 0l;
+
+	// Counters
+	private final AtomicLong admittedCount = new AtomicLong(0l);
+	private final AtomicLong rejectedCount = new AtomicLong(0l);
+	private final AtomicLong failureCount = new AtomicLong(0l);
+
+	private ServiceGuard(String serviceName) {
+		this.serviceName = serviceName;
+	}
+
+	/**
+	 * Get the guard of a service, creating it (without rate limit) if it does not exist
+	 * 
+	 * @param serviceName
+	 * @return
+	 */
+	public static ServiceGuard getGuard(String serviceName) {
+		return guards.computeIfAbsent(serviceName, (name) -> {
+			ServiceGuard guard = new ServiceGuard(name);
+			MetricsRegistry.getInstance().registerServiceGuard(guard);
+			return guard;
+		});
+	}
+
+	/**
+	 * Set the rate limit of the requests
+	 * 
+	 * @param permitsPerSecond maximum number of requests per second (if lower than or equal to 0, the rate is not limited)
+	 * @param burstSize maximum number of requests that can be sent at once after an idle period (at least 1)
+	 * @return
+	 */
+	public synchronized ServiceGuard setRateLimit(double permitsPerSecond, int burstSize) {
+		this.permitsPerSecond = permitsPerSecond;
+		this.burstSize = (burstSize > 0) ? burstSize : 1;
+		this.availablePermits = this.burstSize;
+		this.lastRefillNanos = System.nanoTime();
+		return this;
+	}
+
+	/**
+	 * Set the maximum time a request waits for a permit of the rate limiter before being rejected
+	 * 
+	 * @param maxRateWaitMs
+	 * @return
+	 */
+	public synchronized ServiceGuard setMaxRateWaitMs(long maxRateWaitMs) {
+		this.maxRateWaitMs = (maxRateWaitMs >= 0l) ? maxRateWaitMs : 0l;
+		return this;
+	}
+
+	/**
+	 * Set the parameters of the circuit breaker
+	 * 
+	 * @param failureThreshold number of consecutive failures that opens the circuit (if lower than or equal to 0, the circuit never opens)
+	 * @param openStateMs milliseconds the circuit stays open before a probe request is let through
+	 * @return
+	 */
+	public synchronized ServiceGuard setCircuitBreaker(int failureThreshold, long openStateMs) {
+		this.failureThreshold = failureThreshold;
+		this.openStateMs = (openStateMs > 0l) ? openStateMs : 0l;
+		return this;
+	}
+
+	/**
+	 * Set the lower bound of the adaptive timeout
+	 * 
+	 * @param minTimeoutMs
+	 * @return
+	 */
+	public synchronized ServiceGuard setMinTimeoutMs(long minTimeoutMs) {
+		this.minTimeoutMs = (minTimeoutMs > 0l) ? minTimeoutMs : 1l;
+		return this;
+	}
+
+	/**
+	 * Check if a request can be sent to the service: if the circuit is open or the rate limiter would make the request
+	 * wait too long, the request is rejected; otherwise, if needed, wait until the rate limiter grants a permit.<br/>
+	 * When true is returned, the outcome of the request has to be notified by {@link #recordSuccess(long) recordSuccess(long)}
+	 * or {@link #recordFailure() recordFailure()}.
+	 * 
+	 * @return true if the request can be sent
+	 */
+	public boolean tryAcquire() {
+		long waitNanos = 0l;
+
+		synchronized(this) {
+			// Circuit breaker
+			if(circuitState == CircuitStateENUM.OPEN) {
+				if(System.currentTimeMillis() < openUntilMs) {
+					rejectedCount.incrementAndGet();
+					return false;
+				}
+				circuitState = CircuitStateENUM.HALF_OPEN;
+				probeInFlight = false;
+			}
+
+			if(circuitState == CircuitStateENUM.HALF_OPEN) {
+				if(probeInFlight) {
+					rejectedCount.incrementAndGet();
+					return false;
+				}
+				probeInFlight = true;
+				logger.info(serviceName + " circuit half-open: sending a probe request.");
+			}
+
+			// Rate limiter: reserve a permit, computing the time to wait for it
+			if(permitsPerSecond > 0d) {
+				long now = System.nanoTime();
+				availablePermits = Math.min(burstSize, availablePermits + ((double) (now - lastRefillNanos)) * permitsPerSecond / 1000000000d);
+				lastRefillNanos = now;
+				availablePermits -= 1d;
+				if(availablePermits < 0d) {
+					waitNanos = (long) (-availablePermits * 1000000000d / permitsPerSecond);
+					if(waitNanos > maxRateWaitMs * 1000000l) {
+						availablePermits += 1d;
+						if(circuitState == CircuitStateENUM.HALF_OPEN) {
+							probeInFlight = false;
+						}
+						rejectedCount.incrementAndGet();
+						return false;
+					}
+				}
+			}
+		}
+
+		if(waitNanos > 0l) {
+			try {
+				Thread.sleep(waitNanos / 1000000l, (int) (waitNanos % 1000000l));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				synchronized(this) {
+					if(circuitState == CircuitStateENUM.HALF_OPEN) {
+						probeInFlight = false;
+					}
+				}
+				rejectedCount.incrementAndGet();
+				return false;
+			}
+		}
+
+		admittedCount.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Notify the success of a request, with its latency
+	 * 
+	 * @param latencyMs
+	 */
+	public synchronized void recordSuccess(long latencyMs) {
+		consecutiveFailures = 0;
+		if(circuitState != CircuitStateENUM.CLOSED) {
+			logger.info(serviceName + " circuit closed: the service has recovered.");
+		}
+		circuitState = CircuitStateENUM.CLOSED;
+		probeInFlight = false;
+
+		// Smoothed latency and deviation, as for the TCP retransmission timeout (RFC 6298)
+		double latency = (latencyMs > 0l) ? latencyMs : 0d;
+		if(latencySamples == 0l) {
+			smoothedLatencyMs = latency;
+			smoothedDeviationMs = latency / 2d;
+		}
+		else {
+			smoothedDeviationMs = 0.75d * smoothedDeviationMs + 0.25d * Math.abs(smoothedLatencyMs - latency);
+			smoothedLatencyMs = 0.875d * smoothedLatencyMs + 0.125d * latency;
+		}
+		latencySamples++;
+	}
+
+	/**
+	 * Notify the failure of a request (timeout, connection error, server error or throttling response)
+	 */
+	public synchronized void recordFailure() {
+		failureCount.incrementAndGet();
+		consecutiveFailures++;
+
+		if(circuitState == CircuitStateENUM.HALF_OPEN || (failureThreshold > 0 && consecutiveFailures >= failureThreshold)) {
+			if(circuitState != CircuitStateENUM.OPEN) {
+				logger.warn(serviceName + " circuit open after " + consecutiveFailures + " consecutive failure(s): requests rejected for " + openStateMs + " ms.");
+			}
+			circuitState = CircuitStateENUM.OPEN;
+			openUntilMs = System.currentTimeMillis() + openStateMs;
+			probeInFlight = false;
+		}
+	}
+
+	/**
+	 * Get the timeout to apply to the next request: until enough successful requests have been observed, the configured timeout
+	 * 
+	 * @param configuredTimeoutMs the maximum timeout
+	 * @return
+	 */
+	public synchronized int getTimeoutMs(int configuredTimeoutMs) {
+		if(latencySamples < MIN_LATENCY_SAMPLES) {
+			return configuredTimeoutMs;
+		}
+
+		long adaptiveTimeoutMs = (long) Math.ceil(smoothedLatencyMs + 4d * smoothedDeviationMs);
+		adaptiveTimeoutMs = Math.max(adaptiveTimeoutMs, minTimeoutMs);
+		return (int) Math.min(adaptiveTimeoutMs, (long) configuredTimeoutMs);
+	}
+
+	/**
+	 * Check if the HTTP status code of a response reports a failure of the service (server error or throttling)
+	 * to notify by {@link #recordFailure() recordFailure()}
+	 * 
+	 * @param httpStatusCode
+	 * @return
+	 */
+	public static boolean isServiceFailure(int httpStatusCode) {
+		return httpStatusCode >= 500 || httpStatusCode == 429;
+	}
+
+	public String getServiceName() {
+		return serviceName;
+	}
+
+	/**
+	 * Name of the guard in the {@link edu.upf.taln.dri.common.metrics.MetricsRegistry MetricsRegistry}
+	 * 
+	 * @return
+	 */
+	public String getName() {
+		return serviceName + " guard";
+	}
+
+	public synchronized double getPermitsPerSecond() {
+		return permitsPerSecond;
+	}
+
+	public synchronized int getBurstSize() {
+		return burstSize;
+	}
+
+	public synchronized long getMaxRateWaitMs() {
+		return maxRateWaitMs;
+	}
+
+	public synchronized int getFailureThreshold() {
+		return failureThreshold;
+	}
+
+	public synchronized long getOpenStateMs() {
+		return openStateMs;
+	}
+
+	public synchronized CircuitStateENUM getCircuitState() {
+		return circuitState;
+	}
+
+	/**
+	 * Number of requests let through
+	 * 
+	 * @return
+	 */
+	public long getAdmittedCount() {
+		return admittedCount.get();
+	}
+
+	/**
+	 * Number of requests rejected (circuit open or rate limit wait too long)
+	 * 
+	 * @return
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+
+	/**
+	 * Number of failed requests
+	 * 
+	 * @return
+	 */
+	public long getFailureCount() {
+		return failureCount.get();
+	}
+
+	/**
+	 * Reset the counters (not the state of the circuit breaker and of the rate limiter)
+	 */
+	public void reset() {
+		admittedCount.set(0l);
+		rejectedCount.set(0l);
+		failureCount.set(0l);
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "ServiceGuard [name=" + getName() + ", state=" + circuitState + ", admitted=" + getAdmittedCount() + ", rejected=" + getRejectedCount()
+		+ ", failures=" + getFailureCount() + ", permitsPerSecond=" + permitsPerSecond + ", smoothedLatencyMs=" + String.format("%.2f", smoothedLatencyMs)
+		+ ", timeoutMs=" + ((latencySamples < MIN_LATENCY_SAMPLES) ? "configured" : getTimeoutMs(Integer.MAX_VALUE) + "") + "]";
+	}
+
+}
@@ -26,6 +26,7 @@ import java.util.Random;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.http.HeaderElement;
 import org.apache.http.HeaderElementIterator;
 import org.apache.http.HttpEntity;
@@ -47,8 +48,10 @@ import org.apache.http.protocol.HTTP;
 import org.apache.http.protocol.HttpContext;
 import org.apache.log4j.Logger;
 
+import edu.upf.taln.dri.common.connector.guard.ServiceGuard;
 import edu.upf.taln.dri.common.connector.pdfext.localappo.PDFEXTresult;
 import edu.upf.taln.dri.common.connector.pdfext.localappo.PDFextStatic;
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
 import edu.upf.taln.dri.common.util.Util;
 
 /**
@@ -77,6 +80,9 @@ public class PDFextConn {
 
 	private static CloseableHttpClient httpClient = null;
 
+	// Circuit breaker of the requests to the PDFext service (conversion time depends on the size of the PDF, thus the timeout is not adapted)
+	private static final ServiceGuard guard = ServiceGuard.getGuard("PDFext");
+
 	static {
 		ConnectionKeepAliveStrategy myStrategy = new ConnectionKeepAliveStrategy() {
 
@@ -279,6 +285,11 @@ public class PDFextConn {
 		HttpEntity multipart = builder.build();
 		post.setEntity(multipart);
 
+		if(!guard.tryAcquire()) {
+			logger.warn("PDFext request rejected (circuit " + guard.getCircuitState() + ")");
+			return result.append("ERROR").toString();
+		}
+
 		// Invoke PDFX service
 		String response = null;
 		try {
@@ -309,12 +320,23 @@ public class PDFextConn {
 			long startTime = System.currentTimeMillis();
 			response = httpClient.execute(post, responseHandler);
 			long endTime = System.currentTimeMillis();
+			if(response != null && response.startsWith("ERROR CODE: ") && ServiceGuard.isServiceFailure(NumberUtils.toInt(response.substring(12).trim()))) {
+				guard.recordFailure();
+			}
+			else {
+				guard.recordSuccess(endTime - startTime);
+			}
+			MetricsRegistry.getInstance().getConnectorMetrics("PDFext").record((endTime - startTime) * 1000000l);
 			logger.info("PDFext parsing request processed in " + (endTime - startTime)  + " milliseconds with response: " + 
 					((response != null) ? (response.length() > 15 ? response.substring(0, 15) : response) :"NULL") + " (sent file length: " + inputBytes.length + ")");
 		} catch (ClientProtocolException e) {
 			logger.error("PDFext processing exception / client protocol " + e.getMessage());
+			MetricsRegistry.getInstance().getConnectorMetrics("PDFext").recordError();
+			guard.recordFailure();
 		} catch (Exception e) {
 			logger.error("PDFext processing exception / Exception " + e.getMessage());
+			MetricsRegistry.getInstance().getConnectorMetrics("PDFext").recordError();
+			guard.recordFailure();
 		}
 
 		return result.append( (response != null) ? response : "ERROR" ).toString();
@@ -36,6 +36,14 @@ import org.grobid.core.utilities.*;
 import org.grobid.core.engines.Engine;
 ***************************/
 
+/**
+ * Converts the HTML generated by pdf2htmlEX from a PDF to XML.<br/>
+ * Each instance keeps the state of the conversion in progress (CSS statistics, columns, thresholds, etc.), thus
+ * an instance can be used by only one thread at a time: concurrent conversions have to use distinct instances
+ * (see the pool of parsers of {@link edu.upf.taln.dri.common.connector.pdfext.localappo.PDFextStatic PDFextStatic}).
+ *
+ *
+ */
 public class PDFEXTparser {
 
 	
@@ -46,17 +54,17 @@ public class PDFEXTparser {
 	private static Random rnd = new Random();
 	
 	
-	private static String strPattern_TITLE= ""; //  h2 ";
-	private static String strPattern_AUTHORS_AND_EMAIL=""; // h3 ";
-	private static String strPattern_ADDRESS=""; //" h4 ";
-	private static String strPattern_SECTION=" h5 "; // h5 ";
-	private static String strPattern_TEXT=" h6 "; // h6 ";
-	private static String strPattern_COPYRIGHT=""; // h7 ";
-	private static String strPattern_FOOTNOTE_INDICATOR=""; // h8 ";
-	private static String strPattern_PAGE_NUMBER=""; // ha ";
-	private static String strPattern_TABLE_HEADER=""; // hc ";
-	private static String strPattern_TABLE_ROW=""; // hd ";
-	private static String strPattern_VERBATIM_ROW=""; // hf ";
+	private String strPattern_TITLE= ""; //  h2 ";
+	private String strPattern_AUTHORS_AND_EMAIL=""; // h3 ";
+	private String strPattern_ADDRESS=""; //" h4 ";
+	private String strPattern_SECTION=" h5 "; // h5 ";
+	private String strPattern_TEXT=" h6 "; // h6 ";
+	private String strPattern_COPYRIGHT=""; // h7 ";
+	private String strPattern_FOOTNOTE_INDICATOR=""; // h8 ";
+	private String strPattern_PAGE_NUMBER=""; // ha ";
+	private String strPattern_TABLE_HEADER=""; // hc ";
+	private String strPattern_TABLE_ROW=""; // hd ";
+	private String strPattern_VERBATIM_ROW=""; // hf ";
 	
 	
 	//Kind of different elements to parse in the scientific articles
@@ -118,72 +126,72 @@ public class PDFEXTparser {
 											
 						
 	
-	private static int iteratorGlobalElements =0;
+	private int iteratorGlobalElements =0;
 	
 	
-	protected static  HyphenWordsDictionary hyphenWordsDictionaryEN;
+	protected HyphenWordsDictionary hyphenWordsDictionaryEN;
 	
-	protected static AbstractDictionary jastTagsDictionary;
-	protected static AbstractDictionary htmlArticlePartTypeColorsDictionary;
+	protected AbstractDictionary jastTagsDictionary;
+	protected AbstractDictionary htmlArticlePartTypeColorsDictionary;
 	
 	
 	
 	
-	protected static  RegexpMatcher regexpMatcher;
+	protected RegexpMatcher regexpMatcher;
 	
-	protected static Map<String,Integer> mapCountsCSSHeights;
-	protected static Map<String,Integer> mapCountsCSSFontSize;
-	protected static Map<String,Integer> mapCountsCSSFontFamily;
-	protected static Map<String,Integer> mapCountsCSSBottom;
-	protected static Map<String,Integer> mapCountsCSSLeft;
+	protected Map<String,Integer> mapCountsCSSHeights;
+	protected Map<String,Integer> mapCountsCSSFontSize;
+	protected Map<String,Integer> mapCountsCSSFontFamily;
+	protected Map<String,Integer> mapCountsCSSBottom;
+	protected Map<String,Integer> mapCountsCSSLeft;
 	
-	protected static Map<String,Double> mapValuesCSSHeights;
-	protected static Map<String,Double> mapValuesCSSFontSize;
-	protected static Map<String,Double> mapValuesCSSBottom;
-	protected static Map<String,Double> mapValuesCSSLeft;
+	protected Map<String,Double> mapValuesCSSHeights;
+	protected Map<String,Double> mapValuesCSSFontSize;
+	protected Map<String,Double> mapValuesCSSBottom;
+	protected Map<String,Double> mapValuesCSSLeft;
 	
 	
-	protected static int yAxisAverageTextDiff;
+	protected int yAxisAverageTextDiff;
 
-	protected static double firstColumnXAxisValue;
-	protected static double secondColumnXAxisValue;
+	protected double firstColumnXAxisValue;
+	protected double secondColumnXAxisValue;
 
 
-	protected static int numColumns;
+	protected int numColumns;
 
 	
-	protected static double bottomValueThresholdForTITLE;
+	protected double bottomValueThresholdForTITLE;
 	
-	protected static double minThresholdReferenceDetectByFirstLineIndent;
-	protected static double maxThresholdReferenceDetectByFirstLineIndent;
-	protected static double maxThresholdReferenceWithinLineBottomDistance;
+	protected double minThresholdReferenceDetectByFirstLineIndent;
+	protected double maxThresholdReferenceDetectByFirstLineIndent;
+	protected double maxThresholdReferenceWithinLineBottomDistance;
 	
 	
-	protected static double  maxValuePagePxPercentThresholdFilterRunningHeads;
-	protected static double  minValuePagePxPercentThresholdFilterRunningHeads;
+	protected double  maxValuePagePxPercentThresholdFilterRunningHeads;
+	protected double  minValuePagePxPercentThresholdFilterRunningHeads;
 	
-	protected static double secondLineReferenceXAxisLeftValue;
+	protected double secondLineReferenceXAxisLeftValue;
 	
-	protected static double maxThresholdXAxisToIndentReference;
+	protected double maxThresholdXAxisToIndentReference;
 	
 	
-	protected static double maxThresholdYAxisFootnoteIndex;
+	protected double maxThresholdYAxisFootnoteIndex;
 	
-	protected static double OFFSET_ColumnXAxisValue;
+	protected double OFFSET_ColumnXAxisValue;
 	
-	protected static double OFFSET_yAxisAverageTextDiff;
+	protected double OFFSET_yAxisAverageTextDiff;
 	
 	
-	protected static double maxOFFSETxAxisIndexFootnote;
+	protected double maxOFFSETxAxisIndexFootnote;
 	
 	
-	protected static double biggestYAxis_OFFSET;
-	protected static double smallestYAxis_OFFSET;
+	protected double biggestYAxis_OFFSET;
+	protected double smallestYAxis_OFFSET;
 	
 	
 	/***************************
 	//GROBID engige object
-	protected static Engine engine;
+	protected Engine engine;
 	***************************/
 	
 	
@@ -270,7 +278,7 @@ public class PDFEXTparser {
 	
 	// currently GROBID gives an execution error
 	/***************************
-	public static String extractHEADERS_GROBID(String PDFfilePath) 
+	public String extractHEADERS_GROBID(String PDFfilePath) 
 	{
 		
 		BiblioItem resHeader=null;
@@ -301,7 +309,7 @@ public class PDFEXTparser {
 	 * @param doc
 	 * @return
 	 */
-	public static PDFEXTresult parse(PDFEXTresult contentsToParse) {
+	public PDFEXTresult parse(PDFEXTresult contentsToParse) {
 		
 		String infoXMLStr="";
 		
@@ -2085,7 +2093,7 @@ public class PDFEXTparser {
 	
 	
 	
-	public static boolean checkPartOfPreviousReferenceInFirstPosColumn(Element divtag, Elements divtags2, int current_index)
+	public boolean checkPartOfPreviousReferenceInFirstPosColumn(Element divtag, Elements divtags2, int current_index)
 	{
 	
 		
@@ -2178,7 +2186,7 @@ public class PDFEXTparser {
 	// in the second line (indicating that this is a reference). 
 	
 	
-	public static boolean checkReferenceByFirstLineIndentation(Element divtag, Elements divtags,int current_index)
+	public boolean checkReferenceByFirstLineIndentation(Element divtag, Elements divtags,int current_index)
 	{
 
 		  int index=current_index+1; 
@@ -2357,7 +2365,7 @@ public class PDFEXTparser {
 
 	
 	
-	  public  static void markDivTagHTMLOutput(Element divtag, String articlePartType)
+	  public void markDivTagHTMLOutput(Element divtag, String articlePartType)
 	  {
 		  
 		  
@@ -2369,7 +2377,7 @@ public class PDFEXTparser {
 	 
 	 
 	
-	 public static String closeStateSection(StateSection currentStateSection, Boolean flagParagraphTagOpen)
+	 public String closeStateSection(StateSection currentStateSection, Boolean flagParagraphTagOpen)
 	 {
 	
 		 String strSectionsClosing="";
@@ -2408,7 +2416,7 @@ public class PDFEXTparser {
 	 
 	 
 	 
-	 public static String closeStateAnnexes(StateAnnexes currentStateAnnexes)
+	 public String closeStateAnnexes(StateAnnexes currentStateAnnexes)
 	 {
 	
 		 String strAnnexesClosing="";
@@ -2438,7 +2446,7 @@ public class PDFEXTparser {
 	
 	  //checks if at least one of the children nodes of the current divtag has
 	  // a TEXT font attribute (strPatter 
-	  public static boolean childrenNodeHasTextFontAttribute(Element divtag,String strPattern_TEXT)
+	  public boolean childrenNodeHasTextFontAttribute(Element divtag,String strPattern_TEXT)
 	  {
 		   
 		   for (Node divtagNode : divtag.childNodes())
@@ -2458,7 +2466,7 @@ public class PDFEXTparser {
 
 
 	  //checks if the next line is or contains normal text
-	  public static boolean  nextLineIsNormalText(Elements divtags,int current_index, String strPattern_TEXT) 
+	  public boolean  nextLineIsNormalText(Elements divtags,int current_index, String strPattern_TEXT) 
 	  {
 		   double bottomValueFirstDivTag=0;
 		  
@@ -2521,7 +2529,7 @@ public class PDFEXTparser {
 		//When a Section title, subsection title, or subsubsection title is detected then this function 
 	    // checks if this title has more lines and processes them
 
-		private static String consume_TITLE(Element initialDivTag, Elements listDivTags,String titleType) 
+		private String consume_TITLE(Element initialDivTag, Elements listDivTags,String titleType) 
 		{
 			
 			State currentState= State.TITLE;
@@ -2784,7 +2792,7 @@ public class PDFEXTparser {
 	  
 	//When a caption (Figure or Table) is detected this function reads its content and stores it
 
-	private static String consume_CAPTION(Element initialDivTag, Elements listDivTags,String captionType) 
+	private String consume_CAPTION(Element initialDivTag, Elements listDivTags,String captionType) 
 	{
 	
 		State currentState= State.FIGURE_CAPTION;
@@ -3048,7 +3056,7 @@ public class PDFEXTparser {
 		// 		* KEYWORDS TITLE  OR CATEGORIES TITLE OR SECTION TITLE
 	
 
-		private static String consume_ABSTRACT(Element initialDivTag, Elements listDivTags,String captionType) 
+		private String consume_ABSTRACT(Element initialDivTag, Elements listDivTags,String captionType) 
 		{
 		
 			State currentState= State.ABSTRACT_TEXT;
@@ -3310,7 +3318,7 @@ public class PDFEXTparser {
 		// 		* REFERENCES TITLE
 	
 
-		private static String consume_ACKNOWLEDGEMENTS(Element initialDivTag, Elements listDivTags,String captionType) 
+		private String consume_ACKNOWLEDGEMENTS(Element initialDivTag, Elements listDivTags,String captionType) 
 		{
 		
 			State currentState= State.ACKNOWLEDGEMENTS_TEXT;
@@ -3580,7 +3588,7 @@ public class PDFEXTparser {
 	// it stops when the TITLE of the following SECTION is detected
 	
 
-	private static String consume_SECTION_TEXT(Element initialDivTag, Elements listDivTags,String captionType) 
+	private String consume_SECTION_TEXT(Element initialDivTag, Elements listDivTags,String captionType) 
 	{
 	
 		State currentState= State.SECTION_TEXT;
@@ -3812,7 +3820,7 @@ public class PDFEXTparser {
 	
 	//consumes a reference.
 
-	private static String consume_REFERENCE(Element divTag,Elements listDivTags,String captionType) 
+	private String consume_REFERENCE(Element divTag,Elements listDivTags,String captionType) 
 	{
 	
 		State currentState= State.REFERENCE;
@@ -4061,7 +4069,7 @@ public class PDFEXTparser {
 	
 	//consumes a line.
 
-	private static String consume_LINE(Element divTag,String captionType) 
+	private String consume_LINE(Element divTag,String captionType) 
 	{
 	
 		State currentState= State.FIGURE_CAPTION;
@@ -4084,7 +4092,7 @@ public class PDFEXTparser {
 
 
 
-	public static void clearData()
+	public void clearData()
 	{
 	
  	    mapCountsCSSHeights.clear();
@@ -4104,7 +4112,7 @@ public class PDFEXTparser {
 
 
 
-	public static String detectTITLEFontSizeAttribute(org.jsoup.nodes.Document doc )
+	public String detectTITLEFontSizeAttribute(org.jsoup.nodes.Document doc )
 		{
 			
 			String strPattern_Page="pf ";
@@ -4188,7 +4196,7 @@ public class PDFEXTparser {
 	
 
 
-	public static void countsCSSAttributeLabels(org.jsoup.nodes.Document doc )
+	public void countsCSSAttributeLabels(org.jsoup.nodes.Document doc )
 		{
 			
 		
@@ -4264,7 +4272,7 @@ public class PDFEXTparser {
 
 
 
-	public static void storesCSSAttributeValues(org.jsoup.nodes.Document doc )
+	public void storesCSSAttributeValues(org.jsoup.nodes.Document doc )
 		{
 			
 
@@ -4394,7 +4402,7 @@ public class PDFEXTparser {
 
 
 
-	public static double[] detectColumnsXAxisValue()
+	public double[] detectColumnsXAxisValue()
 		{
 		
 	
@@ -4483,7 +4491,7 @@ public class PDFEXTparser {
 
 
 
-	public static int detectAverageTextYAxisDistance(org.jsoup.nodes.Document doc,String strPattern_TEXT )
+	public int detectAverageTextYAxisDistance(org.jsoup.nodes.Document doc,String strPattern_TEXT )
 		{
 		
 
@@ -4565,7 +4573,7 @@ public class PDFEXTparser {
 
 
 
-	public static String getMostUsedFontSizeAttributeInDivTags()
+	public String getMostUsedFontSizeAttributeInDivTags()
 	{
 		String strFontSizeAttribute=null;
 		
@@ -4595,7 +4603,7 @@ public class PDFEXTparser {
 	}
 
 	
-	public static String getMostUsedFontFamilyAttributeInDivTags()
+	public String getMostUsedFontFamilyAttributeInDivTags()
 	{
 		String strFontFamilyAttribute=null;
 		
@@ -4625,7 +4633,7 @@ public class PDFEXTparser {
 
 	}
 	
-	public static String getMostUsedHeightAttributeInDivTags()
+	public String getMostUsedHeightAttributeInDivTags()
 	{
 		String strHeightAttribute=null;
 		
@@ -4659,7 +4667,7 @@ public class PDFEXTparser {
 	
 
 	
-	public static double detectFontSizeSectionTitlesWithoutNumbering(org.jsoup.nodes.Document doc, double fontSizeValueText, double fontSizeValueTitle)
+	public double detectFontSizeSectionTitlesWithoutNumbering(org.jsoup.nodes.Document doc, double fontSizeValueText, double fontSizeValueTitle)
 	{
 		double fontSizeSectionTitlesWithoutNumbering=0.0;
 
@@ -4710,7 +4718,7 @@ public class PDFEXTparser {
 
 	}
 	
-	public static void generateDivUniqueID(org.jsoup.nodes.Document doc)
+	public void generateDivUniqueID(org.jsoup.nodes.Document doc)
 	{
 		int id=0;
 		
@@ -4731,7 +4739,7 @@ public class PDFEXTparser {
 	//   * have a bottom value (y axis) smaller than < the smallest y axis of the normal text. 
 	//   * have a bottom value (y axis) bigger than >  the biggest y axis of the normal text
 
-	public static void filterOutRunningHeadsAndPageNumbers2(org.jsoup.nodes.Document doc,String fontFamilyText,String fontSizeText)
+	public void filterOutRunningHeadsAndPageNumbers2(org.jsoup.nodes.Document doc,String fontFamilyText,String fontSizeText)
 	{
 		
 		
@@ -4960,7 +4968,7 @@ public class PDFEXTparser {
 //   * have a bottom value (y axis) smaller than < minValueThresholdFilterRunningHeads
 //   * have a bottom value (y axis) bigger than >  maxValueThresholdFilterRunningHeads
 
-public static void filterOutRunningHeadsAndPageNumbers(org.jsoup.nodes.Document doc)
+public void filterOutRunningHeadsAndPageNumbers(org.jsoup.nodes.Document doc)
 {
 	
   double currentAttributeHeightValue=0;
@@ -5129,7 +5137,7 @@ public static void filterOutRunningHeadsAndPageNumbers(org.jsoup.nodes.Document
 
 
 
-public static void filterOutFootnotes(org.jsoup.nodes.Document doc,int numColumns,String fontFamilyText,String fontSizeText)
+public void filterOutFootnotes(org.jsoup.nodes.Document doc,int numColumns,String fontFamilyText,String fontSizeText)
 {
 	
 	  double fontSizeTextValue= mapValuesCSSFontSize.get(fontSizeText);
@@ -5181,7 +5189,7 @@ public static void filterOutFootnotes(org.jsoup.nodes.Document doc,int numColumn
 
 
 
-public static boolean detectFootNoteStart(Element divtagIndexNumber, Element divtagTextFirstLine,double fontSizeTextValue)
+public boolean detectFootNoteStart(Element divtagIndexNumber, Element divtagTextFirstLine,double fontSizeTextValue)
 {
 	
 	String classAttributeInfoStr = divtagIndexNumber.attr("class");
@@ -5270,7 +5278,7 @@ public static boolean detectFootNoteStart(Element divtagIndexNumber, Element div
 
 
 
-public static int consume_FOOTNOTE(Element divtagIndexNumber, Element divtagTextFirstLine,Elements divtagsPages, double fontSizeTextValue,int current_index)
+public int consume_FOOTNOTE(Element divtagIndexNumber, Element divtagTextFirstLine,Elements divtagsPages, double fontSizeTextValue,int current_index)
 {
 	int new_index=current_index+2;
 	
@@ -5338,7 +5346,7 @@ public static int consume_FOOTNOTE(Element divtagIndexNumber, Element divtagText
 
 
 
-public static void filterOutTableContents(org.jsoup.nodes.Document doc,int numColumns,String fontFamilyText,String fontSizeText,String strMostUsedHeightAttribute)
+public void filterOutTableContents(org.jsoup.nodes.Document doc,int numColumns,String fontFamilyText,String fontSizeText,String strMostUsedHeightAttribute)
 {
 	
 	  double fontSizeTextValue= mapValuesCSSFontSize.get(fontSizeText);
@@ -5440,7 +5448,7 @@ public static void filterOutTableContents(org.jsoup.nodes.Document doc,int numCo
 }
 
 
-	private static double computeAverageNumCharsSectionTextLine(org.jsoup.nodes.Document doc, int numColumns, String fontFamilyText, String fontSizeText)
+	private double computeAverageNumCharsSectionTextLine(org.jsoup.nodes.Document doc, int numColumns, String fontFamilyText, String fontSizeText)
 	{
 		
 		
@@ -5487,7 +5495,7 @@ public static void filterOutTableContents(org.jsoup.nodes.Document doc,int numCo
 	
 	
 
-	private static void filterTableContentsBelowTableCaption(org.jsoup.nodes.Document doc, int currentIndexDiv, int numColumns, String fontFamilyText, String fontSizeText, double averageNumCharsSectionTextLine, String strMostUsedHeightAttribute)
+	private void filterTableContentsBelowTableCaption(org.jsoup.nodes.Document doc, int currentIndexDiv, int numColumns, String fontFamilyText, String fontSizeText, double averageNumCharsSectionTextLine, String strMostUsedHeightAttribute)
 	{
 		
 			double numCharsLine=0;
@@ -5643,7 +5651,7 @@ public static void filterOutTableContents(org.jsoup.nodes.Document doc,int numCo
 	
 	
 
-	private static void filterTableContentsAboveTableCaption(org.jsoup.nodes.Document doc, int currentIndexDiv,int numColumns, String fontFamilyText, String fontSizeText, double averageNumCharsSectionTextLine, String strMostUsedHeightAttribute)
+	private void filterTableContentsAboveTableCaption(org.jsoup.nodes.Document doc, int currentIndexDiv,int numColumns, String fontFamilyText, String fontSizeText, double averageNumCharsSectionTextLine, String strMostUsedHeightAttribute)
 	
 	{
 		
@@ -5800,7 +5808,7 @@ public static void filterOutTableContents(org.jsoup.nodes.Document doc,int numCo
 	
 	
 
-	private static boolean checkTableContentsAboveTableCaption(org.jsoup.nodes.Document doc, int currentIndexDiv,int numColumns, String fontFamilyText, String fontSizeText, double averageNumCharsSectionTextLine, String strMostUsedHeightAttribute)
+	private boolean checkTableContentsAboveTableCaption(org.jsoup.nodes.Document doc, int currentIndexDiv,int numColumns, String fontFamilyText, String fontSizeText, double averageNumCharsSectionTextLine, String strMostUsedHeightAttribute)
 	{
 		
 			double numCharsLine=0;
@@ -5878,7 +5886,7 @@ public static void filterOutTableContents(org.jsoup.nodes.Document doc,int numCo
 
 	
 
-	private static boolean checkTableContentsBelowTableCaption(org.jsoup.nodes.Document doc, int currentIndexDiv,int numColumns, String fontFamilyText, String fontSizeText, double averageNumCharsSectionTextLine, String strMostUsedHeightAttribute)
+	private boolean checkTableContentsBelowTableCaption(org.jsoup.nodes.Document doc, int currentIndexDiv,int numColumns, String fontFamilyText, String fontSizeText, double averageNumCharsSectionTextLine, String strMostUsedHeightAttribute)
 	{
 		
 			double numCharsLine=0;
@@ -5944,7 +5952,7 @@ public static void filterOutTableContents(org.jsoup.nodes.Document doc,int numCo
 	
 	//Consumes a caption for the filtering contents of FIGURES and TABLES
 
-	private static int consume_CAPTION_forTableContentsFiltering(org.jsoup.nodes.Document doc, int currentIndexDiv) 
+	private int consume_CAPTION_forTableContentsFiltering(org.jsoup.nodes.Document doc, int currentIndexDiv) 
 	{
 	
 		
@@ -15,21 +15,66 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.Logger;
 import org.apache.pdfbox.pdmodel.PDDocument;
 
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
+import edu.upf.taln.dri.common.util.ResourcePool;
+
 public class PDFextStatic {
 
 	private static Logger logger = Logger.getLogger(PDFextStatic.class);
 
-	private static final Object LOCK_pdfEXTparser = new Object();
-	public static final PDFEXTparser pdfEXTparser = new PDFEXTparser();
+	// Number of HTML to XML parsers (each parser converts one document at a time)
+	public static int parserPoolSize = Runtime.getRuntime().availableProcessors();
+
+	private static ResourcePool<PDFEXTparser> parserPool = null;
+
+	// Maximum number of PDF2HTMLex processes running at the same time
+	public static int maxConcurrentConversions = Runtime.getRuntime().availableProcessors();
+
+	// Maximum duration of a PDF2HTMLex process: when expired the process is killed
+	public static long conversionTimeoutMs = 250000l;
+
+	private static Semaphore conversionSlots = null;
+
+	private static synchronized Semaphore getConversionSlots() {
+		if(conversionSlots == null) {
+			conversionSlots = new Semaphore((maxConcurrentConversions > 0) ? maxConcurrentConversions : 1, true);
+		}
+		return conversionSlots;
+	}
+
+	/**
+	 * Get the pool of HTML to XML parsers, creating it the first time
+	 * 
+	 * @return
+	 */
+	private static synchronized ResourcePool<PDFEXTparser> getParserPool() {
+		if(parserPool == null) {
+			int poolSize = (parserPoolSize > 0) ? parserPoolSize : 1;
+			List<PDFEXTparser> parsers = new ArrayList<PDFEXTparser>();
+			for(int i = 0; i < poolSize; i++) {
+				parsers.add(new PDFEXTparser());
+			}
+			parserPool = new ResourcePool<PDFEXTparser>("PDFEXTparser", parsers);
+			MetricsRegistry.getInstance().registerPool(parserPool);
+		}
+		return parserPool;
+	}
 
 	/**
 	 * Converts the .pdf file at PDFfilePath into a .html file with the same name and store the .html file in the storageFolder.
-	 * The full local path of the stored HTML file is returned; if error occurs null is returned.
+	 * The full local path of the stored HTML file is returned; if error occurs null is returned.<br/>
+	 * At most {@link #maxConcurrentConversions} conversions are executed concurrently (the others wait in FIFO order);
+	 * conversions lasting more than {@link #conversionTimeoutMs} milliseconds are killed.
 	 * 
 	 * @param PDFfilePath
 	 * @param storageFolder
@@ -37,53 +82,66 @@ public class PDFextStatic {
 	 */
 	public static String convertPDFtoHTML(String PDFfilePath, String storageFolder) {
 
-		// 1) Invoke PDF2HTMLex with proper arguments
-		// https://github.com/coolwanglu/pdf2htmlEX/wiki/Quick-Start
-		// SEPARATE FOLDERS: 
-		//Process proc = Runtime.getRuntime().exec(new String[] { "pdf2htmlEX", "--embed", "cfijo", "--dest-dir", getSorageAbsFolder(strDigest), PDFfilePath });
-		// ONE FILE:
-		Process proc = null;
+		// 1) Wait for a free converter slot: at most maxConcurrentConversions processes run at the same time, other conversions are queued
+		Semaphore slots = getConversionSlots();
+		long startWaitingTime = System.currentTimeMillis();
 		try {
-			proc = Runtime.getRuntime().exec(new String[] { "pdf2htmlEX", "--zoom", "1.3", "--dest-dir", storageFolder, PDFfilePath });
-
-			BufferedReader in_proc = new BufferedReader(new InputStreamReader(proc.getErrorStream()));
-			String line;
-			logger.info("PDF2HTMLex > **********************");
-			while ((line = in_proc.readLine()) != null) {
-				logger.info("PDF2HTMLex > " + line);
-			}
-			logger.info("PDF2HTMLex > **********************");
-			in_proc.close();
-		} catch (Exception e) {
-			e.printStackTrace();
+			slots.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.info("Interrupted while waiting for a PDF2HTMLex converter: " + PDFfilePath);
 			return null;
 		}
 
-		// 2) Wait until the PDF2HTMLex process ends
+		Process proc = null;
 		try {
-			int currentCycle = 0;
+			long waitingTime = System.currentTimeMillis() - startWaitingTime;
+			if(waitingTime > 1000l) {
+				logger.info("Waited " + waitingTime + " ms for a PDF2HTMLex converter.");
+			}
+
+			// 2) Invoke PDF2HTMLex with proper arguments
+			// https://github.com/coolwanglu/pdf2htmlEX/wiki/Quick-Start
+			// SEPARATE FOLDERS: 
+			//Process proc = Runtime.getRuntime().exec(new String[] { "pdf2htmlEX", "--embed", "cfijo", "--dest-dir", getSorageAbsFolder(strDigest), PDFfilePath });
+			// ONE FILE:
+			ProcessBuilder procBuilder = new ProcessBuilder("pdf2htmlEX", "--zoom", "1.3", "--dest-dir", storageFolder, PDFfilePath);
+			procBuilder.redirectErrorStream(true);
+			proc = procBuilder.start();
 
+			// Log the output of the process by a separate thread, so that the timeout is enforced even if the process hangs
+			Thread outputReader = new Thread(new ProcessOutputLogger(proc.getInputStream()), "DRI-pdf2htmlEX-output");
+			outputReader.setDaemon(true);
+			outputReader.start();
+
+			// 3) Wait until the PDF2HTMLex process ends or the timeout expires
 			logger.info("Waiting for PDF2HTMLex conversion results:");
-			while(true) {
-				if(proc != null && isRunning(proc)) {
-					Thread.sleep(2500);
-					currentCycle++;
-					if(currentCycle > 100) {
-						logger.info("BREAK (timeout) ");
-						break;
-					}
-					logger.info("...");
-				}
-				else {
-					break;
-				}
+			if(!proc.waitFor(conversionTimeoutMs, TimeUnit.MILLISECONDS)) {
+				logger.info("BREAK (timeout of " + conversionTimeoutMs + " ms) - PDF2HTMLex process killed");
+				proc.destroyForcibly();
+				proc.waitFor(5000l, TimeUnit.MILLISECONDS);
+				return null;
 			}
 
+			outputReader.join(1000l);
+			if(proc.exitValue() != 0) {
+				logger.info("PDF2HTMLex exit value: " + proc.exitValue());
+			}
 		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			if(proc != null) {
+				proc.destroyForcibly();
+			}
+			logger.info("Interrupted while waiting for PDF2HTMLex conversion: " + PDFfilePath);
+			return null;
+		} catch (Exception e) {
 			e.printStackTrace();
+			return null;
+		} finally {
+			slots.release();
 		}
 
-		// 3) Retrieve converted HTML file generated by the PDF2HTMLex execution and stored in the strDigest folder
+		// 4) Retrieve converted HTML file generated by the PDF2HTMLex execution and stored in the strDigest folder
 		// and process it to generate and store the XML version
 		File PDFfile = new File(PDFfilePath);
 		File convertedHTMLfile = new File(storageFolder, PDFfile.getName().replace(".pdf", "") + ".html");
@@ -98,7 +156,8 @@ public class PDFextStatic {
 
 	/**
 	 * Receive as input an HTML file generated from a PDF and returns the result of the conversion to XML
-	 * as an instance of the object {@link edu.upf.taln.pdfext.PDFEXTresult PDFEXTresult}.
+	 * as an instance of the object {@link edu.upf.taln.pdfext.PDFEXTresult PDFEXTresult}.<br/>
+	 * Up to {@link #parserPoolSize} documents are converted concurrently.
 	 * 
 	 * @param HTMLcontents
 	 * @return
@@ -113,12 +172,15 @@ public class PDFextStatic {
 
 			long startWaitingForConversionTime = System.currentTimeMillis();
 			long startConversionTime = 0l;
-			synchronized(LOCK_pdfEXTparser) {
+			ResourcePool<PDFEXTparser> pool = getParserPool();
+			PDFEXTparser pdfEXTparser = pool.checkout();
+			try {
 				startConversionTime = System.currentTimeMillis();
 				pdfEXTparser.parse(parsingResult);
 			}
-
-			System.gc();
+			finally {
+				pool.release(pdfEXTparser);
+			}
 
 			if(parsingResult.getResXML() != null && !parsingResult.getResXML().equals("")) {
 				logger.info("Converted HTML file to XML in " + (new Double(System.currentTimeMillis() - startConversionTime) / 60000d) + " seconds, " +
@@ -220,21 +282,32 @@ public class PDFextStatic {
 	}
 
 	/**
-	 * Check if the process is running
-	 * 
-	 * @param process
-	 * @return
+	 * Logs the output of a PDF2HTMLex process until the process ends
+	 *
 	 */
-	static boolean isRunning(Process process) {
-		try {
-			process.exitValue();
-			return false;
-		} catch (Exception e) {
-			return true;
+	private static class ProcessOutputLogger implements Runnable {
+
+		private final InputStream processOutput;
+
+		private ProcessOutputLogger(InputStream processOutput) {
+			this.processOutput = processOutput;
+		}
+
+		@Override
+		public void run() {
+			try (BufferedReader in_proc = new BufferedReader(new InputStreamReader(processOutput))) {
+				String line;
+				logger.info("PDF2HTMLex > **********************");
+				while ((line = in_proc.readLine()) != null) {
+					logger.info("PDF2HTMLex > " + line);
+				}
+				logger.info("PDF2HTMLex > **********************");
+			} catch (IOException e) {
+				/* Do nothing: the process has been killed */
+			}
 		}
 	}
-	
-	
+
 	public static void main(String[] args) {
 		PDFEXTresult result = convertPDF("/home/francesco/Downloads/paper_45.pdf", "/home/francesco/Downloads");
 		System.out.println(result.getResXML());
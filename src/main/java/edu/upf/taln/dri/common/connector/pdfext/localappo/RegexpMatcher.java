@@ -28,7 +28,6 @@ public class RegexpMatcher {
 	private static Logger logger = Logger.getLogger(HyphenWordsDictionary.class);
 
 	public Map<String, Pattern> dictPatternRegexps;
-	private static Matcher matcher;
 
 
 	public RegexpMatcher()
@@ -80,14 +79,14 @@ public class RegexpMatcher {
 
 	boolean findRegexp(String patternType, String stringToCheck)
 	{
-		matcher = dictPatternRegexps.get(patternType).matcher(stringToCheck);
+		Matcher matcher = dictPatternRegexps.get(patternType).matcher(stringToCheck);
 		return matcher.find();	
 	}
 
 
 	boolean matchRegexp(String patternType, String stringToCheck)
 	{
-		matcher = dictPatternRegexps.get(patternType).matcher(stringToCheck);
+		Matcher matcher = dictPatternRegexps.get(patternType).matcher(stringToCheck);
 		return matcher.matches();	
 	}
 
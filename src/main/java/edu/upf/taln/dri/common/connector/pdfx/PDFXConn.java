@@ -32,6 +32,7 @@ import java.util.Random;
 import javax.imageio.ImageIO;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.http.HeaderElement;
 import org.apache.http.HeaderElementIterator;
 import org.apache.http.HttpHost;
@@ -62,6 +63,8 @@ import com.itextpdf.text.pdf.PdfStamper;
 import com.itextpdf.text.pdf.PdfWriter;
 import com.itextpdf.text.pdf.parser.PdfImageObject;
 
+import edu.upf.taln.dri.common.connector.guard.ServiceGuard;
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
 import edu.upf.taln.dri.common.util.Util;
 
 /**
@@ -84,6 +87,9 @@ public class PDFXConn {
 
 	private static CloseableHttpClient httpClient = null;
 
+	// Circuit breaker of the requests to the PDFX service (conversion time depends on the size of the PDF, thus the timeout is not adapted)
+	private static final ServiceGuard guard = ServiceGuard.getGuard("PDFX");
+
 	static {
 		ConnectionKeepAliveStrategy myStrategy = new ConnectionKeepAliveStrategy() {
 
@@ -331,6 +337,11 @@ public class PDFXConn {
 		ByteArrayEntity entity = new ByteArrayEntity(inputBytes, ContentType.DEFAULT_BINARY);
 		post.setEntity(entity);
 
+		if(!guard.tryAcquire()) {
+			logger.warn("PDFX request rejected (circuit " + guard.getCircuitState() + ")");
+			return result.append("ERROR").toString();
+		}
+
 		// Invoke PDFX service
 		String response = null;
 		try {
@@ -361,12 +372,23 @@ public class PDFXConn {
 			long startTime = System.currentTimeMillis();
 			response = httpClient.execute(post, responseHandler);
 			long endTime = System.currentTimeMillis();
+			if(response != null && response.startsWith("PDFX ERROR - HTTP STATUS CODE: ") && ServiceGuard.isServiceFailure(NumberUtils.toInt(response.substring(31).trim()))) {
+				guard.recordFailure();
+			}
+			else {
+				guard.recordSuccess(endTime - startTime);
+			}
+			MetricsRegistry.getInstance().getConnectorMetrics("PDFX").record((endTime - startTime) * 1000000l);
 			logger.debug("PDFX parsing request processed in " + (endTime - startTime)  + " milliseconds with response: " + 
 					((response != null) ? (response.length() > 15 ? response.substring(0, 15) : response) :"NULL") + " (sent file length: " + inputBytes.length + ")");
 		} catch (ClientProtocolException e) {
 			logger.error("PDFX processing exception / client protocol " + e.getMessage());
+			MetricsRegistry.getInstance().getConnectorMetrics("PDFX").recordError();
+			guard.recordFailure();
 		} catch (Exception e) {
 			logger.error("PDFX processing exception / Exception " + e.getMessage());
+			MetricsRegistry.getInstance().getConnectorMetrics("PDFX").recordError();
+			guard.recordFailure();
 		}
 
 		return result.append( (response != null) ? response : "ERROR" ).toString();
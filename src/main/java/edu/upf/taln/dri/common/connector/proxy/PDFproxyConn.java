@@ -32,6 +32,7 @@ import java.util.Random;
 import javax.imageio.ImageIO;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.http.HeaderElement;
 import org.apache.http.HeaderElementIterator;
 import org.apache.http.HttpEntity;
@@ -67,6 +68,7 @@ import com.itextpdf.text.pdf.PdfStamper;
 import com.itextpdf.text.pdf.PdfWriter;
 import com.itextpdf.text.pdf.parser.PdfImageObject;
 
+import edu.upf.taln.dri.common.connector.guard.ServiceGuard;
 import edu.upf.taln.dri.common.util.Util;
 
 /**
@@ -89,6 +91,9 @@ public class PDFproxyConn {
 
 	private static CloseableHttpClient httpClient = null;
 
+	// Circuit breaker of the requests to the PDF proxy service (conversion time depends on the size of the PDF, thus the timeout is not adapted)
+	private static final ServiceGuard guard = ServiceGuard.getGuard("PDFproxy");
+
 	static {
 		ConnectionKeepAliveStrategy myStrategy = new ConnectionKeepAliveStrategy() {
 
@@ -338,6 +343,11 @@ public class PDFproxyConn {
 		
 		post.setEntity(multipart);
 		
+		if(!guard.tryAcquire()) {
+			logger.warn("PDF proxy request rejected (circuit " + guard.getCircuitState() + ")");
+			return result.append("ERROR").toString();
+		}
+
 		// Invoke PDF proxy service
 		String response = null;
 		try {
@@ -382,12 +392,20 @@ public class PDFproxyConn {
 			long startTime = System.currentTimeMillis();
 			response = httpClient.execute(post, responseHandler);
 			long endTime = System.currentTimeMillis();
+			if(response != null && response.startsWith("ERROR CODE: ") && ServiceGuard.isServiceFailure(NumberUtils.toInt(response.substring(12).trim()))) {
+				guard.recordFailure();
+			}
+			else {
+				guard.recordSuccess(endTime - startTime);
+			}
 			logger.debug("PDF proxy parsing request processed in " + (endTime - startTime)  + " milliseconds with response: " + 
 					((response != null) ? (response.length() > 15 ? response.substring(0, 15) : response) :"NULL") + " (sent file length: " + inputBytes.length + ")");
 		} catch (ClientProtocolException e) {
 			logger.error("PDF proxy processing exception / client protocol " + e.getMessage());
+			guard.recordFailure();
 		} catch (Exception e) {
 			logger.error("PDF proxy processing exception / Exception " + e.getMessage());
+			guard.recordFailure();
 		}
 
 		return result.append( (response != null) ? response : "ERROR" ).toString();
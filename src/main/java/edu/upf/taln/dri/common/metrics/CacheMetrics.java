@@ -0,0 +1,95 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Usage metrics of a cache: number of lookups served by the cache (hits), number of lookups not found or expired (misses)
+ * and number of entries stored.
+ *
+ *
+ */
+public class CacheMetrics {
+
+	private final String name;
+	private final AtomicLong hitCount = new AtomicLong(0l);
+	private final AtomicLong missCount = new AtomicLong(0l);
+	private final AtomicLong putCount = new AtomicLong(0l);
+
+	public CacheMetrics(String name) {
+		this.name = name;
+	}
+
+	public void recordHit() {
+		hitCount.incrementAndGet();
+	}
+
+	public void recordMiss() {
+		missCount.incrementAndGet();
+	}
+
+	public void recordPut() {
+		putCount.incrementAndGet();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	public long getPutCount() {
+		return putCount.get();
+	}
+
+	/**
+	 * Number of lookups (hits plus misses)
+	 *
+	 * @return
+	 */
+	public long getCount() {
+		return hitCount.get() + missCount.get();
+	}
+
+	/**
+	 * Ratio of lookups served by the cache
+	 *
+	 * @return from 0 to 1 (0 if no lookup has been performed)
+	 */
+	public double getHitRatio() {
+		long lookupCount = getCount();
+		return (lookupCount > 0l) ? ((double) hitCount.get()) / ((double) lookupCount) : 0d;
+	}
+
+	/**
+	 * Reset all the metrics
+	 */
+	public void reset() {
+		hitCount.set(0l);
+		missCount.set(0l);
+		putCount.set(0l);
+	}
+
+	@Override
+	public String toString() {
+		return "CacheMetrics [name=" + name + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", puts=" + getPutCount()
+		+ ", hitRatio=" + String.format("%.3f", getHitRatio()) + "]";
+	}
+
+}
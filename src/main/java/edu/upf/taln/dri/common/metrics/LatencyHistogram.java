@@ -0,0 +1,141 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations, with logarithmic buckets (each power of two is split into
+ * {@value #SUB_BUCKETS} linear sub-buckets, thus percentiles are approximated with a relative error lower than 1/{@value #SUB_BUCKETS}).<br/>
+ * Durations are recorded in microseconds; durations longer than about one year are recorded in the last bucket.
+ *
+ *
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKETS = 16;
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int MAX_EXPONENT = 40;
+	private static final int BUCKET_NUMBER = (MAX_EXPONENT + 2) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_NUMBER);
+	private final AtomicLong count = new AtomicLong(0l);
+	private final AtomicLong totalMicros = new AtomicLong(0l);
+	private final AtomicLong maxMicros = new AtomicLong(0l);
+
+	/**
+	 * Record a duration
+	 *
+	 * @param nanos duration in nanoseconds (negative values are ignored)
+	 */
+	public void recordNanos(long nanos) {
+		if(nanos < 0l) {
+			return;
+		}
+
+		long micros = nanos / 1000l;
+		buckets.incrementAndGet(bucketIndex(micros));
+		count.incrementAndGet();
+		totalMicros.addAndGet(micros);
+
+		long currentMax = maxMicros.get();
+		while(micros > currentMax && !maxMicros.compareAndSet(currentMax, micros)) {
+			currentMax = maxMicros.get();
+		}
+	}
+
+	private static int bucketIndex(long micros) {
+		if(micros < SUB_BUCKETS) {
+			return (int) micros;
+		}
+
+		// The highest bit set selects the power of two, the following SUB_BUCKET_BITS bits the sub-bucket
+		int exponent = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+		if(exponent > MAX_EXPONENT) {
+			return BUCKET_NUMBER - 1;
+		}
+		int subBucket = (int) (micros >>> exponent) - SUB_BUCKETS;
+		return (exponent + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	private static long bucketUpperBound(int index) {
+		if(index < SUB_BUCKETS) {
+			return index;
+		}
+		int exponent = (index / SUB_BUCKETS) - 1;
+		int subBucket = index % SUB_BUCKETS;
+		return (((long) (SUB_BUCKETS + subBucket + 1)) << exponent) - 1l;
+	}
+
+	/**
+	 * Number of durations recorded
+	 *
+	 * @return
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	public double getMeanMs() {
+		long currentCount = count.get();
+		return (currentCount > 0l) ? ((double) totalMicros.get()) / ((double) currentCount) / 1000d : 0d;
+	}
+
+	public double getMaxMs() {
+		return ((double) maxMicros.get()) / 1000d;
+	}
+
+	public double getTotalMs() {
+		return ((double) totalMicros.get()) / 1000d;
+	}
+
+	/**
+	 * Approximated percentile of the recorded durations
+	 *
+	 * @param percentile from 0 to 100 (e.g. 50 for the median, 99 for the 99th percentile)
+	 * @return the duration in milliseconds
+	 */
+	public double getPercentileMs(double percentile) {
+		long currentCount = count.get();
+		if(currentCount == 0l) {
+			return 0d;
+		}
+
+		percentile = Math.max(0d, Math.min(100d, percentile));
+		long rank = (long) Math.ceil((percentile / 100d) * currentCount);
+		rank = Math.max(1l, rank);
+
+		long cumulated = 0l;
+		for(int i = 0; i < buckets.length(); i++) {
+			cumulated += buckets.get(i);
+			if(cumulated >= rank) {
+				return ((double) Math.min(bucketUpperBound(i), maxMicros.get())) / 1000d;
+			}
+		}
+
+		return getMaxMs();
+	}
+
+	/**
+	 * Set to zero all the counts of the histogram
+	 */
+	public void reset() {
+		for(int i = 0; i < buckets.length(); i++) {
+			buckets.set(i, 0l);
+		}
+		count.set(0l);
+		totalMicros.set(0l);
+		maxMicros.set(0l);
+	}
+
+}
@@ -0,0 +1,401 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.common.metrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.log4j.Logger;
+
+import edu.upf.taln.dri.common.connector.guard.ServiceGuard;
+import edu.upf.taln.dri.common.util.ResourcePool;
+
+/**
+ * Registry of the execution metrics of the library (singleton): one entry for each analysis stage, each connector to
+ * a remote service, each cache, each guard of a remote service (rate limiter and circuit breaker) and each pool of processing resources.<br/>
+ * For resource pools, the time spent waiting for an instance (lock wait) is reported separately from the time the
+ * instance is used (execution).<br/>
+ * Metrics can be read programmatically, exposed as a JMX MBean by {@link #registerMBean() registerMBean()} or
+ * periodically appended to a CSV file by {@link #startCSVExport(File, long) startCSVExport(File, long)}.
+ *
+ *
+ */
+public class MetricsRegistry implements MetricsRegistryMBean {
+
+	private static Logger logger = Logger.getLogger(MetricsRegistry.class);
+
+	public static final String JMX_OBJECT_NAME = "edu.upf.taln.dri:type=Metrics";
+
+	public static final String CSV_HEADER = "timestamp,type,name,count,errors,items,itemsPerSec,meanMs,p50Ms,p90Ms,p99Ms,maxMs,totalMs,"
+			+ "poolSize,waitCount,waitMeanMs,waitP50Ms,waitP99Ms,waitMaxMs,waitTotalMs,useTotalMs,hits,misses,hitRatio";
+
+	private static final MetricsRegistry instance = new MetricsRegistry();
+
+	private final Map<String, StageMetrics> stageMetrics = new ConcurrentSkipListMap<String, StageMetrics>();
+	private final Map<String, StageMetrics> connectorMetrics = new ConcurrentSkipListMap<String, StageMetrics>();
+	private final Map<String, CacheMetrics> cacheMetrics = new ConcurrentSkipListMap<String, CacheMetrics>();
+	private final Map<String, ResourcePool<?>> resourcePools = new ConcurrentHashMap<String, ResourcePool<?>>();
+	private final Map<String, ServiceGuard> serviceGuards = new ConcurrentSkipListMap<String, ServiceGuard>();
+
+	private ScheduledExecutorService csvExporter = null;
+	private boolean mbeanRegistered = false;
+
+	private MetricsRegistry() {
+
+	}
+
+	/**
+	 * Get the metrics registry of the library
+	 *
+	 * @return
+	 */
+	public static MetricsRegistry getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Get (or create) the metrics of an analysis stage
+	 *
+	 * @param name
+	 * @return
+	 */
+	public StageMetrics getStageMetrics(String name) {
+		return stageMetrics.computeIfAbsent(name, key -> new StageMetrics(key));
+	}
+
+	/**
+	 * Get (or create) the metrics of a connector to a remote service
+	 *
+	 * @param name
+	 * @return
+	 */
+	public StageMetrics getConnectorMetrics(String name) {
+		return connectorMetrics.computeIfAbsent(name, key -> new StageMetrics(key));
+	}
+
+	/**
+	 * Get (or create) the metrics of a cache
+	 *
+	 * @param name
+	 * @return
+	 */
+	public CacheMetrics getCacheMetrics(String name) {
+		return cacheMetrics.computeIfAbsent(name, key -> new CacheMetrics(key));
+	}
+
+	/**
+	 * Register a pool of processing resources, replacing the pool with the same name if any
+	 *
+	 * @param pool
+	 */
+	public void registerPool(ResourcePool<?> pool) {
+		if(pool != null) {
+			resourcePools.put(pool.getName(), pool);
+		}
+	}
+
+	/**
+	 * Register the guard of a remote service, replacing the guard with the same name if any
+	 *
+	 * @param guard
+	 */
+	public void registerServiceGuard(ServiceGuard guard) {
+		if(guard != null) {
+			serviceGuards.put(guard.getName(), guard);
+		}
+	}
+
+	public List<StageMetrics> getAllStageMetrics() {
+		return Collections.unmodifiableList(new ArrayList<StageMetrics>(stageMetrics.values()));
+	}
+
+	public List<StageMetrics> getAllConnectorMetrics() {
+		return Collections.unmodifiableList(new ArrayList<StageMetrics>(connectorMetrics.values()));
+	}
+
+	public List<CacheMetrics> getAllCacheMetrics() {
+		return Collections.unmodifiableList(new ArrayList<CacheMetrics>(cacheMetrics.values()));
+	}
+
+	public List<ServiceGuard> getServiceGuards() {
+		return Collections.unmodifiableList(new ArrayList<ServiceGuard>(serviceGuards.values()));
+	}
+
+	public List<ResourcePool<?>> getResourcePools() {
+		List<ResourcePool<?>> poolList = new ArrayList<ResourcePool<?>>(resourcePools.values());
+		poolList.sort((p1, p2) -> p1.getName().compareTo(p2.getName()));
+		return Collections.unmodifiableList(poolList);
+	}
+
+	@Override
+	public String[] getMetricNames() {
+		List<String> names = new ArrayList<String>();
+		names.addAll(stageMetrics.keySet());
+		names.addAll(connectorMetrics.keySet());
+		names.addAll(cacheMetrics.keySet());
+		names.addAll(serviceGuards.keySet());
+		for(ResourcePool<?> pool : getResourcePools()) {
+			names.add(pool.getName());
+		}
+		return names.toArray(new String[names.size()]);
+	}
+
+	@Override
+	public long getCount(String name) {
+		StageMetrics metrics = findMetrics(name);
+		if(metrics != null) {
+			return metrics.getCount();
+		}
+		CacheMetrics cache = (name != null) ? cacheMetrics.get(name) : null;
+		if(cache != null) {
+			return cache.getCount();
+		}
+		ServiceGuard guard = (name != null) ? serviceGuards.get(name) : null;
+		if(guard != null) {
+			return guard.getAdmittedCount();
+		}
+		ResourcePool<?> pool = (name != null) ? resourcePools.get(name) : null;
+		return (pool != null) ? pool.getCheckoutCount() : 0l;
+	}
+
+	@Override
+	public long getErrorCount(String name) {
+		StageMetrics metrics = findMetrics(name);
+		if(metrics != null) {
+			return metrics.getErrorCount();
+		}
+		ServiceGuard guard = (name != null) ? serviceGuards.get(name) : null;
+		return (guard != null) ? guard.getRejectedCount() : 0l;
+	}
+
+	@Override
+	public double getPercentileMs(String name, double percentile) {
+		StageMetrics metrics = findMetrics(name);
+		if(metrics != null) {
+			return metrics.getLatency().getPercentileMs(percentile);
+		}
+		ResourcePool<?> pool = (name != null) ? resourcePools.get(name) : null;
+		return (pool != null) ? pool.getWaitLatency().getPercentileMs(percentile) : 0d;
+	}
+
+	private StageMetrics findMetrics(String name) {
+		if(name == null) {
+			return null;
+		}
+		StageMetrics metrics = stageMetrics.get(name);
+		return (metrics != null) ? metrics : connectorMetrics.get(name);
+	}
+
+	@Override
+	public String getReport() {
+		StringBuilder report = new StringBuilder();
+
+		report.append("STAGES:\n");
+		for(StageMetrics metrics : stageMetrics.values()) {
+			report.append("   " + metrics.toString() + "\n");
+		}
+
+		report.append("CONNECTORS:\n");
+		for(StageMetrics metrics : connectorMetrics.values()) {
+			report.append("   " + metrics.toString() + "\n");
+		}
+
+		report.append("CACHES:\n");
+		for(CacheMetrics metrics : cacheMetrics.values()) {
+			report.append("   " + metrics.toString() + "\n");
+		}
+
+		report.append("SERVICE GUARDS:\n");
+		for(ServiceGuard guard : serviceGuards.values()) {
+			report.append("   " + guard.toString() + "\n");
+		}
+
+		report.append("RESOURCE POOLS:\n");
+		for(ResourcePool<?> pool : getResourcePools()) {
+			report.append("   " + pool.toString() + ", waitP99Ms=" + String.format("%.2f", pool.getWaitLatency().getPercentileMs(99d)) + "\n");
+		}
+
+		return report.toString();
+	}
+
+	@Override
+	public String getCSV() {
+		return CSV_HEADER + "\n" + getCSVrows(System.currentTimeMillis());
+	}
+
+	private String getCSVrows(long timestamp) {
+		StringBuilder rows = new StringBuilder();
+
+		for(StageMetrics metrics : stageMetrics.values()) {
+			rows.append(getCSVrow(timestamp, "stage", metrics) + "\n");
+		}
+
+		for(StageMetrics metrics : connectorMetrics.values()) {
+			rows.append(getCSVrow(timestamp, "connector", metrics) + "\n");
+		}
+
+		for(CacheMetrics metrics : cacheMetrics.values()) {
+			rows.append(timestamp + ",cache," + csvEscape(metrics.getName()) + "," + metrics.getCount() + ",,,,,,,,,,,,,,,,,,"
+					+ metrics.getHitCount() + "," + metrics.getMissCount() + "," + format(metrics.getHitRatio()) + "\n");
+		}
+
+		for(ServiceGuard guard : serviceGuards.values()) {
+			rows.append(timestamp + ",guard," + csvEscape(guard.getName()) + "," + guard.getAdmittedCount() + "," + guard.getRejectedCount() + ",,,,,,,,,,,,,,,,,,,\n");
+		}
+
+		for(ResourcePool<?> pool : getResourcePools()) {
+			LatencyHistogram waitLatency = pool.getWaitLatency();
+			rows.append(timestamp + ",pool," + csvEscape(pool.getName()) + "," + pool.getCheckoutCount() + ",,,,,,,,,,"
+					+ pool.getSize() + "," + pool.getWaitCount() + "," + format(waitLatency.getMeanMs()) + "," + format(waitLatency.getPercentileMs(50d)) + ","
+					+ format(waitLatency.getPercentileMs(99d)) + "," + format(waitLatency.getMaxMs()) + "," + pool.getTotalWaitTimeMs() + "," + pool.getTotalUseTimeMs() + ",,,\n");
+		}
+
+		return rows.toString();
+	}
+
+	private static String getCSVrow(long timestamp, String type, StageMetrics metrics) {
+		LatencyHistogram latency = metrics.getLatency();
+		return timestamp + "," + type + "," + csvEscape(metrics.getName()) + "," + metrics.getCount() + "," + metrics.getErrorCount() + ","
+				+ metrics.getItemCount() + "," + format(metrics.getItemsPerSecond()) + "," + format(latency.getMeanMs()) + ","
+				+ format(latency.getPercentileMs(50d)) + "," + format(latency.getPercentileMs(90d)) + "," + format(latency.getPercentileMs(99d)) + ","
+				+ format(latency.getMaxMs()) + "," + format(latency.getTotalMs()) + ",,,,,,,,,,,";
+	}
+
+	private static String format(double value) {
+		return String.format(Locale.ENGLISH, "%.3f", value);
+	}
+
+	private static String csvEscape(String value) {
+		if(value == null) {
+			return "";
+		}
+		if(value.contains(",") || value.contains("\"")) {
+			return "\"" + value.replace("\"", "\"\"") + "\"";
+		}
+		return value;
+	}
+
+	@Override
+	public void reset() {
+		for(StageMetrics metrics : stageMetrics.values()) {
+			metrics.reset();
+		}
+		for(StageMetrics metrics : connectorMetrics.values()) {
+			metrics.reset();
+		}
+		for(CacheMetrics metrics : cacheMetrics.values()) {
+			metrics.reset();
+		}
+		for(ServiceGuard guard : serviceGuards.values()) {
+			guard.reset();
+		}
+		for(ResourcePool<?> pool : resourcePools.values()) {
+			pool.resetMetrics();
+		}
+	}
+
+	/**
+	 * Register the registry in the platform MBean server with the name {@value #JMX_OBJECT_NAME}
+	 *
+	 * @return true if the registry is registered
+	 */
+	public synchronized boolean registerMBean() {
+		if(mbeanRegistered) {
+			return true;
+		}
+
+		try {
+			MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName(JMX_OBJECT_NAME);
+			if(!mbeanServer.isRegistered(objectName)) {
+				mbeanServer.registerMBean(this, objectName);
+			}
+			mbeanRegistered = true;
+			logger.info("Metrics registry exposed by JMX as " + JMX_OBJECT_NAME);
+		} catch (Exception e) {
+			logger.warn("Impossible to register the metrics registry as JMX MBean: " + e.getMessage());
+		}
+
+		return mbeanRegistered;
+	}
+
+	/**
+	 * Periodically append all the metrics to a CSV file (the header is written if the file is empty).
+	 * A previously started export is stopped.
+	 *
+	 * @param csvFile
+	 * @param periodSeconds
+	 */
+	public synchronized void startCSVExport(File csvFile, long periodSeconds) {
+		stopCSVExport();
+
+		if(csvFile == null || periodSeconds <= 0l) {
+			logger.warn("Invalid CSV metrics export parameters: file " + csvFile + ", period " + periodSeconds + " seconds.");
+			return;
+		}
+
+		csvExporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread exporterThread = new Thread(runnable, "DRI-metrics-CSV-export");
+			exporterThread.setDaemon(true);
+			return exporterThread;
+		});
+
+		csvExporter.scheduleAtFixedRate(() -> appendCSV(csvFile), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+
+		logger.info("Exporting metrics every " + periodSeconds + " seconds to " + csvFile.getAbsolutePath());
+	}
+
+	/**
+	 * Stop the periodic export of metrics to CSV
+	 */
+	public synchronized void stopCSVExport() {
+		if(csvExporter != null) {
+			csvExporter.shutdownNow();
+			csvExporter = null;
+		}
+	}
+
+	/**
+	 * Append all the metrics to a CSV file (the header is written if the file is empty)
+	 *
+	 * @param csvFile
+	 */
+	public void appendCSV(File csvFile) {
+		boolean writeHeader = !csvFile.exists() || csvFile.length() == 0l;
+		try (Writer out = new OutputStreamWriter(new FileOutputStream(csvFile, true), StandardCharsets.UTF_8)) {
+			if(writeHeader) {
+				out.write(CSV_HEADER + "\n");
+			}
+			out.write(getCSVrows(System.currentTimeMillis()));
+		} catch (Exception e) {
+			logger.warn("Error while exporting metrics to " + csvFile.getAbsolutePath() + ": " + e.getMessage());
+		}
+	}
+
+}
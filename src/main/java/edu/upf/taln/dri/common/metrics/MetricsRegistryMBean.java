@@ -0,0 +1,66 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.common.metrics;
+
+/**
+ * JMX management interface of the {@link edu.upf.taln.dri.common.metrics.MetricsRegistry MetricsRegistry}
+ *
+ *
+ */
+public interface MetricsRegistryMBean {
+
+	/**
+	 * Names of the analysis stages, connectors, caches, service guards and resource pools with metrics
+	 *
+	 * @return
+	 */
+	public String[] getMetricNames();
+
+	/**
+	 * Human readable report of all the metrics
+	 *
+	 * @return
+	 */
+	public String getReport();
+
+	/**
+	 * All the metrics in CSV format, one line per stage, connector, cache, service guard or resource pool
+	 *
+	 * @return
+	 */
+	public String getCSV();
+
+	public long getCount(String name);
+
+	/**
+	 * Number of errors (for service guards, of rejected requests)
+	 *
+	 * @param name
+	 * @return
+	 */
+	public long getErrorCount(String name);
+
+	/**
+	 * Approximated percentile of the execution time (for resource pools, of the time spent waiting for an instance)
+	 *
+	 * @param name
+	 * @param percentile from 0 to 100
+	 * @return
+	 */
+	public double getPercentileMs(String name, double percentile);
+
+	/**
+	 * Reset all the metrics
+	 */
+	public void reset();
+
+}
@@ -0,0 +1,114 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Execution metrics of an analysis stage or of a connector to a remote service: number of executions,
+ * number of failures, number of items processed (e.g. sentences) and histogram of the execution times.
+ *
+ *
+ */
+public class StageMetrics {
+
+	private final String name;
+	private final AtomicLong errorCount = new AtomicLong(0l);
+	private final AtomicLong itemCount = new AtomicLong(0l);
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	public StageMetrics(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Record a successful execution
+	 *
+	 * @param nanos execution time in nanoseconds
+	 */
+	public void record(long nanos) {
+		latency.recordNanos(nanos);
+	}
+
+	/**
+	 * Record a successful execution that processed a number of items (sentences, bibliographic entries, etc.)
+	 *
+	 * @param nanos execution time in nanoseconds
+	 * @param items
+	 */
+	public void record(long nanos, long items) {
+		latency.recordNanos(nanos);
+		if(items > 0l) {
+			itemCount.addAndGet(items);
+		}
+	}
+
+	/**
+	 * Record a failed execution
+	 */
+	public void recordError() {
+		errorCount.incrementAndGet();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Number of successful executions
+	 *
+	 * @return
+	 */
+	public long getCount() {
+		return latency.getCount();
+	}
+
+	public long getErrorCount() {
+		return errorCount.get();
+	}
+
+	public long getItemCount() {
+		return itemCount.get();
+	}
+
+	/**
+	 * Items processed per second of execution time
+	 *
+	 * @return
+	 */
+	public double getItemsPerSecond() {
+		double totalMs = latency.getTotalMs();
+		return (totalMs > 0d) ? ((double) itemCount.get()) * 1000d / totalMs : 0d;
+	}
+
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+
+	/**
+	 * Reset all the metrics
+	 */
+	public void reset() {
+		errorCount.set(0l);
+		itemCount.set(0l);
+		latency.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "StageMetrics [name=" + name + ", count=" + getCount() + ", errors=" + getErrorCount() + ", items=" + getItemCount()
+		+ ", itemsPerSec=" + String.format("%.2f", getItemsPerSecond())
+		+ ", meanMs=" + String.format("%.2f", latency.getMeanMs()) + ", p50Ms=" + String.format("%.2f", latency.getPercentileMs(50d))
+		+ ", p99Ms=" + String.format("%.2f", latency.getPercentileMs(99d)) + ", maxMs=" + String.format("%.2f", latency.getMaxMs()) + "]";
+	}
+
+}
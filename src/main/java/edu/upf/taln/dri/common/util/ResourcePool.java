@@ -0,0 +1,243 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.common.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import edu.upf.taln.dri.common.metrics.LatencyHistogram;
+import edu.upf.taln.dri.lib.exception.InternalProcessingException;
+
+/**
+ * Fixed-size pool of independent instances of the same processing resource.<br/>
+ * Each instance is used by at most one thread at a time: a thread gets an instance by means of {@link #checkout() checkout()}
+ * and gives it back by means of {@link #release(Object) release(T)}, always in a finally block.<br/>
+ * The pool keeps track of the number of checkouts and of the time spent waiting for an instance to become available.
+ *
+ *
+ * @param <T> the type of the pooled resource
+ */
+public class ResourcePool<T> {
+
+	private static Logger logger = Logger.getLogger(ResourcePool.class);
+
+	private final String name;
+	private final List<T> instances;
+	private final BlockingQueue<T> available;
+
+	// Usage metrics
+	private final AtomicLong checkoutCount = new AtomicLong(0l);
+	private final AtomicLong waitCount = new AtomicLong(0l);
+	private final AtomicLong totalWaitNanos = new AtomicLong(0l);
+	private final AtomicLong maxWaitNanos = new AtomicLong(0l);
+	private final AtomicLong totalUseNanos = new AtomicLong(0l);
+	private final LatencyHistogram waitLatency = new LatencyHistogram();
+	private final LatencyHistogram useLatency = new LatencyHistogram();
+
+	// Checkout time of the instances currently in use, by instance (a thread can check out more instances at the same time)
+	private final Map<T, Long> checkoutTime = Collections.synchronizedMap(new IdentityHashMap<T, Long>());
+
+	/**
+	 * Create a pool including the instances of the resource provided
+	 *
+	 * @param name name of the pool (used in logs and status reports)
+	 * @param instances the instances to pool (at least one, not null)
+	 */
+	public ResourcePool(String name, List<T> instances) {
+		if(instances == null || instances.size() == 0) {
+			throw new IllegalArgumentException("A resource pool needs at least one resource instance (pool: " + name + ")");
+		}
+
+		this.name = (name != null) ? name : "RESOURCE_POOL";
+		this.instances = Collections.unmodifiableList(new ArrayList<T>(instances));
+		this.available = new ArrayBlockingQueue<T>(instances.size());
+		for(T instance : instances) {
+			if(instance == null) {
+				throw new IllegalArgumentException("Null resource instance in pool: " + name);
+			}
+			this.available.add(instance);
+		}
+	}
+
+	/**
+	 * Get an instance of the resource, waiting until one is available.
+	 *
+	 * @return
+	 * @throws InternalProcessingException if the thread is interrupted while waiting
+	 */
+	public T checkout() throws InternalProcessingException {
+		long startWait = System.nanoTime();
+
+		T instance = available.poll();
+		if(instance == null) {
+			waitCount.incrementAndGet();
+			try {
+				instance = available.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InternalProcessingException("Interrupted while waiting for a resource of the pool " + name);
+			}
+		}
+
+		long waitNanos = System.nanoTime() - startWait;
+		checkoutCount.incrementAndGet();
+		totalWaitNanos.addAndGet(waitNanos);
+		waitLatency.recordNanos(waitNanos);
+		long currentMax = maxWaitNanos.get();
+		while(waitNanos > currentMax && !maxWaitNanos.compareAndSet(currentMax, waitNanos)) {
+			currentMax = maxWaitNanos.get();
+		}
+
+		if(waitNanos > 1000000000l) {
+			logger.debug("Waited " + (waitNanos / 1000000l) + " ms for a resource of the pool " + name);
+		}
+
+		checkoutTime.put(instance, System.nanoTime());
+		return instance;
+	}
+
+	/**
+	 * Give back to the pool an instance previously obtained by {@link #checkout() checkout()}.
+	 *
+	 * @param instance
+	 */
+	public void release(T instance) {
+		if(instance == null) {
+			return;
+		}
+
+		Long startUse = checkoutTime.remove(instance);
+		if(startUse != null) {
+			long useNanos = System.nanoTime() - startUse;
+			totalUseNanos.addAndGet(useNanos);
+			useLatency.recordNanos(useNanos);
+		}
+
+		if(!available.offer(instance)) {
+			logger.warn("Resource released more than once to the pool " + name);
+		}
+	}
+
+	/**
+	 * Name of the pool
+	 *
+	 * @return
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Total number of instances in the pool
+	 *
+	 * @return
+	 */
+	public int getSize() {
+		return instances.size();
+	}
+
+	/**
+	 * Number of instances not checked out
+	 *
+	 * @return
+	 */
+	public int getAvailable() {
+		return available.size();
+	}
+
+	/**
+	 * Unmodifiable list of all the instances of the pool, both available and checked out
+	 *
+	 * @return
+	 */
+	public List<T> getInstances() {
+		return instances;
+	}
+
+	public long getCheckoutCount() {
+		return checkoutCount.get();
+	}
+
+	/**
+	 * Number of checkouts that found no available instance and had to wait
+	 *
+	 * @return
+	 */
+	public long getWaitCount() {
+		return waitCount.get();
+	}
+
+	public long getTotalWaitTimeMs() {
+		return totalWaitNanos.get() / 1000000l;
+	}
+
+	public long getMaxWaitTimeMs() {
+		return maxWaitNanos.get() / 1000000l;
+	}
+
+	/**
+	 * Total time the instances of the pool have been checked out
+	 *
+	 * @return
+	 */
+	public long getTotalUseTimeMs() {
+		return totalUseNanos.get() / 1000000l;
+	}
+
+	/**
+	 * Histogram of the time spent waiting for an instance of the pool to become available
+	 *
+	 * @return
+	 */
+	public LatencyHistogram getWaitLatency() {
+		return waitLatency;
+	}
+
+	/**
+	 * Histogram of the time each instance has been checked out
+	 *
+	 * @return
+	 */
+	public LatencyHistogram getUseLatency() {
+		return useLatency;
+	}
+
+	/**
+	 * Reset the usage metrics of the pool (the instances currently checked out keep their checkout time)
+	 */
+	public void resetMetrics() {
+		checkoutCount.set(0l);
+		waitCount.set(0l);
+		totalWaitNanos.set(0l);
+		maxWaitNanos.set(0l);
+		totalUseNanos.set(0l);
+		waitLatency.reset();
+		useLatency.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "ResourcePool [name=" + name + ", size=" + getSize() + ", available=" + getAvailable()
+				+ ", checkouts=" + getCheckoutCount() + ", waits=" + getWaitCount()
+				+ ", totalWaitTimeMs=" + getTotalWaitTimeMs() + ", maxWaitTimeMs=" + getMaxWaitTimeMs()
+				+ ", totalUseTimeMs=" + getTotalUseTimeMs() + "]";
+	}
+
+}
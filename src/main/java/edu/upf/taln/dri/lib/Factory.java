@@ -17,14 +17,24 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 import org.apache.log4j.PropertyConfigurator;
 
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
+import edu.upf.taln.dri.common.util.ResourcePool;
 import edu.upf.taln.dri.lib.exception.DRIexception;
 import edu.upf.taln.dri.lib.exception.InternalProcessingException;
 import edu.upf.taln.dri.lib.loader.GROBIDloaderImpl;
@@ -34,6 +44,7 @@ import edu.upf.taln.dri.lib.loader.PDFXloaderImpl;
 import edu.upf.taln.dri.lib.loader.PDFloader;
 import edu.upf.taln.dri.lib.loader.PlainTextLoader;
 import edu.upf.taln.dri.lib.loader.PlainTextLoaderImpl;
+import edu.upf.taln.dri.lib.model.DocStageScheduler;
 import edu.upf.taln.dri.lib.model.Document;
 import edu.upf.taln.dri.lib.model.DocumentImpl;
 import edu.upf.taln.dri.lib.model.ext.LangENUM;
@@ -64,6 +75,8 @@ import edu.upf.taln.dri.module.terminology.TermAnnotator;
 import gate.CorpusController;
 import gate.FeatureMap;
 import gate.Gate;
+import gate.Resource;
+import gate.creole.ResourceInstantiationException;
 import gate.util.GateException;
 import gate.util.SimpleFeatureMapImpl;
 
@@ -84,6 +97,9 @@ public class Factory {
 	private static PDFtoTextConvMethod PDFtoTextConverter = PDFtoTextConvMethod.PDFX;
 	private static boolean enableSentenceParsing = true;
 	private static ModuleConfig currentModuleConfig = new ModuleConfig();
+	private static int resourcePoolSize = 1;
+	private static ExecutorService asyncExecutor = null;
+	private static DocStageScheduler asyncStageScheduler = null;
 
 	// Management of resources
 	private static boolean isProductionProp = false;
@@ -118,6 +134,9 @@ public class Factory {
 	public static final String causalityAnalysisFlagKey = "FL_causalityInfoExtracted_" + edu.upf.taln.dri.lib.Factory.getFlagProperty("version.causalityInfoExtracted");
 	public static final String babelNetAnalysisFlagKey = "FL_babelNetInfoExtracted_" + edu.upf.taln.dri.lib.Factory.getFlagProperty("version.babelNetInfoExtracted");
 	public static final String summaryAnalysisFlagKey = "FL_summaryExtracted_" + edu.upf.taln.dri.lib.Factory.getFlagProperty("version.summaryExtracted");
+
+	// Version of the PDF to XML conversions (part of the key of the cached conversions)
+	public static final String PDFconversionVersion = edu.upf.taln.dri.lib.Factory.getFlagProperty("version.PDFconversion");
 	
 	// GATE plugins initialization parameters
 	private static String inputASname_PDFXimporter = ImporterBase.driAnnSet;
@@ -219,6 +238,32 @@ public class Factory {
 	protected static CorpusController corpusController_XGAPPcausality = null;
 	protected static CorpusController corpusController_XGAPPmetaAnnotator = null;
 	
+	// Pools of independent instances of each GATE plugin, duplicated from the singletons above
+	protected static ResourcePool<ImporterPDFX> PDFXimporter_Pool = null;
+	protected static ResourcePool<ImporterPDFEXT> PDFEXTimporter_Pool = null;
+	protected static ResourcePool<ImporterGROBID> GROBIDimporter_Pool = null;
+	protected static ResourcePool<ImporterJATS> JATSimporter_Pool = null;
+	protected static ResourcePool<Map<LangENUM, MateParser>> MateParsersLang_Pool = null;
+	protected static ResourcePool<RhetoricalClassifier> RhetoricalClassifier_Pool = null;
+	protected static ResourcePool<TermAnnotator> TermAnnotator_Pool = null;
+	protected static ResourcePool<MetaAnnotator> MetaAnnotator_Pool = null;
+	protected static ResourcePool<LanguageDetector> LanguageDetector_Pool = null;
+	protected static ResourcePool<InlineCitationSpotter> CitationSanitizer_Pool = null;
+	protected static ResourcePool<CitationLinker> CitationLinker_Pool = null;
+	protected static ResourcePool<BiblioEntryParser> BiblioEntryParser_Pool = null;
+	protected static ResourcePool<HeaderAnalyzer> HeaderAnalyzer_Pool = null;
+	protected static ResourcePool<CorefChainBuilder> CorefChainBuilder_Pool = null;
+	protected static ResourcePool<BabelnetAnnotator> BabelnetAnnotator_Pool = null;
+	protected static ResourcePool<LexRankSummarizer> LexRankSummarizer_Pool = null;
+	protected static ResourcePool<TitleSimSummarizer> TitleSimSummarizer_Pool = null;
+	protected static ResourcePool<CorpusController> corpusController_preprocess_XGAPPpreprocStep1_Pool = null;
+	protected static ResourcePool<CorpusController> corpusController_preprocess_XGAPPpreprocStep2_Pool = null;
+	protected static ResourcePool<CorpusController> corpusController_XGAPPheader_Pool = null;
+	protected static ResourcePool<CorpusController> corpusController_XGAPPcitMarker_Pool = null;
+	protected static ResourcePool<CorpusController> corpusController_XGAPPcorefMentionSpot_Pool = null;
+	protected static ResourcePool<CorpusController> corpusController_XGAPPcausality_Pool = null;
+	protected static ResourcePool<CorpusController> corpusController_XGAPPmetaAnnotator_Pool = null;
+	
 	/**
 	 * This method returns a String with the status check results of the configuration settings 
 	 * and the current status of the resources of Dr. Inventor Text Mining Framework
@@ -508,30 +553,30 @@ public class Factory {
 					}
 
 					// Init DocumentImpl
-					DocumentImpl.initDocPointers(PDFXimporter_Resource,
-							PDFEXTimporter_Resource,
-							GROBIDimporter_Resource,
-							JATSimporter_Resource,
-							MateParsersLang_Resource,
-							RhetoricalClassifier_Resource,
-							TermAnnotator_Resource,
-							MetaAnnotator_Resource,
-							LanguageDetector_Resource,
-							CitationSanitizer_Resource,
-							CitationLinker_Resource,
-							BiblioEntryParser_Resource,
-							HeaderAnalyzer_Resource,
-							CorefChainBuilder_Resource,
-							BabelnetAnnotator_Resource,
-							LexRankSummarizer_Resource,
-							TitleSimSummarizer_Resource,
-							corpusController_preprocess_XGAPPpreprocStep1,
-							corpusController_preprocess_XGAPPpreprocStep2,
-							corpusController_XGAPPheader,
-							corpusController_XGAPPcitMarker,
-							corpusController_XGAPPcorefMentionSpot,
-							corpusController_XGAPPcausality,
-							corpusController_XGAPPmetaAnnotator);
+					DocumentImpl.initDocPointers(PDFXimporter_Pool,
+							PDFEXTimporter_Pool,
+							GROBIDimporter_Pool,
+							JATSimporter_Pool,
+							MateParsersLang_Pool,
+							RhetoricalClassifier_Pool,
+							TermAnnotator_Pool,
+							MetaAnnotator_Pool,
+							LanguageDetector_Pool,
+							CitationSanitizer_Pool,
+							CitationLinker_Pool,
+							BiblioEntryParser_Pool,
+							HeaderAnalyzer_Pool,
+							CorefChainBuilder_Pool,
+							BabelnetAnnotator_Pool,
+							LexRankSummarizer_Pool,
+							TitleSimSummarizer_Pool,
+							corpusController_preprocess_XGAPPpreprocStep1_Pool,
+							corpusController_preprocess_XGAPPpreprocStep2_Pool,
+							corpusController_XGAPPheader_Pool,
+							corpusController_XGAPPcitMarker_Pool,
+							corpusController_XGAPPcorefMentionSpot_Pool,
+							corpusController_XGAPPcausality_Pool,
+							corpusController_XGAPPmetaAnnotator_Pool);
 
 					logger.info("INIT: initialization complete in " + (System.currentTimeMillis() - startInitializationTime) + " ms.");
 				}
@@ -824,6 +869,8 @@ public class Factory {
 				throw new InternalProcessingException("Error while initializing XGAPP meta annotator: "
 						+ e.getMessage());
 			}
+			
+			initResourcePools();
 
 		} catch (GateException e) {
 			e.printStackTrace();
@@ -831,6 +878,73 @@ public class Factory {
 		}
 	}
 
+	/**
+	 * Populate the pools of GATE plugins: each pool includes the singleton instance initialized by
+	 * {@link #initGATEcomponents() initGATEcomponents()} plus (resourcePoolSize - 1) duplicates of it.
+	 * 
+	 * @throws ResourceInstantiationException
+	 */
+	private static void initResourcePools() throws ResourceInstantiationException {
+		logger.info("INIT: initializing pools of " + resourcePoolSize + " instance(s) of each GATE plugin...");
+		
+		PDFXimporter_Pool = createResourcePool("PDFXimporter", PDFXimporter_Resource);
+		PDFEXTimporter_Pool = createResourcePool("PDFEXTimporter", PDFEXTimporter_Resource);
+		GROBIDimporter_Pool = createResourcePool("GROBIDimporter", GROBIDimporter_Resource);
+		JATSimporter_Pool = createResourcePool("JATSimporter", JATSimporter_Resource);
+		
+		if(MateParsersLang_Resource != null) {
+			List<Map<LangENUM, MateParser>> mateParserMapList = new ArrayList<Map<LangENUM, MateParser>>();
+			mateParserMapList.add(MateParsersLang_Resource);
+			for(int i = 1; i < resourcePoolSize; i++) {
+				Map<LangENUM, MateParser> mateParserMapCopy = new HashMap<LangENUM, MateParser>();
+				for(Entry<LangENUM, MateParser> mateParserEntry : MateParsersLang_Resource.entrySet()) {
+					mateParserMapCopy.put(mateParserEntry.getKey(), (MateParser) gate.Factory.duplicate(mateParserEntry.getValue()));
+				}
+				mateParserMapList.add(mateParserMapCopy);
+			}
+			MateParsersLang_Pool = new ResourcePool<Map<LangENUM, MateParser>>("MateParser", mateParserMapList);
+		}
+		
+		RhetoricalClassifier_Pool = createResourcePool("RhetoricalClassifier", RhetoricalClassifier_Resource);
+		TermAnnotator_Pool = createResourcePool("TermAnnotator", TermAnnotator_Resource);
+		MetaAnnotator_Pool = createResourcePool("MetaAnnotator", MetaAnnotator_Resource);
+		LanguageDetector_Pool = createResourcePool("LanguageDetector", LanguageDetector_Resource);
+		CitationSanitizer_Pool = createResourcePool("CitationSanitizer", CitationSanitizer_Resource);
+		CitationLinker_Pool = createResourcePool("CitationLinker", CitationLinker_Resource);
+		BiblioEntryParser_Pool = createResourcePool("BiblioEntryParser", BiblioEntryParser_Resource);
+		HeaderAnalyzer_Pool = createResourcePool("HeaderAnalyzer", HeaderAnalyzer_Resource);
+		CorefChainBuilder_Pool = createResourcePool("CorefChainBuilder", CorefChainBuilder_Resource);
+		BabelnetAnnotator_Pool = createResourcePool("BabelnetAnnotator", BabelnetAnnotator_Resource);
+		LexRankSummarizer_Pool = createResourcePool("LexRankSummarizer", LexRankSummarizer_Resource);
+		TitleSimSummarizer_Pool = createResourcePool("TitleSimSummarizer", TitleSimSummarizer_Resource);
+		corpusController_preprocess_XGAPPpreprocStep1_Pool = createResourcePool("XGAPPpreprocStep1", corpusController_preprocess_XGAPPpreprocStep1);
+		corpusController_preprocess_XGAPPpreprocStep2_Pool = createResourcePool("XGAPPpreprocStep2", corpusController_preprocess_XGAPPpreprocStep2);
+		corpusController_XGAPPheader_Pool = createResourcePool("XGAPPheader", corpusController_XGAPPheader);
+		corpusController_XGAPPcitMarker_Pool = createResourcePool("XGAPPcitMarker", corpusController_XGAPPcitMarker);
+		corpusController_XGAPPcorefMentionSpot_Pool = createResourcePool("XGAPPcorefMentionSpot", corpusController_XGAPPcorefMentionSpot);
+		corpusController_XGAPPcausality_Pool = createResourcePool("XGAPPcausality", corpusController_XGAPPcausality);
+		corpusController_XGAPPmetaAnnotator_Pool = createResourcePool("XGAPPmetaAnnotator", corpusController_XGAPPmetaAnnotator);
+		
+		for(ResourcePool<?> pool : getResourcePools()) {
+			MetricsRegistry.getInstance().registerPool(pool);
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T extends Resource> ResourcePool<T> createResourcePool(String poolName, T prototype) throws ResourceInstantiationException {
+		if(prototype == null) {
+			return null;
+		}
+		
+		List<T> poolInstances = new ArrayList<T>();
+		poolInstances.add(prototype);
+		for(int i = 1; i < resourcePoolSize; i++) {
+			poolInstances.add((T) gate.Factory.duplicate(prototype));
+		}
+		
+		return new ResourcePool<T>(poolName, poolInstances);
+	}
+
 	/**
 	 * Get the PDF loader (singleton) by the interface {@link edu.upf.taln.dri.lib.loader.PDFloader PDFloader} to invoke proper methods to generate {@link edu.upf.taln.dri.lib.model.Document Document}s from PDF files
 	 * 
@@ -975,6 +1089,167 @@ public class Factory {
 		Factory.enableSentenceParsing = enableSentenceParsing;
 	}
 
+	/**
+	 * Get the number of independent instances of each processing resource (parser, rhetorical classifier, 
+	 * coreference resolver, etc.) the library creates when initialized.
+	 * 
+	 * @return
+	 */
+	public static int getResourcePoolSize() {
+		return resourcePoolSize;
+	}
+
+	/**
+	 * Set the number of independent instances of each processing resource (parser, rhetorical classifier, 
+	 * coreference resolver, etc.) the library creates when initialized.<br/>
+	 * With a pool size greater than 1, up to that number of documents can be processed in parallel by the same
+	 * analysis step, each one by a distinct thread. Each instance of a resource holds its own copy of the 
+	 * models it relies on, thus the memory required by the library grows with the pool size.<br/>
+	 * IMPORTANT: the pool size should be set before initializing the Dr. Inventor Text Mining Framework.
+	 * 
+	 * @param poolSize number of instances of each resource (values lower than 1 are ignored)
+	 */
+	public static void setResourcePoolSize(int poolSize) {
+		if(initialized) {
+			logger.warn("The library is already initialized: the resource pool size change will be ignored.");
+			return;
+		}
+		
+		if(poolSize > 0) {
+			Factory.resourcePoolSize = poolSize;
+		}
+	}
+	
+	/**
+	 * Start parsing a list of bibliographic entry texts by means of the services the bibliographic entry parser of the library
+	 * is configured to use (see {@link edu.upf.taln.dri.module.citation.BiblioEntryParser#prefetch(Collection) BiblioEntryParser.prefetch(...)}).
+	 * 
+	 * @param bibEntryTexts
+	 * @return the future completed when all the entries have been parsed
+	 * @throws DRIexception
+	 */
+	public static CompletableFuture<Void> prefetchBibEntries(Collection<String> bibEntryTexts) throws DRIexception {
+		initFramework();
+		
+		return BiblioEntryParser_Resource.prefetch(bibEntryTexts);
+	}
+	
+	/**
+	 * Get a String with the usage statistics of the pools of processing resources: number of checkouts,
+	 * number of checkouts that had to wait for an instance to be available and time spent waiting.
+	 * 
+	 * @return
+	 */
+	public static String getResourcePoolStatus() {
+		String statusString = "";
+		
+		for(ResourcePool<?> pool : getResourcePools()) {
+			statusString += pool.toString() + "\n";
+		}
+		
+		return statusString;
+	}
+	
+	private static List<ResourcePool<?>> getResourcePools() {
+		List<ResourcePool<?>> poolList = new ArrayList<ResourcePool<?>>();
+		poolList.add(PDFXimporter_Pool);
+		poolList.add(PDFEXTimporter_Pool);
+		poolList.add(GROBIDimporter_Pool);
+		poolList.add(JATSimporter_Pool);
+		poolList.add(MateParsersLang_Pool);
+		poolList.add(RhetoricalClassifier_Pool);
+		poolList.add(TermAnnotator_Pool);
+		poolList.add(MetaAnnotator_Pool);
+		poolList.add(LanguageDetector_Pool);
+		poolList.add(CitationSanitizer_Pool);
+		poolList.add(CitationLinker_Pool);
+		poolList.add(BiblioEntryParser_Pool);
+		poolList.add(HeaderAnalyzer_Pool);
+		poolList.add(CorefChainBuilder_Pool);
+		poolList.add(BabelnetAnnotator_Pool);
+		poolList.add(LexRankSummarizer_Pool);
+		poolList.add(TitleSimSummarizer_Pool);
+		poolList.add(corpusController_preprocess_XGAPPpreprocStep1_Pool);
+		poolList.add(corpusController_preprocess_XGAPPpreprocStep2_Pool);
+		poolList.add(corpusController_XGAPPheader_Pool);
+		poolList.add(corpusController_XGAPPcitMarker_Pool);
+		poolList.add(corpusController_XGAPPcorefMentionSpot_Pool);
+		poolList.add(corpusController_XGAPPcausality_Pool);
+		poolList.add(corpusController_XGAPPmetaAnnotator_Pool);
+		
+		List<ResourcePool<?>> retPoolList = new ArrayList<ResourcePool<?>>();
+		for(ResourcePool<?> pool : poolList) {
+			if(pool != null) {
+				retPoolList.add(pool);
+			}
+		}
+		
+		return retPoolList;
+	}
+	
+	/**
+	 * Get the registry of the execution metrics of the library: latency histograms and counters of each analysis stage 
+	 * and of each connector to remote services, together with the lock wait and use times of the pools of processing resources.<br/>
+	 * The registry can be exposed by JMX ({@link edu.upf.taln.dri.common.metrics.MetricsRegistry#registerMBean() registerMBean()}) or
+	 * periodically exported to CSV ({@link edu.upf.taln.dri.common.metrics.MetricsRegistry#startCSVExport(java.io.File, long) startCSVExport(File, long)}).
+	 * 
+	 * @return
+	 */
+	public static MetricsRegistry getMetricsRegistry() {
+		return MetricsRegistry.getInstance();
+	}
+	
+	/**
+	 * Get a String with the execution metrics of the library (see {@link #getMetricsRegistry() getMetricsRegistry()})
+	 * 
+	 * @return
+	 */
+	public static String getMetricsReport() {
+		return MetricsRegistry.getInstance().getReport();
+	}
+
+	/**
+	 * Set the executor that runs the analysis stages and the extractions requested by the asynchronous methods of
+	 * {@link edu.upf.taln.dri.lib.model.Document Document} (extractSentencesAsync, extractCitationsAsync, etc.).<br/>
+	 * The executor is not shut down by the library.
+	 * 
+	 * @param executor if null, the default executor is used (a fixed pool of daemon threads, one for each available processor)
+	 */
+	public static synchronized void setAsyncExecutor(ExecutorService executor) {
+		Factory.asyncExecutor = executor;
+		Factory.asyncStageScheduler = null;
+	}
+	
+	/**
+	 * Get the executor that runs the asynchronous methods of {@link edu.upf.taln.dri.lib.model.Document Document}
+	 * 
+	 * @return
+	 */
+	public static synchronized ExecutorService getAsyncExecutor() {
+		if(asyncExecutor == null) {
+			AtomicInteger threadCounter = new AtomicInteger(0);
+			asyncExecutor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+				Thread asyncThread = new Thread(runnable, "DRI-async-" + threadCounter.incrementAndGet());
+				asyncThread.setDaemon(true);
+				return asyncThread;
+			});
+			logger.info("Initialized the default executor of asynchronous document analyses.");
+		}
+		return asyncExecutor;
+	}
+	
+	/**
+	 * Get the scheduler of the analysis stages requested by the asynchronous methods of {@link edu.upf.taln.dri.lib.model.Document Document}
+	 * 
+	 * @return
+	 */
+	public static synchronized DocStageScheduler getAsyncStageScheduler() {
+		if(asyncStageScheduler == null) {
+			asyncStageScheduler = new DocStageScheduler(getAsyncExecutor());
+		}
+		return asyncStageScheduler;
+	}
+
 	/**
 	 * Get the PDF to text converter currently used by the library.
 	 * 
@@ -0,0 +1,588 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.lib.corpus;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import edu.upf.taln.dri.lib.Factory;
+import edu.upf.taln.dri.lib.exception.DRIexception;
+import edu.upf.taln.dri.lib.exception.InternalProcessingException;
+import edu.upf.taln.dri.lib.exception.InvalidParameterException;
+import edu.upf.taln.dri.lib.exception.ResourceAccessException;
+import edu.upf.taln.dri.lib.loader.JATSloader;
+import edu.upf.taln.dri.lib.loader.PDFloader;
+import edu.upf.taln.dri.lib.loader.PlainTextLoader;
+import edu.upf.taln.dri.lib.model.Document;
+import edu.upf.taln.dri.lib.model.DocumentImpl;
+import edu.upf.taln.dri.lib.util.ModuleConfig;
+import edu.upf.taln.dri.module.citation.BiblioEntryParser;
+import edu.upf.taln.dri.module.importer.SourceENUM;
+
+/**
+ * Batch processing of a corpus of papers (PDF, JATS XML or plain text files).<br/><br/>
+ *
+ * The analysis of the papers is organized as a pipeline of stages (loading, sentence extraction, citation analysis, header
+ * analysis, dependency parsing, coreference and causality, rhetorical classification, terminology and BabelNet disambiguation,
+ * summarization, output) connected by bounded queues. Each stage is executed by its own set of threads, thus while a document
+ * is dependency-parsed the following document can be loaded and the previous one rhetorically classified.<br/>
+ * Each document is written to the output as soon as it has gone through all the stages, then its resources are released by
+ * {@link edu.upf.taln.dri.lib.model.Document#cleanUp() cleanUp()}.<br/><br/>
+ *
+ * To let more than one document at a time go through the same stage, the library should be configured with a resource pool size
+ * greater than one by means of {@link edu.upf.taln.dri.lib.Factory#setResourcePoolSize(int) Factory.setResourcePoolSize(int)}
+ * before its initialization.
+ *
+ *
+ */
+public class CorpusProcessor {
+
+	private static Logger logger = Logger.getLogger(CorpusProcessor.class);
+
+	/**
+	 * Consumer of the documents that went through all the stages of the pipeline.
+	 *
+	 *
+	 */
+	public interface OutputWriter {
+
+		/**
+		 * Write the processed document; called by one of the threads of the output stage,
+		 * thus implementations should be thread-safe.
+		 *
+		 * @param inputFile the file the document has been loaded from
+		 * @param doc the processed document
+		 * @throws Exception
+		 */
+		public void write(File inputFile, Document doc) throws Exception;
+	}
+
+	interface StageAction {
+		public void execute(CorpusItem item) throws Exception;
+	}
+
+	static class CorpusItem {
+		final File inputFile;
+		private Document doc = null;
+
+		private CorpusItem(File inputFile) {
+			this.inputFile = inputFile;
+		}
+	}
+
+	static class Stage {
+		private final String name;
+		private final StageAction action;
+		private final BlockingQueue<CorpusItem> inputQueue;
+		private int threadNumber = 1;
+		private AtomicInteger runningThreads = new AtomicInteger(0);
+
+		Stage(String name, StageAction action, int queueCapacity) {
+			this.name = name;
+			this.action = action;
+			this.inputQueue = new ArrayBlockingQueue<CorpusItem>(queueCapacity);
+		}
+	}
+
+	// End of input marker
+	private static final CorpusItem END_OF_INPUT = new CorpusItem(null);
+
+	private static final List<String> PDFextensions = Collections.unmodifiableList(Arrays.asList(".pdf"));
+	private static final List<String> JATSextensions = Collections.unmodifiableList(Arrays.asList(".xml", ".nxml"));
+	private static final List<String> plainTextExtensions = Collections.unmodifiableList(Arrays.asList(".txt"));
+
+	private final ModuleConfig moduleConfig;
+	private final int threadBudget;
+	private int queueCapacity = 4;
+	private int reportEvery = 10;
+	private OutputWriter outputWriter = null;
+	private boolean bibEntryPrefetch = false;
+
+	private PDFloader PDFloaderObj = null;
+	private JATSloader JATSloaderObj = null;
+	private PlainTextLoader plainTextLoaderObj = null;
+
+	// Processing statistics
+	private final AtomicInteger submittedDocs = new AtomicInteger(0);
+	private final AtomicInteger processedDocs = new AtomicInteger(0);
+	private final AtomicInteger failedDocs = new AtomicInteger(0);
+	private long startTime = 0l;
+	private long endTime = 0l;
+
+	/**
+	 * Create a corpus processor
+	 *
+	 * @param moduleConfig the module configuration to apply to the library before processing the corpus (if null, the current one is used)
+	 * @param threadBudget the overall number of threads to distribute among the stages of the pipeline; each stage
+	 * gets at least one thread
+	 */
+	public CorpusProcessor(ModuleConfig moduleConfig, int threadBudget) {
+		this.moduleConfig = (moduleConfig != null) ? ModuleConfig.dCopy(moduleConfig) : null;
+		this.threadBudget = (threadBudget > 0) ? threadBudget : Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Set the capacity of the queue in front of each stage: when the queue is full, the previous stage waits.
+	 * Low values limit the number of documents held in memory at the same time.
+	 *
+	 * @param queueCapacity
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		if(queueCapacity > 0) {
+			this.queueCapacity = queueCapacity;
+		}
+	}
+
+	/**
+	 * Log the processing rate each time this number of documents has been processed
+	 *
+	 * @param reportEvery
+	 */
+	public void setReportEvery(int reportEvery) {
+		if(reportEvery > 0) {
+			this.reportEvery = reportEvery;
+		}
+	}
+
+	/**
+	 * If true, as soon as a PDF paper is loaded its bibliographic entries are submitted for parsing (see
+	 * {@link edu.upf.taln.dri.lib.Factory#prefetchBibEntries(java.util.Collection) Factory.prefetchBibEntries(...)}),
+	 * while the paper goes through the preceding stages. Bibliographic entries shared by several papers of the corpus
+	 * are parsed only once; parsing results are released at the end of the processing of the corpus.
+	 *
+	 * @param bibEntryPrefetch
+	 */
+	public void setBibEntryPrefetch(boolean bibEntryPrefetch) {
+		this.bibEntryPrefetch = bibEntryPrefetch;
+	}
+
+	/**
+	 * Set the consumer of the processed documents
+	 *
+	 * @param outputWriter
+	 */
+	public void setOutputWriter(OutputWriter outputWriter) {
+		this.outputWriter = outputWriter;
+	}
+
+	/**
+	 * Write each processed document to the output directory as XML string-serialized contents (see
+	 * {@link edu.upf.taln.dri.lib.model.Document#getXMLString() getXMLString()}), in a file named
+	 * as the input one plus the suffix '_DRI.xml'.
+	 *
+	 * @param outputDirectory
+	 * @throws InvalidParameterException
+	 */
+	public void setOutputDirectory(File outputDirectory) throws InvalidParameterException {
+		if(outputDirectory == null || !outputDirectory.exists() || !outputDirectory.isDirectory()) {
+			throw new InvalidParameterException("Invalid output directory: " + ((outputDirectory != null) ? outputDirectory.getAbsolutePath() : "NULL"));
+		}
+
+		this.outputWriter = (inputFile, doc) -> {
+			File outputFile = new File(outputDirectory, inputFile.getName() + "_DRI.xml");
+			Writer out = new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8);
+			try {
+				out.write(doc.getXMLString());
+			} finally {
+				out.close();
+			}
+		};
+	}
+
+	/**
+	 * Process all the PDF (.pdf), JATS (.xml, .nxml) and plain text (.txt) files of a directory.
+	 *
+	 * @param inputDirectory
+	 * @throws DRIexception
+	 */
+	public void process(File inputDirectory) throws DRIexception {
+		if(inputDirectory == null || !inputDirectory.exists() || !inputDirectory.isDirectory()) {
+			throw new ResourceAccessException("Invalid input directory: " + ((inputDirectory != null) ? inputDirectory.getAbsolutePath() : "NULL"));
+		}
+
+		List<File> inputFiles = new ArrayList<File>();
+		File[] dirFiles = inputDirectory.listFiles();
+		if(dirFiles != null) {
+			for(File dirFile : dirFiles) {
+				if(dirFile != null && dirFile.isFile() && getFileExtension(dirFile) != null) {
+					inputFiles.add(dirFile);
+				}
+			}
+		}
+		Collections.sort(inputFiles);
+
+		logger.info("Found " + inputFiles.size() + " files to process in " + inputDirectory.getAbsolutePath());
+
+		process(inputFiles.iterator());
+	}
+
+	/**
+	 * Process the PDF (.pdf), JATS (.xml, .nxml) and plain text (.txt) files provided by an iterator.
+	 * The method returns when all the documents have been processed.
+	 *
+	 * @param inputFiles
+	 * @throws DRIexception
+	 */
+	public void process(Iterator<File> inputFiles) throws DRIexception {
+		if(inputFiles == null) {
+			throw new InvalidParameterException("Invalid input file iterator (null)");
+		}
+
+		if(moduleConfig != null) {
+			Factory.setModuleConfig(moduleConfig);
+		}
+		Factory.initFramework();
+
+		// Loaders are lazily created singletons: get them before starting the worker threads
+		PDFloaderObj = Factory.getPDFloader();
+		JATSloaderObj = Factory.getJATSloader();
+		plainTextLoaderObj = Factory.getPlainTextLoader();
+
+		runPipeline(createStages(), inputFiles);
+	}
+
+	/**
+	 * Execute a pipeline of stages over the files provided by an iterator, returning when all the files have gone 
+	 * through all the stages or failed in one of them.
+	 *
+	 * @param stages
+	 * @param inputFiles
+	 * @throws InternalProcessingException
+	 */
+	void runPipeline(List<Stage> stages, Iterator<File> inputFiles) throws InternalProcessingException {
+		submittedDocs.set(0);
+		processedDocs.set(0);
+		failedDocs.set(0);
+		startTime = System.currentTimeMillis();
+		endTime = 0l;
+
+		assignThreads(stages);
+
+		int totalThreads = 0;
+		for(Stage stage : stages) {
+			totalThreads += stage.threadNumber;
+		}
+		logger.info("Starting corpus processing pipeline with " + stages.size() + " stages and " + totalThreads + " threads.");
+
+		ExecutorService executor = Executors.newFixedThreadPool(totalThreads);
+		boolean completed = false;
+		try {
+			for(int stageIndex = 0; stageIndex < stages.size(); stageIndex++) {
+				Stage stage = stages.get(stageIndex);
+				Stage nextStage = (stageIndex < stages.size() - 1) ? stages.get(stageIndex + 1) : null;
+				for(int t = 0; t < stage.threadNumber; t++) {
+					stage.runningThreads.incrementAndGet();
+					executor.submit(() -> runStage(stage, nextStage));
+				}
+			}
+
+			// Feed the first stage
+			Stage firstStage = stages.get(0);
+			while(inputFiles.hasNext()) {
+				File inputFile = inputFiles.next();
+				if(inputFile != null) {
+					firstStage.inputQueue.put(new CorpusItem(inputFile));
+					submittedDocs.incrementAndGet();
+				}
+			}
+			for(int t = 0; t < firstStage.threadNumber; t++) {
+				firstStage.inputQueue.put(END_OF_INPUT);
+			}
+
+			executor.shutdown();
+			while(!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+				logger.info("Corpus processing in progress: " + getStatus());
+			}
+			completed = true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InternalProcessingException("Corpus processing interrupted");
+		}
+		finally {
+			// Stop the stage threads if the input iterator or the feeding of the pipeline failed
+			if(!completed) {
+				executor.shutdownNow();
+			}
+			endTime = System.currentTimeMillis();
+			if(bibEntryPrefetch) {
+				BiblioEntryParser.clearPrefetchedEntries();
+			}
+		}
+
+		logger.info("Corpus processing completed: " + getStatus());
+	}
+
+	private List<Stage> createStages() {
+		List<Stage> stages = new ArrayList<Stage>();
+
+		stages.add(new Stage("Load", (item) -> {
+			item.doc = loadDocument(item.inputFile);
+			if(bibEntryPrefetch) {
+				prefetchBibEntries(asDocumentImpl(item));
+			}
+		}, queueCapacity));
+
+		stages.add(new Stage("Sentences", (item) -> {
+			asDocumentImpl(item).parsingSentences(false);
+		}, queueCapacity));
+
+		stages.add(new Stage("Citations", (item) -> {
+			DocumentImpl doc = asDocumentImpl(item);
+			doc.parsingCitations_Spot(false);
+			doc.parsingCitations_Link(false);
+			doc.parsingCitations_Enrich(false);
+		}, queueCapacity));
+
+		stages.add(new Stage("Header", (item) -> {
+			asDocumentImpl(item).parsingHeader(false);
+		}, queueCapacity));
+
+		stages.add(new Stage("Graph", (item) -> {
+			asDocumentImpl(item).parsingDep(false);
+		}, queueCapacity));
+
+		stages.add(new Stage("Coreference", (item) -> {
+			DocumentImpl doc = asDocumentImpl(item);
+			doc.parsingMetaAnnotations(false);
+			doc.parsingCoref(false);
+			doc.parsingCausality(false);
+		}, queueCapacity));
+
+		stages.add(new Stage("Rhetorical", (item) -> {
+			asDocumentImpl(item).parsingRhetoricalClass(false);
+		}, queueCapacity));
+
+		stages.add(new Stage("Terminology", (item) -> {
+			DocumentImpl doc = asDocumentImpl(item);
+			doc.parsingTerminology(false);
+			doc.parsingBabelNet(false);
+		}, queueCapacity));
+
+		stages.add(new Stage("Summary", (item) -> {
+			asDocumentImpl(item).parsingSummary(false);
+		}, queueCapacity));
+
+		stages.add(new Stage("Output", (item) -> {
+			if(outputWriter != null) {
+				outputWriter.write(item.inputFile, item.doc);
+			}
+		}, queueCapacity));
+
+		return stages;
+	}
+
+	/**
+	 * One thread per stage, the remaining ones of the budget assigned round-robin to the
+	 * stages that rely on local processing resources (load, graph, rhetorical, coreference).
+	 *
+	 * @param stages
+	 */
+	private void assignThreads(List<Stage> stages) {
+		List<Stage> heavyStages = new ArrayList<Stage>();
+		for(Stage stage : stages) {
+			stage.threadNumber = 1;
+			if(stage.name.equals("Load") || stage.name.equals("Graph") || stage.name.equals("Rhetorical") || stage.name.equals("Coreference")) {
+				heavyStages.add(stage);
+			}
+		}
+
+		if(heavyStages.size() == 0) {
+			heavyStages.addAll(stages);
+		}
+
+		int remainingThreads = threadBudget - stages.size();
+		int heavyIndex = 0;
+		while(remainingThreads > 0) {
+			heavyStages.get(heavyIndex % heavyStages.size()).threadNumber++;
+			heavyIndex++;
+			remainingThreads--;
+		}
+	}
+
+	private void runStage(Stage stage, Stage nextStage) {
+		try {
+			while(true) {
+				CorpusItem item = stage.inputQueue.take();
+				if(item == END_OF_INPUT) {
+					break;
+				}
+
+				try {
+					long startStage = System.currentTimeMillis();
+					stage.action.execute(item);
+					logger.debug("Stage " + stage.name + " of " + item.inputFile.getName() + " executed in " + (System.currentTimeMillis() - startStage) + " ms.");
+				}
+				catch (Exception e) {
+					logger.warn("Error while processing " + item.inputFile.getAbsolutePath() + " (stage " + stage.name + "): " + e.getMessage());
+					failedDocs.incrementAndGet();
+					releaseDocument(item);
+					continue;
+				}
+				catch (Error e) {
+					// Errors of a single document (e.g. stack overflow or out of memory while processing a large paper) do not stop the stage:
+					// the other documents in the queue would not be consumed anymore
+					logger.error("Error while processing " + item.inputFile.getAbsolutePath() + " (stage " + stage.name + "): " + e.getClass().getName() + " - " + e.getMessage());
+					failedDocs.incrementAndGet();
+					releaseDocument(item);
+					continue;
+				}
+
+				if(nextStage != null) {
+					nextStage.inputQueue.put(item);
+				}
+				else {
+					releaseDocument(item);
+					int processed = processedDocs.incrementAndGet();
+					if(processed % reportEvery == 0) {
+						logger.info("Corpus processing in progress: " + getStatus());
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			// The last thread of the stage to terminate signals the end of input to the next stage
+			if(stage.runningThreads.decrementAndGet() == 0 && nextStage != null) {
+				try {
+					for(int t = 0; t < nextStage.threadNumber; t++) {
+						nextStage.inputQueue.put(END_OF_INPUT);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+
+	private Document loadDocument(File inputFile) throws DRIexception {
+		String extension = getFileExtension(inputFile);
+
+		if(extension == null) {
+			throw new InvalidParameterException("Unsupported file type: " + inputFile.getName());
+		}
+		else if(PDFextensions.contains(extension)) {
+			return PDFloaderObj.parsePDF(inputFile);
+		}
+		else if(JATSextensions.contains(extension)) {
+			return JATSloaderObj.parseJATS(inputFile);
+		}
+		else {
+			return plainTextLoaderObj.parsePlainText(inputFile);
+		}
+	}
+
+	/**
+	 * Start parsing the bibliographic entries of a paper, if they are going to be enriched
+	 * (citations of JATS and plain text documents are not enriched)
+	 *
+	 * @param doc
+	 */
+	private static void prefetchBibEntries(DocumentImpl doc) throws DRIexception {
+		if(!Factory.getModuleConfig().isEnableBibEntryParsing() || doc.cacheManager == null ||
+				SourceENUM.JATS.equals(doc.getSourceDocumentType()) || SourceENUM.PLAIN_TEXT.equals(doc.getSourceDocumentType())) {
+			return;
+		}
+
+		Factory.prefetchBibEntries(BiblioEntryParser.getBibEntryTexts(doc.cacheManager.getGateDoc()));
+	}
+
+	private static DocumentImpl asDocumentImpl(CorpusItem item) throws InternalProcessingException {
+		if(item.doc instanceof DocumentImpl) {
+			return (DocumentImpl) item.doc;
+		}
+		throw new InternalProcessingException("Document not loaded: " + item.inputFile.getName());
+	}
+
+	private static void releaseDocument(CorpusItem item) {
+		if(item.doc != null) {
+			try {
+				item.doc.cleanUp();
+			} catch (Exception e) {
+				logger.debug("Error while cleaning up document " + item.inputFile.getName() + ": " + e.getMessage());
+			}
+			item.doc = null;
+		}
+	}
+
+	private static String getFileExtension(File file) {
+		String fileName = file.getName().toLowerCase();
+		List<String> allExtensions = new ArrayList<String>();
+		allExtensions.addAll(PDFextensions);
+		allExtensions.addAll(JATSextensions);
+		allExtensions.addAll(plainTextExtensions);
+		for(String extension : allExtensions) {
+			if(fileName.endsWith(extension)) {
+				return extension;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Number of documents that went through all the stages of the pipeline
+	 *
+	 * @return
+	 */
+	public int getProcessedCount() {
+		return processedDocs.get();
+	}
+
+	/**
+	 * Number of documents whose processing failed in one of the stages of the pipeline
+	 *
+	 * @return
+	 */
+	public int getFailedCount() {
+		return failedDocs.get();
+	}
+
+	/**
+	 * Processed documents per second, since the beginning of the last call to process
+	 *
+	 * @return
+	 */
+	public double getDocsPerSecond() {
+		long elapsed = ((endTime > 0l) ? endTime : System.currentTimeMillis()) - startTime;
+		if(startTime == 0l || elapsed <= 0l) {
+			return 0d;
+		}
+		return ((double) processedDocs.get()) * 1000d / ((double) elapsed);
+	}
+
+	/**
+	 * Get a String with the processing statistics of the corpus
+	 *
+	 * @return
+	 */
+	public String getStatus() {
+		return "submitted: " + submittedDocs.get() + ", processed: " + processedDocs.get() + ", failed: " + failedDocs.get()
+		+ ", docs/sec: " + String.format("%.3f", getDocsPerSecond());
+	}
+
+}
@@ -11,19 +11,18 @@
  */
 package edu.upf.taln.dri.lib.loader;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
@@ -34,6 +33,8 @@ import org.grobid.core.mock.MockContext;
 import org.grobid.core.utilities.GrobidProperties;
 
 import edu.upf.taln.dri.common.analyzer.pdf.PDFPaperParser;
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
+import edu.upf.taln.dri.common.util.ResourcePool;
 import edu.upf.taln.dri.common.util.Util;
 import edu.upf.taln.dri.lib.exception.DRIexception;
 import edu.upf.taln.dri.lib.exception.InternalProcessingException;
@@ -49,7 +50,10 @@ import gate.creole.ResourceInstantiationException;
  * Implementation of the PDF loading methods of Dr Inventor. <br/><br/>
  * 
  * To get an instance of a PDFimporter by the {@link edu.upf.taln.dri.lib.loader.PDFloader PDFloader interface}, always use the
- * {@link edu.upf.taln.dri.lib.Factory Factory} method {@link edu.upf.taln.dri.lib.Factory#getPDFloader() getPDFloader()}.
+ * {@link edu.upf.taln.dri.lib.Factory Factory} method {@link edu.upf.taln.dri.lib.Factory#getPDFloader() getPDFloader()}.<br/><br/>
+ * 
+ * PDFs are converted by a pool of {@link #enginePoolSize} GROBID engines (by default one for each core), thus
+ * several PDFs can be converted concurrently.
  * 
  *
  */
@@ -57,10 +61,18 @@ public class GROBIDloaderImpl implements PDFloader {
 
 	private static Logger logger = Logger.getLogger(GROBIDloaderImpl.class);
 
-	private static Random rnd = new Random();
-	private static boolean isInitialized = false;
+	// Number of GROBID engines (each engine converts one PDF at a time)
+	public static int enginePoolSize = Runtime.getRuntime().availableProcessors();
+
+	private static final String CONVERTER_NAME = "GROBID";
+
+	private static volatile boolean isInitialized = false;
+	private static ResourcePool<Engine> enginePool = null;
+
+	// Conversions hold the read lock, the cleaning of the GROBID temporary folder the write lock
+	private static final ReentrantReadWriteLock tempFolderLock = new ReentrantReadWriteLock();
 
-	private static void initGROBID(String GROBIDhome, String GROBIDproperties) {
+	private static synchronized void initGROBID(String GROBIDhome, String GROBIDproperties) throws InternalProcessingException {
 		// String pGrobidHome = "/home/francesco/Downloads/GORBID_TEST/grobid-grobid-parent-0.4.0/grobid-home";
 		// String pGrobidProperties = "/home/francesco/Downloads/GORBID_TEST/grobid-grobid-parent-0.4.0/grobid-home/config/grobid.properties";
 
@@ -75,6 +87,17 @@ public class GROBIDloaderImpl implements PDFloader {
 				GrobidProperties.getInstance();
 
 				logger.info("GROBID correctly initialized (home set to: " + ((GrobidProperties.get_GROBID_HOME_PATH() != null) ? GrobidProperties.get_GROBID_HOME_PATH() : "NULL") + ").");
+
+				// Create the pool of GROBID engines
+				int poolSize = (enginePoolSize > 0) ? enginePoolSize : 1;
+				List<Engine> engines = new ArrayList<Engine>();
+				for(int i = 0; i < poolSize; i++) {
+					engines.add(GrobidFactory.getInstance().createEngine());
+				}
+				enginePool = new ResourcePool<Engine>("GROBIDengine", engines);
+				MetricsRegistry.getInstance().registerPool(enginePool);
+
+				logger.info("Created " + poolSize + " GROBID engines.");
 				isInitialized = true;
 			} 
 			catch (Exception e) {
@@ -83,45 +106,63 @@ public class GROBIDloaderImpl implements PDFloader {
 
 		}
 
+		if(enginePool == null) {
+			throw new InternalProcessingException("Impossible to initialize GROBID engines");
+		}
 	}
 
 	@Override
 	public Document parsePDF(byte[] PDFbyteArray, String PDFfileName) throws DRIexception {
-		initGROBID(edu.upf.taln.dri.lib.Factory.GROBIDhome, edu.upf.taln.dri.lib.Factory.GROBIDproperties);
+		if(PDFbyteArray == null || PDFbyteArray.length == 0) {
+			throw new InvalidParameterException("Invalid PDF byte array (null or empty)");
+		}
 
-		Document retDocument = null;
+		// Check if the PDF has already been converted
+		String conversionKey = PDFconversionCache.getKey(CONVERTER_NAME, edu.upf.taln.dri.lib.Factory.PDFconversionVersion, PDFbyteArray);
+		String cachedConversion = PDFconversionCache.getConversion(conversionKey);
 
-		// Create temp file
-		String tempFileName = rnd.nextInt(100000) + "_tempGROBID_PDF";
+		// GROBID converts files: store the PDF in a temp file
 		File tempPDFfile = null;
 		try {
-			tempPDFfile = File.createTempFile(tempFileName, ".pdf");
-			FileOutputStream fos = new FileOutputStream(tempPDFfile);
-			fos.write(PDFbyteArray);
-			fos.close();
+			tempPDFfile = Files.createTempFile("tempGROBID_PDF_", ".pdf").toFile();
+			Files.write(tempPDFfile.toPath(), PDFbyteArray);
 		} catch (IOException e) {
 			Util.notifyException("Creating temporal PDF file", e, logger);
+			if(tempPDFfile != null) {
+				tempPDFfile.delete();
+			}
+			throw new InternalProcessingException("Error while storing PDF contents to a temporal file");
 		}
 
-
-		// Execute GROBID
-		String GROBIDresult = "";
 		try {
-			Engine engine = GrobidFactory.getInstance().createEngine();
-			GROBIDresult = engine.fullTextToTEI(tempPDFfile, GrobidAnalysisConfig.defaultInstance());
-		} 
-		catch (Exception e) {
-			Util.notifyException("Converting PDF by GROBID", e, logger);
+			return convertPDF(tempPDFfile, PDFfileName, conversionKey, cachedConversion);
 		}
-
-		// Delete temp file
-		try {
-			tempPDFfile.delete();
-		} 
-		catch (Exception e) {
-			Util.notifyException("Deleting temporal PDF file", e, logger);
+		finally {
+			// Delete temp file
+			try {
+				tempPDFfile.delete();
+			} 
+			catch (Exception e) {
+				Util.notifyException("Deleting temporal PDF file", e, logger);
+			}
 		}
+	}
 
+	/**
+	 * Convert a PDF file by one of the pooled GROBID engines, if not already converted
+	 * 
+	 * @param PDFfile
+	 * @param PDFfileName
+	 * @param conversionKey the key of the conversion in the {@link edu.upf.taln.dri.lib.loader.PDFconversionCache PDFconversionCache}
+	 * @param cachedConversion the cached conversion, null if not cached
+	 * @return
+	 * @throws DRIexception
+	 */
+	private Document convertPDF(File PDFfile, String PDFfileName, String conversionKey, String cachedConversion) throws DRIexception {
+		Document retDocument = null;
+
+		// Execute GROBID
+		String GROBIDresult = (cachedConversion != null) ? cachedConversion : convertPDFtoTEI(PDFfile, conversionKey);
 
 		if(GROBIDresult != null && GROBIDresult.length() > 600) {
 
@@ -132,6 +173,7 @@ public class GROBIDloaderImpl implements PDFloader {
 				if(gateDoc.getContent().size() <= 30l) {
 					Util.notifyException("Document textual content long less than 30 chars", 
 							new Exception("Ignored document - text contents too short."), logger);
+					Factory.deleteResource(gateDoc);
 					gateDoc = null;
 				}
 			} catch (ResourceInstantiationException e) {
@@ -146,8 +188,12 @@ public class GROBIDloaderImpl implements PDFloader {
 				// Set header parsing results
 				String headerString = "";
 
-				ByteArrayInputStream PDFinputStream = new ByteArrayInputStream(PDFbyteArray);
-				List<String> headerSentences = PDFPaperParser.getHeaderSentences(PDFinputStream, true);
+				List<String> headerSentences = null;
+				try (InputStream PDFinputStream = new BufferedInputStream(new FileInputStream(PDFfile))) {
+					headerSentences = PDFPaperParser.getHeaderSentences(PDFinputStream, true);
+				} catch (IOException e) {
+					Util.notifyException("Reading PDF file header", e, logger);
+				}
 
 				if(headerSentences != null && headerSentences.size() > 0) {
 					for(String headerLine : headerSentences) {
@@ -170,7 +216,59 @@ public class GROBIDloaderImpl implements PDFloader {
 			logger.info("Error while converting PDF file by GROBID");
 		}
 
-		// Empty temporary folder
+		return retDocument;
+	}
+
+	/**
+	 * Convert a PDF file to TEI by one of the pooled GROBID engines, caching the result
+	 * 
+	 * @param PDFfile
+	 * @param conversionKey
+	 * @return
+	 * @throws DRIexception
+	 */
+	private String convertPDFtoTEI(File PDFfile, String conversionKey) throws DRIexception {
+		initGROBID(edu.upf.taln.dri.lib.Factory.GROBIDhome, edu.upf.taln.dri.lib.Factory.GROBIDproperties);
+
+		String GROBIDresult = "";
+		tempFolderLock.readLock().lock();
+		try {
+			Engine engine = enginePool.checkout();
+			try {
+				GROBIDresult = engine.fullTextToTEI(PDFfile, GrobidAnalysisConfig.defaultInstance());
+			}
+			finally {
+				enginePool.release(engine);
+			}
+		} 
+		catch (InternalProcessingException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			Util.notifyException("Converting PDF by GROBID", e, logger);
+		}
+		finally {
+			tempFolderLock.readLock().unlock();
+		}
+
+		if(GROBIDresult != null && GROBIDresult.length() > 600) {
+			PDFconversionCache.putConversion(conversionKey, GROBIDresult);
+		}
+
+		// Empty temporary folder, if no other conversion is running
+		if(tempFolderLock.writeLock().tryLock()) {
+			try {
+				emptyTempFolder();
+			}
+			finally {
+				tempFolderLock.writeLock().unlock();
+			}
+		}
+
+		return GROBIDresult;
+	}
+
+	private static void emptyTempFolder() {
 		try {
 			File GROBIDtempFolder = new File(edu.upf.taln.dri.lib.Factory.GROBIDhome + File.separator  + "tmp");
 			if(GROBIDtempFolder != null && GROBIDtempFolder.exists() && GROBIDtempFolder.isDirectory()) {
@@ -200,8 +298,6 @@ public class GROBIDloaderImpl implements PDFloader {
 		catch (Exception e) {
 			// DO NOTHING
 		}
-
-		return retDocument;
 	}
 
 	public static void deleteFolder(File folder) {
@@ -240,19 +336,19 @@ public class GROBIDloaderImpl implements PDFloader {
 			throw new ResourceAccessException("The file at: '" + absoluteFilePath + "' does not exist");
 		}
 
-		Document retDocument = null;
-
-		byte[] originalPDF = {};
-		Path filePath = Paths.get(absoluteFilePath);
+		// Check if the PDF has already been converted
+		String conversionKey = null;
 		try {
-			originalPDF = Files.readAllBytes(filePath);
+			conversionKey = PDFconversionCache.getKey(CONVERTER_NAME, edu.upf.taln.dri.lib.Factory.PDFconversionVersion, inputPDF);
 		} catch (IOException e) {
 			e.printStackTrace();
 			throw new InternalProcessingException("Error while reading PDF file");
 		}
+		String cachedConversion = PDFconversionCache.getConversion(conversionKey);
 
-		String fileName = (new File(absoluteFilePath)).getName().replace(".pdf", "") + "_GROBID.xml";
-		retDocument = parsePDF(originalPDF, fileName);
+		// The PDF file is converted directly, without copying its contents
+		String fileName = inputPDF.getName().replace(".pdf", "") + "_GROBID.xml";
+		Document retDocument = convertPDF(inputPDF, fileName, conversionKey, cachedConversion);
 
 		return retDocument;
 	}
@@ -75,6 +75,8 @@ public class PDFEXTloaderImpl implements PDFloader {
 
 	private static Logger logger = Logger.getLogger(PDFEXTloaderImpl.class);
 
+	private static final String CONVERTER_NAME = "PDFEXT";
+
 	private static SAXParserFactory factory = SAXParserFactory.newInstance();
 	static {
 		factory.setValidating(false);
@@ -85,6 +87,72 @@ public class PDFEXTloaderImpl implements PDFloader {
 	public Document parsePDF(byte[] PDFbyteArray, String PDFfileName) throws DRIexception {
 		Document retDocument = null;
 
+		// Check if the PDF has already been converted
+		String conversionKey = PDFconversionCache.getKey(CONVERTER_NAME, edu.upf.taln.dri.lib.Factory.PDFconversionVersion, PDFbyteArray);
+		String PDFEXTresult = PDFconversionCache.getConversion(conversionKey);
+
+		if(PDFEXTresult == null) {
+			PDFEXTresult = convertPDF(PDFbyteArray, PDFfileName);
+			if(PDFEXTresult != null) {
+				PDFconversionCache.putConversion(conversionKey, PDFEXTresult);
+			}
+		}
+
+		if(PDFEXTresult != null) {
+			gate.Document gateDoc = null;
+			try {
+				gateDoc = Factory.newDocument(PDFEXTresult);
+
+				if(gateDoc.getContent().size() <= 30l) {
+					Util.notifyException("Document textual content long less than 30 chars", 
+							new Exception("Ignored document - text contents too short."), logger);
+					gateDoc = null;
+				}
+			} catch (ResourceInstantiationException e) {
+				e.printStackTrace();
+				throw new InternalProcessingException("Error while instantiating Document from PDF file contents");
+			}
+
+			if(gateDoc != null) {
+				// Set name feature of the document
+				gateDoc.getFeatures().put("name", (StringUtils.isNotBlank(PDFfileName) ? PDFfileName : "NO_NAME"));
+
+				// Set header parsing results
+				String headerString = "";
+
+				ByteArrayInputStream PDFinputStream = new ByteArrayInputStream(PDFbyteArray);
+				List<String> headerSentences = PDFPaperParser.getHeaderSentences(PDFinputStream, true);
+
+				if(headerSentences != null && headerSentences.size() > 0) {
+					for(String headerLine : headerSentences) {
+						headerLine = headerLine.replace("\n", " ").trim();
+						headerString = (!headerString.equals("")) ? headerString + " <NL> " + headerLine : headerString + headerLine;
+					}
+				}
+
+				gateDoc.getFeatures().put(ImporterBase.headerDOC_OrigDocFeat, headerString);
+
+				// OLD CODE, NEVER INSTANTIATE DOCUMENT IMPL OBJECTS: new DocumentImpl(gateDoc);
+				retDocument = edu.upf.taln.dri.lib.Factory.createNewDocument();
+				retDocument.loadXMLString(gateDoc.toXml());
+
+				gateDoc.cleanup();
+				Factory.deleteResource(gateDoc);
+			}
+
+		}
+
+		return retDocument;
+	}
+
+	/**
+	 * Convert a PDF by PDFext, correcting hyphenations and XML errors
+	 * 
+	 * @param PDFbyteArray
+	 * @param PDFfileName
+	 * @return the XML generated, null if the PDF has not been converted
+	 */
+	private String convertPDF(byte[] PDFbyteArray, String PDFfileName) {
 		// Execute PDFX
 		boolean correctlyConverted = false;
 		String PDFEXTresult = "";
@@ -155,50 +223,10 @@ public class PDFEXTloaderImpl implements PDFloader {
 				return null;
 			}
 
-			gate.Document gateDoc = null;
-			try {
-				gateDoc = Factory.newDocument(PDFEXTresult);
-
-				if(gateDoc.getContent().size() <= 30l) {
-					Util.notifyException("Document textual content long less than 30 chars", 
-							new Exception("Ignored document - text contents too short."), logger);
-					gateDoc = null;
-				}
-			} catch (ResourceInstantiationException e) {
-				e.printStackTrace();
-				throw new InternalProcessingException("Error while instantiating Document from PDF file contents");
-			}
-
-			if(gateDoc != null) {
-				// Set name feature of the document
-				gateDoc.getFeatures().put("name", (StringUtils.isNotBlank(PDFfileName) ? PDFfileName : "NO_NAME"));
-
-				// Set header parsing results
-				String headerString = "";
-
-				ByteArrayInputStream PDFinputStream = new ByteArrayInputStream(PDFbyteArray);
-				List<String> headerSentences = PDFPaperParser.getHeaderSentences(PDFinputStream, true);
-
-				if(headerSentences != null && headerSentences.size() > 0) {
-					for(String headerLine : headerSentences) {
-						headerLine = headerLine.replace("\n", " ").trim();
-						headerString = (!headerString.equals("")) ? headerString + " <NL> " + headerLine : headerString + headerLine;
-					}
-				}
-
-				gateDoc.getFeatures().put(ImporterBase.headerDOC_OrigDocFeat, headerString);
-
-				// OLD CODE, NEVER INSTANTIATE DOCUMENT IMPL OBJECTS: new DocumentImpl(gateDoc);
-				retDocument = edu.upf.taln.dri.lib.Factory.createNewDocument();
-				retDocument.loadXMLString(gateDoc.toXml());
-
-				gateDoc.cleanup();
-				Factory.deleteResource(gateDoc);
-			}
-
+			return PDFEXTresult;
 		}
 
-		return retDocument;
+		return null;
 	}
 
 	@Override
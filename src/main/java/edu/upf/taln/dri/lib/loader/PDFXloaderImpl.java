@@ -60,10 +60,89 @@ public class PDFXloaderImpl implements PDFloader {
 
 	public static Boolean PDFXproxyEnabled = false;
 
+	private static final String CONVERTER_NAME = "PDFX";
+
 	@Override
 	public Document parsePDF(byte[] PDFbyteArray, String PDFfileName) throws DRIexception {
 		Document retDocument = null;
 
+		// Check if the PDF has already been converted
+		String conversionKey = PDFconversionCache.getKey(CONVERTER_NAME, edu.upf.taln.dri.lib.Factory.PDFconversionVersion, PDFbyteArray);
+		String PDFXresult = PDFconversionCache.getConversion(conversionKey);
+		boolean correctlyConverted = (PDFXresult != null);
+
+		if(!correctlyConverted) {
+			PDFXresult = convertPDF(PDFbyteArray);
+			correctlyConverted = isConverted(PDFXresult);
+			if(correctlyConverted) {
+				PDFconversionCache.putConversion(conversionKey, PDFXresult);
+			}
+		}
+
+		if(correctlyConverted) {
+			String paperXMLnormalized = PDFXresult;
+			try {
+				paperXMLnormalized = UtilPDFX.processPDFX_XMLformString(PDFXresult);
+			} catch (Exception e) {
+				Util.notifyException("Normalizing converted PDF file", e, logger);
+			}
+
+			gate.Document gateDoc = null;
+			try {
+				gateDoc = Factory.newDocument(paperXMLnormalized);
+				
+				if(gateDoc.getContent().size() <= 30l) {
+					Util.notifyException("Document textual content long less than 30 chars", 
+							new Exception("Ignored document - text contents too short."), logger);
+					gateDoc = null;
+				}
+			} catch (ResourceInstantiationException e) {
+				e.printStackTrace();
+				throw new InternalProcessingException("Error while instantiating Document from PDF file contents");
+			}
+
+			if(gateDoc != null) {
+				// Set name feature of the document
+				gateDoc.getFeatures().put("name", (StringUtils.isNotBlank(PDFfileName) ? PDFfileName : "NO_NAME"));
+
+				// Set header parsing results
+				String headerString = "";
+
+				ByteArrayInputStream PDFinputStream = new ByteArrayInputStream(PDFbyteArray);
+				List<String> headerSentences = PDFPaperParser.getHeaderSentences(PDFinputStream, true);
+
+				if(headerSentences != null && headerSentences.size() > 0) {
+					for(String headerLine : headerSentences) {
+						headerLine = headerLine.replace("\n", " ").trim();
+						headerString = (!headerString.equals("")) ? headerString + " <NL> " + headerLine : headerString + headerLine;
+					}
+				}
+
+				gateDoc.getFeatures().put(ImporterBase.headerDOC_OrigDocFeat, headerString);
+
+				// OLD CODE, NEVER INSTANTIATE DOCUMENT IMPL OBJECTS: new DocumentImpl(gateDoc);
+				retDocument = edu.upf.taln.dri.lib.Factory.createNewDocument();
+				retDocument.loadXMLString(gateDoc.toXml());
+
+				gateDoc.cleanup();
+				Factory.deleteResource(gateDoc);
+			}
+
+		}
+		else if(PDFXresult != null) {
+			Util.notifyException("Conversion of PDF file by PDFX", new Exception("Impossible to convert PDF file by PDFX (" + PDFXresult + ")"), logger);
+		}
+
+		return retDocument;
+	}
+
+	/**
+	 * Convert a PDF by PDFX (compressing it if bigger than 5Mb), attempting up to 3 times
+	 * 
+	 * @param PDFbyteArray
+	 * @return the response of the last conversion attempt (PDFX XML or error message), null if the PDF is too big to be converted
+	 */
+	private String convertPDF(byte[] PDFbyteArray) {
 		boolean compressed = false;
 		byte[] compressedPDF = {};
 		if(PDFbyteArray.length > 5242800) {
@@ -95,7 +174,7 @@ public class PDFXloaderImpl implements PDFloader {
 			for(int i = 0; i < 3; i++) {
 				PDFXresult = PDFproxyConn.processPDF(((compressed) ? compressedPDF : PDFbyteArray), "NO_TAG", 2160);
 
-				if(PDFXresult.length() > 600) {
+				if(isConverted(PDFXresult)) {
 					correctlyConverted = true;
 				}
 				else {
@@ -116,7 +195,7 @@ public class PDFXloaderImpl implements PDFloader {
 			for(int i = 0; i < 3; i++) {
 				PDFXresult = PDFXConn.processPDF(((compressed) ? compressedPDF : PDFbyteArray), 720);
 				
-				if(PDFXresult.length() > 600) {
+				if(isConverted(PDFXresult)) {
 					correctlyConverted = true;
 				}
 				
@@ -131,61 +210,17 @@ public class PDFXloaderImpl implements PDFloader {
 			}
 		}
 
-		if(correctlyConverted) {
-			String paperXMLnormalized = PDFXresult;
-			try {
-				paperXMLnormalized = UtilPDFX.processPDFX_XMLformString(PDFXresult);
-			} catch (Exception e) {
-				Util.notifyException("Normalizing converted PDF file", e, logger);
-			}
-
-			gate.Document gateDoc = null;
-			try {
-				gateDoc = Factory.newDocument(paperXMLnormalized);
-				
-				if(gateDoc.getContent().size() <= 30l) {
-					Util.notifyException("Document textual content long less than 30 chars", 
-							new Exception("Ignored document - text contents too short."), logger);
-					gateDoc = null;
-				}
-			} catch (ResourceInstantiationException e) {
-				e.printStackTrace();
-				throw new InternalProcessingException("Error while instantiating Document from PDF file contents");
-			}
-
-			if(gateDoc != null) {
-				// Set name feature of the document
-				gateDoc.getFeatures().put("name", (StringUtils.isNotBlank(PDFfileName) ? PDFfileName : "NO_NAME"));
-
-				// Set header parsing results
-				String headerString = "";
-
-				ByteArrayInputStream PDFinputStream = new ByteArrayInputStream(PDFbyteArray);
-				List<String> headerSentences = PDFPaperParser.getHeaderSentences(PDFinputStream, true);
-
-				if(headerSentences != null && headerSentences.size() > 0) {
-					for(String headerLine : headerSentences) {
-						headerLine = headerLine.replace("\n", " ").trim();
-						headerString = (!headerString.equals("")) ? headerString + " <NL> " + headerLine : headerString + headerLine;
-					}
-				}
-
-				gateDoc.getFeatures().put(ImporterBase.headerDOC_OrigDocFeat, headerString);
-
-				// OLD CODE, NEVER INSTANTIATE DOCUMENT IMPL OBJECTS: new DocumentImpl(gateDoc);
-				retDocument = edu.upf.taln.dri.lib.Factory.createNewDocument();
-				retDocument.loadXMLString(gateDoc.toXml());
-
-				gateDoc.cleanup();
-				Factory.deleteResource(gateDoc);
-			}
-
-		}
-		else {
-			Util.notifyException("Conversion of PDF file by PDFX", new Exception("Impossible to convert PDF file by PDFX (" + ((PDFXresult != null) ? PDFXresult : "NULL") + ")"), logger);
-		}
+		return PDFXresult;
+	}
 
-		return retDocument;
+	/**
+	 * Check if a PDFX response is the XML of a converted PDF (error messages are shorter than 600 chars)
+	 * 
+	 * @param PDFXresult
+	 * @return
+	 */
+	private static boolean isConverted(String PDFXresult) {
+		return PDFXresult != null && PDFXresult.length() > 600;
 	}
 
 	@Override
@@ -0,0 +1,369 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.lib.loader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
+import edu.upf.taln.dri.lib.util.PropertyManager;
+
+/**
+ * Content-addressed cache of the results of the conversion of PDF files to XML, shared by all the
+ * {@link edu.upf.taln.dri.lib.loader.PDFloader PDFloader} implementations.<br/>
+ * The XML generated by a converter (PDFX, PDFEXT, GROBID) is stored in a GZIP compressed file named by the SHA-256 hash of the
+ * PDF contents, the name of the converter and the version of the conversion (property version.PDFconversion of the library
+ * configuration, to increase when the conversion changes): the same PDF is converted only once, also across different runs.<br/>
+ * By default conversions are stored in the folder cache/PDFconversion of the DRI resource folder, up to {@value #DEFAULT_MAX_SIZE_MB} MB:
+ * when the size of the cache exceeds the limit, the least recently used conversions are deleted. The folder and the maximum size
+ * can be set in the DRI property file by the properties {@value #cacheFolder_fullPath} and {@value #cacheMaxSize_MB}; the cache can
+ * be replaced or disabled by {@link #setCache(PDFconversionCache) setCache(PDFconversionCache)}.<br/>
+ * Hits and misses are reported by the {@link edu.upf.taln.dri.common.metrics.MetricsRegistry MetricsRegistry} (cache name: {@value #CACHE_NAME}).
+ *
+ *
+ */
+public class PDFconversionCache {
+
+	private static Logger logger = Logger.getLogger(PDFconversionCache.class);
+
+	public static final String cacheFolder_fullPath = "PDFconversion.cache.fullPath";
+	public static final String cacheMaxSize_MB = "PDFconversion.cache.maxSizeMB";
+	public static final long DEFAULT_MAX_SIZE_MB = 1024l;
+
+	public static final String CACHE_NAME = "PDF conversion cache";
+
+	private static final String FILE_EXTENSION = ".xml.gz";
+
+	private static PDFconversionCache cache = null;
+	private static boolean initialized = false;
+
+	private final File cacheFolder;
+	private final long maxSizeBytes;
+	private final AtomicLong currentSizeBytes = new AtomicLong(0l);
+	private final Object evictionLock = new Object();
+
+	/**
+	 * Create a cache that stores conversions in the folder provided
+	 *
+	 * @param cacheFolder created if it does not exist
+	 * @param maxSizeBytes maximum size of the cached conversions in bytes (if lower than or equal to 0, the size is not bounded)
+	 */
+	public PDFconversionCache(File cacheFolder, long maxSizeBytes) {
+		this.cacheFolder = cacheFolder;
+		this.maxSizeBytes = maxSizeBytes;
+
+		if(!cacheFolder.exists() && !cacheFolder.mkdirs()) {
+			logger.warn("Impossible to create the PDF conversion cache folder " + cacheFolder.getAbsolutePath());
+		}
+
+		this.currentSizeBytes.set(getCachedFiles().stream().mapToLong((cachedFile) -> cachedFile.length()).sum());
+	}
+
+	/**
+	 * Set the cache of the PDF conversions
+	 *
+	 * @param conversionCache if null, conversions are not cached
+	 */
+	public static synchronized void setCache(PDFconversionCache conversionCache) {
+		cache = conversionCache;
+		initialized = true;
+	}
+
+	/**
+	 * Get the cache of the PDF conversions, creating the default persistent cache the first time
+	 *
+	 * @return null if conversions are not cached
+	 */
+	public static synchronized PDFconversionCache getCache() {
+		if(!initialized) {
+			initialized = true;
+			try {
+				cache = createDefaultCache();
+			} catch (Exception e) {
+				logger.warn("PDF conversions not cached: " + e.getMessage());
+				cache = null;
+			}
+		}
+		return cache;
+	}
+
+	private static PDFconversionCache createDefaultCache() {
+		String cacheFolderPath = PropertyManager.getProperty(cacheFolder_fullPath);
+		if(StringUtils.isBlank(cacheFolderPath)) {
+			String resourceFolderPath = PropertyManager.getProperty(PropertyManager.resourceFolder_fullPath);
+			if(StringUtils.isBlank(resourceFolderPath) || !(new File(resourceFolderPath)).isDirectory()) {
+				logger.warn("PDF conversions not cached: the DRI resource folder is not defined.");
+				return null;
+			}
+			cacheFolderPath = resourceFolderPath + File.separator + "cache" + File.separator + "PDFconversion";
+		}
+
+		long maxSizeMB = DEFAULT_MAX_SIZE_MB;
+		String maxSizeMBStr = PropertyManager.getProperty(cacheMaxSize_MB);
+		if(StringUtils.isNotBlank(maxSizeMBStr)) {
+			try {
+				maxSizeMB = Long.parseLong(maxSizeMBStr.trim());
+			} catch (NumberFormatException e) {
+				logger.warn("Invalid value of the property " + cacheMaxSize_MB + ": " + maxSizeMBStr + " - using " + DEFAULT_MAX_SIZE_MB + " MB.");
+			}
+		}
+
+		logger.info("Caching PDF conversions in " + cacheFolderPath + " (maximum size: " + maxSizeMB + " MB).");
+		return new PDFconversionCache(new File(cacheFolderPath), maxSizeMB * 1024l * 1024l);
+	}
+
+	/**
+	 * Get the key of the conversion of a PDF
+	 *
+	 * @param converter name of the converter (PDFX, PDFEXT, GROBID)
+	 * @param conversionVersion version of the conversion
+	 * @param PDFbyteArray
+	 * @return
+	 */
+	public static String getKey(String converter, String conversionVersion, byte[] PDFbyteArray) {
+		return DigestUtils.sha256Hex(PDFbyteArray) + "_" + normalizeName(converter) + "_v" + normalizeName(conversionVersion);
+	}
+
+	/**
+	 * Get the key of the conversion of a PDF file
+	 *
+	 * @param converter name of the converter (PDFX, PDFEXT, GROBID)
+	 * @param conversionVersion version of the conversion
+	 * @param PDFfile
+	 * @return
+	 * @throws IOException
+	 */
+	public static String getKey(String converter, String conversionVersion, File PDFfile) throws IOException {
+		try (InputStream PDFinputStream = Files.newInputStream(PDFfile.toPath())) {
+			return DigestUtils.sha256Hex(PDFinputStream) + "_" + normalizeName(converter) + "_v" + normalizeName(conversionVersion);
+		}
+	}
+
+	/**
+	 * Get the cached conversion of a PDF from the default cache (see {@link #getCache() getCache()}), recording a hit or a miss
+	 *
+	 * @param key the key of the conversion (see getKey methods)
+	 * @return null if not cached or if conversions are not cached
+	 */
+	public static String getConversion(String key) {
+		PDFconversionCache currentCache = getCache();
+		if(currentCache == null || StringUtils.isBlank(key)) {
+			return null;
+		}
+
+		String conversion = currentCache.get(key);
+		if(conversion != null) {
+			MetricsRegistry.getInstance().getCacheMetrics(CACHE_NAME).recordHit();
+			logger.info("PDF conversion retrieved from cache (" + key + ").");
+		}
+		else {
+			MetricsRegistry.getInstance().getCacheMetrics(CACHE_NAME).recordMiss();
+		}
+
+		return conversion;
+	}
+
+	/**
+	 * Store the conversion of a PDF in the default cache (see {@link #getCache() getCache()}). Only valid conversions should be stored.
+	 *
+	 * @param key the key of the conversion (see getKey methods)
+	 * @param conversion
+	 */
+	public static void putConversion(String key, String conversion) {
+		PDFconversionCache currentCache = getCache();
+		if(currentCache == null || StringUtils.isBlank(key) || conversion == null) {
+			return;
+		}
+
+		if(currentCache.put(key, conversion)) {
+			MetricsRegistry.getInstance().getCacheMetrics(CACHE_NAME).recordPut();
+		}
+	}
+
+	/**
+	 * Get a cached conversion
+	 *
+	 * @param key
+	 * @return null if not cached
+	 */
+	public String get(String key) {
+		Path entryPath = getEntryFile(key).toPath();
+		try (InputStream in = new GZIPInputStream(Files.newInputStream(entryPath))) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buf = new byte[8192];
+			int len;
+			while((len = in.read(buf)) != -1) {
+				out.write(buf, 0, len);
+			}
+
+			// Mark as recently used
+			try {
+				Files.setLastModifiedTime(entryPath, FileTime.fromMillis(System.currentTimeMillis()));
+			} catch (IOException e) {
+				/* Do nothing */
+			}
+
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException e) {
+			logger.warn("Error reading cached PDF conversion from " + entryPath + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Store a conversion, deleting the least recently used conversions if the size of the cache exceeds its maximum
+	 *
+	 * @param key
+	 * @param conversion
+	 * @return true if stored
+	 */
+	public boolean put(String key, String conversion) {
+		File entryFile = getEntryFile(key);
+		Path tempPath = null;
+		try {
+			File entryFolder = entryFile.getParentFile();
+			if(!entryFolder.exists()) {
+				entryFolder.mkdirs();
+			}
+
+			long previousSize = (entryFile.exists()) ? entryFile.length() : 0l;
+
+			tempPath = Files.createTempFile(entryFolder.toPath(), entryFile.getName(), ".tmp");
+			try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempPath))) {
+				out.write(conversion.getBytes(StandardCharsets.UTF_8));
+			}
+			Files.move(tempPath, entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+			if(maxSizeBytes > 0l && currentSizeBytes.addAndGet(entryFile.length() - previousSize) > maxSizeBytes) {
+				evict();
+			}
+			return true;
+		} catch (IOException e) {
+			logger.warn("Error caching PDF conversion to " + entryFile.getAbsolutePath() + ": " + e.getMessage());
+			if(tempPath != null) {
+				try {
+					Files.deleteIfExists(tempPath);
+				} catch (IOException exc) {
+					/* Do nothing */
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Delete all the cached conversions
+	 */
+	public void clear() {
+		synchronized(evictionLock) {
+			for(File cachedFile : getCachedFiles()) {
+				cachedFile.delete();
+			}
+			currentSizeBytes.set(0l);
+		}
+	}
+
+	public File getCacheFolder() {
+		return cacheFolder;
+	}
+
+	public long getMaxSizeBytes() {
+		return maxSizeBytes;
+	}
+
+	/**
+	 * Size of the cached conversions in bytes
+	 *
+	 * @return
+	 */
+	public long getSizeBytes() {
+		return currentSizeBytes.get();
+	}
+
+	/**
+	 * Delete the least recently used conversions until the size of the cache is lower than 80% of its maximum
+	 */
+	private void evict() {
+		synchronized(evictionLock) {
+			if(currentSizeBytes.get() <= maxSizeBytes) {
+				return;
+			}
+
+			List<File> cachedFiles = getCachedFiles();
+			cachedFiles.sort(Comparator.comparingLong(File::lastModified));
+
+			long sizeBytes = cachedFiles.stream().mapToLong((cachedFile) -> cachedFile.length()).sum();
+			long targetSizeBytes = (maxSizeBytes / 10l) * 8l;
+			int deletedCount = 0;
+			for(File cachedFile : cachedFiles) {
+				if(sizeBytes <= targetSizeBytes) {
+					break;
+				}
+				long fileSize = cachedFile.length();
+				if(cachedFile.delete()) {
+					sizeBytes -= fileSize;
+					deletedCount++;
+				}
+			}
+
+			currentSizeBytes.set(sizeBytes);
+			logger.info("Deleted " + deletedCount + " least recently used PDF conversions from cache (size: " + (sizeBytes / 1024l) + " KB).");
+		}
+	}
+
+	private List<File> getCachedFiles() {
+		if(!cacheFolder.isDirectory()) {
+			return new ArrayList<File>();
+		}
+
+		try (Stream<Path> cachedPaths = Files.walk(cacheFolder.toPath())) {
+			return cachedPaths.filter((cachedPath) -> cachedPath.getFileName().toString().endsWith(FILE_EXTENSION))
+					.map(Path::toFile).collect(Collectors.toCollection(ArrayList::new));
+		} catch (IOException e) {
+			logger.warn("Error listing cached PDF conversions: " + e.getMessage());
+			return new ArrayList<File>();
+		}
+	}
+
+	private File getEntryFile(String key) {
+		String fileName = normalizeName(key);
+		return new File(new File(cacheFolder, fileName.substring(0, Math.min(2, fileName.length()))), fileName + FILE_EXTENSION);
+	}
+
+	private static String normalizeName(String name) {
+		return StringUtils.defaultIfBlank(name, "NONE").replaceAll("[^A-Za-z0-9_\\-]", "_");
+	}
+
+}
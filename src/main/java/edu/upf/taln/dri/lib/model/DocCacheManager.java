@@ -13,7 +13,11 @@ package edu.upf.taln.dri.lib.model;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
+import org.apache.log4j.Logger;
+
+import edu.upf.taln.dri.common.util.Util;
 import edu.upf.taln.dri.lib.exception.InternalProcessingException;
 import edu.upf.taln.dri.lib.model.ext.BabelSynsetOcc;
 import edu.upf.taln.dri.lib.model.ext.CandidateTermOcc;
@@ -24,8 +28,13 @@ import edu.upf.taln.dri.lib.model.ext.Token;
 
 public class DocCacheManager {
 	
+	private static Logger logger = Logger.getLogger(DocCacheManager.class);
+	
 	private gate.Document gateDoc;
 	
+	// Document that executes the analysis stages needed to load the data of the cached elements (null if not available)
+	private DocumentImpl document = null;
+	
 	private Map<Integer, Sentence> sentenceCache = new HashMap<Integer, Sentence>();
 	private Map<Integer, Token> tokenCache = new HashMap<Integer, Token>();
 	private Map<Integer, Section> sectionCache = new HashMap<Integer, Section>();
@@ -48,6 +57,44 @@ public class DocCacheManager {
 		this.citationCacheById = new HashMap<Integer, Citation>();
 	}
 	
+	public DocCacheManager(gate.Document gateDoc, DocumentImpl document) throws InternalProcessingException {
+		this(gateDoc);
+		this.document = document;
+	}
+	
+	/**
+	 * Execute the analysis stages provided and their prerequisites, if not already executed, so that the data
+	 * they generate can be loaded from the GATE document
+	 * 
+	 * @param stages
+	 */
+	public void executeStages(Set<DocStageENUM> stages) {
+		if(this.document != null) {
+			try {
+				this.document.executeStages(stages);
+			} catch (InternalProcessingException e) {
+				Util.notifyException("Executing the analysis stages " + stages, e, logger);
+			}
+		}
+	}
+	
+	/**
+	 * Check if all the analysis stages provided have been executed on the GATE document
+	 * 
+	 * @param stages
+	 * @return true if all the stages have been executed or if the stages can't be checked
+	 */
+	public boolean isExecuted(Set<DocStageENUM> stages) {
+		if(this.document != null && stages != null) {
+			for(DocStageENUM stage : stages) {
+				if(!this.document.isStageExecuted(stage)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
 	// Getters and setters
 	public gate.Document getGateDoc() {
 		return gateDoc;
@@ -0,0 +1,80 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.lib.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Analysis stages of a document, each one with the stages it depends on.<br/>
+ * The dependencies declared here are the prerequisites checked by the corresponding parsing method of
+ * {@link edu.upf.taln.dri.lib.model.DocumentImpl DocumentImpl} and define the DAG executed by
+ * {@link edu.upf.taln.dri.lib.model.DocStageScheduler DocStageScheduler}.<br/>
+ * Constants are declared in topological order.
+ *
+ *
+ */
+public enum DocStageENUM {
+	SENTENCES(),
+	CITATIONS_SPOT(SENTENCES),
+	CITATIONS_LINK(SENTENCES, CITATIONS_SPOT),
+	CITATIONS_ENRICH(SENTENCES, CITATIONS_SPOT, CITATIONS_LINK),
+	HEADER(SENTENCES),
+	DEP(SENTENCES, CITATIONS_SPOT, CITATIONS_LINK),
+	META_ANNOTATIONS(SENTENCES, CITATIONS_SPOT, CITATIONS_LINK, DEP),
+	COREF(DEP),
+	CAUSALITY(DEP, COREF),
+	BABELNET(DEP),
+	RHETORICAL(DEP),
+	TERMINOLOGY(DEP),
+	SUMMARY(DEP);
+
+	private final Set<DocStageENUM> prerequisites;
+
+	private DocStageENUM(DocStageENUM... prerequisites) {
+		Set<DocStageENUM> prerequisiteSet = EnumSet.noneOf(DocStageENUM.class);
+		for(DocStageENUM prerequisite : prerequisites) {
+			prerequisiteSet.add(prerequisite);
+		}
+		this.prerequisites = Collections.unmodifiableSet(prerequisiteSet);
+	}
+
+	/**
+	 * Stages that have to be completed before executing this one
+	 *
+	 * @return
+	 */
+	public Set<DocStageENUM> getPrerequisites() {
+		return prerequisites;
+	}
+
+	/**
+	 * Get the set of stages including the ones provided and all their direct and indirect prerequisites
+	 *
+	 * @param stages
+	 * @return
+	 */
+	public static Set<DocStageENUM> withPrerequisites(Set<DocStageENUM> stages) {
+		Set<DocStageENUM> retSet = EnumSet.noneOf(DocStageENUM.class);
+		if(stages != null) {
+			for(DocStageENUM stage : stages) {
+				if(stage != null && !retSet.contains(stage)) {
+					retSet.add(stage);
+					retSet.addAll(withPrerequisites(stage.getPrerequisites()));
+				}
+			}
+		}
+		return retSet;
+	}
+
+}
@@ -0,0 +1,189 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.lib.model;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.log4j.Logger;
+
+import edu.upf.taln.dri.lib.exception.InternalProcessingException;
+import edu.upf.taln.dri.lib.exception.InvalidParameterException;
+
+/**
+ * Executes the analysis stages of a document following the dependency DAG defined by {@link edu.upf.taln.dri.lib.model.DocStageENUM DocStageENUM}:
+ * each stage is submitted to the executor as soon as all its prerequisites are completed, instead of following the fixed
+ * sequence of the parsing methods of the document.<br/>
+ * Since GATE documents are not thread-safe, the stages of the same document hold the lock of the document while they
+ * access it: the stages that spend most of their time without accessing the document (the requests to the bibliographic services
+ * and to BabelNet, the rhetorical classification of the sentences) release it meanwhile, so that the independent stages of the 
+ * same document overlap.
+ * Stages of different documents scheduled on the same executor run concurrently, provided that the resource pools
+ * of the library have more than one instance (see {@link edu.upf.taln.dri.lib.Factory#setResourcePoolSize(int) Factory.setResourcePoolSize(int)}).
+ *
+ *
+ */
+public class DocStageScheduler {
+
+	private static Logger logger = Logger.getLogger(DocStageScheduler.class);
+
+	private static final ScheduledExecutorService timeoutScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread timeoutThread = new Thread(runnable, "DRI-stage-timeout");
+		timeoutThread.setDaemon(true);
+		return timeoutThread;
+	});
+
+	// Executor of the schedulers created without an executor: shared by all of them, its daemon threads are terminated when idle
+	private static final ExecutorService defaultExecutor = Executors.newCachedThreadPool(runnable -> {
+		Thread stageThread = new Thread(runnable, "DRI-stage");
+		stageThread.setDaemon(true);
+		return stageThread;
+	});
+
+	private final ExecutorService executor;
+
+	/**
+	 * Create a scheduler that executes the stages on the executor provided
+	 *
+	 * @param executor if null, a cached thread pool of daemon threads shared by all the schedulers is used
+	 */
+	public DocStageScheduler(ExecutorService executor) {
+		this.executor = (executor != null) ? executor : defaultExecutor;
+	}
+
+	/**
+	 * Execute all the analysis stages of a document
+	 *
+	 * @param doc
+	 * @throws InternalProcessingException
+	 * @throws InvalidParameterException
+	 */
+	public void executeAll(Document doc) throws InternalProcessingException, InvalidParameterException {
+		execute(doc, EnumSet.allOf(DocStageENUM.class));
+	}
+
+	/**
+	 * Execute the analysis stages provided and their prerequisites, waiting for all of them to complete.
+	 * Stages already executed on the document are skipped.
+	 *
+	 * @param doc
+	 * @param stages
+	 * @throws InternalProcessingException if one of the stages fails or the thread is interrupted
+	 * @throws InvalidParameterException
+	 */
+	public void execute(Document doc, Set<DocStageENUM> stages) throws InternalProcessingException, InvalidParameterException {
+		CompletableFuture<Void> executionFuture = submit(doc, stages);
+
+		try {
+			executionFuture.get();
+		} catch (InterruptedException e) {
+			executionFuture.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InternalProcessingException("Interrupted while executing the analysis stages of the document");
+		} catch (ExecutionException e) {
+			Throwable cause = (e.getCause() instanceof CompletionException && e.getCause().getCause() != null) ? e.getCause().getCause() : e.getCause();
+			if(cause instanceof InternalProcessingException) {
+				throw (InternalProcessingException) cause;
+			}
+			throw new InternalProcessingException("Error while executing the analysis stages of the document: " + ((cause != null) ? cause.getMessage() : e.getMessage()));
+		}
+	}
+
+	/**
+	 * Submit the analysis stages provided and their prerequisites, without waiting for them to complete.
+	 *
+	 * @param doc
+	 * @param stages
+	 * @return a future completed when all the stages are completed (exceptionally if one of them fails); cancelling it
+	 * prevents the stages not yet started from being executed (the running ones are completed, to keep the document consistent)
+	 * @throws InvalidParameterException
+	 */
+	public CompletableFuture<Void> submit(Document doc, Set<DocStageENUM> stages) throws InvalidParameterException {
+		if(!(doc instanceof DocumentImpl)) {
+			throw new InvalidParameterException("Invalid document to analyze");
+		}
+		DocumentImpl docImpl = (DocumentImpl) doc;
+
+		Set<DocStageENUM> stagesToExecute = DocStageENUM.withPrerequisites(stages);
+
+		// Stages are declared in topological order, thus the futures of the prerequisites of a stage are always already created
+		Map<DocStageENUM, CompletableFuture<Void>> stageFutures = new EnumMap<DocStageENUM, CompletableFuture<Void>>(DocStageENUM.class);
+		for(DocStageENUM stage : stagesToExecute) {
+			List<CompletableFuture<Void>> prerequisiteFutures = new ArrayList<CompletableFuture<Void>>();
+			for(DocStageENUM prerequisite : stage.getPrerequisites()) {
+				prerequisiteFutures.add(stageFutures.get(prerequisite));
+			}
+
+			CompletableFuture<Void> stageFuture = CompletableFuture.allOf(prerequisiteFutures.toArray(new CompletableFuture[prerequisiteFutures.size()]))
+					.thenRunAsync(() -> executeStage(docImpl, stage), executor);
+			stageFutures.put(stage, stageFuture);
+		}
+
+		CompletableFuture<Void> executionFuture = CompletableFuture.allOf(stageFutures.values().toArray(new CompletableFuture[stageFutures.size()]));
+		executionFuture.whenComplete((result, exc) -> {
+			if(executionFuture.isCancelled()) {
+				for(CompletableFuture<Void> stageFuture : stageFutures.values()) {
+					stageFuture.cancel(false);
+				}
+			}
+		});
+
+		return executionFuture;
+	}
+
+	/**
+	 * Complete exceptionally the future provided with a TimeoutException if it is not completed before the timeout expires
+	 * (the futures returned by {@link #submit(Document, Set) submit(Document, Set)} and by the asynchronous methods of
+	 * {@link edu.upf.taln.dri.lib.model.Document Document} cancel the analysis stages not yet started when timed out).
+	 *
+	 * @param future
+	 * @param timeout
+	 * @param unit
+	 * @return the future provided
+	 */
+	public static <T> CompletableFuture<T> orTimeout(CompletableFuture<T> future, long timeout, TimeUnit unit) {
+		if(future == null || future.isDone()) {
+			return future;
+		}
+
+		ScheduledFuture<?> timeoutTask = timeoutScheduler.schedule(() -> {
+			future.completeExceptionally(new TimeoutException("Timeout of " + timeout + " " + unit.toString().toLowerCase() + " expired"));
+		}, timeout, unit);
+		future.whenComplete((result, exc) -> timeoutTask.cancel(false));
+
+		return future;
+	}
+
+	private static void executeStage(DocumentImpl doc, DocStageENUM stage) {
+		long startStage = System.currentTimeMillis();
+		try {
+			doc.executeStage(stage);
+		} catch (InternalProcessingException e) {
+			throw new CompletionException(e);
+		}
+		logger.debug("Stage " + stage + " completed in " + (System.currentTimeMillis() - startStage) + " ms.");
+	}
+
+}
@@ -13,6 +13,8 @@ package edu.upf.taln.dri.lib.model;
 
 import java.io.File;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import edu.upf.taln.dri.lib.exception.DRIexception;
 import edu.upf.taln.dri.lib.exception.InternalProcessingException;
@@ -21,6 +23,7 @@ import edu.upf.taln.dri.lib.model.ext.Citation;
 import edu.upf.taln.dri.lib.model.ext.Header;
 import edu.upf.taln.dri.lib.model.ext.Section;
 import edu.upf.taln.dri.lib.model.ext.Sentence;
+import edu.upf.taln.dri.lib.model.ext.SentenceDataENUM;
 import edu.upf.taln.dri.lib.model.ext.SentenceSelectorENUM;
 import edu.upf.taln.dri.lib.model.ext.SummaryTypeENUM;
 import edu.upf.taln.dri.lib.model.graph.DependencyGraph;
@@ -94,6 +97,35 @@ public interface Document {
 	public void loadXMLString(String XMLStringContents) throws DRIexception;
 	
 	
+	/**
+	 * Get the contents of the document serialized in the compact binary format of the library (see 
+	 * {@link edu.upf.taln.dri.lib.model.util.serializer.BinarySerializer BinarySerializer}), much smaller and faster to load than 
+	 * the XML serialization
+	 * 
+	 * @return the binary-serialized contents of the document
+	 * @throws InternalProcessingException if the document includes feature values of types not supported by the binary format
+	 */
+	public byte[] getBinary() throws InternalProcessingException;
+	
+	
+	/**
+	 * Load the binary-serialized contents of the document, as returned by {@link #getBinary() getBinary()}
+	 * 
+	 * @param binaryContents the binary-serialized contents of the document to load
+	 * @throws DRIexception 
+	 */
+	public void loadBinary(byte[] binaryContents) throws DRIexception;
+	
+	
+	/**
+	 * Load the binary-serialized contents of the document from a file
+	 * 
+	 * @param file the file with the binary-serialized contents of the document to load
+	 * @throws DRIexception 
+	 */
+	public void loadBinary(File file) throws DRIexception;
+	
+	
 	/**
 	 * Get the raw text of the document (UTF-8 encoded)
 	 * 
@@ -140,6 +172,18 @@ public interface Document {
 	 */
 	public List<Sentence> extractSentences(SentenceSelectorENUM sentenceSel) throws InternalProcessingException;
 	
+	/**
+	 * Load the list of sentences of the document, ordered by their occurrence in the document, executing only the analyses needed
+	 * to compute the sentence data required (for instance EnumSet.of(SentenceDataENUM.TOKENS, SentenceDataENUM.RHETORICAL_CLASS)).
+	 * The other data of each sentence are retrieved the first time they are accessed, if the corresponding analysis has been executed.
+	 * 
+	 * @param sentenceSel the type of sentence to select
+	 * @param sentenceData the sentence data required (if null or empty, only the text of the sentences)
+	 * @return the set of sentences in document order
+	 * @throws InternalProcessingException
+	 */
+	public List<Sentence> extractSentences(SentenceSelectorENUM sentenceSel, Set<SentenceDataENUM> sentenceData) throws InternalProcessingException;
+	
 	/**
 	 * Get one of the sentences of the document by id
 	 * 
@@ -149,6 +193,16 @@ public interface Document {
 	 */
 	public Sentence extractSentenceById(int sentenceId) throws InternalProcessingException;
 	
+	/**
+	 * Get one of the sentences of the document by id, executing only the analyses needed to compute the sentence data required
+	 * 
+	 * @param sentenceId
+	 * @param sentenceData the sentence data required (if null or empty, only the text of the sentence)
+	 * @return null if the sentence id is null or not a valid id
+	 * @throws InternalProcessingException
+	 */
+	public Sentence extractSentenceById(int sentenceId, Set<SentenceDataENUM> sentenceData) throws InternalProcessingException;
+	
 	/**
 	 * Load the list of terms extracted from the document.
 	 * If the terminology has not been extracted from the document, the first time this method is executed relevant terms are extracted from the document.
@@ -198,6 +252,67 @@ public interface Document {
 	 */
 	public List<Citation> extractCitations() throws InternalProcessingException;
 
+	/* Asynchronous methods: the analysis stages needed by each extraction are executed by the executor set by
+	 * Factory.setAsyncExecutor(ExecutorService), following their dependency DAG. The returned futures can be composed, 
+	 * time-boxed (see DocStageScheduler.orTimeout(CompletableFuture, long, TimeUnit)) and cancelled: when a future is cancelled or
+	 * times out, the analysis stages not yet started are not executed. Errors are reported by completing the future exceptionally
+	 * with a CompletionException that wraps the DRIexception. */
+	
+	/**
+	 * Asynchronous version of {@link #extractHeader() extractHeader()}
+	 * 
+	 * @return
+	 */
+	public CompletableFuture<Header> extractHeaderAsync();
+	
+	/**
+	 * Asynchronous version of {@link #extractSentences(SentenceSelectorENUM) extractSentences(SentenceSelectorENUM)}
+	 * 
+	 * @param sentenceSel the type of sentence to select
+	 * @return
+	 */
+	public CompletableFuture<List<Sentence>> extractSentencesAsync(SentenceSelectorENUM sentenceSel);
+	
+	/**
+	 * Asynchronous version of {@link #extractSentences(SentenceSelectorENUM, Set) extractSentences(SentenceSelectorENUM, Set)}
+	 * 
+	 * @param sentenceSel the type of sentence to select
+	 * @param sentenceData the sentence data required (if null or empty, only the text of the sentences)
+	 * @return
+	 */
+	public CompletableFuture<List<Sentence>> extractSentencesAsync(SentenceSelectorENUM sentenceSel, Set<SentenceDataENUM> sentenceData);
+	
+	/**
+	 * Asynchronous version of {@link #extractTerminology() extractTerminology()}
+	 * 
+	 * @return
+	 */
+	public CompletableFuture<List<CandidateTermOcc>> extractTerminologyAsync();
+	
+	/**
+	 * Asynchronous version of {@link #extractSummary(int, SummaryTypeENUM) extractSummary(int, SummaryTypeENUM)}
+	 * 
+	 * @param sentNumber from 1 to 30
+	 * @param summaryType
+	 * @return
+	 */
+	public CompletableFuture<List<Sentence>> extractSummaryAsync(int sentNumber, SummaryTypeENUM summaryType);
+	
+	/**
+	 * Asynchronous version of {@link #extractDocumentGraph(SentenceSelectorENUM) extractDocumentGraph(SentenceSelectorENUM)}
+	 * 
+	 * @param sentenceSel
+	 * @return
+	 */
+	public CompletableFuture<DependencyGraph> extractDocumentGraphAsync(SentenceSelectorENUM sentenceSel);
+	
+	/**
+	 * Asynchronous version of {@link #extractCitations() extractCitations()}
+	 * 
+	 * @return
+	 */
+	public CompletableFuture<List<Citation>> extractCitationsAsync();
+
 	
 	/**
 	 * This method deletes all the data extracted from the original document including sentences, terminology, citations, etc.
@@ -16,9 +16,11 @@ import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -27,6 +29,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -36,7 +42,9 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.apache.log4j.Logger;
 import org.xml.sax.SAXException;
 
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
 import edu.upf.taln.dri.common.util.GateUtil;
+import edu.upf.taln.dri.common.util.ResourcePool;
 import edu.upf.taln.dri.common.util.Util;
 import edu.upf.taln.dri.lib.exception.DRIexception;
 import edu.upf.taln.dri.lib.exception.InternalProcessingException;
@@ -48,9 +56,11 @@ import edu.upf.taln.dri.lib.model.ext.Header;
 import edu.upf.taln.dri.lib.model.ext.LangENUM;
 import edu.upf.taln.dri.lib.model.ext.Section;
 import edu.upf.taln.dri.lib.model.ext.Sentence;
+import edu.upf.taln.dri.lib.model.ext.SentenceDataENUM;
 import edu.upf.taln.dri.lib.model.ext.SentenceSelectorENUM;
 import edu.upf.taln.dri.lib.model.ext.SummaryTypeENUM;
 import edu.upf.taln.dri.lib.model.graph.DependencyGraph;
+import edu.upf.taln.dri.lib.model.util.serializer.BinarySerializer;
 import edu.upf.taln.dri.lib.model.graph.SentGraphTypeENUM;
 import edu.upf.taln.dri.lib.model.util.DocParse;
 import edu.upf.taln.dri.lib.model.util.ObjectGenerator;
@@ -104,108 +114,97 @@ public class DocumentImpl implements Document {
 	// CleanUp boolean
 	private boolean cleanedUp = false;
 
-	// Synchronization elements
-	private static final Object LOCK_PDFXimporter_Resource = new Object();
-	private static final Object LOCK_PDFEXTimporter_Resource = new Object();
-	private static final Object LOCK_GROBIDimporter_Resource = new Object();
-	private static final Object LOCK_JATSimporter_Resource = new Object();
-	private static final Object LOCK_MateParser_Resource = new Object();
-	private static final Object LOCK_RhetoricalClassifier_Resource = new Object();
-	private static final Object LOCK_TermAnnotator_Resource = new Object();
-	private static final Object LOCK_LanguageDetector_Resource = new Object();
-	private static final Object LOCK_MetaAnnotator_Resource = new Object();
-	private static final Object LOCK_CitationSanitizer_Resource = new Object();
-	private static final Object LOCK_CitationLinker_Resource = new Object();
-	private static final Object LOCK_CitationExpander_Resource = new Object();
-	private static final Object LOCK_HeaderAnalyzer_Resource = new Object();
-	private static final Object LOCK_CorefChainBuilder_Resource = new Object();
-	private static final Object LOCK_BabelnetAnnotator_Resource = new Object();
-	private static final Object LOCK_corpusController_preprocess_XGAPPpreprocStep1 = new Object();
-	private static final Object LOCK_corpusController_preprocess_XGAPPpreprocStep2 = new Object();
-	private static final Object LOCK_corpusController_XGAPPheader = new Object();
-	private static final Object LOCK_corpusController_XGAPPcitMarker = new Object();
-	private static final Object LOCK_corpusController_XGAPPcorefMentionSpot = new Object();
-	private static final Object LOCK_corpusController_XGAPPcausality = new Object();
-	private static final Object LOCK_corpusController_XGAPPmetaAnnotator = new Object();
-	private static final Object LOCK_corpusController_LexRanksumm = new Object();
-	private static final Object LOCK_corpusController_TitleSimsumm = new Object();
-
-	// GATE module references
-	private static ImporterPDFX PDFXimporter_Resource = null;
-	private static ImporterPDFEXT PDFEXTimporter_Resource = null;
-	private static ImporterGROBID GROBIDimporter_Resource = null;
-	private static ImporterJATS JATSimporter_Resource = null;
-	private static Map<LangENUM, MateParser> MateParsersLang_Resource = null;
-	private static RhetoricalClassifier RhetoricalClassifier_Resource = null;
-	private static LanguageDetector LanguageDetector_Resource = null;
-	private static TermAnnotator TermAnnotator_Resource = null;
-	private static MetaAnnotator MetaAnnotator_Resource = null;
-	private static InlineCitationSpotter CitationSanitizer_Resource = null;
-	private static CitationLinker CitationLinker_Resource = null;
-	private static BiblioEntryParser CitationExpander_Resource = null;
-	private static HeaderAnalyzer HeaderAnalyzer_Resource = null;
-	private static CorefChainBuilder CorefChainBuilder_Resource = null;
-	private static BabelnetAnnotator BabelnetAnnotator_Resource = null;
-	protected static LexRankSummarizer LexRankSummarizer_Resource = null;
-	protected static TitleSimSummarizer TitleSimSummarizer_Resource = null;
-	protected static CorpusController corpusController_preprocess_XGAPPpreprocStep1 = null;
-	protected static CorpusController corpusController_preprocess_XGAPPpreprocStep2 = null;
-	protected static CorpusController corpusController_XGAPPheader = null;
-	protected static CorpusController corpusController_XGAPPcitMarker = null;
-	protected static CorpusController corpusController_XGAPPcorefMentionSpot = null;
-	protected static CorpusController corpusController_XGAPPcausality = null;
-	protected static CorpusController corpusController_XGAPPmetaAnnotator = null;
+	// GATE documents are not thread-safe: analysis stages executed by a DocStageScheduler access the document one at a time,
+	// holding this lock while they read or modify it
+	private final ReentrantLock stageLock = new ReentrantLock(true);
+
+	// Stages that release the lock of the document while their module computes without accessing it, thus overlapping
+	// with the other stages of the same document: their parsing methods acquire the lock by themselves
+	private static final Set<DocStageENUM> lockReleasingStages = Collections.unmodifiableSet(EnumSet.of(DocStageENUM.CITATIONS_ENRICH, DocStageENUM.HEADER, DocStageENUM.BABELNET, DocStageENUM.RHETORICAL));
+
+	// Scheduler of the stages needed by the synchronous extraction methods (executed by the shared executor of the schedulers)
+	private static final DocStageScheduler syncStageScheduler = new DocStageScheduler(null);
+
+	// Lock releasing stages in execution (guarded by stageLock), signalled by stageCompleted when completed
+	private final Set<DocStageENUM> runningStages = EnumSet.noneOf(DocStageENUM.class);
+	private final Condition stageCompleted = stageLock.newCondition();
+
+	// Pools of GATE modules
+	private static ResourcePool<ImporterPDFX> PDFXimporter_Pool = null;
+	private static ResourcePool<ImporterPDFEXT> PDFEXTimporter_Pool = null;
+	private static ResourcePool<ImporterGROBID> GROBIDimporter_Pool = null;
+	private static ResourcePool<ImporterJATS> JATSimporter_Pool = null;
+	private static ResourcePool<Map<LangENUM, MateParser>> MateParsersLang_Pool = null;
+	private static ResourcePool<RhetoricalClassifier> RhetoricalClassifier_Pool = null;
+	private static ResourcePool<LanguageDetector> LanguageDetector_Pool = null;
+	private static ResourcePool<TermAnnotator> TermAnnotator_Pool = null;
+	private static ResourcePool<MetaAnnotator> MetaAnnotator_Pool = null;
+	private static ResourcePool<InlineCitationSpotter> CitationSanitizer_Pool = null;
+	private static ResourcePool<CitationLinker> CitationLinker_Pool = null;
+	private static ResourcePool<BiblioEntryParser> CitationExpander_Pool = null;
+	private static ResourcePool<HeaderAnalyzer> HeaderAnalyzer_Pool = null;
+	private static ResourcePool<CorefChainBuilder> CorefChainBuilder_Pool = null;
+	private static ResourcePool<BabelnetAnnotator> BabelnetAnnotator_Pool = null;
+	protected static ResourcePool<LexRankSummarizer> LexRankSummarizer_Pool = null;
+	protected static ResourcePool<TitleSimSummarizer> TitleSimSummarizer_Pool = null;
+	protected static ResourcePool<CorpusController> corpusController_preprocess_XGAPPpreprocStep1_Pool = null;
+	protected static ResourcePool<CorpusController> corpusController_preprocess_XGAPPpreprocStep2_Pool = null;
+	protected static ResourcePool<CorpusController> corpusController_XGAPPheader_Pool = null;
+	protected static ResourcePool<CorpusController> corpusController_XGAPPcitMarker_Pool = null;
+	protected static ResourcePool<CorpusController> corpusController_XGAPPcorefMentionSpot_Pool = null;
+	protected static ResourcePool<CorpusController> corpusController_XGAPPcausality_Pool = null;
+	protected static ResourcePool<CorpusController> corpusController_XGAPPmetaAnnotator_Pool = null;
 
 	public static void initDocPointers(
-			ImporterPDFX ref1,
-			ImporterPDFEXT ref2,
-			ImporterGROBID ref3,
-			ImporterJATS ref4,
-			Map<LangENUM, MateParser> ref5,
-			RhetoricalClassifier ref6,
-			TermAnnotator ref7,
-			MetaAnnotator ref8,
-			LanguageDetector ref9,
-			InlineCitationSpotter ref10,
-			CitationLinker ref11,
-			BiblioEntryParser ref12,
-			HeaderAnalyzer ref13,
-			CorefChainBuilder ref14,
-			BabelnetAnnotator ref15,
-			LexRankSummarizer ref16,
-			TitleSimSummarizer ref17,
-			CorpusController ref18,
-			CorpusController ref19,
-			CorpusController ref20,
-			CorpusController ref21,
-			CorpusController ref22,
-			CorpusController ref23,
-			CorpusController ref24) {
-
-		PDFXimporter_Resource = ref1;
-		PDFEXTimporter_Resource = ref2;
-		GROBIDimporter_Resource = ref3;
-		JATSimporter_Resource = ref4;
-		MateParsersLang_Resource = ref5;
-		RhetoricalClassifier_Resource = ref6;
-		TermAnnotator_Resource = ref7;
-		MetaAnnotator_Resource = ref8;
-		LanguageDetector_Resource = ref9;
-		CitationSanitizer_Resource = ref10;
-		CitationLinker_Resource = ref11;
-		CitationExpander_Resource = ref12;
-		HeaderAnalyzer_Resource = ref13;
-		CorefChainBuilder_Resource = ref14;
-		BabelnetAnnotator_Resource = ref15;
-		LexRankSummarizer_Resource = ref16;
-		TitleSimSummarizer_Resource = ref17;
-		corpusController_preprocess_XGAPPpreprocStep1 = ref18;
-		corpusController_preprocess_XGAPPpreprocStep2 = ref19;
-		corpusController_XGAPPheader = ref20;
-		corpusController_XGAPPcitMarker = ref21;
-		corpusController_XGAPPcorefMentionSpot = ref22;
-		corpusController_XGAPPcausality = ref23;
-		corpusController_XGAPPmetaAnnotator = ref24;
+			ResourcePool<ImporterPDFX> ref1,
+			ResourcePool<ImporterPDFEXT> ref2,
+			ResourcePool<ImporterGROBID> ref3,
+			ResourcePool<ImporterJATS> ref4,
+			ResourcePool<Map<LangENUM, MateParser>> ref5,
+			ResourcePool<RhetoricalClassifier> ref6,
+			ResourcePool<TermAnnotator> ref7,
+			ResourcePool<MetaAnnotator> ref8,
+			ResourcePool<LanguageDetector> ref9,
+			ResourcePool<InlineCitationSpotter> ref10,
+			ResourcePool<CitationLinker> ref11,
+			ResourcePool<BiblioEntryParser> ref12,
+			ResourcePool<HeaderAnalyzer> ref13,
+			ResourcePool<CorefChainBuilder> ref14,
+			ResourcePool<BabelnetAnnotator> ref15,
+			ResourcePool<LexRankSummarizer> ref16,
+			ResourcePool<TitleSimSummarizer> ref17,
+			ResourcePool<CorpusController> ref18,
+			ResourcePool<CorpusController> ref19,
+			ResourcePool<CorpusController> ref20,
+			ResourcePool<CorpusController> ref21,
+			ResourcePool<CorpusController> ref22,
+			ResourcePool<CorpusController> ref23,
+			ResourcePool<CorpusController> ref24) {
+
+		PDFXimporter_Pool = ref1;
+		PDFEXTimporter_Pool = ref2;
+		GROBIDimporter_Pool = ref3;
+		JATSimporter_Pool = ref4;
+		MateParsersLang_Pool = ref5;
+		RhetoricalClassifier_Pool = ref6;
+		TermAnnotator_Pool = ref7;
+		MetaAnnotator_Pool = ref8;
+		LanguageDetector_Pool = ref9;
+		CitationSanitizer_Pool = ref10;
+		CitationLinker_Pool = ref11;
+		CitationExpander_Pool = ref12;
+		HeaderAnalyzer_Pool = ref13;
+		CorefChainBuilder_Pool = ref14;
+		BabelnetAnnotator_Pool = ref15;
+		LexRankSummarizer_Pool = ref16;
+		TitleSimSummarizer_Pool = ref17;
+		corpusController_preprocess_XGAPPpreprocStep1_Pool = ref18;
+		corpusController_preprocess_XGAPPpreprocStep2_Pool = ref19;
+		corpusController_XGAPPheader_Pool = ref20;
+		corpusController_XGAPPcitMarker_Pool = ref21;
+		corpusController_XGAPPcorefMentionSpot_Pool = ref22;
+		corpusController_XGAPPcausality_Pool = ref23;
+		corpusController_XGAPPmetaAnnotator_Pool = ref24;
 	}
 
 	// Constructor
@@ -216,7 +215,7 @@ public class DocumentImpl implements Document {
 
 	public DocumentImpl(gate.Document gateDoc) throws InternalProcessingException {
 		super();
-		this.cacheManager = new DocCacheManager(gateDoc);
+		this.cacheManager = new DocCacheManager(gateDoc, this);
 	}
 
 	@Override
@@ -257,7 +256,7 @@ public class DocumentImpl implements Document {
 		} 
 
 		if(gateDoc != null) {
-			this.cacheManager = new DocCacheManager(gateDoc);
+			this.cacheManager = new DocCacheManager(gateDoc, this);
 		}
 		else {
 			throw new InternalProcessingException("Errors while loading the file at:'" + absoluteFilePath + "'.");
@@ -281,7 +280,7 @@ public class DocumentImpl implements Document {
 		} 
 
 		if(gateDoc != null) {
-			this.cacheManager = new DocCacheManager(gateDoc);
+			this.cacheManager = new DocCacheManager(gateDoc, this);
 		}
 		else {
 			throw new InternalProcessingException("Errors while loading the file from the string '" + XMLStringContents + "'.");
@@ -317,6 +316,68 @@ public class DocumentImpl implements Document {
 		return this.cacheManager.getGateDoc().toXml();
 	}
 
+	@Override
+	public byte[] getBinary() throws InternalProcessingException {
+
+		if(this.cacheManager == null) {
+			throw new InternalProcessingException("No document loaded (data cleande up: " + cleanedUp + ")");
+		}
+
+		this.cacheManager.getGateDoc().setFeatures((this.cacheManager.getGateDoc().getFeatures() != null) ? this.cacheManager.getGateDoc().getFeatures() : Factory.newFeatureMap());
+		this.cacheManager.getGateDoc().getFeatures().put("libVersion", (edu.upf.taln.dri.lib.Factory.getVersion() != null) ? edu.upf.taln.dri.lib.Factory.getVersion() : "UNSPECIFIED");
+
+		try {
+			return BinarySerializer.serialize(this.cacheManager.getGateDoc(), true);
+		} catch (IOException e) {
+			Util.notifyException("Serializing document to binary format", e, logger);
+			throw new InternalProcessingException("Errors while serializing the document to binary format: " + e.getMessage());
+		}
+	}
+
+	@Override
+	public void loadBinary(byte[] binaryContents) throws DRIexception {
+		if(binaryContents == null || !BinarySerializer.isBinarySerialized(binaryContents)) {
+			throw new InvalidParameterException("Invalid binary contents (null or not binary-serialized document)");
+		}
+
+		gate.Document gateDoc = null;
+		try {
+			gateDoc = BinarySerializer.deserialize(binaryContents);
+		} catch (ResourceInstantiationException | IOException | RuntimeException e) {
+			logger.warn("Exception: " + e.getMessage());
+			e.printStackTrace();
+			throw new InternalProcessingException("Errors while loading the binary-serialized document: " + e.getMessage());
+		}
+
+		if(gateDoc != null) {
+			this.cacheManager = new DocCacheManager(gateDoc, this);
+		}
+		else {
+			throw new InternalProcessingException("Errors while loading the binary-serialized document.");
+		}
+	}
+
+	@Override
+	public void loadBinary(File file) throws DRIexception {
+
+		if(file == null) {
+			throw new InvalidParameterException("Invalid File object (null)");
+		}
+
+		if(!file.exists()) {
+			throw new ResourceAccessException("Invalid File object (does not exist)");
+		}
+
+		byte[] binaryContents = null;
+		try {
+			binaryContents = Files.readAllBytes(file.toPath());
+		} catch (IOException e) {
+			throw new ResourceAccessException("Errors while reading the file at:'" + file.getAbsolutePath() + "': " + e.getMessage());
+		}
+
+		loadBinary(binaryContents);
+	}
+
 	@Override
 	public org.w3c.dom.Document getXMLDocument() throws InternalProcessingException {
 
@@ -375,19 +436,7 @@ public class DocumentImpl implements Document {
 		}
 
 		this.resetDocumentExtractionData();
-		this.parsingSentences(false);
-		this.parsingCitations_Spot(false);
-		this.parsingCitations_Link(false);
-		this.parsingCitations_Enrich(false);
-		this.parsingHeader(false);
-		this.parsingDep(false);
-		this.parsingMetaAnnotations(false);
-		this.parsingCoref(false);
-		this.parsingCausality(false);
-		this.parsingTerminology(false);
-		this.parsingRhetoricalClass(false);
-		this.parsingBabelNet(false);
-		this.parsingSummary(false);
+		this.executeStages(EnumSet.allOf(DocStageENUM.class));
 	}
 
 	@Override
@@ -398,16 +447,8 @@ public class DocumentImpl implements Document {
 		}
 
 		// Prerequisites
-		this.parsingSentences(false);
-		this.parsingCitations_Spot(false);
-		this.parsingCitations_Link(false);
-		this.parsingCitations_Enrich(false);
-		this.parsingDep(false);
-		this.parsingMetaAnnotations(false);
-		this.parsingBabelNet(false);
-		this.parsingRhetoricalClass(false);
-		this.parsingCoref(false);
-		this.parsingCausality(false);
+		this.executeStages(EnumSet.of(DocStageENUM.CITATIONS_ENRICH, DocStageENUM.META_ANNOTATIONS, DocStageENUM.BABELNET,
+				DocStageENUM.RHETORICAL, DocStageENUM.CAUSALITY));
 
 		List<Annotation> h1DocOrdered = GateUtil.getAnnInDocOrder(this.cacheManager.getGateDoc(), ImporterBase.driAnnSet, ImporterBase.h1AnnType);
 		List<Annotation> allhAnn = new ArrayList<Annotation>();
@@ -451,23 +492,39 @@ public class DocumentImpl implements Document {
 		}
 
 		// Prerequisites
-		this.parsingSentences(false);
-		this.parsingCitations_Spot(false);
-		this.parsingCitations_Link(false);
-		this.parsingCitations_Enrich(false);
-		this.parsingDep(false);
-		this.parsingMetaAnnotations(false);
-		this.parsingBabelNet(false);
-		this.parsingRhetoricalClass(false);
-		this.parsingCoref(false);
-		this.parsingCausality(false);
+		this.executeStages(EnumSet.of(DocStageENUM.CITATIONS_ENRICH, DocStageENUM.META_ANNOTATIONS, DocStageENUM.BABELNET,
+				DocStageENUM.RHETORICAL, DocStageENUM.CAUSALITY));
 
+		return selectSentences(sentenceSel, EnumSet.allOf(SentenceDataENUM.class));
+	}
+
+	@Override
+	public List<Sentence> extractSentences(SentenceSelectorENUM sentenceSel, Set<SentenceDataENUM> sentenceData) throws InternalProcessingException {
+
+		sentenceSel = (sentenceSel != null) ? sentenceSel : SentenceSelectorENUM.ALL; 
+		sentenceData = (sentenceData != null) ? sentenceData : EnumSet.noneOf(SentenceDataENUM.class);
+
+		if(this.cacheManager == null) {
+			throw new InternalProcessingException("No document loaded (data cleande up: " + cleanedUp + ")");
+		}
+
+		if(this.cacheManager.getGateDoc().getFeatures() == null) {
+			this.cacheManager.getGateDoc().setFeatures(gate.Factory.newFeatureMap());
+		}
+
+		// Prerequisites: only the stages needed to compute the required sentence data
+		this.executeStages(SentenceDataENUM.getRequiredStages(sentenceData));
+
+		return selectSentences(sentenceSel, sentenceData);
+	}
+
+	private List<Sentence> selectSentences(SentenceSelectorENUM sentenceSel, Set<SentenceDataENUM> sentenceData) {
 		List<Annotation> sentDocOrdered = GateUtil.getAnnInDocOrder(this.cacheManager.getGateDoc(), ImporterBase.driAnnSet, ImporterBase.sentenceAnnType);
 		List<Annotation> abstractAnnotationList = GateUtil.getAnnInDocOrder(this.cacheManager.getGateDoc(), ImporterBase.driAnnSet, ImporterBase.abstractAnnType);
 
 		List<Sentence> retSentenceList = new ArrayList<Sentence>();
 		for(Annotation sentAnn : sentDocOrdered) {
-			Sentence newSentence = ObjectGenerator.getSentenceFromId(sentAnn.getId(), this.cacheManager);
+			Sentence newSentence = ObjectGenerator.getSentenceFromId(sentAnn.getId(), this.cacheManager, sentenceData);
 			if(newSentence != null) {
 				boolean inAbstract = false;
 				for(Annotation abstractAnn : abstractAnnotationList) {
@@ -500,20 +557,31 @@ public class DocumentImpl implements Document {
 		}
 
 		// Prerequisites
-		this.parsingSentences(false);
-		this.parsingCitations_Spot(false);
-		this.parsingCitations_Link(false);
-		this.parsingCitations_Enrich(false);
-		this.parsingDep(false);
-		this.parsingMetaAnnotations(false);
-		this.parsingBabelNet(false);
-		this.parsingRhetoricalClass(false);
-		this.parsingCoref(false);
-		this.parsingCausality(false);
+		this.executeStages(EnumSet.of(DocStageENUM.CITATIONS_ENRICH, DocStageENUM.META_ANNOTATIONS, DocStageENUM.BABELNET,
+				DocStageENUM.RHETORICAL, DocStageENUM.CAUSALITY));
 
 		return ObjectGenerator.getSentenceFromId(sentenceId, this.cacheManager);
 	}
 
+	@Override
+	public Sentence extractSentenceById(int sentenceId, Set<SentenceDataENUM> sentenceData) throws InternalProcessingException {
+
+		sentenceData = (sentenceData != null) ? sentenceData : EnumSet.noneOf(SentenceDataENUM.class);
+
+		if(this.cacheManager == null) {
+			throw new InternalProcessingException("No document loaded (data cleande up: " + cleanedUp + ")");
+		}
+
+		if(this.cacheManager.getGateDoc().getFeatures() == null) {
+			this.cacheManager.getGateDoc().setFeatures(gate.Factory.newFeatureMap());
+		}
+
+		// Prerequisites: only the stages needed to compute the required sentence data
+		this.executeStages(SentenceDataENUM.getRequiredStages(sentenceData));
+
+		return ObjectGenerator.getSentenceFromId(sentenceId, this.cacheManager, sentenceData);
+	}
+
 	@Override
 	public List<CandidateTermOcc> extractTerminology() throws DRIexception {
 
@@ -522,15 +590,8 @@ public class DocumentImpl implements Document {
 		}
 
 		// Prerequisites
-		this.parsingSentences(false);
-		this.parsingCitations_Spot(false);
-		this.parsingCitations_Link(false);
-		this.parsingCitations_Enrich(false);
-		this.parsingDep(false);
-		this.parsingBabelNet(false);
-		this.parsingCoref(false);
-		this.parsingCausality(false);
-		this.parsingTerminology(false);
+		this.executeStages(EnumSet.of(DocStageENUM.CITATIONS_ENRICH, DocStageENUM.BABELNET, DocStageENUM.CAUSALITY,
+				DocStageENUM.TERMINOLOGY));
 
 		List<Annotation> candidateTermAnnList = GateUtil.getAnnInDocOrder(this.cacheManager.getGateDoc(), ImporterBase.term_AnnSet, ImporterBase.term_CandOcc);
 
@@ -555,17 +616,8 @@ public class DocumentImpl implements Document {
 		}
 
 		// Prerequisites
-		this.parsingSentences(false);
-		this.parsingCitations_Spot(false);
-		this.parsingCitations_Link(false);
-		this.parsingCitations_Enrich(false);
-		this.parsingDep(false);
-		// this.parsingMetaAnnotations(false); - Disabled becuse the summarized doesn't use these annotations
-		// this.parsingBabelNet(false); - Disabled becuse the summarized doesn't use these annotations
-		// this.parsingCoref(false); - Disabled becuse the summarized doesn't use these annotations
-		// this.parsingCausality(false); - Disabled becuse the summarized doesn't use these annotations
-		// this.parsingRhetoricalClass(false); - Disabled becuse the summarized doesn't use these annotations
-		this.parsingSummary(false);
+		// META_ANNOTATIONS, BABELNET, COREF, CAUSALITY and RHETORICAL not executed becuse the summarized doesn't use these annotations
+		this.executeStages(EnumSet.of(DocStageENUM.CITATIONS_ENRICH, DocStageENUM.SUMMARY));
 
 		Map<Annotation, Double> rankedSentencesMap = new HashMap<Annotation, Double>();
 
@@ -636,16 +688,8 @@ public class DocumentImpl implements Document {
 		}
 
 		// Prerequisites
-		this.parsingSentences(false);
-		this.parsingCitations_Spot(false);
-		this.parsingCitations_Link(false);
-		this.parsingCitations_Enrich(false);
-		this.parsingDep(false);
-		this.parsingMetaAnnotations(false);
-		this.parsingBabelNet(false);
-		this.parsingRhetoricalClass(false);
-		this.parsingCoref(false);
-		this.parsingCausality(false);
+		this.executeStages(EnumSet.of(DocStageENUM.CITATIONS_ENRICH, DocStageENUM.META_ANNOTATIONS, DocStageENUM.BABELNET,
+				DocStageENUM.RHETORICAL, DocStageENUM.CAUSALITY));
 
 
 		List<String> regexps = new ArrayList<String>();
@@ -690,16 +734,8 @@ public class DocumentImpl implements Document {
 		}
 
 		// Prerequisites
-		this.parsingSentences(false);
-		this.parsingCitations_Spot(false);
-		this.parsingCitations_Link(false);
-		this.parsingCitations_Enrich(false);
-		this.parsingDep(false);
-		this.parsingMetaAnnotations(false);
-		this.parsingBabelNet(false);
-		this.parsingCoref(false);
-		this.parsingCausality(false);
-		this.parsingRhetoricalClass(false);
+		this.executeStages(EnumSet.of(DocStageENUM.CITATIONS_ENRICH, DocStageENUM.META_ANNOTATIONS, DocStageENUM.BABELNET,
+				DocStageENUM.COREF, DocStageENUM.CAUSALITY, DocStageENUM.RHETORICAL));
 
 		List<Sentence> graphSentences = extractSentences(sentenceSel);
 
@@ -1107,7 +1143,7 @@ public class DocumentImpl implements Document {
 		}
 
 		// Prerequisites
-		this.parsingHeader(false);
+		this.executeStages(EnumSet.of(DocStageENUM.HEADER));
 
 		return ObjectGenerator.getHeaderFromDocument(cacheManager.getGateDoc(), cacheManager);
 	}
@@ -1125,10 +1161,7 @@ public class DocumentImpl implements Document {
 		}
 
 		// Prerequisites
-		this.parsingSentences(false);
-		this.parsingCitations_Spot(false);
-		this.parsingCitations_Link(false);
-		this.parsingCitations_Enrich(false);
+		this.executeStages(EnumSet.of(DocStageENUM.CITATIONS_ENRICH));
 
 		List<Citation> retCitationList = new ArrayList<Citation>();
 
@@ -1145,6 +1178,101 @@ public class DocumentImpl implements Document {
 		return retCitationList;
 	}
 
+	// Asynchronous extraction methods
+	@Override
+	public CompletableFuture<Header> extractHeaderAsync() {
+		return extractAsync(EnumSet.of(DocStageENUM.HEADER), () -> this.extractHeader());
+	}
+
+	@Override
+	public CompletableFuture<List<Sentence>> extractSentencesAsync(SentenceSelectorENUM sentenceSel) {
+		return extractAsync(EnumSet.of(DocStageENUM.CITATIONS_ENRICH, DocStageENUM.META_ANNOTATIONS, DocStageENUM.BABELNET,
+				DocStageENUM.RHETORICAL, DocStageENUM.CAUSALITY), () -> this.extractSentences(sentenceSel));
+	}
+
+	@Override
+	public CompletableFuture<List<Sentence>> extractSentencesAsync(SentenceSelectorENUM sentenceSel, Set<SentenceDataENUM> sentenceData) {
+		return extractAsync(SentenceDataENUM.getRequiredStages(sentenceData), () -> this.extractSentences(sentenceSel, sentenceData));
+	}
+
+	@Override
+	public CompletableFuture<List<CandidateTermOcc>> extractTerminologyAsync() {
+		return extractAsync(EnumSet.of(DocStageENUM.CITATIONS_ENRICH, DocStageENUM.BABELNET, DocStageENUM.CAUSALITY,
+				DocStageENUM.TERMINOLOGY), () -> this.extractTerminology());
+	}
+
+	@Override
+	public CompletableFuture<List<Sentence>> extractSummaryAsync(int sentNumber, SummaryTypeENUM summaryType) {
+		return extractAsync(EnumSet.of(DocStageENUM.CITATIONS_ENRICH, DocStageENUM.SUMMARY), () -> this.extractSummary(sentNumber, summaryType));
+	}
+
+	@Override
+	public CompletableFuture<DependencyGraph> extractDocumentGraphAsync(SentenceSelectorENUM sentenceSel) {
+		return extractAsync(EnumSet.of(DocStageENUM.CITATIONS_ENRICH, DocStageENUM.META_ANNOTATIONS, DocStageENUM.BABELNET,
+				DocStageENUM.COREF, DocStageENUM.CAUSALITY, DocStageENUM.RHETORICAL), () -> this.extractDocumentGraph(sentenceSel));
+	}
+
+	@Override
+	public CompletableFuture<List<Citation>> extractCitationsAsync() {
+		return extractAsync(EnumSet.of(DocStageENUM.CITATIONS_ENRICH), () -> this.extractCitations());
+	}
+
+	/**
+	 * Extraction of data from the document, executed once the analysis stages it needs are completed
+	 *
+	 * @param <T>
+	 */
+	@FunctionalInterface
+	private interface Extraction<T> {
+		public T extract() throws DRIexception;
+	}
+
+	/**
+	 * Execute asynchronously the analysis stages provided (with their prerequisites) by means of the scheduler of the
+	 * {@link edu.upf.taln.dri.lib.Factory Factory}, then the extraction, holding the stage lock of the document.<br/>
+	 * When the returned future is cancelled or completed exceptionally (e.g. by a timeout), the stages not yet started are cancelled.
+	 * 
+	 * @param stages
+	 * @param extraction
+	 * @return
+	 */
+	private <T> CompletableFuture<T> extractAsync(Set<DocStageENUM> stages, Extraction<T> extraction) {
+		if(this.cacheManager == null) {
+			CompletableFuture<T> failedFuture = new CompletableFuture<T>();
+			failedFuture.completeExceptionally(new InternalProcessingException("No document loaded (data cleande up: " + cleanedUp + ")"));
+			return failedFuture;
+		}
+
+		CompletableFuture<Void> stagesFuture = null;
+		try {
+			stagesFuture = edu.upf.taln.dri.lib.Factory.getAsyncStageScheduler().submit(this, stages);
+		} catch (InvalidParameterException e) {
+			CompletableFuture<T> failedFuture = new CompletableFuture<T>();
+			failedFuture.completeExceptionally(e);
+			return failedFuture;
+		}
+
+		CompletableFuture<T> extractionFuture = stagesFuture.thenApplyAsync(result -> {
+			stageLock.lock();
+			try {
+				return extraction.extract();
+			} catch (DRIexception e) {
+				throw new CompletionException(e);
+			} finally {
+				stageLock.unlock();
+			}
+		}, edu.upf.taln.dri.lib.Factory.getAsyncExecutor());
+
+		final CompletableFuture<Void> stagesToCancel = stagesFuture;
+		extractionFuture.whenComplete((result, exc) -> {
+			if(exc != null) {
+				stagesToCancel.cancel(false);
+			}
+		});
+
+		return extractionFuture;
+	}
+
 	// Utility methods
 	public void parsingHeader(boolean force) throws InternalProcessingException {
 
@@ -1163,81 +1291,101 @@ public class DocumentImpl implements Document {
 			return;
 		}
 
-		String headerAnalysisFlagCHECK = GateUtil.getStringFeature(this.cacheManager.getGateDoc(), edu.upf.taln.dri.lib.Factory.headerAnalysisFlagKey).orElse(null);
-		if(!force && headerAnalysisFlagCHECK != null && headerAnalysisFlagCHECK.equalsIgnoreCase("true")) {
-			// Not forced and processing results already present in GATE document
-			return;
-		}
+		// The header analyzer releases the lock of the document while waiting for the responses of Bibsonomy and Google Scholar
+		stageLock.lock();
+		try {
+			this.awaitStage(DocStageENUM.HEADER);
 
-		logger.info("Parsing Header - START...");
+			String headerAnalysisFlagCHECK = GateUtil.getStringFeature(this.cacheManager.getGateDoc(), edu.upf.taln.dri.lib.Factory.headerAnalysisFlagKey).orElse(null);
+			if(!force && headerAnalysisFlagCHECK != null && headerAnalysisFlagCHECK.equalsIgnoreCase("true")) {
+				// Not forced and processing results already present in GATE document
+				return;
+			}
 
-		// Reset dependent annotations and flags:
-		this.resetHeader();
+			logger.info("Parsing Header - START...");
 
-		// Check prerequisites: NONE
-		this.parsingSentences(false);
+			// Reset dependent annotations and flags:
+			this.resetHeader();
 
-		gate.Document headerDoc = null;
+			// Check prerequisites: NONE
+			this.parsingSentences(false);
 
-		// Get plain text header contents
-		Optional<String> headerGATEdocStr = GateUtil.getStringFeature(this.cacheManager.getGateDoc(), ImporterBase.headerDOC_OrigDocFeat);
+			long stageStartTime = System.nanoTime();
 
-		if(headerGATEdocStr.isPresent()) {
-			long startProcess = System.currentTimeMillis();
-			String headerStr = headerGATEdocStr.get();
-			String[] headerStrSplit = headerStr.split("<NL>");
-			List<String> headerStrList = Arrays.asList(headerStrSplit);
-			headerDoc = GateUtil.formListStrToGateDoc(headerStrList);
+			gate.Document headerDoc = null;
+
+			// Get plain text header contents
+			Optional<String> headerGATEdocStr = GateUtil.getStringFeature(this.cacheManager.getGateDoc(), ImporterBase.headerDOC_OrigDocFeat);
 
-			Corpus corpusToProcess = new CorpusImpl();
+			if(headerGATEdocStr.isPresent()) {
+				long startProcess = System.currentTimeMillis();
+				String headerStr = headerGATEdocStr.get();
+				String[] headerStrSplit = headerStr.split("<NL>");
+				List<String> headerStrList = Arrays.asList(headerStrSplit);
+				headerDoc = GateUtil.formListStrToGateDoc(headerStrList);
+
+				Corpus corpusToProcess = new CorpusImpl();
 
-			corpusToProcess.add(headerDoc);
+				corpusToProcess.add(headerDoc);
 
-			synchronized(LOCK_corpusController_XGAPPheader) {
-				startProcess = System.currentTimeMillis();
-				corpusController_XGAPPheader.setCorpus(corpusToProcess);
+				CorpusController corpusController_XGAPPheader = corpusController_XGAPPheader_Pool.checkout();
 				try {
-					corpusController_XGAPPheader.execute();
-				} catch (ExecutionException e) {
-					logger.warn("Exception: " + e.getMessage());
-					e.printStackTrace();
-					throw new InternalProcessingException("Error while procesing header");
+					startProcess = System.currentTimeMillis();
+					corpusController_XGAPPheader.setCorpus(corpusToProcess);
+					try {
+						corpusController_XGAPPheader.execute();
+					} catch (ExecutionException e) {
+						logger.warn("Exception: " + e.getMessage());
+						e.printStackTrace();
+						throw this.stageError(DocStageENUM.HEADER, "Error while procesing header");
+					}
+					corpusController_XGAPPheader.setCorpus(null);
+				} finally {
+					corpusController_XGAPPheader_Pool.release(corpusController_XGAPPheader);
 				}
-				corpusController_XGAPPheader.setCorpus(null);
-			}
 
-			synchronized(LOCK_HeaderAnalyzer_Resource) {
-				HeaderAnalyzer_Resource.setDocument(headerDoc);
-				HeaderAnalyzer_Resource.setOriginalDocument(this.cacheManager.getGateDoc());
+				HeaderAnalyzer HeaderAnalyzer_Resource = HeaderAnalyzer_Pool.checkout();
+				runningStages.add(DocStageENUM.HEADER);
 				try {
-					HeaderAnalyzer_Resource.execute();
-				} catch (ExecutionException e) {
-					logger.warn("Exception: " + e.getMessage());
-					e.printStackTrace();
-					throw new InternalProcessingException("Error while analyzing header");
+					HeaderAnalyzer_Resource.setDocument(headerDoc);
+					HeaderAnalyzer_Resource.setOriginalDocument(this.cacheManager.getGateDoc());
+					HeaderAnalyzer_Resource.setDocumentLock(stageLock);
+					try {
+						HeaderAnalyzer_Resource.execute();
+					} catch (ExecutionException e) {
+						logger.warn("Exception: " + e.getMessage());
+						e.printStackTrace();
+						throw this.stageError(DocStageENUM.HEADER, "Error while analyzing header");
+					}
+					HeaderAnalyzer_Resource.setDocument(null);
+					HeaderAnalyzer_Resource.setOriginalDocument(null);
+				} finally {
+					HeaderAnalyzer_Resource.setDocumentLock(null);
+					HeaderAnalyzer_Pool.release(HeaderAnalyzer_Resource);
+					this.completeStage(DocStageENUM.HEADER);
 				}
-				HeaderAnalyzer_Resource.setDocument(null);
-				HeaderAnalyzer_Resource.setOriginalDocument(null);
-			}
-			logger.info("Parsing Header - executed in " + (System.currentTimeMillis() - startProcess) + " ms.");
+				logger.info("Parsing Header - executed in " + (System.currentTimeMillis() - startProcess) + " ms.");
 
-			headerDoc.cleanup();
-			Factory.deleteResource(headerDoc);
+				headerDoc.cleanup();
+				Factory.deleteResource(headerDoc);
 
-			corpusToProcess.clear();
-			corpusToProcess.cleanup();
+				corpusToProcess.clear();
+				corpusToProcess.cleanup();
 
-		}
-		else {
-			logger.info("ParsingHeader - NO HEADER SECTION IDENTIFIED");
-		}
+			}
+			else {
+				logger.info("ParsingHeader - NO HEADER SECTION IDENTIFIED");
+			}
 
-		System.gc();
+			MetricsRegistry.getInstance().getStageMetrics(DocStageENUM.HEADER.name()).record(System.nanoTime() - stageStartTime);
 
-		// Set headerAnalysisFlagKey
-		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.headerAnalysisFlagKey, "true");
+			// Set headerAnalysisFlagKey
+			this.setStageExecuted(edu.upf.taln.dri.lib.Factory.headerAnalysisFlagKey);
 
-		logger.info("Parsing Header - END.");
+			logger.info("Parsing Header - END.");
+		} finally {
+			stageLock.unlock();
+		}
 	}
 
 	public void resetHeader() throws InternalProcessingException {
@@ -1246,18 +1394,22 @@ public class DocumentImpl implements Document {
 			throw new InternalProcessingException("No document loaded (data cleande up: " + cleanedUp + ")");
 		}
 
+		// Wait for the stage, if executed by another thread that released the lock of the document
+		this.awaitStage(DocStageENUM.HEADER);
+
 		try {
-			synchronized(LOCK_HeaderAnalyzer_Resource) {
+			HeaderAnalyzer HeaderAnalyzer_Resource = HeaderAnalyzer_Pool.checkout();
+			try {
 				HeaderAnalyzer_Resource.setOriginalDocument(this.cacheManager.getGateDoc());
 				HeaderAnalyzer_Resource.resetAnnotations();
 				HeaderAnalyzer_Resource.setOriginalDocument(null);
+			} finally {
+				HeaderAnalyzer_Pool.release(HeaderAnalyzer_Resource);
 			}
 		} catch (Exception e) {
 			Util.notifyException("Resetting Header annotations", e, logger);
 		}
 
-		System.gc();
-
 		// Reset headerAnalysisFlagKey
 		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.headerAnalysisFlagKey, "false");
 
@@ -1278,6 +1430,8 @@ public class DocumentImpl implements Document {
 
 		logger.info("Extract Sentences - START...");
 
+		long stageStartTime = System.nanoTime();
+
 		// Reset dependent annotations and flags:
 		// The DOCUMENT RESET of STEP 1 delete all annotations of driAnnSet
 		this.resetDocumentExtractionData();
@@ -1289,7 +1443,8 @@ public class DocumentImpl implements Document {
 		corpusToProcess.add(this.cacheManager.getGateDoc());
 
 		long startProcess = System.currentTimeMillis();
-		synchronized(LOCK_corpusController_preprocess_XGAPPpreprocStep1) {
+		CorpusController corpusController_preprocess_XGAPPpreprocStep1 = corpusController_preprocess_XGAPPpreprocStep1_Pool.checkout();
+		try {
 			startProcess = System.currentTimeMillis();
 			corpusController_preprocess_XGAPPpreprocStep1.setCorpus(corpusToProcess);
 			try {
@@ -1297,9 +1452,11 @@ public class DocumentImpl implements Document {
 			} catch (ExecutionException e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while extracting sentences (step 1)");
+				throw this.stageError(DocStageENUM.SENTENCES, "Error while extracting sentences (step 1)");
 			}
 			corpusController_preprocess_XGAPPpreprocStep1.setCorpus(null);
+		} finally {
+			corpusController_preprocess_XGAPPpreprocStep1_Pool.release(corpusController_preprocess_XGAPPpreprocStep1);
 		}
 
 		AnnotationSet inputPDFX = this.cacheManager.getGateDoc().getAnnotations(ImporterPDFX.PDFXAnnSet);
@@ -1308,16 +1465,19 @@ public class DocumentImpl implements Document {
 		AnnotationSet inputJATS = this.cacheManager.getGateDoc().getAnnotations(ImporterJATS.JATSannSet);
 
 		if(inputPDFX != null && (inputPDFX.get("pdfx") != null && inputPDFX.get("pdfx").size() > 0)) {
-			synchronized(LOCK_PDFXimporter_Resource) {
+			ImporterPDFX PDFXimporter_Resource = PDFXimporter_Pool.checkout();
+			try {
 				PDFXimporter_Resource.setDocument(this.cacheManager.getGateDoc());
 				try {
 					PDFXimporter_Resource.execute();
 				} catch (ExecutionException e) {
 					logger.warn("Exception: " + e.getMessage());
 					e.printStackTrace();
-					throw new InternalProcessingException("Error while extracting sentences (PDFX sanitizing)");
+					throw this.stageError(DocStageENUM.SENTENCES, "Error while extracting sentences (PDFX sanitizing)");
 				}
 				PDFXimporter_Resource.setDocument(null);
+			} finally {
+				PDFXimporter_Pool.release(PDFXimporter_Resource);
 			}
 		}
 		else if (inputPDFEXT != null && 
@@ -1327,45 +1487,54 @@ public class DocumentImpl implements Document {
 						(inputPDFEXT.get("abstract_text") != null && inputPDFEXT.get("abstract_text").size() > 0) ||
 						(inputPDFEXT.get("reference") != null && inputPDFEXT.get("reference").size() > 0))
 				) {
-			synchronized(LOCK_PDFEXTimporter_Resource) {
+			ImporterPDFEXT PDFEXTimporter_Resource = PDFEXTimporter_Pool.checkout();
+			try {
 				PDFEXTimporter_Resource.setDocument(this.cacheManager.getGateDoc());
 				try {
 					PDFEXTimporter_Resource.execute();
 				} catch (ExecutionException e) {
 					logger.warn("Exception: " + e.getMessage());
 					e.printStackTrace();
-					throw new InternalProcessingException("Error while extracting sentences (PDFEXT sanitizing)");
+					throw this.stageError(DocStageENUM.SENTENCES, "Error while extracting sentences (PDFEXT sanitizing)");
 				}
 				PDFEXTimporter_Resource.setDocument(null);
+			} finally {
+				PDFEXTimporter_Pool.release(PDFEXTimporter_Resource);
 			}
 		}
 		else if (inputGROBID != null && 
 				(inputGROBID.get("TEI") != null && inputJATS.get("TEI").size() > 0)) {
-			synchronized(LOCK_GROBIDimporter_Resource) {
+			ImporterGROBID GROBIDimporter_Resource = GROBIDimporter_Pool.checkout();
+			try {
 				GROBIDimporter_Resource.setDocument(this.cacheManager.getGateDoc());
 				try {
 					GROBIDimporter_Resource.execute();
 				} catch (ExecutionException e) {
 					logger.warn("Exception: " + e.getMessage());
 					e.printStackTrace();
-					throw new InternalProcessingException("Error while extracting sentences (GROBID sanitizing)");
+					throw this.stageError(DocStageENUM.SENTENCES, "Error while extracting sentences (GROBID sanitizing)");
 				}
 				GROBIDimporter_Resource.setDocument(null);
+			} finally {
+				GROBIDimporter_Pool.release(GROBIDimporter_Resource);
 			}
 		}
 		else if (inputJATS != null && 
 				(inputJATS.get("article-title") != null && inputJATS.get("article-title").size() > 0) &&
 				(inputJATS.get("article") != null && inputJATS.get("article").size() > 0)) {
-			synchronized(LOCK_JATSimporter_Resource) {
+			ImporterJATS JATSimporter_Resource = JATSimporter_Pool.checkout();
+			try {
 				JATSimporter_Resource.setDocument(this.cacheManager.getGateDoc());
 				try {
 					JATSimporter_Resource.execute();
 				} catch (ExecutionException e) {
 					logger.warn("Exception: " + e.getMessage());
 					e.printStackTrace();
-					throw new InternalProcessingException("Error while extracting sentences (JATS sanitizing)");
+					throw this.stageError(DocStageENUM.SENTENCES, "Error while extracting sentences (JATS sanitizing)");
 				}
 				JATSimporter_Resource.setDocument(null);
+			} finally {
+				JATSimporter_Pool.release(JATSimporter_Resource);
 			}
 		}
 		else { 
@@ -1374,19 +1543,23 @@ public class DocumentImpl implements Document {
 			this.cacheManager.getGateDoc().getFeatures().put("source", SourceENUM.PLAIN_TEXT.toString());
 		}
 
-		synchronized(LOCK_corpusController_preprocess_XGAPPpreprocStep2) {
+		CorpusController corpusController_preprocess_XGAPPpreprocStep2 = corpusController_preprocess_XGAPPpreprocStep2_Pool.checkout();
+		try {
 			corpusController_preprocess_XGAPPpreprocStep2.setCorpus(corpusToProcess);
 			try {
 				corpusController_preprocess_XGAPPpreprocStep2.execute();
 			} catch (ExecutionException e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while extracting sentences (step 2)");
+				throw this.stageError(DocStageENUM.SENTENCES, "Error while extracting sentences (step 2)");
 			}
 			corpusController_preprocess_XGAPPpreprocStep2.setCorpus(null);
+		} finally {
+			corpusController_preprocess_XGAPPpreprocStep2_Pool.release(corpusController_preprocess_XGAPPpreprocStep2);
 		}
 
-		synchronized(LOCK_LanguageDetector_Resource) {
+		LanguageDetector LanguageDetector_Resource = LanguageDetector_Pool.checkout();
+		try {
 			if(edu.upf.taln.dri.lib.Factory.getModuleConfig().isEnableMultiLangSupport()) {
 				LanguageDetector_Resource.setEnableLangDetect("true");
 			}
@@ -1449,7 +1622,7 @@ public class DocumentImpl implements Document {
 			catch(Exception e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while detecting language of titles / headers.");
+				throw this.stageError(DocStageENUM.SENTENCES, "Error while detecting language of titles / headers.");
 			}
 
 			// Detect language of abstract(s) - the same language tag (majority) assigned to all sentences of abstract
@@ -1484,7 +1657,7 @@ public class DocumentImpl implements Document {
 			catch(Exception e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while detecting language of abstracts");
+				throw this.stageError(DocStageENUM.SENTENCES, "Error while detecting language of abstracts");
 			}
 
 			// Detect language of main body - the same language tag (majority) assigned to all sentences of abstract
@@ -1496,8 +1669,10 @@ public class DocumentImpl implements Document {
 			catch(Exception e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while detecting language of main body");
+				throw this.stageError(DocStageENUM.SENTENCES, "Error while detecting language of main body");
 			}
+		} finally {
+			LanguageDetector_Pool.release(LanguageDetector_Resource);
 		}
 
 		logger.info("Extract Sentences - executed in " + (System.currentTimeMillis() - startProcess) + " ms.");
@@ -1505,10 +1680,10 @@ public class DocumentImpl implements Document {
 		corpusToProcess.clear();
 		corpusToProcess.cleanup();
 
-		System.gc();
+		MetricsRegistry.getInstance().getStageMetrics(DocStageENUM.SENTENCES.name()).record(System.nanoTime() - stageStartTime, this.getSentenceCount());
 
 		// Set sentenceExtracionFlag
-		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.sentenceExtracionFlagKey, "true");
+		this.setStageExecuted(edu.upf.taln.dri.lib.Factory.sentenceExtracionFlagKey);
 
 		logger.info("Extract Sentences - END.");
 	}
@@ -1546,12 +1721,15 @@ public class DocumentImpl implements Document {
 		// Check prerequisites:
 		this.parsingSentences(false);
 
+		long stageStartTime = System.nanoTime();
+
 		Corpus corpusToProcess = new CorpusImpl();
 
 		corpusToProcess.add(this.cacheManager.getGateDoc());
 
 		long startProcess = System.currentTimeMillis();
-		synchronized(LOCK_corpusController_XGAPPcitMarker) {
+		CorpusController corpusController_XGAPPcitMarker = corpusController_XGAPPcitMarker_Pool.checkout();
+		try {
 			startProcess = System.currentTimeMillis();
 			corpusController_XGAPPcitMarker.setCorpus(corpusToProcess);
 			try {
@@ -1559,31 +1737,36 @@ public class DocumentImpl implements Document {
 			} catch (ExecutionException e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while extracting candidate citations");
+				throw this.stageError(DocStageENUM.CITATIONS_SPOT, "Error while extracting candidate citations");
 			}
 			corpusController_XGAPPcitMarker.setCorpus(null);
+		} finally {
+			corpusController_XGAPPcitMarker_Pool.release(corpusController_XGAPPcitMarker);
 		}
 
-		synchronized(LOCK_CitationSanitizer_Resource) {
+		InlineCitationSpotter CitationSanitizer_Resource = CitationSanitizer_Pool.checkout();
+		try {
 			CitationSanitizer_Resource.setDocument(this.cacheManager.getGateDoc());
 			try {
 				CitationSanitizer_Resource.execute();
 			} catch (ExecutionException e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while sanitizing citations");
+				throw this.stageError(DocStageENUM.CITATIONS_SPOT, "Error while sanitizing citations");
 			}
 			CitationSanitizer_Resource.setDocument(null);
+		} finally {
+			CitationSanitizer_Pool.release(CitationSanitizer_Resource);
 		}
 		logger.info("Analyze Citations (Spot) - executed in " + (System.currentTimeMillis() - startProcess) + " ms.");
 
 		corpusToProcess.clear();
 		corpusToProcess.cleanup();
 
-		System.gc();
+		MetricsRegistry.getInstance().getStageMetrics(DocStageENUM.CITATIONS_SPOT.name()).record(System.nanoTime() - stageStartTime);
 
 		// Set citationExtractionFlag
-		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.citationSpotFlagKey, "true");
+		this.setStageExecuted(edu.upf.taln.dri.lib.Factory.citationSpotFlagKey);
 
 		logger.info("Analyze Citations (Spot) - END.");
 	}
@@ -1614,18 +1797,19 @@ public class DocumentImpl implements Document {
 				}
 			}
 
-			synchronized(LOCK_CitationSanitizer_Resource) {
+			InlineCitationSpotter CitationSanitizer_Resource = CitationSanitizer_Pool.checkout();
+			try {
 				CitationSanitizer_Resource.setDocument(this.cacheManager.getGateDoc());
 				CitationSanitizer_Resource.resetAnnotations();
 				CitationSanitizer_Resource.setDocument(null);
+			} finally {
+				CitationSanitizer_Pool.release(CitationSanitizer_Resource);
 			}
 
 		} catch (Exception e) {
 			Util.notifyException("Resetting Citation (Spot) annotations", e, logger);
 		}
 
-		System.gc();
-
 		// Reset citationSpotAndLinkFlagKey
 		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.citationSpotFlagKey, "false");
 
@@ -1659,11 +1843,14 @@ public class DocumentImpl implements Document {
 		this.parsingSentences(false);
 		this.parsingCitations_Spot(false);
 
+		long stageStartTime = System.nanoTime();
+
 		Corpus corpusToProcess = new CorpusImpl();
 
 		corpusToProcess.add(this.cacheManager.getGateDoc());
 
-		synchronized(LOCK_CitationLinker_Resource) {
+		CitationLinker CitationLinker_Resource = CitationLinker_Pool.checkout();
+		try {
 			long startProcess = System.currentTimeMillis();
 			CitationLinker_Resource.setDocument(this.cacheManager.getGateDoc());
 			try {
@@ -1672,18 +1859,20 @@ public class DocumentImpl implements Document {
 			} catch (ExecutionException e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while linking citation to inline markers");
+				throw this.stageError(DocStageENUM.CITATIONS_LINK, "Error while linking citation to inline markers");
 			}
 			CitationLinker_Resource.setDocument(null);
+		} finally {
+			CitationLinker_Pool.release(CitationLinker_Resource);
 		}
 
 		corpusToProcess.clear();
 		corpusToProcess.cleanup();
 
-		System.gc();
+		MetricsRegistry.getInstance().getStageMetrics(DocStageENUM.CITATIONS_LINK.name()).record(System.nanoTime() - stageStartTime);
 
 		// Set citationExtractionFlag
-		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.citationLinkFlagKey, "true");
+		this.setStageExecuted(edu.upf.taln.dri.lib.Factory.citationLinkFlagKey);
 
 		logger.info("Analyze Citations (Link) - END.");
 	}
@@ -1695,18 +1884,19 @@ public class DocumentImpl implements Document {
 		}
 
 		try {
-			synchronized(LOCK_CitationLinker_Resource) {
+			CitationLinker CitationLinker_Resource = CitationLinker_Pool.checkout();
+			try {
 				CitationLinker_Resource.setDocument(this.cacheManager.getGateDoc());
 				CitationLinker_Resource.resetAnnotations();
 				CitationLinker_Resource.setDocument(null);
+			} finally {
+				CitationLinker_Pool.release(CitationLinker_Resource);
 			}
 
 		} catch (Exception e) {
 			Util.notifyException("Resetting Citation (Link and Spot) annotations", e, logger);
 		}
 
-		System.gc();
-
 		// Reset citationSpotAndLinkFlagKey
 		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.citationLinkFlagKey, "false");
 
@@ -1736,43 +1926,59 @@ public class DocumentImpl implements Document {
 			return;
 		}
 
-		String citationExtracionFlagCHECK = GateUtil.getStringFeature(this.cacheManager.getGateDoc(), edu.upf.taln.dri.lib.Factory.citationEnrichFlagKey).orElse(null);
-		if(!force && citationExtracionFlagCHECK != null && citationExtracionFlagCHECK.equalsIgnoreCase("true")) {
-			// Not forced and processing results already present in GATE document
-			return;
-		}
+		// The bibliographic entry parser releases the lock of the document while waiting for the responses of the services
+		stageLock.lock();
+		try {
+			this.awaitStage(DocStageENUM.CITATIONS_ENRICH);
 
-		logger.info("Analyze Citations (Enrich) - START...");
+			String citationExtracionFlagCHECK = GateUtil.getStringFeature(this.cacheManager.getGateDoc(), edu.upf.taln.dri.lib.Factory.citationEnrichFlagKey).orElse(null);
+			if(!force && citationExtracionFlagCHECK != null && citationExtracionFlagCHECK.equalsIgnoreCase("true")) {
+				// Not forced and processing results already present in GATE document
+				return;
+			}
 
-		// Reset dependent annotations and flags:
-		this.resetCitations_Enrich();
+			logger.info("Analyze Citations (Enrich) - START...");
 
-		// Check prerequisites:
-		this.parsingSentences(false);
-		this.parsingCitations_Spot(false);
-		this.parsingCitations_Link(false);
+			// Reset dependent annotations and flags:
+			this.resetCitations_Enrich();
 
-		synchronized(LOCK_CitationExpander_Resource) {
-			long startProcess = System.currentTimeMillis();
-			CitationExpander_Resource.setDocument(this.cacheManager.getGateDoc());
+			// Check prerequisites:
+			this.parsingSentences(false);
+			this.parsingCitations_Spot(false);
+			this.parsingCitations_Link(false);
+
+			long stageStartTime = System.nanoTime();
+
+			BiblioEntryParser CitationExpander_Resource = CitationExpander_Pool.checkout();
+			runningStages.add(DocStageENUM.CITATIONS_ENRICH);
 			try {
-				CitationExpander_Resource.execute();
-				logger.info("Analyze Citations (Enrich) - executed in " + (System.currentTimeMillis() - startProcess) + " ms.");
-			} catch (ExecutionException e) {
-				logger.warn("Exception: " + e.getMessage());
-				e.printStackTrace();
-				throw new InternalProcessingException("Error while parsing citation info");
+				long startProcess = System.currentTimeMillis();
+				CitationExpander_Resource.setDocument(this.cacheManager.getGateDoc());
+				CitationExpander_Resource.setDocumentLock(stageLock);
+				try {
+					CitationExpander_Resource.execute();
+					logger.info("Analyze Citations (Enrich) - executed in " + (System.currentTimeMillis() - startProcess) + " ms.");
+				} catch (ExecutionException e) {
+					logger.warn("Exception: " + e.getMessage());
+					e.printStackTrace();
+					throw this.stageError(DocStageENUM.CITATIONS_ENRICH, "Error while parsing citation info");
+				}
+				CitationExpander_Resource.setDocument(null);
+			} finally {
+				CitationExpander_Resource.setDocumentLock(null);
+				CitationExpander_Pool.release(CitationExpander_Resource);
+				this.completeStage(DocStageENUM.CITATIONS_ENRICH);
 			}
-			CitationExpander_Resource.setDocument(null);
-		}
 
-		System.gc();
-
-		// Set citationExtractionFlag
-		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.citationEnrichFlagKey, "true");
+			MetricsRegistry.getInstance().getStageMetrics(DocStageENUM.CITATIONS_ENRICH.name()).record(System.nanoTime() - stageStartTime);
 
-		logger.info("Analyze Citations (Enrich) - END.");
+			// Set citationExtractionFlag
+			this.setStageExecuted(edu.upf.taln.dri.lib.Factory.citationEnrichFlagKey);
 
+			logger.info("Analyze Citations (Enrich) - END.");
+		} finally {
+			stageLock.unlock();
+		}
 	}
 
 	public void resetCitations_Enrich() throws InternalProcessingException {
@@ -1781,18 +1987,22 @@ public class DocumentImpl implements Document {
 			throw new InternalProcessingException("No document loaded (data cleande up: " + cleanedUp + ")");
 		}
 
+		// Wait for the stage, if executed by another thread that released the lock of the document
+		this.awaitStage(DocStageENUM.CITATIONS_ENRICH);
+
 		try {
-			synchronized(LOCK_CitationExpander_Resource) {
+			BiblioEntryParser CitationExpander_Resource = CitationExpander_Pool.checkout();
+			try {
 				CitationExpander_Resource.setDocument(this.cacheManager.getGateDoc());
 				CitationExpander_Resource.resetAnnotations();
 				CitationExpander_Resource.setDocument(null);
+			} finally {
+				CitationExpander_Pool.release(CitationExpander_Resource);
 			}
 		} catch (Exception e) {
 			Util.notifyException("Resetting Citation (Enrich) annotations", e, logger);
 		}
 
-		System.gc();
-
 		// Reset citationSpotAndLinkFlagKey
 		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.citationEnrichFlagKey, "false");
 
@@ -1832,7 +2042,10 @@ public class DocumentImpl implements Document {
 		this.parsingCitations_Link(false);
 		// this.parsingCitations_Enrich(false); - NOT A PREREQUISITE
 
-		synchronized(LOCK_MateParser_Resource) {
+		long stageStartTime = System.nanoTime();
+
+		Map<LangENUM, MateParser> MateParsersLang_Resource = MateParsersLang_Pool.checkout();
+		try {
 			long startProcess = System.currentTimeMillis();
 
 			try {
@@ -1910,15 +2123,17 @@ public class DocumentImpl implements Document {
 			} catch (Exception e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while extracting sentence graph (parser)");
+				throw this.stageError(DocStageENUM.DEP, "Error while extracting sentence graph (parser)");
 			}
 
+		} finally {
+			MateParsersLang_Pool.release(MateParsersLang_Resource);
 		}
 
-		System.gc();
+		MetricsRegistry.getInstance().getStageMetrics(DocStageENUM.DEP.name()).record(System.nanoTime() - stageStartTime, this.getSentenceCount());
 
 		// Set graphExtractionFlag
-		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.graphExtractionFlagKey, "true");
+		this.setStageExecuted(edu.upf.taln.dri.lib.Factory.graphExtractionFlagKey);
 
 		logger.info("Extract Graph - END.");
 	}
@@ -1930,18 +2145,19 @@ public class DocumentImpl implements Document {
 		}
 
 		try {
-			synchronized(LOCK_MateParser_Resource) {
+			Map<LangENUM, MateParser> MateParsersLang_Resource = MateParsersLang_Pool.checkout();
+			try {
 				// Reset is equal independently from the parsing language
 				MateParsersLang_Resource.get(LangENUM.EN).setDocument(this.cacheManager.getGateDoc());
 				MateParsersLang_Resource.get(LangENUM.EN).resetAnnotations();
 				MateParsersLang_Resource.get(LangENUM.EN).setDocument(null);
+			} finally {
+				MateParsersLang_Pool.release(MateParsersLang_Resource);
 			}
 		} catch (Exception e) {
 			Util.notifyException("Resetting Graph annotations", e, logger);
 		}
 
-		System.gc();
-
 		// Reset graphExtractionFlagKey
 		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.graphExtractionFlagKey, "false");
 
@@ -1974,11 +2190,14 @@ public class DocumentImpl implements Document {
 		// Check prerequisites
 		this.parsingDep(false);
 
+		long stageStartTime = System.nanoTime();
+
 		Corpus corpusToProcess = new CorpusImpl();
 		corpusToProcess.add(this.cacheManager.getGateDoc());
 
 		long startProcess = System.currentTimeMillis();
-		synchronized(LOCK_corpusController_XGAPPcorefMentionSpot) {
+		CorpusController corpusController_XGAPPcorefMentionSpot = corpusController_XGAPPcorefMentionSpot_Pool.checkout();
+		try {
 			startProcess = System.currentTimeMillis();
 			try {
 				corpusController_XGAPPcorefMentionSpot.setCorpus(corpusToProcess);
@@ -1987,11 +2206,14 @@ public class DocumentImpl implements Document {
 			} catch (ExecutionException e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while extracting sentence graph (coref - mention spot)");
+				throw this.stageError(DocStageENUM.COREF, "Error while extracting sentence graph (coref - mention spot)");
 			}
+		} finally {
+			corpusController_XGAPPcorefMentionSpot_Pool.release(corpusController_XGAPPcorefMentionSpot);
 		}
 
-		synchronized(LOCK_CorefChainBuilder_Resource) {
+		CorefChainBuilder CorefChainBuilder_Resource = CorefChainBuilder_Pool.checkout();
+		try {
 			try {
 				CorefChainBuilder_Resource.setDocument(this.cacheManager.getGateDoc());
 				CorefChainBuilder_Resource.execute();
@@ -2000,18 +2222,20 @@ public class DocumentImpl implements Document {
 			} catch (ExecutionException e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while extracting sentence graph (coref - chain build)");
+				throw this.stageError(DocStageENUM.COREF, "Error while extracting sentence graph (coref - chain build)");
 			}
+		} finally {
+			CorefChainBuilder_Pool.release(CorefChainBuilder_Resource);
 		}
 		logger.info("Extract Coreference - executed in " + (System.currentTimeMillis() - startProcess) + " ms.");
 
 		corpusToProcess.clear();
 		corpusToProcess.cleanup();
 
-		System.gc();
+		MetricsRegistry.getInstance().getStageMetrics(DocStageENUM.COREF.name()).record(System.nanoTime() - stageStartTime);
 
 		// Set graphExtractionFlag
-		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.coreferenceAnalysisFlagKey, "true");
+		this.setStageExecuted(edu.upf.taln.dri.lib.Factory.coreferenceAnalysisFlagKey);
 
 		logger.info("Extract Coreference - END.");
 	}
@@ -2023,17 +2247,18 @@ public class DocumentImpl implements Document {
 		}
 
 		try {
-			synchronized(LOCK_CorefChainBuilder_Resource) {
+			CorefChainBuilder CorefChainBuilder_Resource = CorefChainBuilder_Pool.checkout();
+			try {
 				CorefChainBuilder_Resource.setDocument(this.cacheManager.getGateDoc());
 				CorefChainBuilder_Resource.resetAnnotations();
 				CorefChainBuilder_Resource.setDocument(null);
+			} finally {
+				CorefChainBuilder_Pool.release(CorefChainBuilder_Resource);
 			}
 		} catch (Exception e) {
 			Util.notifyException("Resetting Coreference annotations", e, logger);
 		}
 
-		System.gc();
-
 		// Reset coreferenceAnalysisFlagKey
 		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.coreferenceAnalysisFlagKey, "false");
 
@@ -2066,10 +2291,13 @@ public class DocumentImpl implements Document {
 		this.parsingDep(false);
 		this.parsingCoref(false);
 
+		long stageStartTime = System.nanoTime();
+
 		Corpus corpusToProcess = new CorpusImpl();
 		corpusToProcess.add(this.cacheManager.getGateDoc());
 
-		synchronized(LOCK_corpusController_XGAPPcausality) {
+		CorpusController corpusController_XGAPPcausality = corpusController_XGAPPcausality_Pool.checkout();
+		try {
 			long startProcess = System.currentTimeMillis();
 			corpusController_XGAPPcausality.setCorpus(corpusToProcess);
 			try {
@@ -2078,18 +2306,20 @@ public class DocumentImpl implements Document {
 			} catch (ExecutionException e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while extracting causality");
+				throw this.stageError(DocStageENUM.CAUSALITY, "Error while extracting causality");
 			}
 			corpusController_XGAPPcausality.setCorpus(null);
+		} finally {
+			corpusController_XGAPPcausality_Pool.release(corpusController_XGAPPcausality);
 		}
 
 		corpusToProcess.clear();
 		corpusToProcess.cleanup();
 
-		System.gc();
+		MetricsRegistry.getInstance().getStageMetrics(DocStageENUM.CAUSALITY.name()).record(System.nanoTime() - stageStartTime);
 
 		// Set graphExtractionFlag
-		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.causalityAnalysisFlagKey, "true");
+		this.setStageExecuted(edu.upf.taln.dri.lib.Factory.causalityAnalysisFlagKey);
 
 		logger.info("Extract Causality - END.");
 	}
@@ -2108,8 +2338,6 @@ public class DocumentImpl implements Document {
 			Util.notifyException("Resetting Causality annotations", e, logger);
 		}
 
-		System.gc();
-
 		// Reset citationSpotAndLinkFlagKey
 		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.causalityAnalysisFlagKey, "false");
 
@@ -2127,65 +2355,82 @@ public class DocumentImpl implements Document {
 			return;
 		}
 
-		String babelNetExtracionFlagCHECK = GateUtil.getStringFeature(this.cacheManager.getGateDoc(), edu.upf.taln.dri.lib.Factory.babelNetAnalysisFlagKey).orElse(null);
-		if(!force && babelNetExtracionFlagCHECK != null && babelNetExtracionFlagCHECK.equalsIgnoreCase("true")) {
-			// Not forced and processing results already present in GATE document
-			return;
-		}
+		// The BabelNet annotator releases the lock of the document while waiting for the responses of Babelfy
+		stageLock.lock();
+		try {
+			this.awaitStage(DocStageENUM.BABELNET);
 
-		logger.info("Disambiguating by BabelNet - START...");
+			String babelNetExtracionFlagCHECK = GateUtil.getStringFeature(this.cacheManager.getGateDoc(), edu.upf.taln.dri.lib.Factory.babelNetAnalysisFlagKey).orElse(null);
+			if(!force && babelNetExtracionFlagCHECK != null && babelNetExtracionFlagCHECK.equalsIgnoreCase("true")) {
+				// Not forced and processing results already present in GATE document
+				return;
+			}
 
-		// Reset dependent annotations and flags:
-		this.resetBabelNet();
+			logger.info("Disambiguating by BabelNet - START...");
 
-		// Check prerequisites
-		this.parsingDep(false);
+			// Reset dependent annotations and flags:
+			this.resetBabelNet();
+
+			// Check prerequisites
+			this.parsingDep(false);
 
-		synchronized(LOCK_BabelnetAnnotator_Resource) {
+			long stageStartTime = System.nanoTime();
+
+			BabelnetAnnotator BabelnetAnnotator_Resource = BabelnetAnnotator_Pool.checkout();
+			runningStages.add(DocStageENUM.BABELNET);
 			try {
-				long startProcess = System.currentTimeMillis();
-				BabelnetAnnotator_Resource.setDocument(this.cacheManager.getGateDoc());
+				try {
+					long startProcess = System.currentTimeMillis();
+					BabelnetAnnotator_Resource.setDocument(this.cacheManager.getGateDoc());
+					BabelnetAnnotator_Resource.setDocumentLock(stageLock);
 
-				boolean isLangAware = edu.upf.taln.dri.lib.Factory.getModuleConfig().isEnableMultiLangSupport();
+					boolean isLangAware = edu.upf.taln.dri.lib.Factory.getModuleConfig().isEnableMultiLangSupport();
 
-				// STEP 1: Abstract(s) sentence parsing
-				AnnotationSet abstractsAnnSet = this.cacheManager.getGateDoc().getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.abstractAnnType);
-				long abstractEndOffset = 0l;
-				for(Iterator<Annotation> iter = abstractsAnnSet.iterator(); iter.hasNext(); ) {
-					Annotation abstractAnn = iter.next();
-					if(abstractAnn != null) {
-						if(abstractAnn.getEndNode().getOffset() > abstractEndOffset) {
-							abstractEndOffset = abstractAnn.getEndNode().getOffset();
-						}
+					// STEP 1: Abstract(s) sentence parsing
+					AnnotationSet abstractsAnnSet = this.cacheManager.getGateDoc().getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.abstractAnnType);
+					long abstractEndOffset = 0l;
+					for(Iterator<Annotation> iter = abstractsAnnSet.iterator(); iter.hasNext(); ) {
+						Annotation abstractAnn = iter.next();
+						if(abstractAnn != null) {
+							if(abstractAnn.getEndNode().getOffset() > abstractEndOffset) {
+								abstractEndOffset = abstractAnn.getEndNode().getOffset();
+							}
 
-						List<Annotation> sentenceAnnList = GateUtil.getAnnInDocOrderIntersectAnn(this.cacheManager.getGateDoc(), ImporterBase.driAnnSet, ImporterBase.sentenceAnnType, abstractAnn);
+							List<Annotation> sentenceAnnList = GateUtil.getAnnInDocOrderIntersectAnn(this.cacheManager.getGateDoc(), ImporterBase.driAnnSet, ImporterBase.sentenceAnnType, abstractAnn);
 
-						BabelnetAnnotator.languageAwareDisambiguation(isLangAware, BabelnetAnnotator_Resource, this.cacheManager.getGateDoc(),
-								sentenceAnnList, ImporterBase.driAnnSet, ImporterBase.sentenceAnnType, ImporterBase.driAnnSet, ImporterBase.tokenAnnType);
+							BabelnetAnnotator.languageAwareDisambiguation(isLangAware, BabelnetAnnotator_Resource, this.cacheManager.getGateDoc(),
+									sentenceAnnList, ImporterBase.driAnnSet, ImporterBase.sentenceAnnType, ImporterBase.driAnnSet, ImporterBase.tokenAnnType);
 
+						}
 					}
-				}
 
-				// STEP 2: Main body sentence parsing
-				List<Annotation> mainBodyAnnotationList = GateUtil.getAnnInDocOrderIntersectOffset(this.cacheManager.getGateDoc(), 
-						ImporterBase.driAnnSet, ImporterBase.sentenceAnnType, abstractEndOffset, gate.Utils.lengthLong(this.cacheManager.getGateDoc()));
-				BabelnetAnnotator.languageAwareDisambiguation(isLangAware, BabelnetAnnotator_Resource, this.cacheManager.getGateDoc(), mainBodyAnnotationList, 
-						ImporterBase.driAnnSet, ImporterBase.sentenceAnnType, ImporterBase.driAnnSet, ImporterBase.tokenAnnType);
+					// STEP 2: Main body sentence parsing
+					List<Annotation> mainBodyAnnotationList = GateUtil.getAnnInDocOrderIntersectOffset(this.cacheManager.getGateDoc(), 
+							ImporterBase.driAnnSet, ImporterBase.sentenceAnnType, abstractEndOffset, gate.Utils.lengthLong(this.cacheManager.getGateDoc()));
+					BabelnetAnnotator.languageAwareDisambiguation(isLangAware, BabelnetAnnotator_Resource, this.cacheManager.getGateDoc(), mainBodyAnnotationList, 
+							ImporterBase.driAnnSet, ImporterBase.sentenceAnnType, ImporterBase.driAnnSet, ImporterBase.tokenAnnType);
 
-				logger.info("Disambiguating by BabelNet - executed in " + (System.currentTimeMillis() - startProcess) + " ms.");
-			} catch (Exception e) {
-				logger.warn("Exception: " + e.getMessage());
-				e.printStackTrace();
-				throw new InternalProcessingException("Error while disambiguating by BabelNet");
+					logger.info("Disambiguating by BabelNet - executed in " + (System.currentTimeMillis() - startProcess) + " ms.");
+				} catch (Exception e) {
+					logger.warn("Exception: " + e.getMessage());
+					e.printStackTrace();
+					throw this.stageError(DocStageENUM.BABELNET, "Error while disambiguating by BabelNet");
+				}
+			} finally {
+				BabelnetAnnotator_Resource.setDocumentLock(null);
+				BabelnetAnnotator_Pool.release(BabelnetAnnotator_Resource);
+				this.completeStage(DocStageENUM.BABELNET);
 			}
-		}
 
-		System.gc();
+			MetricsRegistry.getInstance().getStageMetrics(DocStageENUM.BABELNET.name()).record(System.nanoTime() - stageStartTime, this.getSentenceCount());
 
-		// Set graphExtractionFlag
-		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.babelNetAnalysisFlagKey, "true");
+			// Set graphExtractionFlag
+			this.setStageExecuted(edu.upf.taln.dri.lib.Factory.babelNetAnalysisFlagKey);
 
-		logger.info("Disambiguating by BabelNet - END.");
+			logger.info("Disambiguating by BabelNet - END.");
+		} finally {
+			stageLock.unlock();
+		}
 	}
 
 	public void resetBabelNet() throws InternalProcessingException {
@@ -2194,18 +2439,22 @@ public class DocumentImpl implements Document {
 			throw new InternalProcessingException("No document loaded (data cleande up: " + cleanedUp + ")");
 		}
 
+		// Wait for the stage, if executed by another thread that released the lock of the document
+		this.awaitStage(DocStageENUM.BABELNET);
+
 		try {
-			synchronized(LOCK_BabelnetAnnotator_Resource) {
+			BabelnetAnnotator BabelnetAnnotator_Resource = BabelnetAnnotator_Pool.checkout();
+			try {
 				BabelnetAnnotator_Resource.setDocument(this.cacheManager.getGateDoc());
 				BabelnetAnnotator_Resource.resetAnnotations();
 				BabelnetAnnotator_Resource.setDocument(null);
+			} finally {
+				BabelnetAnnotator_Pool.release(BabelnetAnnotator_Resource);
 			}
 		} catch (Exception e) {
 			Util.notifyException("Resetting Babelnet annotations", e, logger);
 		}
 
-		System.gc();
-
 		// Reset babelNetAnalysisFlagKey
 		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.babelNetAnalysisFlagKey, "false");
 
@@ -2231,41 +2480,58 @@ public class DocumentImpl implements Document {
 			return;
 		}
 
-		String sentenceRhetoricalClassificationFlagCHECK = GateUtil.getStringFeature(this.cacheManager.getGateDoc(), edu.upf.taln.dri.lib.Factory.sentenceRhetoricalAnnotationFlagKey).orElse(null);
-		if(!force && sentenceRhetoricalClassificationFlagCHECK != null && sentenceRhetoricalClassificationFlagCHECK.equalsIgnoreCase("true")) {
-			// Not forced and processing results already present in GATE document
-			return;
-		}
+		// The rhetorical classifier releases the lock of the document while classifying the sentences
+		stageLock.lock();
+		try {
+			this.awaitStage(DocStageENUM.RHETORICAL);
 
-		logger.info("Sentence rhetorical classification - START...");
+			String sentenceRhetoricalClassificationFlagCHECK = GateUtil.getStringFeature(this.cacheManager.getGateDoc(), edu.upf.taln.dri.lib.Factory.sentenceRhetoricalAnnotationFlagKey).orElse(null);
+			if(!force && sentenceRhetoricalClassificationFlagCHECK != null && sentenceRhetoricalClassificationFlagCHECK.equalsIgnoreCase("true")) {
+				// Not forced and processing results already present in GATE document
+				return;
+			}
 
-		// Reset dependent annotations and flags:
-		this.resetRhetoricalClass();
+			logger.info("Sentence rhetorical classification - START...");
 
-		// Check prerequisites
-		this.parsingDep(false);
+			// Reset dependent annotations and flags:
+			this.resetRhetoricalClass();
 
-		synchronized(LOCK_RhetoricalClassifier_Resource) {
-			long startProcess = System.currentTimeMillis();
-			RhetoricalClassifier_Resource.setDocument(this.cacheManager.getGateDoc());
+			// Check prerequisites
+			this.parsingDep(false);
+
+			long stageStartTime = System.nanoTime();
 
+			RhetoricalClassifier RhetoricalClassifier_Resource = RhetoricalClassifier_Pool.checkout();
+			runningStages.add(DocStageENUM.RHETORICAL);
 			try {
-				RhetoricalClassifier_Resource.execute();
-				logger.info("Sentence rhetorical classification - executed in " + (System.currentTimeMillis() - startProcess) + " ms.");
-			} catch (Exception e) {
-				logger.warn("Exception: " + e.getMessage());
-				e.printStackTrace();
-				throw new InternalProcessingException("Error while rhetorically classifying sentences");
+				long startProcess = System.currentTimeMillis();
+				RhetoricalClassifier_Resource.setDocument(this.cacheManager.getGateDoc());
+				RhetoricalClassifier_Resource.setDocumentLock(stageLock);
+
+				try {
+					RhetoricalClassifier_Resource.execute();
+					logger.info("Sentence rhetorical classification - executed in " + (System.currentTimeMillis() - startProcess) + " ms.");
+				} catch (Exception e) {
+					logger.warn("Exception: " + e.getMessage());
+					e.printStackTrace();
+					throw this.stageError(DocStageENUM.RHETORICAL, "Error while rhetorically classifying sentences");
+				}
+				RhetoricalClassifier_Resource.setDocument(null);
+			} finally {
+				RhetoricalClassifier_Resource.setDocumentLock(null);
+				RhetoricalClassifier_Pool.release(RhetoricalClassifier_Resource);
+				this.completeStage(DocStageENUM.RHETORICAL);
 			}
-			RhetoricalClassifier_Resource.setDocument(null);
-		}
 
-		System.gc();
+			MetricsRegistry.getInstance().getStageMetrics(DocStageENUM.RHETORICAL.name()).record(System.nanoTime() - stageStartTime, this.getSentenceCount());
 
-		// Set sentenceRhetoricalAnnotationFlag
-		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.sentenceRhetoricalAnnotationFlagKey, "true");
+			// Set sentenceRhetoricalAnnotationFlag
+			this.setStageExecuted(edu.upf.taln.dri.lib.Factory.sentenceRhetoricalAnnotationFlagKey);
 
-		logger.info("Sentence rhetorical classification - END.");
+			logger.info("Sentence rhetorical classification - END.");
+		} finally {
+			stageLock.unlock();
+		}
 	}
 
 	public void resetRhetoricalClass() throws InternalProcessingException {
@@ -2274,18 +2540,22 @@ public class DocumentImpl implements Document {
 			throw new InternalProcessingException("No document loaded (data cleande up: " + cleanedUp + ")");
 		}
 
+		// Wait for the stage, if executed by another thread that released the lock of the document
+		this.awaitStage(DocStageENUM.RHETORICAL);
+
 		try {
-			synchronized(LOCK_RhetoricalClassifier_Resource) {
+			RhetoricalClassifier RhetoricalClassifier_Resource = RhetoricalClassifier_Pool.checkout();
+			try {
 				RhetoricalClassifier_Resource.setDocument(this.cacheManager.getGateDoc());
 				RhetoricalClassifier_Resource.resetAnnotations();
 				RhetoricalClassifier_Resource.setDocument(null);
+			} finally {
+				RhetoricalClassifier_Pool.release(RhetoricalClassifier_Resource);
 			}
 		} catch (Exception e) {
 			Util.notifyException("Resetting rhetorical classification annotations", e, logger);
 		}
 
-		System.gc();
-
 		// Reset sentenceRhetoricalAnnotationFlagKey
 		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.sentenceRhetoricalAnnotationFlagKey, "false");
 
@@ -2317,7 +2587,10 @@ public class DocumentImpl implements Document {
 		// Check prerequisites
 		this.parsingDep(false);
 
-		synchronized(LOCK_TermAnnotator_Resource) {
+		long stageStartTime = System.nanoTime();
+
+		TermAnnotator TermAnnotator_Resource = TermAnnotator_Pool.checkout();
+		try {
 			long startProcess = System.currentTimeMillis();
 			TermAnnotator_Resource.setDocument(this.cacheManager.getGateDoc());
 
@@ -2327,15 +2600,17 @@ public class DocumentImpl implements Document {
 			} catch (Exception e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while extracting terminology (candidate terms)");
+				throw this.stageError(DocStageENUM.TERMINOLOGY, "Error while extracting terminology (candidate terms)");
 			}
 			TermAnnotator_Resource.setDocument(null);
+		} finally {
+			TermAnnotator_Pool.release(TermAnnotator_Resource);
 		}
 
-		System.gc();
+		MetricsRegistry.getInstance().getStageMetrics(DocStageENUM.TERMINOLOGY.name()).record(System.nanoTime() - stageStartTime);
 
 		// Set terminologyExtractionFlag
-		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.terminologyExtractionFlagKey, "true");
+		this.setStageExecuted(edu.upf.taln.dri.lib.Factory.terminologyExtractionFlagKey);
 
 		logger.info("Extract Terminology (candidate terms) - END.");
 	}
@@ -2347,17 +2622,18 @@ public class DocumentImpl implements Document {
 		}
 
 		try {
-			synchronized(LOCK_TermAnnotator_Resource) {
+			TermAnnotator TermAnnotator_Resource = TermAnnotator_Pool.checkout();
+			try {
 				TermAnnotator_Resource.setDocument(this.cacheManager.getGateDoc());
 				TermAnnotator_Resource.resetAnnotations();
 				TermAnnotator_Resource.setDocument(null);
+			} finally {
+				TermAnnotator_Pool.release(TermAnnotator_Resource);
 			}
 		} catch (Exception e) {
 			Util.notifyException("Resetting Terminology annotations", e, logger);
 		}
 
-		System.gc();
-
 		// Reset terminologyExtractionFlagKey
 		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.terminologyExtractionFlagKey, "false");
 
@@ -2392,10 +2668,13 @@ public class DocumentImpl implements Document {
 		this.parsingCitations_Link(false);
 		this.parsingDep(false);
 
+		long stageStartTime = System.nanoTime();
+
 		Corpus corpusToProcess = new CorpusImpl();
 		corpusToProcess.add(this.cacheManager.getGateDoc());
 
-		synchronized(LOCK_corpusController_XGAPPmetaAnnotator) {
+		CorpusController corpusController_XGAPPmetaAnnotator = corpusController_XGAPPmetaAnnotator_Pool.checkout();
+		try {
 			long startProcess = System.currentTimeMillis();
 			corpusController_XGAPPmetaAnnotator.setCorpus(corpusToProcess);
 			try {
@@ -2404,12 +2683,15 @@ public class DocumentImpl implements Document {
 			} catch (ExecutionException e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while spotting Meta-annotations (projects, funding agencies, ontologies, etc.)");
+				throw this.stageError(DocStageENUM.META_ANNOTATIONS, "Error while spotting Meta-annotations (projects, funding agencies, ontologies, etc.)");
 			}
 			corpusController_XGAPPmetaAnnotator.setCorpus(null);
+		} finally {
+			corpusController_XGAPPmetaAnnotator_Pool.release(corpusController_XGAPPmetaAnnotator);
 		}
 
-		synchronized(LOCK_MetaAnnotator_Resource) {
+		MetaAnnotator MetaAnnotator_Resource = MetaAnnotator_Pool.checkout();
+		try {
 			long startProcess = System.currentTimeMillis();
 			MetaAnnotator_Resource.setDocument(this.cacheManager.getGateDoc());
 
@@ -2419,18 +2701,20 @@ public class DocumentImpl implements Document {
 			} catch (Exception e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while sanitizing Meta-annotations (projects, funding agencies, ontologies, etc.)");
+				throw this.stageError(DocStageENUM.META_ANNOTATIONS, "Error while sanitizing Meta-annotations (projects, funding agencies, ontologies, etc.)");
 			}
 			MetaAnnotator_Resource.setDocument(null);
+		} finally {
+			MetaAnnotator_Pool.release(MetaAnnotator_Resource);
 		}
 
 		corpusToProcess.clear();
 		corpusToProcess.cleanup();
 
-		System.gc();
+		MetricsRegistry.getInstance().getStageMetrics(DocStageENUM.META_ANNOTATIONS.name()).record(System.nanoTime() - stageStartTime);
 
 		// Set terminologyExtractionFlag
-		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.metaannotationsExtractionFlagKey, "true");
+		this.setStageExecuted(edu.upf.taln.dri.lib.Factory.metaannotationsExtractionFlagKey);
 
 		logger.info("Extract (spot and sanitize) Meta-annotations (projects, funding agencies, ontologies, etc.) - END.");
 	}
@@ -2442,17 +2726,18 @@ public class DocumentImpl implements Document {
 		}
 
 		try {
-			synchronized(LOCK_MetaAnnotator_Resource) {
+			MetaAnnotator MetaAnnotator_Resource = MetaAnnotator_Pool.checkout();
+			try {
 				MetaAnnotator_Resource.setDocument(this.cacheManager.getGateDoc());
 				MetaAnnotator_Resource.resetAnnotations();
 				MetaAnnotator_Resource.setDocument(null);
+			} finally {
+				MetaAnnotator_Pool.release(MetaAnnotator_Resource);
 			}
 		} catch (Exception e) {
 			Util.notifyException("Resetting Meta-annotations (projects, funding agencies, ontologies, etc.)", e, logger);
 		}
 
-		System.gc();
-
 		// Reset terminologyExtractionFlagKey
 		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.metaannotationsExtractionFlagKey, "false");
 
@@ -2480,11 +2765,13 @@ public class DocumentImpl implements Document {
 		// Check prerequisites
 		this.parsingDep(false);
 
+		long stageStartTime = System.nanoTime();
 
 		Corpus corpusToProcess = new CorpusImpl();
 		corpusToProcess.add(this.cacheManager.getGateDoc());
 
-		synchronized(LOCK_corpusController_LexRanksumm) {
+		LexRankSummarizer LexRankSummarizer_Resource = LexRankSummarizer_Pool.checkout();
+		try {
 			long startProcess = System.currentTimeMillis();
 			LexRankSummarizer_Resource.setDocument(this.cacheManager.getGateDoc());
 
@@ -2494,12 +2781,15 @@ public class DocumentImpl implements Document {
 			} catch (Exception e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Error while generating LexRank summary");
+				throw this.stageError(DocStageENUM.SUMMARY, "Error while generating LexRank summary");
 			}
 			LexRankSummarizer_Resource.setDocument(null);
+		} finally {
+			LexRankSummarizer_Pool.release(LexRankSummarizer_Resource);
 		}
 
-		synchronized(LOCK_corpusController_TitleSimsumm) {
+		TitleSimSummarizer TitleSimSummarizer_Resource = TitleSimSummarizer_Pool.checkout();
+		try {
 			long startProcess = System.currentTimeMillis();
 			TitleSimSummarizer_Resource.setDocument(this.cacheManager.getGateDoc());
 
@@ -2509,18 +2799,20 @@ public class DocumentImpl implements Document {
 			} catch (Exception e) {
 				logger.warn("Exception: " + e.getMessage());
 				e.printStackTrace();
-				throw new InternalProcessingException("Title Similarity summary");
+				throw this.stageError(DocStageENUM.SUMMARY, "Title Similarity summary");
 			}
 			TitleSimSummarizer_Resource.setDocument(null);
+		} finally {
+			TitleSimSummarizer_Pool.release(TitleSimSummarizer_Resource);
 		}
 
 		corpusToProcess.clear();
 		corpusToProcess.cleanup();
 
-		System.gc();
+		MetricsRegistry.getInstance().getStageMetrics(DocStageENUM.SUMMARY.name()).record(System.nanoTime() - stageStartTime);
 
 		// Set terminologyExtractionFlag
-		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.summaryAnalysisFlagKey, "true");
+		this.setStageExecuted(edu.upf.taln.dri.lib.Factory.summaryAnalysisFlagKey);
 
 		logger.info("Generating summaries - END.");
 	}
@@ -2531,7 +2823,8 @@ public class DocumentImpl implements Document {
 			throw new InternalProcessingException("No document loaded (data cleande up: " + cleanedUp + ")");
 		}
 
-		synchronized(LOCK_corpusController_LexRanksumm) {
+		LexRankSummarizer LexRankSummarizer_Resource = LexRankSummarizer_Pool.checkout();
+		try {
 			LexRankSummarizer_Resource.setDocument(this.cacheManager.getGateDoc());
 			try {
 				LexRankSummarizer_Resource.resetAnnotations();
@@ -2539,9 +2832,12 @@ public class DocumentImpl implements Document {
 				Util.notifyException("Resetting LexRank summary annotations", e, logger);
 			}
 			LexRankSummarizer_Resource.setDocument(null);
+		} finally {
+			LexRankSummarizer_Pool.release(LexRankSummarizer_Resource);
 		}
 
-		synchronized(LOCK_corpusController_TitleSimsumm) {
+		TitleSimSummarizer TitleSimSummarizer_Resource = TitleSimSummarizer_Pool.checkout();
+		try {
 			TitleSimSummarizer_Resource.setDocument(this.cacheManager.getGateDoc());
 			try {
 				TitleSimSummarizer_Resource.execute();
@@ -2549,10 +2845,10 @@ public class DocumentImpl implements Document {
 				Util.notifyException("Resetting TitleSimilarity summary annotations", e, logger);
 			}
 			TitleSimSummarizer_Resource.setDocument(null);
+		} finally {
+			TitleSimSummarizer_Pool.release(TitleSimSummarizer_Resource);
 		}
 		
-		System.gc();
-
 		// Reset summaryAnalysisFlagKey
 		this.cacheManager.getGateDoc().getFeatures().put(edu.upf.taln.dri.lib.Factory.summaryAnalysisFlagKey, "false");
 
@@ -2665,13 +2961,223 @@ public class DocumentImpl implements Document {
 		this.cacheManager.cleanUp();
 		this.cacheManager = null;
 
-		System.gc();
-
 		cleanedUp = true;
 
 		logger.info("Cleaned up document: " + docTitle);
 	}
 
+	/**
+	 * Execute the analysis stages provided (with their prerequisites) by means of a {@link DocStageScheduler}, waiting for them
+	 * to complete: the stages that do not depend on each other overlap, as in the asynchronous extraction methods.<br/>
+	 * If the calling thread holds the stage lock of the document (e.g. an extraction executed by an asynchronous method),
+	 * the stages are executed by the calling thread in topological order, since the scheduled stages could not acquire the lock.
+	 * 
+	 * @param stages
+	 * @throws InternalProcessingException
+	 */
+	void executeStages(Set<DocStageENUM> stages) throws InternalProcessingException {
+		if(stageLock.isHeldByCurrentThread()) {
+			for(DocStageENUM stage : DocStageENUM.withPrerequisites(stages)) {
+				this.executeStage(stage);
+			}
+			return;
+		}
+
+		try {
+			syncStageScheduler.execute(this, stages);
+		} catch (InvalidParameterException e) {
+			throw new InternalProcessingException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Execute the parsing method corresponding to an analysis stage (not forced), holding the stage lock of the document.
+	 * The parsing methods of the stages that release the lock while their module computes without accessing the document
+	 * acquire it by themselves, so that the other stages of the document can be executed meanwhile.
+	 * The prerequisites of the stage are executed too, if not already done.
+	 *
+	 * @param stage
+	 * @throws InternalProcessingException
+	 */
+	protected void executeStage(DocStageENUM stage) throws InternalProcessingException {
+		if(stage == null) {
+			return;
+		}
+
+		boolean holdLock = !lockReleasingStages.contains(stage);
+		if(holdLock) {
+			stageLock.lock();
+		}
+		try {
+			switch(stage) {
+			case SENTENCES:
+				this.parsingSentences(false);
+				break;
+			case CITATIONS_SPOT:
+				this.parsingCitations_Spot(false);
+				break;
+			case CITATIONS_LINK:
+				this.parsingCitations_Link(false);
+				break;
+			case CITATIONS_ENRICH:
+				this.parsingCitations_Enrich(false);
+				break;
+			case HEADER:
+				this.parsingHeader(false);
+				break;
+			case DEP:
+				this.parsingDep(false);
+				break;
+			case META_ANNOTATIONS:
+				this.parsingMetaAnnotations(false);
+				break;
+			case COREF:
+				this.parsingCoref(false);
+				break;
+			case CAUSALITY:
+				this.parsingCausality(false);
+				break;
+			case BABELNET:
+				this.parsingBabelNet(false);
+				break;
+			case RHETORICAL:
+				this.parsingRhetoricalClass(false);
+				break;
+			case TERMINOLOGY:
+				this.parsingTerminology(false);
+				break;
+			case SUMMARY:
+				this.parsingSummary(false);
+				break;
+			}
+		} finally {
+			if(holdLock) {
+				stageLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Record an error of an analysis stage in the metrics of the stage
+	 * 
+	 * @param stage
+	 * @param message
+	 * @return the exception to throw
+	 */
+	private InternalProcessingException stageError(DocStageENUM stage, String message) {
+		MetricsRegistry.getInstance().getStageMetrics(stage.name()).recordError();
+		return new InternalProcessingException(message);
+	}
+
+	/**
+	 * Check if an analysis stage has been executed on the document
+	 * 
+	 * @param stage
+	 * @return
+	 */
+	boolean isStageExecuted(DocStageENUM stage) {
+		if(stage == null || this.cacheManager == null) {
+			return false;
+		}
+
+		String flagKey = null;
+		switch(stage) {
+		case SENTENCES:
+			flagKey = edu.upf.taln.dri.lib.Factory.sentenceExtracionFlagKey;
+			break;
+		case CITATIONS_SPOT:
+			flagKey = edu.upf.taln.dri.lib.Factory.citationSpotFlagKey;
+			break;
+		case CITATIONS_LINK:
+			flagKey = edu.upf.taln.dri.lib.Factory.citationLinkFlagKey;
+			break;
+		case CITATIONS_ENRICH:
+			flagKey = edu.upf.taln.dri.lib.Factory.citationEnrichFlagKey;
+			break;
+		case HEADER:
+			flagKey = edu.upf.taln.dri.lib.Factory.headerAnalysisFlagKey;
+			break;
+		case DEP:
+			flagKey = edu.upf.taln.dri.lib.Factory.graphExtractionFlagKey;
+			break;
+		case META_ANNOTATIONS:
+			flagKey = edu.upf.taln.dri.lib.Factory.metaannotationsExtractionFlagKey;
+			break;
+		case COREF:
+			flagKey = edu.upf.taln.dri.lib.Factory.coreferenceAnalysisFlagKey;
+			break;
+		case CAUSALITY:
+			flagKey = edu.upf.taln.dri.lib.Factory.causalityAnalysisFlagKey;
+			break;
+		case BABELNET:
+			flagKey = edu.upf.taln.dri.lib.Factory.babelNetAnalysisFlagKey;
+			break;
+		case RHETORICAL:
+			flagKey = edu.upf.taln.dri.lib.Factory.sentenceRhetoricalAnnotationFlagKey;
+			break;
+		case TERMINOLOGY:
+			flagKey = edu.upf.taln.dri.lib.Factory.terminologyExtractionFlagKey;
+			break;
+		case SUMMARY:
+			flagKey = edu.upf.taln.dri.lib.Factory.summaryAnalysisFlagKey;
+			break;
+		}
+
+		String flagValue = GateUtil.getStringFeature(this.cacheManager.getGateDoc(), flagKey).orElse(null);
+		return flagValue != null && flagValue.equalsIgnoreCase("true");
+	}
+
+	/**
+	 * Set the flag of an analysis stage as executed: the document elements cached before the execution of the stage are 
+	 * discarded, since they may miss the data it generated
+	 * 
+	 * @param flagKey
+	 */
+	private void setStageExecuted(String flagKey) {
+		this.cacheManager.getGateDoc().getFeatures().put(flagKey, "true");
+		this.cacheManager.clearCache();
+	}
+
+	/**
+	 * Wait until the stage provided is not in execution by another thread that released the stage lock of the document
+	 * 
+	 * @param stage
+	 * @throws InternalProcessingException if the thread is interrupted while waiting
+	 */
+	private void awaitStage(DocStageENUM stage) throws InternalProcessingException {
+		stageLock.lock();
+		try {
+			while(runningStages.contains(stage)) {
+				stageCompleted.await();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InternalProcessingException("Interrupted while waiting for the stage " + stage + " of the document");
+		} finally {
+			stageLock.unlock();
+		}
+	}
+
+	/**
+	 * Signal the threads waiting for the stage provided that it is not in execution anymore (the stage lock of the document must be held)
+	 * 
+	 * @param stage
+	 */
+	private void completeStage(DocStageENUM stage) {
+		runningStages.remove(stage);
+		stageCompleted.signalAll();
+	}
+
+	/**
+	 * Number of sentences of the document, to compute sentence throughput metrics
+	 * 
+	 * @return
+	 */
+	private int getSentenceCount() {
+		AnnotationSet sentenceAnnSet = this.cacheManager.getGateDoc().getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.sentenceAnnType);
+		return (sentenceAnnSet != null) ? sentenceAnnSet.size() : 0;
+	}
+
 	@Override
 	public boolean isCleanUp() throws InternalProcessingException {
 		return new Boolean(cleanedUp);
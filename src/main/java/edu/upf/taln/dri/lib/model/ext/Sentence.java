@@ -46,40 +46,51 @@ public interface Sentence {
 
 	
 	/**
-	 * Rhetorical class of the sentence
+	 * Rhetorical class of the sentence.<br/>
+	 * IMPORTANT: if the rhetorical classification of the document has not been executed yet, this call executes it
+	 * (together with its prerequisite analyses), thus it may take long.
 	 * @return
 	 */
 	public RhetoricalClassENUM getRhetoricalClass();
 	
 	/**
-	 * Containing section
+	 * Containing section.<br/>
+	 * IMPORTANT: if the document has not been split into sentences yet, this call executes the sentence splitting.
 	 * @return
 	 */
 	public Section getContainingSection();
 	
 	/**
-	 * List of citation markers included in the sentence
+	 * List of citation markers included in the sentence.<br/>
+	 * IMPORTANT: if the citation markers of the document have not been spotted and linked yet, this call executes
+	 * the citation spotting and linking analyses, thus it may take long.
 	 * @return
 	 */
 	public List<CitationMarker> getCitationMarkers();
 	
 	
 	/**
-	 * List of candidate terms included in the sentence
+	 * List of candidate terms included in the sentence.<br/>
+	 * IMPORTANT: if the terminology extraction of the document has not been executed yet, this call executes it
+	 * (together with its prerequisite analyses), thus it may take long.
 	 * 
 	 * @return
 	 */
 	public List<CandidateTermOcc> getCandidateTerms();
 	
 	/**
-	 * List of candidate Babelnet synset occurrences spotted in the sentence
+	 * List of candidate Babelnet synset occurrences spotted in the sentence.<br/>
+	 * IMPORTANT: if the BabelNet disambiguation of the document has not been executed yet, this call executes it
+	 * (together with its prerequisite analyses), thus it may take long and query the BabelNet service.
 	 * 
 	 * @return
 	 */
 	public List<BabelSynsetOcc> getBabelSynsetsOcc();
 	
 	/**
-	 * List of tokens included in the sentence
+	 * List of tokens included in the sentence.<br/>
+	 * IMPORTANT: if the dependency parsing of the document has not been executed yet, this call executes it,
+	 * thus it may take long.
 	 * 
 	 * @return
 	 */
@@ -103,14 +114,17 @@ public interface Sentence {
 	
 	/**
 	 * It the sentence is an acknowledgment
-	 * (in the current version only acknowledgment sentences may contain spotted entities)
+	 * (in the current version only acknowledgment sentences may contain spotted entities).<br/>
+	 * IMPORTANT: if the meta-annotations of the document have not been computed yet, this call executes the
+	 * meta-annotation analysis, thus it may take long.
 	 * 
 	 * @return
 	 */
 	public Map<String, MetaEntityTypeENUM> getSpottedEntities();
 	
 	/**
-	 * String representation of the object
+	 * String representation of the object.<br/>
+	 * Only the sentence data already computed is included: this call never executes any analysis of the document.
 	 * @return
 	 */
 	public String asString(boolean compactOutput);
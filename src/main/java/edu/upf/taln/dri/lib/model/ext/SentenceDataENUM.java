@@ -0,0 +1,72 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.lib.model.ext;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import edu.upf.taln.dri.lib.model.DocStageENUM;
+
+/**
+ * The data of a sentence required by an extraction call, together with the analysis stages needed to compute it.<br/>
+ * The sentence text, abstract id, language and acknowledgement flag are always available.
+ *
+ *
+ */
+public enum SentenceDataENUM {
+	SECTION(DocStageENUM.SENTENCES),
+	TOKENS(DocStageENUM.DEP),
+	CITATION_MARKERS(DocStageENUM.CITATIONS_LINK),
+	RHETORICAL_CLASS(DocStageENUM.RHETORICAL),
+	CANDIDATE_TERMS(DocStageENUM.TERMINOLOGY),
+	BABELNET_SYNSETS(DocStageENUM.BABELNET),
+	META_ENTITIES(DocStageENUM.META_ANNOTATIONS);
+
+	private final Set<DocStageENUM> requiredStages;
+
+	private SentenceDataENUM(DocStageENUM... requiredStages) {
+		Set<DocStageENUM> requiredStageSet = EnumSet.noneOf(DocStageENUM.class);
+		for(DocStageENUM requiredStage : requiredStages) {
+			requiredStageSet.add(requiredStage);
+		}
+		this.requiredStages = Collections.unmodifiableSet(requiredStageSet);
+	}
+
+	/**
+	 * Analysis stages that have to be executed to compute this data
+	 *
+	 * @return
+	 */
+	public Set<DocStageENUM> getRequiredStages() {
+		return requiredStages;
+	}
+
+	/**
+	 * Get the analysis stages (including the prerequisites) needed to compute the sentence data provided
+	 *
+	 * @param sentenceData
+	 * @return
+	 */
+	public static Set<DocStageENUM> getRequiredStages(Set<SentenceDataENUM> sentenceData) {
+		Set<DocStageENUM> stages = EnumSet.of(DocStageENUM.SENTENCES);
+		if(sentenceData != null) {
+			for(SentenceDataENUM data : sentenceData) {
+				if(data != null) {
+					stages.addAll(data.getRequiredStages());
+				}
+			}
+		}
+		return DocStageENUM.withPrerequisites(stages);
+	}
+
+}
@@ -13,9 +13,11 @@ package edu.upf.taln.dri.lib.model.ext;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
 
@@ -44,6 +46,9 @@ public class SentenceImpl extends BaseDocumentElem implements Sentence {
 	private boolean isAck;
 	private Map<String, MetaEntityTypeENUM> metaEntityMap;
 
+	// Sentence data already loaded from the GATE document
+	private Set<SentenceDataENUM> loadedData;
+
 	// Constructor
 	public SentenceImpl(DocCacheManager cacheManager) {
 		super(cacheManager);
@@ -57,6 +62,38 @@ public class SentenceImpl extends BaseDocumentElem implements Sentence {
 		this.language = LangENUM.UNSPECIFIED;
 		this.isAck = false;
 		this.metaEntityMap = new HashMap<String, MetaEntityTypeENUM>();
+		this.loadedData = EnumSet.noneOf(SentenceDataENUM.class);
+	}
+
+	/**
+	 * Check if a sentence data has been already loaded from the GATE document
+	 * 
+	 * @param sentenceData
+	 * @return
+	 */
+	public boolean isLoaded(SentenceDataENUM sentenceData) {
+		return this.loadedData.contains(sentenceData);
+	}
+
+	public void setLoaded(SentenceDataENUM sentenceData) {
+		if(sentenceData != null) {
+			this.loadedData.add(sentenceData);
+		}
+	}
+
+	/**
+	 * Load a sentence data from the GATE document, if not already loaded.<br/>
+	 * IMPORTANT: the analysis stages needed to compute the data (and their prerequisites) are executed on the
+	 * document if not already done, thus the getters calling this method may take long.
+	 * 
+	 * @param sentenceData
+	 */
+	private void ensureLoaded(SentenceDataENUM sentenceData) {
+		if(!this.loadedData.contains(sentenceData)) {
+			// Execute the analysis stages needed to compute the data, if not already done
+			cacheManager.executeStages(sentenceData.getRequiredStages());
+			ObjectGenerator.loadSentenceData(this, sentenceData, cacheManager);
+		}
 	}
 
 	// Setters and getters
@@ -88,7 +125,13 @@ public class SentenceImpl extends BaseDocumentElem implements Sentence {
 		this.containingSection = containingSection;
 	}
 
+	/**
+	 * IMPORTANT: executes the rhetorical classification analysis of the document (with its prerequisites) if not already done.
+	 * 
+	 * @return
+	 */
 	public RhetoricalClassENUM getRhetoricalClass() {
+		ensureLoaded(SentenceDataENUM.RHETORICAL_CLASS);
 		return RhetoricalClassENUM.valueOf(rhetoricalClass.toString());
 	}
 
@@ -96,11 +139,23 @@ public class SentenceImpl extends BaseDocumentElem implements Sentence {
 		this.rhetoricalClass = rhetClass;
 	}
 
+	/**
+	 * IMPORTANT: executes the sentence splitting analysis of the document (with its prerequisites) if not already done.
+	 * 
+	 * @return
+	 */
 	public Section getContainingSection() {
+		ensureLoaded(SentenceDataENUM.SECTION);
 		return containingSection;
 	}
 
+	/**
+	 * IMPORTANT: executes the citation spotting and linking analysis of the document (with its prerequisites) if not already done.
+	 * 
+	 * @return
+	 */
 	public List<CitationMarker> getCitationMarkers() {
+		ensureLoaded(SentenceDataENUM.CITATION_MARKERS);
 		return (this.citationMarkers != null) ? Collections.unmodifiableList(this.citationMarkers) : null;
 	}
 
@@ -114,7 +169,13 @@ public class SentenceImpl extends BaseDocumentElem implements Sentence {
 		}
 	}
 
+	/**
+	 * IMPORTANT: executes the terminology extraction analysis of the document (with its prerequisites) if not already done.
+	 * 
+	 * @return
+	 */
 	public List<CandidateTermOcc> getCandidateTerms() {
+		ensureLoaded(SentenceDataENUM.CANDIDATE_TERMS);
 		return (this.candidateTerms != null) ? Collections.unmodifiableList(this.candidateTerms) : null;
 	}
 
@@ -136,7 +197,13 @@ public class SentenceImpl extends BaseDocumentElem implements Sentence {
 		this.isAck = isAck;
 	}
 
+	/**
+	 * IMPORTANT: executes the meta-annotation analysis of the document (with its prerequisites) if not already done.
+	 * 
+	 * @return
+	 */
 	public Map<String, MetaEntityTypeENUM> getMetaEntityMap() {
+		ensureLoaded(SentenceDataENUM.META_ENTITIES);
 		return metaEntityMap;
 	}
 
@@ -144,8 +211,14 @@ public class SentenceImpl extends BaseDocumentElem implements Sentence {
 		this.metaEntityMap = metaEntityMap;
 	}
 	
+	/**
+	 * IMPORTANT: executes the BabelNet disambiguation analysis of the document (with its prerequisites) if not already done.
+	 * 
+	 * @return
+	 */
 	@Override
 	public List<BabelSynsetOcc> getBabelSynsetsOcc() {
+		ensureLoaded(SentenceDataENUM.BABELNET_SYNSETS);
 		return (this.babelSynsetsOcc != null) ? Collections.unmodifiableList(this.babelSynsetsOcc) : null;
 	}
 
@@ -163,8 +236,14 @@ public class SentenceImpl extends BaseDocumentElem implements Sentence {
 		this.tokens = tokens;
 	}
 
+	/**
+	 * IMPORTANT: executes the dependency parsing analysis of the document (with its prerequisites) if not already done.
+	 * 
+	 * @return
+	 */
 	@Override
 	public List<Token> getTokens() {
+		ensureLoaded(SentenceDataENUM.TOKENS);
 		if(this.tokens == null || this.tokens.size() == 0) {
 			return ObjectGenerator.getTokensFromSentenceId(this.getId(), cacheManager);
 		}
@@ -191,6 +270,11 @@ public class SentenceImpl extends BaseDocumentElem implements Sentence {
 
 	@Override
 	public String asString(boolean compactOutput) {
+		// Only the data computed by analysis stages already executed is loaded, no stage is executed to print a sentence
+		for(SentenceDataENUM sentenceData : SentenceDataENUM.values()) {
+			ObjectGenerator.loadSentenceData(this, sentenceData, cacheManager);
+		}
+
 		String sentenceStr = "";
 
 		sentenceStr += "[SENTENCE] ID: '" + ((this.id != null) ? this.id + "" : "-") + "'" +
@@ -248,8 +332,14 @@ public class SentenceImpl extends BaseDocumentElem implements Sentence {
 		return this.isAck;
 	}
 
+	/**
+	 * IMPORTANT: executes the meta-annotation analysis of the document (with its prerequisites) if not already done.
+	 * 
+	 * @return
+	 */
 	@Override
 	public Map<String, MetaEntityTypeENUM> getSpottedEntities() {
+		ensureLoaded(SentenceDataENUM.META_ENTITIES);
 		return Collections.unmodifiableMap(this.metaEntityMap); 
 	}
 
@@ -13,6 +13,7 @@ package edu.upf.taln.dri.lib.model.util;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -50,6 +51,7 @@ import edu.upf.taln.dri.lib.model.ext.RhetoricalClassENUM;
 import edu.upf.taln.dri.lib.model.ext.Section;
 import edu.upf.taln.dri.lib.model.ext.SectionImpl;
 import edu.upf.taln.dri.lib.model.ext.Sentence;
+import edu.upf.taln.dri.lib.model.ext.SentenceDataENUM;
 import edu.upf.taln.dri.lib.model.ext.SentenceImpl;
 import edu.upf.taln.dri.lib.model.ext.Token;
 import edu.upf.taln.dri.lib.model.ext.TokenImpl;
@@ -82,6 +84,19 @@ public class ObjectGenerator {
 	 * @return
 	 */
 	public static Sentence getSentenceFromId(Integer annotationId, DocCacheManager cacheManager) {
+		return getSentenceFromId(annotationId, cacheManager, EnumSet.allOf(SentenceDataENUM.class));
+	}
+
+	/**
+	 * Sentence Generator method that loads only the sentence data provided: the other data are loaded
+	 * from the GATE document the first time they are accessed.
+	 * 
+	 * @param annotationId
+	 * @param cacheManager
+	 * @param sentenceData
+	 * @return
+	 */
+	public static Sentence getSentenceFromId(Integer annotationId, DocCacheManager cacheManager, Set<SentenceDataENUM> sentenceData) {
 		if(annotationId == null || cacheManager == null) {
 			return null;
 		}
@@ -115,6 +130,84 @@ public class ObjectGenerator {
 				// Set the text
 				resultImpl.setText(GateUtil.getAnnotationText(sentenceAnn, cacheManager.getGateDoc()).orElse(null));
 
+				// Set if is acknowledgement
+				String ackFeature = GateUtil.getStringFeature(sentenceAnn, ImporterBase.sentence_isAcknowledgement).orElse(null);
+				if(ackFeature != null && ackFeature.toLowerCase().equals("true")) {
+					resultImpl.setAck(true);
+				}
+				
+				// Set language
+				String sentLang = GateUtil.getStringFeature(sentenceAnn, ImporterBase.langAnnFeat).orElse(null);
+				if(sentLang == null) {
+					resultImpl.setLanguage(LangENUM.UNSPECIFIED);
+				}
+				else if(sentLang.trim().toLowerCase().equals("es")) {
+					resultImpl.setLanguage(LangENUM.ES);
+				}
+				else {
+					resultImpl.setLanguage(LangENUM.EN);
+				}
+				
+				// Set the required sentence data
+				if(sentenceData != null) {
+					for(SentenceDataENUM data : sentenceData) {
+						loadSentenceData(resultImpl, data, cacheManager);
+					}
+				}
+
+				// Add to cache
+				cacheManager.cacheSentence(resultImpl);
+				result = resultImpl;
+			}
+		}
+		catch (Exception e) {
+			Util.notifyException("Creating sentence element", e, logger);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Load from the GATE document a specific data of a sentence, if not already loaded and if the analysis stages
+	 * needed to compute it have been executed
+	 * 
+	 * @param resultImpl
+	 * @param sentenceData
+	 * @param cacheManager
+	 */
+	public static void loadSentenceData(SentenceImpl resultImpl, SentenceDataENUM sentenceData, DocCacheManager cacheManager) {
+		if(resultImpl == null || resultImpl.getId() == null || sentenceData == null || cacheManager == null || resultImpl.isLoaded(sentenceData)) {
+			return;
+		}
+
+		// Not loaded till the analysis stages that compute the data are executed, otherwise the sentence would keep missing data
+		if(!cacheManager.isExecuted(sentenceData.getRequiredStages())) {
+			return;
+		}
+
+		// Marked as loaded before loading, since the getters of the sentence load the data if not marked as loaded
+		resultImpl.setLoaded(sentenceData);
+
+		Integer annotationId = resultImpl.getId();
+
+		try {
+			Annotation sentenceAnn = cacheManager.getGateDoc().getAnnotations(ImporterBase.driAnnSet).get(annotationId);
+			if(sentenceAnn == null || !sentenceAnn.getType().equals(ImporterBase.sentenceAnnType)) {
+				return;
+			}
+
+			switch(sentenceData) {
+			case SECTION:
+				// Set containing section
+				resultImpl.setContainingSection(ObjectGenerator.getSectionContainingSentenceId(annotationId, cacheManager));
+				break;
+
+			case TOKENS:
+				// Set token list
+				resultImpl.setTokens(getTokensFromSentenceId(sentenceAnn.getId(), cacheManager));
+				break;
+
+			case RHETORICAL_CLASS:
 				// Set the rhetorical class
 				String rhetoricalClass = GateUtil.getStringFeature(sentenceAnn, ImporterBase.sentence_RhetoricalAnnFeat).orElse(null);
 				if(rhetoricalClass != null) {
@@ -125,13 +218,9 @@ public class ObjectGenerator {
 						Util.notifyException("Creating sentence element - rhetorical class value " + rhetoricalClass, e, logger);
 					}
 				}
+				break;
 
-				// Set containing section
-				resultImpl.setContainingSection(ObjectGenerator.getSectionContainingSentenceId(annotationId, cacheManager));
-
-				// Set token list
-				resultImpl.setTokens(getTokensFromSentenceId(sentenceAnn.getId(), cacheManager));
-
+			case CITATION_MARKERS:
 				// Set citation markers
 				List<Annotation> citMarkerList = GateUtil.getAnnInDocOrderContainedAnn(cacheManager.getGateDoc(), ImporterBase.driAnnSet,
 						ImporterBase.inlineCitationMarkerAnnType, sentenceAnn);
@@ -159,7 +248,9 @@ public class ObjectGenerator {
 						}
 					}
 				}
+				break;
 
+			case CANDIDATE_TERMS:
 				// Set candidate terms
 				List<Annotation> candidateTermList = GateUtil.getAnnInDocOrderContainedAnn(cacheManager.getGateDoc(), ImporterBase.term_AnnSet,
 						ImporterBase.term_CandOcc, sentenceAnn);
@@ -171,7 +262,9 @@ public class ObjectGenerator {
 						}
 					}
 				}
+				break;
 
+			case BABELNET_SYNSETS:
 				// Set Babelnet synset occurrences
 				List<Annotation> babelnetSynsetOccList = GateUtil.getAnnInDocOrderContainedAnn(cacheManager.getGateDoc(), ImporterBase.babelnet_AnnSet,
 						ImporterBase.babelnet_DisItem, sentenceAnn);
@@ -201,13 +294,9 @@ public class ObjectGenerator {
 						}
 					}
 				}
-				
-				// Set if is acknowledgement
-				String ackFeature = GateUtil.getStringFeature(sentenceAnn, ImporterBase.sentence_isAcknowledgement).orElse(null);
-				if(ackFeature != null && ackFeature.toLowerCase().equals("true")) {
-					resultImpl.setAck(true);
-				}
-				
+				break;
+
+			case META_ENTITIES:
 				// Set metaEntityMap: funding agencies, projects
 				Map<String, MetaEntityTypeENUM> metaEntityMap = new HashMap<String, MetaEntityTypeENUM>();
 				List<Annotation> fundigAgencyAnnList = GateUtil.getAnnInDocOrder(cacheManager.getGateDoc(), ImporterBase.metaAnnotator_AnnSet, ImporterBase.metaAnnotator_FundingAgencyAnnType);
@@ -230,29 +319,12 @@ public class ObjectGenerator {
 					}
 				}
 				resultImpl.setMetaEntityMap(metaEntityMap);
-				
-				// Set language
-				String sentLang = GateUtil.getStringFeature(sentenceAnn, ImporterBase.langAnnFeat).orElse(null);
-				if(sentLang == null) {
-					resultImpl.setLanguage(LangENUM.UNSPECIFIED);
-				}
-				else if(sentLang.trim().toLowerCase().equals("es")) {
-					resultImpl.setLanguage(LangENUM.ES);
-				}
-				else {
-					resultImpl.setLanguage(LangENUM.EN);
-				}
-				
-				// Add to cache
-				cacheManager.cacheSentence(resultImpl);
-				result = resultImpl;
+				break;
 			}
 		}
 		catch (Exception e) {
-			Util.notifyException("Creating sentence element", e, logger);
+			Util.notifyException("Loading sentence data " + sentenceData, e, logger);
 		}
-
-		return result;
 	}
 
 	/**
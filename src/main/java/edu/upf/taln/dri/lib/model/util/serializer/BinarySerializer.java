@@ -0,0 +1,577 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ *
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ *
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.lib.model.util.serializer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import gate.Annotation;
+import gate.AnnotationSet;
+import gate.FeatureMap;
+import gate.creole.ResourceInstantiationException;
+import gate.util.InvalidOffsetException;
+
+/**
+ * Compact binary serialization of GATE documents (textual contents, document features and all the annotation sets),
+ * alternative to GATE XML: much smaller and faster to load.<br/>
+ * Format (version {@value #FORMAT_VERSION}): magic bytes DRIB, format version, flags (compressed or not) and the payload,
+ * optionally compressed by Deflate. In the payload all the strings (feature names and values, annotation types, set names) are
+ * interned: each string is written once and then referenced by its index; integers and offsets are written as variable length integers.
+ * Annotations are stored by set and type, as columns (ids, start offset deltas, lengths, features), sorted by start offset.<br/>
+ * Annotation ids are preserved, thus features referring to other annotations by id (dependency trees, coreference chains, etc.)
+ * are still valid after loading. Only feature values of the types supported by the format (strings, integers, longs, doubles, floats, 
+ * booleans, feature maps, lists, sets and maps of them) can be serialized: a document including a feature value of any other type
+ * is rejected (IOException), since the value could not be restored when loading it. Java serialization is never used, thus loading 
+ * a binary document never instantiates arbitrary classes.<br/>
+ * Lengths and sizes read from the binary contents are never trusted to allocate memory: arrays grow with the data actually read.
+ *
+ *
+ */
+public class BinarySerializer {
+
+	public static final int FORMAT_VERSION = 1;
+
+	private static final byte[] MAGIC = { 'D', 'R', 'I', 'B' };
+	private static final int FLAG_COMPRESSED = 1;
+
+	// Value tags
+	private static final int TAG_NULL = 0;
+	private static final int TAG_STRING_NEW = 1;
+	private static final int TAG_STRING_REF = 2;
+	private static final int TAG_INTEGER = 3;
+	private static final int TAG_LONG = 4;
+	private static final int TAG_DOUBLE = 5;
+	private static final int TAG_FLOAT = 6;
+	private static final int TAG_TRUE = 7;
+	private static final int TAG_FALSE = 8;
+	private static final int TAG_LIST = 9;
+	private static final int TAG_SET = 10;
+	private static final int TAG_MAP = 11;
+	private static final int TAG_FEATURE_MAP = 12;
+
+	// Maximum number of elements allocated before reading them
+	private static final int MAX_INITIAL_CAPACITY = 65536;
+
+	/**
+	 * Serialize a GATE document
+	 * 
+	 * @param gateDoc
+	 * @param compress if true the payload is compressed by Deflate
+	 * @return
+	 * @throws IOException
+	 */
+	public static byte[] serialize(gate.Document gateDoc, boolean compress) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serialize(gateDoc, out, compress);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Serialize a GATE document to an output stream (not closed)
+	 * 
+	 * @param gateDoc
+	 * @param out
+	 * @param compress if true the payload is compressed by Deflate
+	 * @throws IOException
+	 */
+	public static void serialize(gate.Document gateDoc, OutputStream out, boolean compress) throws IOException {
+		if(gateDoc == null) {
+			throw new IOException("Null document");
+		}
+
+		out.write(MAGIC);
+		out.write(FORMAT_VERSION);
+		out.write((compress) ? FLAG_COMPRESSED : 0);
+
+		Deflater deflater = (compress) ? new Deflater(Deflater.BEST_SPEED) : null;
+		DeflaterOutputStream deflaterOut = (compress) ? new DeflaterOutputStream(out, deflater, 65536) : null;
+		Writer writer = new Writer(new DataOutputStream(new BufferedOutputStream((compress) ? deflaterOut : out, 65536)));
+
+		writer.writeString(gateDoc.getName());
+		writer.writeString(gateDoc.getContent().toString());
+		writer.writeVarInt((gateDoc instanceof gate.corpora.DocumentImpl) ? ((gate.corpora.DocumentImpl) gateDoc).peakAtNextAnnotationId() : 0);
+		writer.writeFeatureMap(gateDoc.getFeatures());
+
+		// Annotation sets: default set (null name) and named sets
+		List<String> setNames = new ArrayList<String>();
+		setNames.add(null);
+		if(gateDoc.getAnnotationSetNames() != null) {
+			for(String setName : gateDoc.getAnnotationSetNames()) {
+				if(setName != null && setName.length() > 0) {
+					setNames.add(setName);
+				}
+			}
+		}
+
+		writer.writeVarInt(setNames.size());
+		for(String setName : setNames) {
+			AnnotationSet annSet = (setName == null) ? gateDoc.getAnnotations() : gateDoc.getAnnotations(setName);
+			writer.writeString(setName);
+
+			Set<String> types = annSet.getAllTypes();
+			writer.writeVarInt(types.size());
+			for(String type : types) {
+				List<Annotation> annList = gate.Utils.inDocumentOrder(annSet.get(type));
+				writer.writeString(type);
+				writer.writeVarInt(annList.size());
+
+				// Columns: ids, start offsets (deltas), lengths, features
+				int previousId = 0;
+				for(Annotation ann : annList) {
+					writer.writeVarLong(zigZag(ann.getId().intValue() - previousId));
+					previousId = ann.getId().intValue();
+				}
+				long previousStart = 0l;
+				for(Annotation ann : annList) {
+					long start = ann.getStartNode().getOffset();
+					writer.writeVarLong(start - previousStart);
+					previousStart = start;
+				}
+				for(Annotation ann : annList) {
+					writer.writeVarLong(ann.getEndNode().getOffset() - ann.getStartNode().getOffset());
+				}
+				for(Annotation ann : annList) {
+					writer.writeFeatureMap(ann.getFeatures());
+				}
+			}
+		}
+
+		writer.out.flush();
+		if(deflaterOut != null) {
+			deflaterOut.finish();
+			deflater.end();
+		}
+		out.flush();
+	}
+
+	/**
+	 * Create a GATE document from its binary serialization
+	 * 
+	 * @param binaryContents
+	 * @return
+	 * @throws IOException if the contents are not valid
+	 * @throws ResourceInstantiationException
+	 */
+	public static gate.Document deserialize(byte[] binaryContents) throws IOException, ResourceInstantiationException {
+		return deserialize(new ByteArrayInputStream(binaryContents));
+	}
+
+	/**
+	 * Create a GATE document from its binary serialization read from an input stream (not closed)
+	 * 
+	 * @param in
+	 * @return
+	 * @throws IOException if the contents are not valid
+	 * @throws ResourceInstantiationException
+	 */
+	public static gate.Document deserialize(InputStream in) throws IOException, ResourceInstantiationException {
+		byte[] magic = new byte[MAGIC.length];
+		DataInputStream headerIn = new DataInputStream(in);
+		headerIn.readFully(magic);
+		for(int i = 0; i < MAGIC.length; i++) {
+			if(magic[i] != MAGIC[i]) {
+				throw new IOException("Not a binary serialized document");
+			}
+		}
+
+		int version = headerIn.readUnsignedByte();
+		if(version > FORMAT_VERSION) {
+			throw new IOException("Unsupported binary document format version: " + version + " (supported up to " + FORMAT_VERSION + ")");
+		}
+		int flags = headerIn.readUnsignedByte();
+
+		Inflater inflater = ((flags & FLAG_COMPRESSED) != 0) ? new Inflater() : null;
+		InputStream payloadIn = (inflater != null) ? new InflaterInputStream(in, inflater, 65536) : in;
+		Reader reader = new Reader(new DataInputStream(new BufferedInputStream(payloadIn, 65536)));
+
+		String name = reader.readString();
+		String content = reader.readString();
+		int nextAnnotationId = reader.readVarInt();
+
+		// Create the document from plain text contents, without markup parsing
+		FeatureMap params = gate.Factory.newFeatureMap();
+		params.put(gate.Document.DOCUMENT_STRING_CONTENT_PARAMETER_NAME, (content != null) ? content : "");
+		params.put(gate.Document.DOCUMENT_MARKUP_AWARE_PARAMETER_NAME, Boolean.FALSE);
+		params.put(gate.Document.DOCUMENT_MIME_TYPE_PARAMETER_NAME, "text/plain");
+		FeatureMap features = reader.readFeatureMap();
+		gate.Document gateDoc = (gate.Document) gate.Factory.createResource(gate.corpora.DocumentImpl.class.getName(), params, features, name);
+		// Restore the document features as serialized, discarding the ones set by the document format (MimeType, etc.)
+		gateDoc.setFeatures(features);
+
+		try {
+			int setCount = reader.readLength();
+			for(int s = 0; s < setCount; s++) {
+				String setName = reader.readString();
+				AnnotationSet annSet = (setName == null) ? gateDoc.getAnnotations() : gateDoc.getAnnotations(setName);
+
+				int typeCount = reader.readLength();
+				for(int t = 0; t < typeCount; t++) {
+					String type = reader.readString();
+					int annCount = reader.readLength();
+
+					// The id column grows with the ids read: then the other columns can be allocated, since the number
+					// of annotations is confirmed by the contents
+					int[] ids = new int[Math.min(annCount, MAX_INITIAL_CAPACITY)];
+					int previousId = 0;
+					for(int i = 0; i < annCount; i++) {
+						if(i == ids.length) {
+							ids = Arrays.copyOf(ids, (int) Math.min((long) annCount, 2l * ids.length));
+						}
+						ids[i] = previousId + (int) unZigZag(reader.readVarLong());
+						previousId = ids[i];
+					}
+
+					long[] starts = new long[annCount];
+					long[] lengths = new long[annCount];
+					long previousStart = 0l;
+					for(int i = 0; i < annCount; i++) {
+						starts[i] = previousStart + reader.readVarLong();
+						previousStart = starts[i];
+					}
+					for(int i = 0; i < annCount; i++) {
+						lengths[i] = reader.readVarLong();
+					}
+					for(int i = 0; i < annCount; i++) {
+						FeatureMap annFeatures = reader.readFeatureMap();
+						annSet.add(ids[i], starts[i], starts[i] + lengths[i], type, (annFeatures != null) ? annFeatures : gate.Factory.newFeatureMap());
+						nextAnnotationId = Math.max(nextAnnotationId, ids[i] + 1);
+					}
+				}
+			}
+		}
+		catch (InvalidOffsetException e) {
+			gate.Factory.deleteResource(gateDoc);
+			throw new IOException("Invalid annotation offset in binary document: " + e.getMessage());
+		}
+		catch (IOException | RuntimeException e) {
+			gate.Factory.deleteResource(gateDoc);
+			throw e;
+		}
+		finally {
+			if(inflater != null) {
+				inflater.end();
+			}
+		}
+
+		if(gateDoc instanceof gate.corpora.DocumentImpl && ((gate.corpora.DocumentImpl) gateDoc).peakAtNextAnnotationId() < nextAnnotationId) {
+			((gate.corpora.DocumentImpl) gateDoc).setNextAnnotationId(nextAnnotationId);
+		}
+
+		return gateDoc;
+	}
+
+	/**
+	 * Check if a byte array starts with the magic bytes of the binary serialization format
+	 * 
+	 * @param contents
+	 * @return
+	 */
+	public static boolean isBinarySerialized(byte[] contents) {
+		if(contents == null || contents.length < MAGIC.length + 2) {
+			return false;
+		}
+		for(int i = 0; i < MAGIC.length; i++) {
+			if(contents[i] != MAGIC[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Writes values interning the strings
+	 *
+	 */
+	private static class Writer {
+
+		private final DataOutputStream out;
+		private final Map<String, Integer> stringTable = new HashMap<String, Integer>();
+
+		private Writer(DataOutputStream out) {
+			this.out = out;
+		}
+
+		private void writeVarInt(int value) throws IOException {
+			writeVarLong(value & 0xFFFFFFFFl);
+		}
+
+		private void writeVarLong(long value) throws IOException {
+			while((value & ~0x7Fl) != 0l) {
+				out.write((int) ((value & 0x7Fl) | 0x80l));
+				value >>>= 7;
+			}
+			out.write((int) value);
+		}
+
+		private void writeString(String value) throws IOException {
+			if(value == null) {
+				out.write(TAG_NULL);
+				return;
+			}
+
+			Integer index = stringTable.get(value);
+			if(index != null) {
+				out.write(TAG_STRING_REF);
+				writeVarInt(index);
+			}
+			else {
+				stringTable.put(value, stringTable.size());
+				out.write(TAG_STRING_NEW);
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				writeVarInt(bytes.length);
+				out.write(bytes);
+			}
+		}
+
+		private void writeFeatureMap(FeatureMap features) throws IOException {
+			if(features == null) {
+				writeVarInt(0);
+				return;
+			}
+
+			writeVarInt(features.size());
+			for(Map.Entry<Object, Object> feature : features.entrySet()) {
+				writeValue(feature.getKey());
+				writeValue(feature.getValue());
+			}
+		}
+
+		private void writeValue(Object value) throws IOException {
+			if(value == null) {
+				out.write(TAG_NULL);
+			}
+			else if(value instanceof String) {
+				writeString((String) value);
+			}
+			else if(value instanceof Integer) {
+				out.write(TAG_INTEGER);
+				writeVarLong(zigZag(((Integer) value).longValue()));
+			}
+			else if(value instanceof Long) {
+				out.write(TAG_LONG);
+				writeVarLong(zigZag((Long) value));
+			}
+			else if(value instanceof Double) {
+				out.write(TAG_DOUBLE);
+				out.writeDouble((Double) value);
+			}
+			else if(value instanceof Float) {
+				out.write(TAG_FLOAT);
+				out.writeFloat((Float) value);
+			}
+			else if(value instanceof Boolean) {
+				out.write(((Boolean) value) ? TAG_TRUE : TAG_FALSE);
+			}
+			else if(value instanceof FeatureMap) {
+				out.write(TAG_FEATURE_MAP);
+				writeFeatureMap((FeatureMap) value);
+			}
+			else if(value instanceof List || value instanceof Set) {
+				Collection<?> collection = (Collection<?>) value;
+				out.write((value instanceof List) ? TAG_LIST : TAG_SET);
+				writeVarInt(collection.size());
+				for(Object element : collection) {
+					writeValue(element);
+				}
+			}
+			else if(value instanceof Map) {
+				Map<?, ?> map = (Map<?, ?>) value;
+				out.write(TAG_MAP);
+				writeVarInt(map.size());
+				for(Map.Entry<?, ?> entry : map.entrySet()) {
+					writeValue(entry.getKey());
+					writeValue(entry.getValue());
+				}
+			}
+			else {
+				throw new IOException("Feature value of type " + value.getClass().getName() + " not supported by the binary format");
+			}
+		}
+	}
+
+	/**
+	 * Reads values written by a {@link Writer}
+	 *
+	 */
+	private static class Reader {
+
+		private final DataInputStream in;
+		private final List<String> stringTable = new ArrayList<String>();
+
+		private Reader(DataInputStream in) {
+			this.in = in;
+		}
+
+		private int readVarInt() throws IOException {
+			return (int) readVarLong();
+		}
+
+		/**
+		 * Read a length or a number of elements
+		 * 
+		 * @return
+		 * @throws IOException if negative or greater than the maximum array size
+		 */
+		private int readLength() throws IOException {
+			long length = readVarLong();
+			if(length < 0l || length > Integer.MAX_VALUE - 8) {
+				throw new IOException("Invalid length in binary document: " + length);
+			}
+			return (int) length;
+		}
+
+		/**
+		 * Read a byte array: the array grows with the bytes actually read, so that a corrupted length
+		 * fails when the input ends instead of allocating that length
+		 * 
+		 * @param length
+		 * @return
+		 * @throws IOException
+		 */
+		private byte[] readBytes(int length) throws IOException {
+			byte[] bytes = new byte[Math.min(length, MAX_INITIAL_CAPACITY)];
+			int read = 0;
+			while(read < length) {
+				if(read == bytes.length) {
+					bytes = Arrays.copyOf(bytes, (int) Math.min((long) length, 2l * bytes.length));
+				}
+				int readNow = in.read(bytes, read, bytes.length - read);
+				if(readNow < 0) {
+					throw new EOFException("Truncated binary document");
+				}
+				read += readNow;
+			}
+			return bytes;
+		}
+
+		private long readVarLong() throws IOException {
+			long value = 0l;
+			int shift = 0;
+			while(true) {
+				int b = in.read();
+				if(b < 0) {
+					throw new EOFException("Truncated binary document");
+				}
+				value |= ((long) (b & 0x7F)) << shift;
+				if((b & 0x80) == 0) {
+					return value;
+				}
+				shift += 7;
+				if(shift > 63) {
+					throw new IOException("Invalid variable length integer in binary document");
+				}
+			}
+		}
+
+		private String readString() throws IOException {
+			Object value = readValue();
+			if(value != null && !(value instanceof String)) {
+				throw new IOException("String expected in binary document, found " + value.getClass().getName());
+			}
+			return (String) value;
+		}
+
+		private FeatureMap readFeatureMap() throws IOException {
+			int size = readLength();
+			FeatureMap features = gate.Factory.newFeatureMap();
+			for(int i = 0; i < size; i++) {
+				Object key = readValue();
+				features.put(key, readValue());
+			}
+			return features;
+		}
+
+		private Object readValue() throws IOException {
+			int tag = in.read();
+			switch(tag) {
+			case TAG_NULL:
+				return null;
+			case TAG_STRING_NEW:
+				byte[] bytes = readBytes(readLength());
+				String value = new String(bytes, StandardCharsets.UTF_8);
+				stringTable.add(value);
+				return value;
+			case TAG_STRING_REF:
+				int index = readVarInt();
+				if(index < 0 || index >= stringTable.size()) {
+					throw new IOException("Invalid string reference in binary document: " + index);
+				}
+				return stringTable.get(index);
+			case TAG_INTEGER:
+				return new Integer((int) unZigZag(readVarLong()));
+			case TAG_LONG:
+				return new Long(unZigZag(readVarLong()));
+			case TAG_DOUBLE:
+				return new Double(in.readDouble());
+			case TAG_FLOAT:
+				return new Float(in.readFloat());
+			case TAG_TRUE:
+				return Boolean.TRUE;
+			case TAG_FALSE:
+				return Boolean.FALSE;
+			case TAG_FEATURE_MAP:
+				return readFeatureMap();
+			case TAG_LIST:
+			case TAG_SET:
+				int size = readLength();
+				Collection<Object> collection = (tag == TAG_LIST) ? new ArrayList<Object>(Math.min(size, MAX_INITIAL_CAPACITY)) : new LinkedHashSet<Object>();
+				for(int i = 0; i < size; i++) {
+					collection.add(readValue());
+				}
+				return collection;
+			case TAG_MAP:
+				int mapSize = readLength();
+				Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+				for(int i = 0; i < mapSize; i++) {
+					Object key = readValue();
+					map.put(key, readValue());
+				}
+				return map;
+			case -1:
+				throw new EOFException("Truncated binary document");
+			default:
+				throw new IOException("Invalid value tag in binary document: " + tag);
+			}
+		}
+	}
+
+}
@@ -13,16 +13,24 @@ package edu.upf.taln.dri.module.babelnet;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import edu.upf.taln.dri.common.connector.babelnet.BabelfyCache;
+import edu.upf.taln.dri.common.connector.babelnet.BabelfyCache.CachedAnnotation;
 import edu.upf.taln.dri.common.connector.babelnet.BabelfyUtil;
 import edu.upf.taln.dri.common.util.GateUtil;
 import edu.upf.taln.dri.common.util.Util;
@@ -50,6 +58,9 @@ import it.uniroma1.lcl.jlt.util.Language;
 /**
  * This module enrich the textual contents of a paper by applying WSD, by invoking BabelNet
  * REFERENCE: http://babelnet.org/
+ * The disambiguation results of each sentence are cached (see {@link edu.upf.taln.dri.common.connector.babelnet.BabelfyCache BabelfyCache}):
+ * only the sentences not cached are sent to Babelfy, split into requests of at most {@link #setMaxTokensPerRequest(Integer) maxTokensPerRequest} tokens
+ * executed in parallel (up to {@link #setMaxConcurrentRequests(Integer) maxConcurrentRequests} requests).
  * 
  */
 @CreoleResource(name = "DRI Modules - BabelNet annotator")
@@ -69,6 +80,18 @@ public class BabelnetAnnotator extends AbstractLanguageAnalyser implements Proce
 	private String babelnetAPIkey = "";
 	private String babelnetLanguage = null;
 
+	// Lock of the document released while waiting for the responses of Babelfy (null if the document is not shared among threads)
+	private Lock documentLock = null;
+
+	// Maximum number of tokens sent to Babelfy by each request (the sentences of a document are split into requests
+	// of at most this number of tokens, a sentence is never split)
+	private Integer maxTokensPerRequest = 1000;
+
+	// Maximum number of Babelfy requests executed in parallel by this annotator
+	// (changes are applied to the executor of the requests when the next document is annotated)
+	private Integer maxConcurrentRequests = 4;
+
+	private transient ThreadPoolExecutor requestExecutor = null;
 
 	public String getBabelnetAPIkey() {
 		return new String(babelnetAPIkey);
@@ -142,6 +165,40 @@ public class BabelnetAnnotator extends AbstractLanguageAnalyser implements Proce
 		return sentenceIdsToAnalyze;
 	}
 
+	public Integer getMaxTokensPerRequest() {
+		return maxTokensPerRequest;
+	}
+
+	@RunTime
+	@CreoleParameter(defaultValue = "1000", comment = "The maximum number of tokens sent to Babelfy by each request")
+	public void setMaxTokensPerRequest(Integer maxTokensPerRequest) {
+		this.maxTokensPerRequest = maxTokensPerRequest;
+	}
+
+	public Integer getMaxConcurrentRequests() {
+		return maxConcurrentRequests;
+	}
+
+	@RunTime
+	@CreoleParameter(defaultValue = "4", comment = "The maximum number of Babelfy requests executed in parallel")
+	public void setMaxConcurrentRequests(Integer maxConcurrentRequests) {
+		this.maxConcurrentRequests = maxConcurrentRequests;
+	}
+
+	public Lock getDocumentLock() {
+		return documentLock;
+	}
+
+	/**
+	 * Set the lock that guards the accesses to the document: it has to be held by the thread executing the annotator,
+	 * that releases it while waiting for the responses of Babelfy, so that other threads can access the document meanwhile.
+	 * 
+	 * @param documentLock null if the document is not shared among threads
+	 */
+	public void setDocumentLock(Lock documentLock) {
+		this.documentLock = documentLock;
+	}
+
 
 	@Override
 	public Resource init() {
@@ -202,202 +259,380 @@ public class BabelnetAnnotator extends AbstractLanguageAnalyser implements Proce
 		}
 		
 		
-		// Split sentences into 40 units groups
-		List<List<Annotation>> sentenceGroupsList = new ArrayList<List<Annotation>>();
-		List<Annotation> sentenceGroupAppo = new ArrayList<Annotation>();
-		for(int k = 0; k < sentenceAnnotationList.size(); k++) {
-			sentenceGroupAppo.add(sentenceAnnotationList.get(k));
-			if((k > 0 && (k % 40 == 0)) || (k == sentenceAnnotationList.size() - 1)) {
-				sentenceGroupsList.add(sentenceGroupAppo);
-				sentenceGroupAppo = new ArrayList<Annotation>();
+		// Populate list of tokens to disambiguate of each sentence, retrieving from the cache the sentences already disambiguated - START
+		List<SentenceTokens> sentenceTokensList = new ArrayList<SentenceTokens>();
+		List<SentenceTokens> sentenceTokensToDisambiguate = new ArrayList<SentenceTokens>();
+
+		for(Annotation sentenceAnn : sentenceAnnotationList) {
+			if(sentenceAnn != null) {
+				SentenceTokens sentenceTokens = getSentenceTokens(sentenceAnn, lang);
+
+				if(sentenceTokens.tokens.size() > 0) {
+					sentenceTokensList.add(sentenceTokens);
+
+					sentenceTokens.annotations = BabelfyCache.get(sentenceTokens.cacheKey);
+					if(sentenceTokens.annotations == null) {
+						sentenceTokensToDisambiguate.add(sentenceTokens);
+					}
+				}
+			} 
+		}
+		// Populate list of tokens to disambiguate of each sentence - END
+
+		if(sentenceTokensList.size() > sentenceTokensToDisambiguate.size()) {
+			logger.info("Retrieved from cache the BabelNet concepts of " + (sentenceTokensList.size() - sentenceTokensToDisambiguate.size()) + " over " + sentenceTokensList.size() + " sentences.");
+		}
+
+		// Split the sentences not cached into requests of at most maxTokensPerRequest tokens
+		List<List<SentenceTokens>> requestList = new ArrayList<List<SentenceTokens>>();
+		List<SentenceTokens> requestAppo = new ArrayList<SentenceTokens>();
+		int requestTokenCount = 0;
+		int maxRequestTokens = (maxTokensPerRequest != null && maxTokensPerRequest > 0) ? maxTokensPerRequest : 1000;
+		for(SentenceTokens sentenceTokens : sentenceTokensToDisambiguate) {
+			// Tokens of the sentence plus end of sentence token
+			int sentenceTokenCount = sentenceTokens.tokens.size() + 1;
+			if(requestAppo.size() > 0 && requestTokenCount + sentenceTokenCount > maxRequestTokens) {
+				requestList.add(requestAppo);
+				requestAppo = new ArrayList<SentenceTokens>();
+				requestTokenCount = 0;
+			}
+			requestAppo.add(sentenceTokens);
+			requestTokenCount += sentenceTokenCount;
+		}
+		if(requestAppo.size() > 0) {
+			requestList.add(requestAppo);
+		}
+
+		// Invoke Babelfy for every request, executing up to maxConcurrentRequests requests in parallel:
+		// the document is not accessed till all the requests are completed, thus its lock is released meanwhile
+		if(documentLock != null) {
+			documentLock.unlock();
+		}
+		try {
+			if(requestList.size() == 1) {
+				disambiguateSentences(requestList.get(0), lang);
+			}
+			else if(requestList.size() > 1) {
+				logger.info("Disambiguating " + sentenceTokensToDisambiguate.size() + " sentences by " + requestList.size() + " Babelfy requests...");
+				final Language requestLang = lang;
+				List<CompletableFuture<Void>> requestFutures = new ArrayList<CompletableFuture<Void>>();
+				for(List<SentenceTokens> request : requestList) {
+					requestFutures.add(CompletableFuture.runAsync(() -> disambiguateSentences(request, requestLang), getRequestExecutor()));
+				}
+
+				try {
+					CompletableFuture.allOf(requestFutures.toArray(new CompletableFuture[requestFutures.size()])).join();
+				}
+				catch(Exception e) {
+					Util.notifyException("Disambiguating token lists", e, logger);
+				}
+			}
+		} finally {
+			if(documentLock != null) {
+				documentLock.lock();
 			}
 		}
 
-		// Invoke Babelfy for every group of 80 sentences
+		// Report semantic annotations results in document order
 		int babelnetSynsetCounter = 0;
-		for(List<Annotation> sentenceGroup : sentenceGroupsList) {
-
-			List<BabelfyToken> babelfyTokenListToDisambiguate = new ArrayList<BabelfyToken>();
-
-			// Populate list of tokens to disambiguate - START
-			Map<Integer, Integer> tokenListIDtoTokenDocIDmap = new HashMap<Integer, Integer>();
-
-			for(Annotation sentenceAnn : sentenceGroup) {
-				if(sentenceAnn != null) {
-					List<Annotation> tokenOfSentenceList = GateUtil.getAnnInDocOrderContainedAnn(this.document, tokenAnnotationSetToAnalyze, tokenAnnotationTypeToAnalyze, sentenceAnn);
-
-					// Get all tokens of a sentence
-					int tokenListBeforeSentenceTokenAddition = babelfyTokenListToDisambiguate.size();
-
-					// Get all in citation tokens
-					List<Annotation> citSpanAnnList = GateUtil.getAnnInDocOrderContainedAnn(this.document, ImporterBase.driAnnSet, ImporterBase.inlineCitationAnnType, sentenceAnn);
-
-					for(Annotation tokenAnn : tokenOfSentenceList) {
-						if(tokenAnn != null) {
-
-							// Not consider token in citation span
-							for(Annotation citSpanAnn : citSpanAnnList) {
-								if(citSpanAnn != null && tokenAnn.withinSpanOf(citSpanAnn)) {
-									continue;
-								}
-							}
-
-							String tokenPOS = GateUtil.getStringFeature(tokenAnn, ImporterBase.token_POSfeat).orElse("_NO__POS_");
-							PosTag pt = null;
-							
-							if(babelnetLanguage.toLowerCase().trim().equals("spanish")) {
-								if(tokenPOS.toLowerCase().startsWith("n")) {
-									pt = PosTag.NOUN;
-								}
-								else if(tokenPOS.toLowerCase().startsWith("a")) {
-									pt = PosTag.ADJECTIVE;
-								}
-								else if(tokenPOS.toLowerCase().startsWith("v")) {
-									pt = PosTag.VERB;
-								}
-								else if(tokenPOS.toLowerCase().startsWith("r")) {
-									pt = PosTag.ADVERB;
-								}
-								else {
-									// Not considered other POS tokens
-									pt = PosTag.OTHER;
-								}
-							}
-							else {
-								if(tokenPOS.toLowerCase().startsWith("n")) {
-									pt = PosTag.NOUN;
-								}
-								else if(tokenPOS.toLowerCase().startsWith("j")) {
-									pt = PosTag.ADJECTIVE;
-								}
-								else if(tokenPOS.toLowerCase().startsWith("v")) {
-									pt = PosTag.VERB;
-								}
-								else if(tokenPOS.toLowerCase().startsWith("rb")) {
-									pt = PosTag.ADVERB;
-								}
-								else {
-									// Not considered other POS tokens
-									pt = PosTag.OTHER;
-								}
-							}
-							
-							
-
-							if(pt != null) {
-								BabelfyToken bt = new BabelfyToken(GateUtil.getAnnotationText(tokenAnn, this.document).orElse("_NO_TEXT_"), 
-										GateUtil.getStringFeature(tokenAnn, ImporterBase.token_LemmaFeat).orElse("_NO_LEMMA_"), 
-										pt, lang);
-								babelfyTokenListToDisambiguate.add(bt);
-
-								tokenListIDtoTokenDocIDmap.put(babelfyTokenListToDisambiguate.size() - 1, tokenAnn.getId());
-							}
-						}
+		for(SentenceTokens sentenceTokens : sentenceTokensList) {
+			if(sentenceTokens.annotations != null) {
+				for(CachedAnnotation semanticAnnotation : sentenceTokens.annotations) {
+					if(semanticAnnotation != null && addBabelnetAnnotation(sentenceTokens, semanticAnnotation)) {
+						babelnetSynsetCounter++;
 					}
+				}
+			}
+		}
+
+		
+		logger.info("Spotted " + babelnetSynsetCounter + " BabelNet concepts inside the document.");
+
+	}
+
+	/**
+	 * Get the executor of the Babelfy requests: its number of threads is the maximum number of concurrent requests,
+	 * resized if {@link #setMaxConcurrentRequests(Integer) maxConcurrentRequests} has been changed since the previous invocation
+	 * 
+	 * @return
+	 */
+	private synchronized ExecutorService getRequestExecutor() {
+		int maxConcurrency = (maxConcurrentRequests != null && maxConcurrentRequests > 0) ? maxConcurrentRequests : 1;
+
+		if(requestExecutor != null && requestExecutor.getMaximumPoolSize() != maxConcurrency) {
+			// The maximum pool size can never be lower than the core pool size
+			if(maxConcurrency > requestExecutor.getMaximumPoolSize()) {
+				requestExecutor.setMaximumPoolSize(maxConcurrency);
+				requestExecutor.setCorePoolSize(maxConcurrency);
+			}
+			else {
+				requestExecutor.setCorePoolSize(maxConcurrency);
+				requestExecutor.setMaximumPoolSize(maxConcurrency);
+			}
+		}
+
+		if(requestExecutor == null) {
+			AtomicInteger threadCounter = new AtomicInteger(0);
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60l, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), (runnable) -> {
+				Thread requestThread = new Thread(runnable, "DRI-babelfy-" + threadCounter.incrementAndGet());
+				requestThread.setDaemon(true);
+				return requestThread;
+			});
+			executor.allowCoreThreadTimeOut(true);
+			requestExecutor = executor;
+		}
+		return requestExecutor;
+	}
+
+	@Override
+	public synchronized void cleanup() {
+		if(requestExecutor != null) {
+			requestExecutor.shutdown();
+			requestExecutor = null;
+		}
+		super.cleanup();
+	}
+
+	/**
+	 * Tokens of a sentence to disambiguate with their document token IDs, the cache key of the sentence and the
+	 * disambiguation results (null if not available)
+	 *
+	 */
+	private static class SentenceTokens {
+		private final List<BabelfyToken> tokens = new ArrayList<BabelfyToken>();
+		private final List<Integer> tokenDocIDs = new ArrayList<Integer>();
+		private String cacheKey = null;
+		private List<CachedAnnotation> annotations = null;
+	}
+
+	/**
+	 * Get the tokens of a sentence to send to Babelfy
+	 * 
+	 * @param sentenceAnn
+	 * @param lang
+	 * @return
+	 */
+	private SentenceTokens getSentenceTokens(Annotation sentenceAnn, Language lang) {
+		SentenceTokens sentenceTokens = new SentenceTokens();
+		List<String> tokenDescriptions = new ArrayList<String>();
+
+		List<Annotation> tokenOfSentenceList = GateUtil.getAnnInDocOrderContainedAnn(this.document, tokenAnnotationSetToAnalyze, tokenAnnotationTypeToAnalyze, sentenceAnn);
+
+		// Get all in citation tokens
+		List<Annotation> citSpanAnnList = GateUtil.getAnnInDocOrderContainedAnn(this.document, ImporterBase.driAnnSet, ImporterBase.inlineCitationAnnType, sentenceAnn);
 
-					if(babelfyTokenListToDisambiguate.size() > tokenListBeforeSentenceTokenAddition) {
-						babelfyTokenListToDisambiguate.add(BabelfyToken.EOS);
+		for(Annotation tokenAnn : tokenOfSentenceList) {
+			if(tokenAnn != null) {
+
+				// Not consider token in citation span
+				for(Annotation citSpanAnn : citSpanAnnList) {
+					if(citSpanAnn != null && tokenAnn.withinSpanOf(citSpanAnn)) {
+						continue;
 					}
-				} 
+				}
+
+				String tokenPOS = GateUtil.getStringFeature(tokenAnn, ImporterBase.token_POSfeat).orElse("_NO__POS_");
+				PosTag pt = getPosTag(tokenPOS);
+
+				if(pt != null) {
+					String word = GateUtil.getAnnotationText(tokenAnn, this.document).orElse("_NO_TEXT_");
+					String lemma = GateUtil.getStringFeature(tokenAnn, ImporterBase.token_LemmaFeat).orElse("_NO_LEMMA_");
+
+					sentenceTokens.tokens.add(new BabelfyToken(word, lemma, pt, lang));
+					sentenceTokens.tokenDocIDs.add(tokenAnn.getId());
+					tokenDescriptions.add(word + "|" + lemma + "|" + pt);
+				}
 			}
-			// Populate list of tokens to disambiguate - END
+		}
 
-			// Disambiguate the list of tokens
-			List<SemanticAnnotation> semanticAnnotations = new ArrayList<SemanticAnnotation>();
+		sentenceTokens.cacheKey = BabelfyCache.getSentenceKey(lang.toString(), tokenDescriptions);
+
+		return sentenceTokens;
+	}
+
+	/**
+	 * Map the POS of a token to the corresponding Babelfy POS
+	 * 
+	 * @param tokenPOS
+	 * @return
+	 */
+	private PosTag getPosTag(String tokenPOS) {
+		PosTag pt = null;
 
-			try {
-				logger.info("Disambiguating token list of size: " + babelfyTokenListToDisambiguate.size() + "...");
-				semanticAnnotations = BabelfyUtil.disambiguateTokenList(babelnetAPIkey, babelfyTokenListToDisambiguate, lang);
+		if(babelnetLanguage.toLowerCase().trim().equals("spanish")) {
+			if(tokenPOS.toLowerCase().startsWith("n")) {
+				pt = PosTag.NOUN;
 			}
-			catch(Exception e) {
-				Util.notifyException("Disambiguating token list with api key: " + babelnetAPIkey, e, logger);
+			else if(tokenPOS.toLowerCase().startsWith("a")) {
+				pt = PosTag.ADJECTIVE;
 			}
-
-			if(semanticAnnotations != null && semanticAnnotations.size() > 0) {
-				logger.info("Identified " + semanticAnnotations.size() + " BabelNet concepts by analyzing the group of " + ((sentenceGroup != null) ? sentenceGroup.size() : "NULL") + " sentences.");
+			else if(tokenPOS.toLowerCase().startsWith("v")) {
+				pt = PosTag.VERB;
+			}
+			else if(tokenPOS.toLowerCase().startsWith("r")) {
+				pt = PosTag.ADVERB;
+			}
+			else {
+				// Not considered other POS tokens
+				pt = PosTag.OTHER;
+			}
+		}
+		else {
+			if(tokenPOS.toLowerCase().startsWith("n")) {
+				pt = PosTag.NOUN;
+			}
+			else if(tokenPOS.toLowerCase().startsWith("j")) {
+				pt = PosTag.ADJECTIVE;
+			}
+			else if(tokenPOS.toLowerCase().startsWith("v")) {
+				pt = PosTag.VERB;
+			}
+			else if(tokenPOS.toLowerCase().startsWith("rb")) {
+				pt = PosTag.ADVERB;
 			}
 			else {
-				logger.error("Impossible to identify BabelNet concepts by analyzing the group of " + ((sentenceGroup != null) ? sentenceGroup.size() : "NULL") + " sentences - check if your BabelNet API key is valid and has babelcoins available.");
+				// Not considered other POS tokens
+				pt = PosTag.OTHER;
 			}
+		}
+
+		return pt;
+	}
+
+	/**
+	 * Disambiguate a list of sentences by a single Babelfy request, setting the annotations of each sentence.
+	 * Invoked concurrently for different lists of sentences: only accesses the sentences of the list.<br/>
+	 * The results of each sentence are cached only if the request succeeded (Babelfy identified at least one concept):
+	 * an empty response can also be due to invalid API keys or rejected requests.
+	 * 
+	 * @param sentenceTokensList
+	 * @param lang
+	 */
+	private void disambiguateSentences(List<SentenceTokens> sentenceTokensList, Language lang) {
+
+		// Populate list of tokens to disambiguate, recording the position of the first token of each sentence
+		List<BabelfyToken> babelfyTokenListToDisambiguate = new ArrayList<BabelfyToken>();
+		int[] firstTokenPositions = new int[sentenceTokensList.size()];
+		for(int i = 0; i < sentenceTokensList.size(); i++) {
+			firstTokenPositions[i] = babelfyTokenListToDisambiguate.size();
+			babelfyTokenListToDisambiguate.addAll(sentenceTokensList.get(i).tokens);
+			babelfyTokenListToDisambiguate.add(BabelfyToken.EOS);
+		}
 
-			// Report semantic annotations results
-			if(semanticAnnotations != null && semanticAnnotations.size() > 0) {
-				for(SemanticAnnotation semanticAnnotation : semanticAnnotations) {
-					if(semanticAnnotation != null) {
-						try {
-							TokenOffsetFragment tfo = semanticAnnotation.getTokenOffsetFragment();
-							if(tfo != null && 
-									tfo.getStart() >= 0 && tfo.getStart() < babelfyTokenListToDisambiguate.size() &&
-									tfo.getEnd() >= 0 && tfo.getEnd() < babelfyTokenListToDisambiguate.size() ) {
-
-								// Retrieve from and to token IDs
-								Integer fromTokenID = tokenListIDtoTokenDocIDmap.get(tfo.getStart());
-								Integer toTokenID = tokenListIDtoTokenDocIDmap.get(tfo.getEnd());
-
-								if(fromTokenID != null && toTokenID != null) {
-									Annotation fromTokenAnn = this.document.getAnnotations(tokenAnnotationSetToAnalyze).get(fromTokenID);
-									Annotation toTokenAnn = this.document.getAnnotations(tokenAnnotationSetToAnalyze).get(toTokenID);
-									if(fromTokenAnn != null && toTokenAnn != null &&
-											fromTokenAnn.getStartNode().getOffset() < toTokenAnn.getEndNode().getOffset()) {
-										// Create annotation
-										FeatureMap fm = gate.Factory.newFeatureMap();
-
-										if(semanticAnnotation.getBabelNetURL() != null) {
-											fm.put(ImporterBase.babelnet_DisItem_babelnetURLfeat, semanticAnnotation.getBabelNetURL());
-										}
-										if(semanticAnnotation.getBabelSynsetID() != null) {
-											fm.put(ImporterBase.babelnet_DisItem_synsetIDfeat, semanticAnnotation.getBabelSynsetID());
-										}
-										if(semanticAnnotation.getDBpediaURL() != null) {
-											fm.put(ImporterBase.babelnet_DisItem_dbpediaURLfeat, semanticAnnotation.getDBpediaURL());
-										}
-
-										try {
-											fm.put(ImporterBase.babelnet_DisItem_scoreFeat, new Double(semanticAnnotation.getScore()));
-										}
-										catch (Exception e) {
-											Util.notifyException("Populating BabelNet annotation with feature", e, logger);
-										}
-
-										try {
-											fm.put(ImporterBase.babelnet_DisItem_coherenceScoreFeat, new Double(semanticAnnotation.getCoherenceScore()));
-										}
-										catch (Exception e) {
-											Util.notifyException("Populating BabelNet annotation with feature", e, logger);
-										}
-
-										try {
-											fm.put(ImporterBase.babelnet_DisItem_golbalScoreFeat, new Double(semanticAnnotation.getGlobalScore()));
-										}
-										catch (Exception e) {
-											Util.notifyException("Populating BabelNet annotation with feature", e, logger);
-										}
-
-										if(semanticAnnotation.getSource() != null) {
-											fm.put(ImporterBase.babelnet_DisItem_sourceFeat, semanticAnnotation.getSource().toString());
-										}
-
-										fm.put(ImporterBase.babelnet_DisItem_numTokensFeat, new Integer(tfo.getEnd() - tfo.getStart() + 1));
-
-										this.document.getAnnotations(ImporterBase.babelnet_AnnSet).add(fromTokenAnn.getStartNode().getOffset(), toTokenAnn.getEndNode().getOffset(),
-												ImporterBase.babelnet_DisItem, fm);
-										babelnetSynsetCounter++;
-									}
-								}
-							}
+		// Disambiguate the list of tokens
+		List<SemanticAnnotation> semanticAnnotations = new ArrayList<SemanticAnnotation>();
+
+		try {
+			logger.info("Disambiguating token list of size: " + babelfyTokenListToDisambiguate.size() + "...");
+			semanticAnnotations = BabelfyUtil.disambiguateTokenList(babelnetAPIkey, babelfyTokenListToDisambiguate, lang);
+		}
+		catch(Exception e) {
+			Util.notifyException("Disambiguating token list with api key: " + babelnetAPIkey, e, logger);
+		}
+
+		if(semanticAnnotations != null && semanticAnnotations.size() > 0) {
+			logger.info("Identified " + semanticAnnotations.size() + " BabelNet concepts by analyzing the group of " + sentenceTokensList.size() + " sentences.");
+		}
+		else {
+			logger.error("Impossible to identify BabelNet concepts by analyzing the group of " + sentenceTokensList.size() + " sentences - check if your BabelNet API key is valid and has babelcoins available.");
+			return;
+		}
+
+		// Assign each semantic annotation to the sentence it belongs to
+		for(SentenceTokens sentenceTokens : sentenceTokensList) {
+			sentenceTokens.annotations = new ArrayList<CachedAnnotation>();
+		}
+
+		for(SemanticAnnotation semanticAnnotation : semanticAnnotations) {
+			if(semanticAnnotation != null) {
+				try {
+					TokenOffsetFragment tfo = semanticAnnotation.getTokenOffsetFragment();
+					if(tfo != null && 
+							tfo.getStart() >= 0 && tfo.getStart() < babelfyTokenListToDisambiguate.size() &&
+							tfo.getEnd() >= 0 && tfo.getEnd() < babelfyTokenListToDisambiguate.size() ) {
+
+						// Select the last sentence starting before or at the first token of the annotation
+						int sentenceIndex = Arrays.binarySearch(firstTokenPositions, tfo.getStart());
+						if(sentenceIndex < 0) {
+							sentenceIndex = -sentenceIndex - 2;
 						}
-						catch (Exception e) {
-							Util.notifyException("Creating BabelNet annotation", e, logger);
+
+						if(sentenceIndex >= 0) {
+							sentenceTokensList.get(sentenceIndex).annotations.add(CachedAnnotation.fromSemanticAnnotation(semanticAnnotation, firstTokenPositions[sentenceIndex]));
 						}
 					}
 				}
+				catch (Exception e) {
+					Util.notifyException("Reading BabelNet annotation", e, logger);
+				}
 			}
+		}
 
+		for(SentenceTokens sentenceTokens : sentenceTokensList) {
+			BabelfyCache.put(sentenceTokens.cacheKey, sentenceTokens.annotations);
 		}
+	}
 
-		
-		logger.info("Spotted " + babelnetSynsetCounter + " BabelNet concepts inside the document.");
+	/**
+	 * Add to the document the BabelNet annotation of a span of tokens of a sentence
+	 * 
+	 * @param sentenceTokens
+	 * @param semanticAnnotation
+	 * @return true if the annotation has been added
+	 */
+	private boolean addBabelnetAnnotation(SentenceTokens sentenceTokens, CachedAnnotation semanticAnnotation) {
+		try {
+			if(semanticAnnotation.getStartToken() >= 0 && semanticAnnotation.getStartToken() < sentenceTokens.tokenDocIDs.size() &&
+					semanticAnnotation.getEndToken() >= 0 && semanticAnnotation.getEndToken() < sentenceTokens.tokenDocIDs.size()) {
+
+				// Retrieve from and to token IDs
+				Integer fromTokenID = sentenceTokens.tokenDocIDs.get(semanticAnnotation.getStartToken());
+				Integer toTokenID = sentenceTokens.tokenDocIDs.get(semanticAnnotation.getEndToken());
+
+				if(fromTokenID != null && toTokenID != null) {
+					Annotation fromTokenAnn = this.document.getAnnotations(tokenAnnotationSetToAnalyze).get(fromTokenID);
+					Annotation toTokenAnn = this.document.getAnnotations(tokenAnnotationSetToAnalyze).get(toTokenID);
+					if(fromTokenAnn != null && toTokenAnn != null &&
+							fromTokenAnn.getStartNode().getOffset() < toTokenAnn.getEndNode().getOffset()) {
+						// Create annotation
+						FeatureMap fm = gate.Factory.newFeatureMap();
+
+						if(semanticAnnotation.getBabelNetURL() != null) {
+							fm.put(ImporterBase.babelnet_DisItem_babelnetURLfeat, semanticAnnotation.getBabelNetURL());
+						}
+						if(semanticAnnotation.getBabelSynsetID() != null) {
+							fm.put(ImporterBase.babelnet_DisItem_synsetIDfeat, semanticAnnotation.getBabelSynsetID());
+						}
+						if(semanticAnnotation.getDBpediaURL() != null) {
+							fm.put(ImporterBase.babelnet_DisItem_dbpediaURLfeat, semanticAnnotation.getDBpediaURL());
+						}
+						if(semanticAnnotation.getScore() != null) {
+							fm.put(ImporterBase.babelnet_DisItem_scoreFeat, semanticAnnotation.getScore());
+						}
+						if(semanticAnnotation.getCoherenceScore() != null) {
+							fm.put(ImporterBase.babelnet_DisItem_coherenceScoreFeat, semanticAnnotation.getCoherenceScore());
+						}
+						if(semanticAnnotation.getGlobalScore() != null) {
+							fm.put(ImporterBase.babelnet_DisItem_golbalScoreFeat, semanticAnnotation.getGlobalScore());
+						}
+						if(semanticAnnotation.getSource() != null) {
+							fm.put(ImporterBase.babelnet_DisItem_sourceFeat, semanticAnnotation.getSource());
+						}
+
+						fm.put(ImporterBase.babelnet_DisItem_numTokensFeat, new Integer(semanticAnnotation.getEndToken() - semanticAnnotation.getStartToken() + 1));
+
+						this.document.getAnnotations(ImporterBase.babelnet_AnnSet).add(fromTokenAnn.getStartNode().getOffset(), toTokenAnn.getEndNode().getOffset(),
+								ImporterBase.babelnet_DisItem, fm);
+						return true;
+					}
+				}
+			}
+		}
+		catch (Exception e) {
+			Util.notifyException("Creating BabelNet annotation", e, logger);
+		}
 
+		return false;
 	}
 
 	public static void main(String[] args) {
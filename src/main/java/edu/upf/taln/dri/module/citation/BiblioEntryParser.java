@@ -13,12 +13,22 @@ package edu.upf.taln.dri.module.citation;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -36,7 +46,7 @@ import edu.upf.taln.dri.common.connector.freecite.FreeCiteConn;
 import edu.upf.taln.dri.common.connector.freecite.model.FreeCiteResult;
 import edu.upf.taln.dri.common.connector.google.scholar.GoogleScholarConn;
 import edu.upf.taln.dri.common.connector.google.scholar.model.GoogleScholarResult;
-import edu.upf.taln.dri.common.util.GateUtil;
+import edu.upf.taln.dri.common.metrics.MetricsRegistry;
 import edu.upf.taln.dri.common.util.Util;
 import edu.upf.taln.dri.lib.util.PropertyManager;
 import edu.upf.taln.dri.module.DRIModule;
@@ -68,6 +78,30 @@ public class BiblioEntryParser extends AbstractLanguageAnalyser implements Proce
 	private static String bibUserId = PropertyManager.getProperty("connector.bibsonomy.userid");
 	private static String bibAPIkey = PropertyManager.getProperty("connector.bibsonomy.apykey");
 
+	// Maximum number of concurrent requests to each service, shared by all the instances of the parser (a change is applied 
+	// to the executor of the service when the next request is sent). Google Scholar requests are serialized by default since the 
+	// connector relies on shared cookies and static settings.
+	public static volatile int maxConcurrentFreeCite = 4;
+	public static volatile int maxConcurrentCrossRef = 4;
+	public static volatile int maxConcurrentBibsonomy = 4;
+	public static volatile int maxConcurrentGoogleScholar = 1;
+
+	// Maximum time to wait for the parsing of all the bibliographic entries of a document: when expired, the
+	// results retrieved so far are stored and the pending requests are skipped
+	public static long enrichmentDeadlineMs = 180000l;
+
+	private static final String FREECITE = "FreeCite";
+	private static final String CROSSREF = "CrossRef";
+	private static final String BIBSONOMY = "Bibsonomy";
+	private static final String GOOGLE_SCHOLAR = "Google Scholar";
+
+	private static final Map<String, ThreadPoolExecutor> serviceExecutors = new ConcurrentHashMap<String, ThreadPoolExecutor>();
+
+	// Enrichments of bibliographic entries in flight, shared by all the parsers; key: services used plus normalized entry text
+	private static final Map<String, BiblioEntryEnrichment> inFlightEnrichments = new ConcurrentHashMap<String, BiblioEntryEnrichment>();
+	// Enrichments of bibliographic entries started by prefetch(...), retained until clearPrefetchedEntries()
+	private static final Map<String, BiblioEntryEnrichment> prefetchedEnrichments = new ConcurrentHashMap<String, BiblioEntryEnrichment>();
+
 	private String inputBiblioEntryAS;
 	private String inputBiblioEntryAStype;
 
@@ -76,6 +110,8 @@ public class BiblioEntryParser extends AbstractLanguageAnalyser implements Proce
 	private String useFreeCite;
 	private String useCrossRef;
 
+	// Lock of the document released while waiting for the responses of the services (null if the document is not shared among threads)
+	private Lock documentLock = null;
 
 	public String getInputBiblioEntryAS() {
 		return inputBiblioEntryAS;
@@ -137,6 +173,16 @@ public class BiblioEntryParser extends AbstractLanguageAnalyser implements Proce
 		this.useCrossRef = useCrossRef;
 	}
 
+	/**
+	 * Set the lock that guards the accesses to the document: it has to be held by the thread executing the parser,
+	 * that releases it while waiting for the responses of the services, so that other threads can access the document meanwhile.
+	 *
+	 * @param documentLock null if the document is not shared among threads
+	 */
+	public void setDocumentLock(Lock documentLock) {
+		this.documentLock = documentLock;
+	}
+
 	private Function<Annotation, String> textOfAnnotation = (ann) -> {
 		String annText = null;
 		try {
@@ -162,7 +208,148 @@ public class BiblioEntryParser extends AbstractLanguageAnalyser implements Proce
 
 		List<Annotation> bibEntryAnnotations = gate.Utils.inDocumentOrder(refAnnotationSet.get(this.inputBiblioEntryAStype));
 
-		bibEntryAnnotations.stream().forEach(parseCitation);
+		// Start the parsing of all the bibliographic entries: the requests of different entries are sent in parallel,
+		// up to the maximum number of concurrent requests of each service. Entries with the same text (in this document,
+		// in other documents processed concurrently or prefetched) share the same enrichment.
+		boolean freeCite = StringUtils.equalsIgnoreCase(this.useFreeCite, "true");
+		boolean crossRef = StringUtils.equalsIgnoreCase(this.useCrossRef, "true");
+		boolean bibsonomy = StringUtils.equalsIgnoreCase(this.useBibsonomy, "true");
+		boolean googleScholar = StringUtils.equalsIgnoreCase(this.useGoogleScholar, "true");
+
+		List<Annotation> enrichedAnnotations = new ArrayList<Annotation>();
+		List<BiblioEntryEnrichment> enrichmentList = new ArrayList<BiblioEntryEnrichment>();
+		for(Annotation bibEntryAnn : bibEntryAnnotations) {
+			String annText = textOfAnnotation.apply(bibEntryAnn);
+			if(StringUtils.isNotBlank(annText)) {
+				logger.info("Start parsing citation text: '" + normalizeText(annText) + "'");
+				enrichedAnnotations.add(bibEntryAnn);
+				enrichmentList.add(acquireEnrichment(annText, freeCite, crossRef, bibsonomy, googleScholar));
+			}
+			else {
+				logger.debug("Skipped bibliographic entry!");
+			}
+		}
+
+		// The responses of the services are awaited without accessing the document, thus its lock is released meanwhile
+		CompletableFuture<Void> allEnrichments = CompletableFuture.allOf(enrichmentList.stream().map((enrichment) -> enrichment.enrichmentFuture).toArray(CompletableFuture[]::new));
+		if(documentLock != null) {
+			documentLock.unlock();
+		}
+		try {
+			allEnrichments.get(enrichmentDeadlineMs, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			logger.warn("Parsing of bibliographic entries not completed in " + enrichmentDeadlineMs + " ms: pending requests skipped.");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.warn("Interrupted while parsing bibliographic entries: pending requests skipped.");
+		} catch (java.util.concurrent.ExecutionException e) {
+			Util.notifyException("Global bibliographic entry parsing", e, logger);
+		} finally {
+			if(documentLock != null) {
+				documentLock.lock();
+			}
+		}
+
+		// Store the results as annotation features, in document order
+		for(int i = 0; i < enrichmentList.size(); i++) {
+			BiblioEntryEnrichment enrichment = enrichmentList.get(i);
+			enrichment.release();
+			enrichment.storeResults(enrichedAnnotations.get(i));
+		}
+	}
+
+	/**
+	 * Start the parsing of a list of bibliographic entry texts (for instance the unique bibliographic entries of all the papers
+	 * of a corpus) before the documents they belong to are processed. Entries with the same normalized text are parsed only once.<br/>
+	 * The results are retained and reused by all the parsers that process the same entry text with the same services, until
+	 * {@link #clearPrefetchedEntries() clearPrefetchedEntries()} is invoked.
+	 * 
+	 * @param bibEntryTexts
+	 * @param useFreeCite
+	 * @param useCrossRef
+	 * @param useBibsonomy
+	 * @param useGoogleScholar
+	 * @return the future completed when all the entries have been parsed
+	 */
+	public static CompletableFuture<Void> prefetch(Collection<String> bibEntryTexts, boolean useFreeCite, boolean useCrossRef, boolean useBibsonomy, boolean useGoogleScholar) {
+		List<CompletableFuture<Void>> enrichmentFutures = new ArrayList<CompletableFuture<Void>>();
+
+		if(bibEntryTexts != null) {
+			Set<String> uniqueKeys = new HashSet<String>();
+			for(String bibEntryText : bibEntryTexts) {
+				if(StringUtils.isBlank(bibEntryText)) {
+					continue;
+				}
+
+				String key = enrichmentKey(bibEntryText, useFreeCite, useCrossRef, useBibsonomy, useGoogleScholar);
+				if(!uniqueKeys.add(key)) {
+					continue;
+				}
+
+				BiblioEntryEnrichment enrichment = prefetchedEnrichments.get(key);
+				if(enrichment == null) {
+					// Prefetched enrichments are never released, thus their requests are never skipped
+					enrichment = acquireEnrichment(bibEntryText, useFreeCite, useCrossRef, useBibsonomy, useGoogleScholar);
+					BiblioEntryEnrichment prefetchedEnrichment = prefetchedEnrichments.putIfAbsent(key, enrichment);
+					if(prefetchedEnrichment != null && prefetchedEnrichment != enrichment) {
+						enrichment.release();
+						enrichment = prefetchedEnrichment;
+					}
+				}
+				enrichmentFutures.add(enrichment.enrichmentFuture);
+			}
+
+			logger.info("Prefetching " + uniqueKeys.size() + " unique bibliographic entries (out of " + bibEntryTexts.size() + ")...");
+		}
+
+		return CompletableFuture.allOf(enrichmentFutures.toArray(new CompletableFuture[enrichmentFutures.size()]));
+	}
+
+	/**
+	 * Start the parsing of a list of bibliographic entry texts by means of the services this parser is configured to use
+	 * (parameters useFreeCite, useCrossRef, useBibsonomy and useGoogleScholar), so that the prefetched results are
+	 * reused when the parser is executed (see {@link #prefetch(Collection, boolean, boolean, boolean, boolean) prefetch(...)})
+	 * 
+	 * @param bibEntryTexts
+	 * @return the future completed when all the entries have been parsed
+	 */
+	public CompletableFuture<Void> prefetch(Collection<String> bibEntryTexts) {
+		return prefetch(bibEntryTexts, StringUtils.equalsIgnoreCase(this.useFreeCite, "true"), StringUtils.equalsIgnoreCase(this.useCrossRef, "true"),
+				StringUtils.equalsIgnoreCase(this.useBibsonomy, "true"), StringUtils.equalsIgnoreCase(this.useGoogleScholar, "true"));
+	}
+
+	/**
+	 * Release the results of the bibliographic entries parsed by {@link #prefetch(Collection, boolean, boolean, boolean, boolean) prefetch(...)}
+	 */
+	public static void clearPrefetchedEntries() {
+		prefetchedEnrichments.clear();
+	}
+
+	/**
+	 * Get the text of the bibliographic entries of a GATE document (annotation set {@value edu.upf.taln.dri.module.importer.ImporterBase#driAnnSet},
+	 * annotation type {@value edu.upf.taln.dri.module.importer.ImporterBase#bibEntryAnnType}), in document order
+	 * 
+	 * @param doc
+	 * @return
+	 */
+	public static List<String> getBibEntryTexts(gate.Document doc) {
+		List<String> bibEntryTexts = new ArrayList<String>();
+
+		if(doc != null) {
+			for(Annotation bibEntryAnn : gate.Utils.inDocumentOrder(doc.getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.bibEntryAnnType))) {
+				try {
+					String annText = doc.getContent().getContent(bibEntryAnn.getStartNode().getOffset(), bibEntryAnn.getEndNode().getOffset()).toString();
+					if(StringUtils.isNotBlank(annText)) {
+						bibEntryTexts.add(annText);
+					}
+				}
+				catch (Exception e) {
+					/* Do nothing */
+				}
+			}
+		}
+
+		return bibEntryTexts;
 	}
 	
 	/*** FreeCite ***/
@@ -196,8 +383,10 @@ public class BiblioEntryParser extends AbstractLanguageAnalyser implements Proce
 			ref.setFeatures(Factory.newFeatureMap());
 		}
 
-		FeatureMap fm = ref.getFeatures();
+		freeCiteAnalysis(ref.getFeatures(), refTxt);
+	}
 
+	private static void freeCiteAnalysis(FeatureMap fm, String refTxt) {
 		List<String> citations = new ArrayList<String>();
 		citations.add(normalizeText(refTxt));
 
@@ -254,8 +443,10 @@ public class BiblioEntryParser extends AbstractLanguageAnalyser implements Proce
 			ref.setFeatures(Factory.newFeatureMap());
 		}
 
-		FeatureMap fm = ref.getFeatures();
+		crossRefAnalysis(ref.getFeatures(), refTxt);
+	}
 
+	private static void crossRefAnalysis(FeatureMap fm, String refTxt) {
 		// Clean citation text
 		if(refTxt.indexOf("]") != -1 && refTxt.indexOf("]") < 10) {
 			refTxt = refTxt.substring(refTxt.indexOf("]") + 1);
@@ -311,8 +502,20 @@ public class BiblioEntryParser extends AbstractLanguageAnalyser implements Proce
 			ref.setFeatures(Factory.newFeatureMap());
 		}
 
-		FeatureMap fm = ref.getFeatures();
+		bibsonomyAnalysis(ref, ref.getFeatures(), refTxt);
+	}
+
+	/**
+	 * Parse a bibliographic entry by Bibsonomy and store results in the feature map provided (not bound to an annotation)
+	 * 
+	 * @param fm
+	 * @param refTxt
+	 */
+	public static void bibsonomyAnalysis(FeatureMap fm, String refTxt) {
+		bibsonomyAnalysis(null, fm, refTxt);
+	}
 
+	private static void bibsonomyAnalysis(Annotation ref, FeatureMap fm, String refTxt) {
 		String title_FC = (fm.containsKey("f_title") && fm.get("f_title") != null) ? (String) fm.get("f_title") : "";
 		String firstAuthor_FC = (fm.containsKey("f_authorName_1") && fm.get("f_authorName_1") != null) ? (String) fm.get("f_authorName_1") : "";
 		String title_XR = (fm.containsKey("x_title") && fm.get("x_title") != null) ? (String) fm.get("x_title") : "";
@@ -509,7 +712,7 @@ public class BiblioEntryParser extends AbstractLanguageAnalyser implements Proce
 			}
 
 			if(StringUtils.isNotBlank(resultEntry.getEditorList())) {
-				fm.put("b_editorList", resultEntry.getEditor());
+				fm.put("b_editorList", resultEntry.getEditorList());
 			}
 
 			if(!CollectionUtils.isEmpty(resultEntry.getEditor())) {
@@ -641,8 +844,10 @@ public class BiblioEntryParser extends AbstractLanguageAnalyser implements Proce
 			ref.setFeatures(Factory.newFeatureMap());
 		}
 
-		FeatureMap fm = ref.getFeatures();
+		googleScholarAnalysis(ref, ref.getFeatures(), refTxt);
+	}
 
+	private static void googleScholarAnalysis(Annotation ref, FeatureMap fm, String refTxt) {
 		String firstAuthor_BIB = (fm.containsKey("b_authorName_1") && fm.get("b_authorName_1") != null) ? (String) fm.get("b_authorName_1") : "";
 		String firstAuthor_FC = (fm.containsKey("f_authorName_1") && fm.get("f_authorName_1") != null) ? (String) fm.get("f_authorName_1") : "";
 		String firstAuthor = (StringUtils.isNotBlank(firstAuthor_BIB)) ? firstAuthor_BIB : firstAuthor_FC;
@@ -869,61 +1074,315 @@ public class BiblioEntryParser extends AbstractLanguageAnalyser implements Proce
 	}
 
 	/**
-	 * Trigger the invocation of different services and tools to parse bibliographic entries.
-	 * The results are added as GATE annotation features.
+	 * Get the enrichment of a bibliographic entry text: if an enrichment of the same text by the same services is in flight or
+	 * has been prefetched, it is shared, otherwise a new enrichment is started. The caller has to release the enrichment when it
+	 * stops waiting for its results.
+	 * 
+	 * @param entryText
+	 * @param useFreeCite
+	 * @param useCrossRef
+	 * @param useBibsonomy
+	 * @param useGoogleScholar
+	 * @return
 	 */
-	private Consumer<Annotation> parseCitation = (ann) -> {
-		try {
-			String annText = textOfAnnotation.apply(ann);
-			if(StringUtils.isNotBlank(annText)) {
-				logger.info("Start parsing citation text: '" + normalizeText(annText) + "'");
-				
-				Integer freeCiteResult = freeCiteParsing.apply(ann);
-				logger.info("Retrieved " + ((freeCiteResult != null) ? freeCiteResult : "0") + " metadata item(s) from FreeCite.");
-				Integer crossRefResult = crossRefParsing.apply(ann);
-				logger.info("Retrieved " + ((crossRefResult != null) ? crossRefResult : "0") + " metadata item(s) from CrossRef.");
-				Integer bibsonomyResult = bibsonomyParsing.apply(ann);
-				logger.info("Retrieved " + ((bibsonomyResult != null) ? bibsonomyResult : "0") + " metadata item(s) from Bibsonomy.");
-				
-				// Use or not Google Scholar
-				String bibsonomyTitle = GateUtil.getStringFeature(ann, "b_title").orElse(null);
-				Double MLCSmetric = 1d;
-				double titleBibEntryProp = 20d;
-				if(bibsonomyTitle != null && StringUtils.isNotEmpty(annText) ) {
-					MLCSmetric = edu.upf.taln.dri.common.util.Util.computeMetricLCS(bibsonomyTitle, annText);
-					titleBibEntryProp = new Integer(bibsonomyTitle.length()).doubleValue() / new Integer(annText.length()).doubleValue();
+	private static BiblioEntryEnrichment acquireEnrichment(String entryText, boolean useFreeCite, boolean useCrossRef, boolean useBibsonomy, boolean useGoogleScholar) {
+		String key = enrichmentKey(entryText, useFreeCite, useCrossRef, useBibsonomy, useGoogleScholar);
+
+		BiblioEntryEnrichment prefetchedEnrichment = prefetchedEnrichments.get(key);
+		if(prefetchedEnrichment != null && prefetchedEnrichment.acquire()) {
+			return prefetchedEnrichment;
+		}
+
+		while(true) {
+			BiblioEntryEnrichment enrichment = inFlightEnrichments.computeIfAbsent(key, (k) -> new BiblioEntryEnrichment(k, entryText, useFreeCite, useCrossRef, useBibsonomy, useGoogleScholar));
+			if(enrichment.acquire()) {
+				enrichment.start();
+				return enrichment;
+			}
+			// Expired enrichment: replace it
+			inFlightEnrichments.remove(key, enrichment);
+		}
+	}
+
+	private static String enrichmentKey(String entryText, boolean useFreeCite, boolean useCrossRef, boolean useBibsonomy, boolean useGoogleScholar) {
+		return (useFreeCite ? "F" : "-") + (useCrossRef ? "X" : "-") + (useBibsonomy ? "B" : "-") + (useGoogleScholar ? "G" : "-") + " " + normalizeText(entryText);
+	}
+
+	/**
+	 * Parsing of a bibliographic entry text by different services: FreeCite and CrossRef are queried in parallel, then Bibsonomy
+	 * (relying on the titles retrieved by FreeCite and CrossRef) and, if Bibsonomy results are not valid, Google Scholar.<br/>
+	 * Each service stores its results in its own feature map; results are added as GATE annotation features by 
+	 * {@link #storeResults(Annotation) storeResults(Annotation)}, invoked by the thread that executes the parser.<br/>
+	 * The same enrichment is shared by all the parsers waiting for the same entry text: when all of them have released it
+	 * before its completion, the requests not yet sent are skipped.
+	 */
+	private static class BiblioEntryEnrichment {
+
+		private final String key;
+		private final String entryText;
+		private final boolean useFreeCite;
+		private final boolean useCrossRef;
+		private final boolean useBibsonomy;
+		private final boolean useGoogleScholar;
+
+		private volatile CompletableFuture<Void> enrichmentFuture = null;
+
+		private volatile FeatureMap freeCiteFm = null;
+		private volatile FeatureMap crossRefFm = null;
+		private volatile FeatureMap bibsonomyFm = null;
+		private volatile FeatureMap googleScholarFm = null;
+
+		private int acquireCount = 0;
+		private int waitingParsers = 0;
+
+		// When true, requests not yet sent are skipped
+		private volatile boolean expired = false;
+
+		private BiblioEntryEnrichment(String key, String entryText, boolean useFreeCite, boolean useCrossRef, boolean useBibsonomy, boolean useGoogleScholar) {
+			this.key = key;
+			this.entryText = entryText;
+			this.useFreeCite = useFreeCite;
+			this.useCrossRef = useCrossRef;
+			this.useBibsonomy = useBibsonomy;
+			this.useGoogleScholar = useGoogleScholar;
+		}
+
+		/**
+		 * Start sending the requests to the services, if not already started
+		 */
+		private synchronized void start() {
+			if(enrichmentFuture != null) {
+				return;
+			}
+
+			CompletableFuture<FeatureMap> freeCiteFuture = lookupAsync(FREECITE, useFreeCite, null, (fm) -> freeCiteAnalysis(fm, entryText))
+					.whenComplete((fm, exc) -> { freeCiteFm = fm; });
+			CompletableFuture<FeatureMap> crossRefFuture = lookupAsync(CROSSREF, useCrossRef, null, (fm) -> crossRefAnalysis(fm, entryText))
+					.whenComplete((fm, exc) -> { crossRefFm = fm; });
+
+			this.enrichmentFuture = freeCiteFuture.thenCombine(crossRefFuture, (fcFm, xrFm) -> mergeFeatures(fcFm, xrFm))
+					.thenCompose((fcxrFm) -> lookupAsync(BIBSONOMY, useBibsonomy, fcxrFm, (fm) -> bibsonomyAnalysis(null, fm, entryText)))
+					.whenComplete((fm, exc) -> { bibsonomyFm = fm; })
+					.thenCompose((bibFm) -> {
+						FeatureMap allFm = mergeFeatures(freeCiteFm, crossRefFm, bibFm);
+						if(!needsGoogleScholar(allFm, entryText)) {
+							return CompletableFuture.completedFuture(null);
+						}
+						logger.info("Biblio search results invalid -> Google Scholar search...");
+						return lookupAsync(GOOGLE_SCHOLAR, useGoogleScholar, allFm, (fm) -> googleScholarAnalysis(null, fm, entryText));
+					})
+					.thenAccept((fm) -> { googleScholarFm = fm; });
+
+			this.enrichmentFuture.whenComplete((result, exc) -> inFlightEnrichments.remove(key, this));
+		}
+
+		/**
+		 * Register a parser waiting for the results of the enrichment
+		 * 
+		 * @return false if the enrichment is expired and cannot be shared
+		 */
+		private synchronized boolean acquire() {
+			if(expired) {
+				return false;
+			}
+
+			if(acquireCount++ > 0) {
+				MetricsRegistry.getInstance().getCacheMetrics("Bibliographic entry in-flight").recordHit();
+			}
+			else {
+				MetricsRegistry.getInstance().getCacheMetrics("Bibliographic entry in-flight").recordMiss();
+			}
+			waitingParsers++;
+			return true;
+		}
+
+		/**
+		 * Unregister a parser: if no more parsers are waiting and the enrichment is not completed, the requests not yet sent are skipped
+		 */
+		private synchronized void release() {
+			waitingParsers--;
+			if(waitingParsers <= 0 && enrichmentFuture != null && !enrichmentFuture.isDone()) {
+				expired = true;
+				inFlightEnrichments.remove(key, this);
+			}
+		}
+
+		/**
+		 * Execute the analysis of a service by the executor of the service, storing results in a new feature map
+		 * (initialized with the input features, if any)
+		 * 
+		 * @param serviceName
+		 * @param useService
+		 * @param inputFm
+		 * @param analysis
+		 * @return the future of the feature map with the results (null if the service is not used or the entry is expired)
+		 */
+		private CompletableFuture<FeatureMap> lookupAsync(String serviceName, boolean useService, FeatureMap inputFm, Consumer<FeatureMap> analysis) {
+			if(!useService) {
+				logger.info(serviceName + " parsing: SKIPPED");
+				return CompletableFuture.completedFuture(null);
+			}
+
+			return CompletableFuture.supplyAsync(() -> {
+				if(expired) {
+					logger.info(serviceName + " parsing: SKIPPED (deadline expired)");
+					return null;
 				}
-				
-				
-				logger.debug("Biblio entry text: " + annText);
-				logger.debug("Bibsonomy title: " + ((bibsonomyTitle != null) ? bibsonomyTitle : "NONE"));
-				logger.debug("MLCSmetric: " + MLCSmetric + " - Prop: " + titleBibEntryProp);
-				if(StringUtils.isEmpty(bibsonomyTitle) && 
-					( 	(MLCSmetric > 0.75d && titleBibEntryProp >= 0 && titleBibEntryProp < 4) || 
-						(MLCSmetric > 0.8d && titleBibEntryProp >= 4 && titleBibEntryProp < 10) || 
-						(MLCSmetric > 0.85d && titleBibEntryProp >= 10 && titleBibEntryProp < 15) || 
-						(MLCSmetric > 0.95d && titleBibEntryProp >= 15 && titleBibEntryProp < 30) )) {
-					logger.info("Biblio search results invalid -> Google Scholar search...");
-					Integer googleScholarResult = googleScholarParsingTitleAnn.apply(ann);
-					logger.info("Retrieved " + ((googleScholarResult != null) ? googleScholarResult : "0") + " metadata item(s) from Google Scholar.");
+
+				logger.info(serviceName + " parsing: '" + normalizeText(entryText) + "'");
+				FeatureMap fm = Factory.newFeatureMap();
+				if(inputFm != null) {
+					fm.putAll(inputFm);
 				}
-				
-				logger.debug("Parsed: " + GateUtil.getAnnotationText(ann, this.document).orElse("NONE"));
-				for(Entry<Object, Object> feat : ann.getFeatures().entrySet()) {
-					if(feat != null && feat.getKey() != null && feat.getValue() != null) {
-						logger.debug("       > " + feat.getKey() + " --> " + feat.getValue());
-					}
+
+				try {
+					analysis.accept(fm);
+				}
+				catch (Exception e) {
+					Util.notifyException(serviceName + " parsing", e, logger);
 				}
+				return fm;
+			}, getServiceExecutor(serviceName));
+		}
+
+		/**
+		 * Add the results retrieved so far as features of the bibliographic entry annotation, always in the same service order
+		 * 
+		 * @param ann
+		 */
+		private void storeResults(Annotation ann) {
+			if(ann.getFeatures() == null) {
+				ann.setFeatures(Factory.newFeatureMap());
 			}
-			else {
-				logger.debug("Skipped bibliographic entry!");
+
+			FeatureMap annFm = ann.getFeatures();
+			logger.info("Retrieved " + copyFeatures(freeCiteFm, annFm, "f_") + " metadata item(s) from FreeCite.");
+			logger.info("Retrieved " + copyFeatures(crossRefFm, annFm, "x_") + " metadata item(s) from CrossRef.");
+			logger.info("Retrieved " + copyFeatures(bibsonomyFm, annFm, "b_") + " metadata item(s) from Bibsonomy.");
+			if(googleScholarFm != null) {
+				logger.info("Retrieved " + copyFeatures(googleScholarFm, annFm, "goos_") + " metadata item(s) from Google Scholar.");
+			}
+
+			logger.debug("Parsed: " + entryText);
+			for(Entry<Object, Object> feat : annFm.entrySet()) {
+				if(feat != null && feat.getKey() != null && feat.getValue() != null) {
+					logger.debug("       > " + feat.getKey() + " --> " + feat.getValue());
+				}
 			}
 		}
-		catch (Exception e) {
-			Util.notifyException("Global bibliographic entry parsing", e, logger);
+	}
+
+	/**
+	 * Check if Google Scholar has to be queried since no valid result has been retrieved from Bibsonomy
+	 * 
+	 * @param fm
+	 * @param annText
+	 * @return
+	 */
+	private static boolean needsGoogleScholar(FeatureMap fm, String annText) {
+		String bibsonomyTitle = (fm != null && fm.get("b_title") instanceof String) ? (String) fm.get("b_title") : null;
+		Double MLCSmetric = 1d;
+		double titleBibEntryProp = 20d;
+		if(bibsonomyTitle != null && StringUtils.isNotEmpty(annText) ) {
+			MLCSmetric = edu.upf.taln.dri.common.util.Util.computeMetricLCS(bibsonomyTitle, annText);
+			titleBibEntryProp = new Integer(bibsonomyTitle.length()).doubleValue() / new Integer(annText.length()).doubleValue();
 		}
-	};
-	
+
+		logger.debug("Biblio entry text: " + annText);
+		logger.debug("Bibsonomy title: " + ((bibsonomyTitle != null) ? bibsonomyTitle : "NONE"));
+		logger.debug("MLCSmetric: " + MLCSmetric + " - Prop: " + titleBibEntryProp);
+		return StringUtils.isEmpty(bibsonomyTitle) && 
+				( 	(MLCSmetric > 0.75d && titleBibEntryProp >= 0 && titleBibEntryProp < 4) || 
+					(MLCSmetric > 0.8d && titleBibEntryProp >= 4 && titleBibEntryProp < 10) || 
+					(MLCSmetric > 0.85d && titleBibEntryProp >= 10 && titleBibEntryProp < 15) || 
+					(MLCSmetric > 0.95d && titleBibEntryProp >= 15 && titleBibEntryProp < 30) );
+	}
+
+	private static FeatureMap mergeFeatures(FeatureMap... featureMaps) {
+		FeatureMap mergedFm = Factory.newFeatureMap();
+		for(FeatureMap fm : featureMaps) {
+			if(fm != null) {
+				mergedFm.putAll(fm);
+			}
+		}
+		return mergedFm;
+	}
+
+	/*
+	 * Copy the features with name starting with the prefix, returning the number of non-blank features copied
+	 */
+	private static Integer copyFeatures(FeatureMap sourceFm, FeatureMap targetFm, String prefix) {
+		Integer featuresAdded = 0;
+
+		if(sourceFm != null) {
+			for(Map.Entry<Object, Object> featureEntry : sourceFm.entrySet()) {
+				if(featureEntry.getKey() instanceof String && ((String) featureEntry.getKey()).startsWith(prefix)) {
+					targetFm.put(featureEntry.getKey(), featureEntry.getValue());
+					if(featureEntry.getValue() instanceof Integer || 
+							(featureEntry.getValue() instanceof String && !((String) featureEntry.getValue()).trim().equals(""))) {
+						featuresAdded++;
+					}
+				}
+			}
+		}
+
+		return featuresAdded;
+	}
+
+	/**
+	 * Get the executor of the requests to a service: its number of threads is the maximum number of concurrent requests to the service,
+	 * updated if the corresponding static parameter has been changed
+	 * 
+	 * @param serviceName
+	 * @return
+	 */
+	private static ExecutorService getServiceExecutor(String serviceName) {
+		int maxConcurrency = 1;
+		switch(serviceName) {
+		case FREECITE:
+			maxConcurrency = maxConcurrentFreeCite;
+			break;
+		case CROSSREF:
+			maxConcurrency = maxConcurrentCrossRef;
+			break;
+		case BIBSONOMY:
+			maxConcurrency = maxConcurrentBibsonomy;
+			break;
+		case GOOGLE_SCHOLAR:
+			maxConcurrency = maxConcurrentGoogleScholar;
+			break;
+		}
+		final int poolSize = (maxConcurrency > 0) ? maxConcurrency : 1;
+
+		ThreadPoolExecutor serviceExecutor = serviceExecutors.computeIfAbsent(serviceName, (name) -> {
+			AtomicInteger threadCounter = new AtomicInteger(0);
+			ThreadPoolExecutor newServiceExecutor = new ThreadPoolExecutor(poolSize, poolSize, 60l, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), (runnable) -> {
+				Thread serviceThread = new Thread(runnable, "DRI-biblio-" + name.replace(" ", "") + "-" + threadCounter.incrementAndGet());
+				serviceThread.setDaemon(true);
+				return serviceThread;
+			});
+			newServiceExecutor.allowCoreThreadTimeOut(true);
+			return newServiceExecutor;
+		});
+
+		synchronized(serviceExecutor) {
+			if(serviceExecutor.getMaximumPoolSize() != poolSize) {
+				// The maximum pool size can never be lower than the core pool size
+				if(poolSize > serviceExecutor.getMaximumPoolSize()) {
+					serviceExecutor.setMaximumPoolSize(poolSize);
+					serviceExecutor.setCorePoolSize(poolSize);
+				}
+				else {
+					serviceExecutor.setCorePoolSize(poolSize);
+					serviceExecutor.setMaximumPoolSize(poolSize);
+				}
+				logger.info("Maximum number of concurrent requests to " + serviceName + " set to " + poolSize + ".");
+			}
+		}
+
+		return serviceExecutor;
+	}
+
 	/*
 	 * Count number of annotation features with name starting with string that have values that are not blank String and not null Integer
 	 */
@@ -63,17 +63,17 @@ public class CorefChainBuilder extends AbstractLanguageAnalyser implements Proce
 	private static final long serialVersionUID = 1L;
 	private boolean annotationReset = false;
 
-	private static Integer ruleId = 1;
-	private static Map<SieveTypeEnum, Integer> matchBySieveType = new HashMap<SieveTypeEnum, Integer>();
+	private Integer ruleId = 1;
+	private Map<SieveTypeEnum, Integer> matchBySieveType = new HashMap<SieveTypeEnum, Integer>();
 
 	public List<String> corefChainCreationSteps;
 
 	// Input and output annotation
 	private String outputCorefAS = "Coreference";
 
-	// Internal variables to support the creation of coreference chains
-	private static List<List<Annotation>> sentenceOrderedCorefMap = new ArrayList<List<Annotation>>();
-	private static Map<Integer, Set<Integer>> corefChainMap = new HashMap<Integer, Set<Integer>>();
+	// Internal variables to support the creation of coreference chains (per instance, since the instances of the resource pool process different documents at the same time)
+	private List<List<Annotation>> sentenceOrderedCorefMap = new ArrayList<List<Annotation>>();
+	private Map<Integer, Set<Integer>> corefChainMap = new HashMap<Integer, Set<Integer>>();
 	public String getOutputCorefAS() {
 		return outputCorefAS;
 	}
@@ -239,6 +239,8 @@ public class CorefChainBuilder extends AbstractLanguageAnalyser implements Proce
 		long startSieveExection = System.currentTimeMillis();
 
 		// Initialization of variables
+		ruleId = 1;
+		matchBySieveType = new HashMap<SieveTypeEnum, Integer>();
 		sentenceOrderedCorefMap = new ArrayList<List<Annotation>>(); // A list of candidate coreference sentences each one including a list of candidate coreferences
 		corefChainMap = new HashMap<Integer, Set<Integer>>();
 
@@ -800,7 +802,7 @@ public class CorefChainBuilder extends AbstractLanguageAnalyser implements Proce
 
 
 	// Check if to skip the mention (coreMentionAnn) - search pruning
-	public static boolean skipMention(Annotation mentionAnn, SieveTypeEnum sieveType, gate.Document doc) {
+	public boolean skipMention(Annotation mentionAnn, SieveTypeEnum sieveType, gate.Document doc) {
 
 		boolean skip = false;
 
@@ -96,7 +96,7 @@ public abstract class Sieve {
 
 					// logger.debug("sent " + currentSentenceID + " mention id: " + currentMentionAnnId + ") candidate mention: " + GateUtil.getAnnotationText(coreMentionAnn, corefBuilder.getDocument()));
 
-					if(CorefChainBuilder.skipMention(coreMentionAnn, st, corefBuilder.getDocument())) {
+					if(corefBuilder.skipMention(coreMentionAnn, st, corefBuilder.getDocument())) {
 						logger.debug("sent " + corefMentionSentID + " mention id: " + currentMentionAnnId + ") SKIPPED mention " + GateUtil.getAnnotationText(coreMentionAnn, corefBuilder.getDocument()));
 						continue;
 					}
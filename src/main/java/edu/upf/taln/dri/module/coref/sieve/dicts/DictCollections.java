@@ -91,7 +91,7 @@ public class DictCollections {
 	public static final Set<String> inanimateWords = new HashSet<String>();
 	// DICTS VARS - STOP
 
-	public static void initDictionaries() {
+	public static synchronized void initDictionaries() {
 		if(!dictsInitialized) {
 			for(String s: animatePronouns){
 				personPronouns.add(s);
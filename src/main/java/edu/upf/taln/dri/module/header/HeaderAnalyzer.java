@@ -19,6 +19,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
@@ -64,6 +65,9 @@ public class HeaderAnalyzer  extends AbstractLanguageAnalyser implements Process
 	private String useGoogleScholar;
 	private String useBibsonomy;
 
+	// Lock of the original document released while looking up the title (null if the document is not shared among threads)
+	private Lock documentLock = null;
+
 	public String getInputTitleAS() {
 		return inputTitleAS;
 	}
@@ -114,6 +118,16 @@ public class HeaderAnalyzer  extends AbstractLanguageAnalyser implements Process
 		this.useBibsonomy = useBibsonomy;
 	}
 
+	/**
+	 * Set the lock that guards the accesses to the original document: it has to be held by the thread executing the analyzer,
+	 * that releases it while looking up the title by Bibsonomy and Google Scholar, so that other threads can access the document meanwhile.
+	 *
+	 * @param documentLock null if the document is not shared among threads
+	 */
+	public void setDocumentLock(Lock documentLock) {
+		this.documentLock = documentLock;
+	}
+
 	public void execute() throws ExecutionException {
 		this.annotationReset = false;
 		
@@ -132,52 +146,61 @@ public class HeaderAnalyzer  extends AbstractLanguageAnalyser implements Process
 
 			if(titleText.isPresent()) {
 				
-				BiblioEntryParser bep = new BiblioEntryParser();
-				bep.setUseBibsonomy("true");
-				bep.setUseGoogleScholar("true");
-				bep.setDocument(this.originalDocument);
-				
-				// Add Bibsonomy parsing result as title annotation features 
-				try {
-					if(this.useBibsonomy != null && this.useBibsonomy.equalsIgnoreCase("true")) {
-						Integer bibsonomyResult = bep.bibsonomyParsing.apply(titleAnn);
-						logger.info("Retrieved " + ((bibsonomyResult != null) ? bibsonomyResult : "0") + " metadata item(s) from Bibsonomy.");
+				String searchText = GateUtil.getAnnotationText(titleAnn, this.originalDocument).orElse("");
+				if(this.document != null) {
+					List<Annotation> headerSentences = GateUtil.getAnnInDocOrder(this.document, ImporterBase.headerDOC_AnnSet, ImporterBase.headerDOC_Sentence);
+					if(headerSentences != null && headerSentences.size() > 0) {
+						for(int i = headerSentences.size() - 1; i >= 0; i--) {
+							String headerSentenceText = GateUtil.getAnnotationText(headerSentences.get(i), this.document).orElse(null);
+							if(StringUtils.isNotEmpty(headerSentenceText)) {
+								searchText += " " + headerSentenceText.trim();
+							}
+							
+							if(searchText.length() > 250) {
+								break;
+							}
+						}
 					}
 				}
-				catch (Exception e) {
-					Util.notifyException("Parsing header (title) by Bibsonomy", e, logger);
-				}
 
-				// Add Google Scholar parsing result as title annotation features
+				// The title is looked up in a copy of the features of the title annotation, without accessing the original document,
+				// thus its lock is released meanwhile
+				FeatureMap titleFm = Factory.newFeatureMap();
+				titleFm.putAll(titleAnn.getFeatures());
+				if(documentLock != null) {
+					documentLock.unlock();
+				}
 				try {
-					if(this.useGoogleScholar != null && this.useGoogleScholar.equalsIgnoreCase("true")) {
-						String searchText = GateUtil.getAnnotationText(titleAnn, this.originalDocument).orElse("");
-						
-						if(this.document != null) {
-							List<Annotation> headerSentences = GateUtil.getAnnInDocOrder(this.document, ImporterBase.headerDOC_AnnSet, ImporterBase.headerDOC_Sentence);
-							if(headerSentences != null && headerSentences.size() > 0) {
-								for(int i = headerSentences.size() - 1; i >= 0; i--) {
-									String headerSentenceText = GateUtil.getAnnotationText(headerSentences.get(i), this.document).orElse(null);
-									if(StringUtils.isNotEmpty(headerSentenceText)) {
-										searchText += " " + headerSentenceText.trim();
-									}
-									
-									if(searchText.length() > 250) {
-										break;
-									}
-								}
-							}
+					// Add Bibsonomy parsing result as title annotation features 
+					try {
+						if(this.useBibsonomy != null && this.useBibsonomy.equalsIgnoreCase("true")) {
+							logger.info("Bibsonomy parsing: '" + titleText.get() + "'");
+							BiblioEntryParser.bibsonomyAnalysis(titleFm, titleText.get());
+							logger.info("Retrieved " + countFeatsStartingWith(titleFm, "b_") + " metadata item(s) from Bibsonomy.");
 						}
-						
-						GoogleScholarResult result = BiblioEntryParser.googleScholarExpansion(null, searchText, "");
-						BiblioEntryParser.populateFmGoogleScholar(titleAnn.getFeatures(), result);
-						Integer googleScholarResult = bep.bibsonomyParsing.apply(titleAnn);
-						logger.info("Retrieved " + ((googleScholarResult != null) ? googleScholarResult : "0") + " metadata item(s) from Google Scholar.");
+					}
+					catch (Exception e) {
+						Util.notifyException("Parsing header (title) by Bibsonomy", e, logger);
+					}
+
+					// Add Google Scholar parsing result as title annotation features
+					try {
+						if(this.useGoogleScholar != null && this.useGoogleScholar.equalsIgnoreCase("true")) {
+							GoogleScholarResult result = BiblioEntryParser.googleScholarExpansion(null, searchText, "");
+							BiblioEntryParser.populateFmGoogleScholar(titleFm, result);
+							BiblioEntryParser.bibsonomyAnalysis(titleFm, titleText.get());
+							logger.info("Retrieved " + countFeatsStartingWith(titleFm, "b_") + " metadata item(s) from Google Scholar.");
+						}
+					}
+					catch (Exception e) {
+						Util.notifyException("Parsing header (title expanded) by Google Scholar", e, logger);
+					}
+				} finally {
+					if(documentLock != null) {
+						documentLock.lock();
 					}
 				}
-				catch (Exception e) {
-					Util.notifyException("Parsing header (title expanded) by Google Scholar", e, logger);
-				}
+				titleAnn.getFeatures().putAll(titleFm);
 
 				// Mining header sentences - annotate header document
 				parseHeaderDoc(this.document, this.originalDocument, titleAnn);
@@ -231,6 +254,16 @@ public class HeaderAnalyzer  extends AbstractLanguageAnalyser implements Process
 	}
 
 
+	private static int countFeatsStartingWith(FeatureMap fm, String startWithStr) {
+		int count = 0;
+		for(Object key : fm.keySet()) {
+			if(key != null && key.toString().startsWith(startWithStr)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
 	/**
 	 * Parse the header of a document
 	 * 
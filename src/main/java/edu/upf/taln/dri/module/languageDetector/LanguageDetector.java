@@ -58,7 +58,7 @@ public class LanguageDetector extends AbstractLanguageAnalyser implements Proces
 	private static final long serialVersionUID = 1L;
 	private boolean annotationReset = false;
 
-	private static com.optimaize.langdetect.LanguageDetector languageDetect = null;
+	private static volatile com.optimaize.langdetect.LanguageDetector languageDetect = null;
 
 	// Input and output annotation
 	private String inputDetectionASname;
@@ -122,17 +122,24 @@ public class LanguageDetector extends AbstractLanguageAnalyser implements Proces
 
 	@Override
 	public Resource init() {
-		try {
-			//load all languages:
-			List<LanguageProfile> languageProfiles = new LanguageProfileReader().readAllBuiltIn();
-
-			//build language detector:
-			languageDetect = LanguageDetectorBuilder.create(NgramExtractors.standard())
-					.withProfiles(languageProfiles)
-					.build();
-		} catch (Exception e) {
-			e.printStackTrace();
-			logger.error("Exception while loading language detector - " + e.getMessage());
+		// The language detector is shared by all the instances of the resource pool and built once
+		synchronized(LanguageDetector.class) {
+			if(languageDetect != null) {
+				return this;
+			}
+
+			try {
+				//load all languages:
+				List<LanguageProfile> languageProfiles = new LanguageProfileReader().readAllBuiltIn();
+
+				//build language detector:
+				languageDetect = LanguageDetectorBuilder.create(NgramExtractors.standard())
+						.withProfiles(languageProfiles)
+						.build();
+			} catch (Exception e) {
+				e.printStackTrace();
+				logger.error("Exception while loading language detector - " + e.getMessage());
+			}
 		}
 		return this;
 	}
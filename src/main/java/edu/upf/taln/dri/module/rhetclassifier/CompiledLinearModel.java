@@ -0,0 +1,628 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ * 
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ * 
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.module.rhetclassifier;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringTokenizer;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import weka.classifiers.Classifier;
+import weka.core.Attribute;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Range;
+import weka.core.Utils;
+import weka.core.stemmers.NullStemmer;
+import weka.core.tokenizers.WordTokenizer;
+import weka.filters.Filter;
+import weka.filters.unsupervised.attribute.Remove;
+import weka.filters.unsupervised.attribute.StringToNominal;
+import weka.filters.unsupervised.attribute.StringToWordVector;
+
+/**
+ * Compiled inference of a Weka LibLINEAR model: the weight vectors of the LIBLINEAR model and the values that replace missing
+ * attributes are extracted once, when the model is loaded, and the decision function is computed directly on the instances 
+ * generated from the features of the sentences, before any filter is applied.<br/>
+ * The filter chain of the classifier (Remove, StringToWordVector and StringToNominal filters) is compiled to a sparse mapping
+ * of the attributes of the instances to the attributes of the model, computed once for each header of the instances:<br/>
+ * - numeric and nominal attributes are mapped by name (trimmed) and type, as done by InputMappedClassifier;<br/>
+ * - each string attribute converted to a word vector is split by the delimiters of its WordTokenizer and each word
+ * (with the prefix of the filter) is looked up among the attributes of the model and set to 1 (binary word presence);<br/>
+ * - each string attribute converted to nominal is mapped by value to the nominal attribute of the model.<br/>
+ * Missing attributes are replaced by the means (modes) of the training data, as done by the ReplaceMissingValues filter of LibLINEAR: 
+ * the contribution of all the attributes set to their means is precomputed, thus only the attributes of an instance with 
+ * a value are considered.<br/>
+ * The Weka LibLINEAR classifier has no public accessors for the LIBLINEAR model and for its ReplaceMissingValues filter: 
+ * the fields m_Model, m_ReplaceMissingValues (m_ModesAndMeans), m_Normalize and m_NominalToBinary are read by reflection.
+ * If they are not found (other Weka version) or the filter chain contains other filters or options, the model is not compiled 
+ * and the sentences are classified by Weka.
+ * 
+ *
+ */
+public class CompiledLinearModel {
+
+	private static Logger logger = Logger.getLogger(CompiledLinearModel.class);
+
+	// Upper bound of the number of word attributes generated by a StringToWordVector filter, to check that the attribute 
+	// ranges of the filters that follow it select only attributes of the instances, not words
+	private static final int MAX_WORD_ATTRIBUTES = 65536;
+
+	private final Instances modelHeader;
+	private final int[] labels;
+	private final boolean probabilityEstimates;
+
+	// Weights of each decision function by model attribute index and decision value when all the attributes are missing
+	private final double[][] weights;
+	private final double[] missingDecValues;
+	private final double[] missingValues;
+
+	// Steps of the compiled filter chain and model attribute index of each numeric attribute of the model, by name (trimmed)
+	private final List<FilterStep> filterSteps;
+	private final Map<String, Integer> numericAttIndexes;
+
+	private volatile AttributeMapping lastMapping = null;
+
+	private CompiledLinearModel(Instances modelHeader, int[] labels, boolean probabilityEstimates, double[][] weights, double[] missingDecValues, double[] missingValues, List<FilterStep> filterSteps) {
+		this.modelHeader = modelHeader;
+		this.labels = labels;
+		this.probabilityEstimates = probabilityEstimates;
+		this.weights = weights;
+		this.missingDecValues = missingDecValues;
+		this.missingValues = missingValues;
+		this.filterSteps = filterSteps;
+
+		Map<String, Integer> numericAttIndexesAppo = new HashMap<String, Integer>();
+		for(int modelAttIndex = modelHeader.numAttributes() - 1; modelAttIndex >= 0; modelAttIndex--) {
+			if(modelAttIndex != modelHeader.classIndex() && modelHeader.attribute(modelAttIndex).isNumeric()) {
+				numericAttIndexesAppo.put(modelHeader.attribute(modelAttIndex).name().trim(), modelAttIndex);
+			}
+		}
+		this.numericAttIndexes = numericAttIndexesAppo;
+	}
+
+	/**
+	 * Compile a Weka LibLINEAR classifier together with the filter chain applied to the instances before classification
+	 * 
+	 * @param classifier the LibLINEAR classifier
+	 * @param modelHeader the header of the training data of the classifier (class attribute set)
+	 * @param filterChain the filters applied to the instances, in order
+	 * @return null if the classifier or the filter chain can't be compiled
+	 */
+	public static CompiledLinearModel compile(Classifier classifier, Instances modelHeader, List<Filter> filterChain) {
+		if(classifier == null || modelHeader == null || modelHeader.classIndex() < 0 || filterChain == null) {
+			return null;
+		}
+		if(!classifier.getClass().getName().equals("weka.classifiers.functions.LibLINEAR")) {
+			logger.info("Classifier " + classifier.getClass().getName() + " not compiled: only LibLINEAR classifiers are supported.");
+			return null;
+		}
+
+		try {
+			List<FilterStep> filterSteps = compileFilterChain(filterChain);
+			if(filterSteps == null) {
+				return null;
+			}
+
+			// Nominal to binary conversion and normalization are not supported
+			Object normalize = getFieldValue(classifier, "m_Normalize");
+			if(normalize instanceof Boolean && (Boolean) normalize) {
+				logger.info("LibLINEAR classifier not compiled: normalization of attributes not supported.");
+				return null;
+			}
+			if(getFieldValue(classifier, "m_NominalToBinary") != null) {
+				logger.info("LibLINEAR classifier not compiled: nominal to binary conversion not supported.");
+				return null;
+			}
+
+			Object model = getFieldValue(classifier, "m_Model");
+			Object replaceMissingValues = getFieldValue(classifier, "m_ReplaceMissingValues");
+			Object probability = invoke(classifier, "getProbabilityEstimates");
+			if(model == null || replaceMissingValues == null) {
+				logger.info("LibLINEAR classifier not compiled: model not built.");
+				return null;
+			}
+
+			double[] modesAndMeans = (double[]) getFieldValue(replaceMissingValues, "m_ModesAndMeans");
+			double[] featureWeights = (double[]) invoke(model, "getFeatureWeights");
+			double bias = ((Number) invoke(model, "getBias")).doubleValue();
+			int nrFeature = ((Number) invoke(model, "getNrFeature")).intValue();
+			int[] labels = (int[]) invoke(model, "getLabels");
+
+			int numAttributes = modelHeader.numAttributes();
+			int nrRows = nrFeature + ((bias >= 0d) ? 1 : 0);
+			if(modesAndMeans == null || modesAndMeans.length != numAttributes || nrRows == 0 || featureWeights.length % nrRows != 0 || nrFeature > numAttributes) {
+				logger.info("LibLINEAR classifier not compiled: model does not match the header of the training data.");
+				return null;
+			}
+			int nrW = featureWeights.length / nrRows;
+
+			// LIBLINEAR weights are stored by feature (feature index = attribute index + 1) and then by decision function
+			double[][] weights = new double[nrW][numAttributes];
+			double[] missingDecValues = new double[nrW];
+			for(int k = 0; k < nrW; k++) {
+				for(int attIndex = 0; attIndex < nrFeature; attIndex++) {
+					if(attIndex != modelHeader.classIndex()) {
+						weights[k][attIndex] = featureWeights[attIndex * nrW + k];
+						missingDecValues[k] += weights[k][attIndex] * modesAndMeans[attIndex];
+					}
+				}
+				if(bias >= 0d) {
+					missingDecValues[k] += featureWeights[nrFeature * nrW + k] * bias;
+				}
+			}
+
+			logger.info("Compiled LibLINEAR classifier: " + labels.length + " classes, " + nrW + " decision functions, " + nrFeature + " features, " + filterSteps.size() + " filters.");
+			return new CompiledLinearModel(modelHeader, labels, (probability instanceof Boolean && (Boolean) probability), weights, missingDecValues, modesAndMeans, filterSteps);
+		} catch (Exception e) {
+			logger.info("LibLINEAR classifier not compiled: " + e.getClass().getName() + " - " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Compute the class distribution of an instance (not filtered), as the LibLINEAR classifier would return 
+	 * once the instance is filtered alone and mapped to the model header
+	 * 
+	 * @param inst
+	 * @return null if the attributes of the instance can't be mapped to the attributes of the model
+	 */
+	public double[] distributionForInstance(Instance inst) {
+		AttributeMapping mapping = getMapping(inst.dataset());
+		if(mapping == null) {
+			return null;
+		}
+
+		double[] decValues = missingDecValues.clone();
+
+		// Numeric and nominal attributes
+		for(int i = 0; i < mapping.instanceAttIndexes.length; i++) {
+			double value = inst.value(mapping.instanceAttIndexes[i]);
+			if(Utils.isMissingValue(value)) {
+				continue;
+			}
+
+			if(mapping.nominalValueMappings[i] != null) {
+				int valueIndex = (int) value;
+				if(valueIndex < 0 || valueIndex >= mapping.nominalValueMappings[i].length || mapping.nominalValueMappings[i][valueIndex] < 0) {
+					continue; // Value not present in the model: missing
+				}
+				value = mapping.nominalValueMappings[i][valueIndex];
+			}
+
+			addValue(decValues, mapping.modelAttIndexes[i], value);
+		}
+
+		// String attributes converted to nominal
+		for(int i = 0; i < mapping.nominalAttIndexes.length; i++) {
+			if(inst.isMissing(mapping.nominalAttIndexes[i])) {
+				continue;
+			}
+
+			int modelAttIndex = mapping.nominalModelAttIndexes[i];
+			int valueIndex = modelHeader.attribute(modelAttIndex).indexOfValue(inst.stringValue(mapping.nominalAttIndexes[i]).trim());
+			if(valueIndex >= 0) {
+				addValue(decValues, modelAttIndex, valueIndex);
+			}
+		}
+
+		// String attributes converted to word vectors: each word of the model that occurs in the string is set to 1
+		Set<Integer> presentWords = new HashSet<Integer>();
+		for(int i = 0; i < mapping.wordAttIndexes.length; i++) {
+			if(inst.isMissing(mapping.wordAttIndexes[i])) {
+				continue;
+			}
+
+			StringTokenizer tokenizer = new StringTokenizer(inst.stringValue(mapping.wordAttIndexes[i]), mapping.wordDelimiters[i]);
+			while(tokenizer.hasMoreTokens()) {
+				Integer modelAttIndex = numericAttIndexes.get((mapping.wordPrefixes[i] + tokenizer.nextToken()).trim());
+				if(modelAttIndex != null && !mapping.modelAttMapped[modelAttIndex] && presentWords.add(modelAttIndex)) {
+					addValue(decValues, modelAttIndex, 1d);
+				}
+			}
+		}
+
+		double[] distribution = new double[modelHeader.classAttribute().numValues()];
+		if(probabilityEstimates) {
+			// Logistic regression probabilities, as computed by LIBLINEAR
+			double[] probabilities = new double[labels.length];
+			for(int k = 0; k < decValues.length; k++) {
+				probabilities[k] = 1d / (1d + Math.exp(-decValues[k]));
+			}
+			if(labels.length == 2) {
+				probabilities[1] = 1d - probabilities[0];
+			}
+			else {
+				double sum = 0d;
+				for(int k = 0; k < labels.length; k++) {
+					sum += probabilities[k];
+				}
+				for(int k = 0; k < labels.length; k++) {
+					probabilities[k] = probabilities[k] / sum;
+				}
+			}
+
+			for(int k = 0; k < labels.length; k++) {
+				distribution[labels[k]] = probabilities[k];
+			}
+		}
+		else {
+			int predicted = 0;
+			if(decValues.length == 1) {
+				predicted = (decValues[0] > 0d) ? 0 : 1;
+			}
+			else {
+				for(int k = 1; k < decValues.length; k++) {
+					if(decValues[k] > decValues[predicted]) {
+						predicted = k;
+					}
+				}
+			}
+			distribution[labels[predicted]] = 1d;
+		}
+
+		return distribution;
+	}
+
+	private void addValue(double[] decValues, int modelAttIndex, double value) {
+		double delta = value - missingValues[modelAttIndex];
+		if(delta != 0d) {
+			for(int k = 0; k < decValues.length; k++) {
+				decValues[k] += weights[k][modelAttIndex] * delta;
+			}
+		}
+	}
+
+	/**
+	 * Check if two class distributions predict the same class with the same probabilities (tolerance 1e-6)
+	 * 
+	 * @param distribution
+	 * @param otherDistribution
+	 * @return
+	 */
+	public static boolean sameDistribution(double[] distribution, double[] otherDistribution) {
+		if(distribution == null || otherDistribution == null || distribution.length != otherDistribution.length || classify(distribution) != classify(otherDistribution)) {
+			return false;
+		}
+		for(int i = 0; i < distribution.length; i++) {
+			if(Math.abs(distribution[i] - otherDistribution[i]) >= 1e-6d) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Index of the class with the highest probability (the first one if more classes have the same probability)
+	 * 
+	 * @param distribution
+	 * @return
+	 */
+	public static double classify(double[] distribution) {
+		int maxIndex = 0;
+		for(int i = 1; i < distribution.length; i++) {
+			if(distribution[i] > distribution[maxIndex]) {
+				maxIndex = i;
+			}
+		}
+		return maxIndex;
+	}
+
+	private AttributeMapping getMapping(Instances instanceHeader) {
+		AttributeMapping mapping = lastMapping;
+		if(mapping == null || mapping.instanceHeader != instanceHeader) {
+			mapping = AttributeMapping.create(instanceHeader, modelHeader, filterSteps);
+			if(mapping != null) {
+				lastMapping = mapping;
+			}
+		}
+		return mapping;
+	}
+
+	/**
+	 * Compile the filter chain of the classifier: only Remove filters, StringToWordVector filters that output the binary 
+	 * presence of the words split by a WordTokenizer (no lower case, stemming, stopwords, transformations or normalization) 
+	 * and StringToNominal filters are supported
+	 * 
+	 * @param filterChain
+	 * @return null if the filter chain can't be compiled
+	 * @throws Exception
+	 */
+	private static List<FilterStep> compileFilterChain(List<Filter> filterChain) throws Exception {
+		List<FilterStep> filterSteps = new ArrayList<FilterStep>();
+
+		for(Filter filter : filterChain) {
+			if(filter instanceof Remove) {
+				Remove remove = (Remove) filter;
+				filterSteps.add(new FilterStep(FilterStepType.REMOVE, remove.getAttributeIndices(), remove.getInvertSelection(), null, null));
+			}
+			else if(filter instanceof StringToWordVector) {
+				StringToWordVector stringToWordVector = (StringToWordVector) filter;
+				if(stringToWordVector.getOutputWordCounts() || stringToWordVector.getLowerCaseTokens() || 
+						stringToWordVector.getTFTransform() || stringToWordVector.getIDFTransform() ||
+						stringToWordVector.getNormalizeDocLength().getSelectedTag().getID() != StringToWordVector.FILTER_NONE ||
+						stringToWordVector.getMinTermFreq() > 1) {
+					logger.info("LibLINEAR classifier not compiled: StringToWordVector filters are supported only if they output the binary presence of the words.");
+					return null;
+				}
+				if(stringToWordVector.getStemmer() != null && !(stringToWordVector.getStemmer() instanceof NullStemmer)) {
+					logger.info("LibLINEAR classifier not compiled: stemming of the words not supported.");
+					return null;
+				}
+				if(stringToWordVector.getStopwordsHandler() != null && !stringToWordVector.getStopwordsHandler().getClass().getName().equals("weka.core.stopwords.Null")) {
+					logger.info("LibLINEAR classifier not compiled: stopwords not supported.");
+					return null;
+				}
+				if(!(stringToWordVector.getTokenizer() instanceof WordTokenizer)) {
+					logger.info("LibLINEAR classifier not compiled: only the WordTokenizer is supported.");
+					return null;
+				}
+
+				filterSteps.add(new FilterStep(FilterStepType.WORD_VECTOR, stringToWordVector.getAttributeIndices(), stringToWordVector.getInvertSelection(), 
+						StringUtils.defaultString(stringToWordVector.getAttributeNamePrefix()), ((WordTokenizer) stringToWordVector.getTokenizer()).getDelimiters()));
+			}
+			else if(filter instanceof StringToNominal) {
+				StringToNominal stringToNominal = (StringToNominal) filter;
+				filterSteps.add(new FilterStep(FilterStepType.TO_NOMINAL, stringToNominal.getAttributeRange(), Utils.getFlag('V', stringToNominal.getOptions()), null, null));
+			}
+			else {
+				logger.info("LibLINEAR classifier not compiled: filter " + ((filter != null) ? filter.getClass().getName() : "NULL") + " not supported.");
+				return null;
+			}
+		}
+
+		return Collections.unmodifiableList(filterSteps);
+	}
+
+	private enum FilterStepType {
+		REMOVE, WORD_VECTOR, TO_NOMINAL
+	}
+
+	/**
+	 * A filter of the chain: the range of attributes it selects and, for StringToWordVector filters, the prefix of the 
+	 * word attributes and the delimiters of the words
+	 *
+	 */
+	private static class FilterStep {
+
+		private final FilterStepType type;
+		private final String attributeRange;
+		private final boolean invertSelection;
+		private final String wordPrefix;
+		private final String wordDelimiters;
+
+		private FilterStep(FilterStepType type, String attributeRange, boolean invertSelection, String wordPrefix, String wordDelimiters) {
+			this.type = type;
+			this.attributeRange = attributeRange;
+			this.invertSelection = invertSelection;
+			this.wordPrefix = wordPrefix;
+			this.wordDelimiters = wordDelimiters;
+		}
+
+		/**
+		 * Indexes of the attributes selected by the filter, in ascending order
+		 * 
+		 * @param numAttributes number of attributes of the instances, not including the word attributes
+		 * @param hasWordAttributes true if word attributes have been added at the end of the instances
+		 * @return null if the filter selects word attributes
+		 */
+		private int[] select(int numAttributes, boolean hasWordAttributes) {
+			int upper = numAttributes - 1 + ((hasWordAttributes) ? MAX_WORD_ATTRIBUTES : 0);
+			if(upper < 0) {
+				return new int[0];
+			}
+
+			Range range = new Range(attributeRange);
+			range.setInvert(invertSelection);
+			range.setUpper(upper);
+			int[] selection = range.getSelection();
+			for(int attIndex : selection) {
+				if(attIndex >= numAttributes) {
+					return null;
+				}
+			}
+			return selection;
+		}
+	}
+
+	/**
+	 * Mapping of the attributes of a header of the instances (not filtered) to the attributes of the model, obtained by applying 
+	 * the filter chain to the attributes of the header
+	 *
+	 */
+	private static class AttributeMapping {
+
+		private final Instances instanceHeader;
+
+		// Numeric and nominal attributes, mapped by name (trimmed) and type, as done by InputMappedClassifier
+		private final int[] instanceAttIndexes;
+		private final int[] modelAttIndexes;
+		private final int[][] nominalValueMappings;
+
+		// String attributes converted to nominal
+		private final int[] nominalAttIndexes;
+		private final int[] nominalModelAttIndexes;
+
+		// String attributes converted to word vectors
+		private final int[] wordAttIndexes;
+		private final String[] wordPrefixes;
+		private final String[] wordDelimiters;
+
+		// Model attributes mapped to an attribute that precedes the word attributes, thus not mapped to a word
+		private final boolean[] modelAttMapped;
+
+		private AttributeMapping(Instances instanceHeader, int[] instanceAttIndexes, int[] modelAttIndexes, int[][] nominalValueMappings,
+				int[] nominalAttIndexes, int[] nominalModelAttIndexes, int[] wordAttIndexes, String[] wordPrefixes, String[] wordDelimiters, boolean[] modelAttMapped) {
+			this.instanceHeader = instanceHeader;
+			this.instanceAttIndexes = instanceAttIndexes;
+			this.modelAttIndexes = modelAttIndexes;
+			this.nominalValueMappings = nominalValueMappings;
+			this.nominalAttIndexes = nominalAttIndexes;
+			this.nominalModelAttIndexes = nominalModelAttIndexes;
+			this.wordAttIndexes = wordAttIndexes;
+			this.wordPrefixes = wordPrefixes;
+			this.wordDelimiters = wordDelimiters;
+			this.modelAttMapped = modelAttMapped;
+		}
+
+		/**
+		 * Apply the filter chain to the attributes of a header of the instances and map the resulting attributes to the ones of the model
+		 * 
+		 * @param instanceHeader
+		 * @param modelHeader
+		 * @param filterSteps
+		 * @return null if the filter chain can't be applied to the attributes of the header
+		 */
+		private static AttributeMapping create(Instances instanceHeader, Instances modelHeader, List<FilterStep> filterSteps) {
+
+			// Attributes of the instances that are kept by the filters, in order, and string attributes converted to word vectors
+			List<Integer> keptAttIndexes = new ArrayList<Integer>();
+			for(int attIndex = 0; attIndex < instanceHeader.numAttributes(); attIndex++) {
+				keptAttIndexes.add(attIndex);
+			}
+			boolean[] toNominal = new boolean[instanceHeader.numAttributes()];
+			List<Integer> wordAttIndexesAppo = new ArrayList<Integer>();
+			List<String> wordPrefixesAppo = new ArrayList<String>();
+			List<String> wordDelimitersAppo = new ArrayList<String>();
+
+			for(FilterStep filterStep : filterSteps) {
+				int[] selection = filterStep.select(keptAttIndexes.size(), wordAttIndexesAppo.size() > 0);
+				if(selection == null) {
+					logger.debug("Impossible to map the instances to the model: a filter selects word attributes.");
+					return null;
+				}
+
+				switch(filterStep.type) {
+				case WORD_VECTOR:
+					for(int selected : selection) {
+						int attIndex = keptAttIndexes.get(selected);
+						if(!instanceHeader.attribute(attIndex).isString() || toNominal[attIndex]) {
+							logger.debug("Impossible to map the instances to the model: attribute " + instanceHeader.attribute(attIndex).name() + " is not a string.");
+							return null;
+						}
+						wordAttIndexesAppo.add(attIndex);
+						wordPrefixesAppo.add(filterStep.wordPrefix);
+						wordDelimitersAppo.add(filterStep.wordDelimiters);
+					}
+					// The string attributes are removed and the word attributes are added at the end
+					for(int i = selection.length - 1; i >= 0; i--) {
+						keptAttIndexes.remove(selection[i]);
+					}
+					break;
+				case REMOVE:
+					for(int i = selection.length - 1; i >= 0; i--) {
+						keptAttIndexes.remove(selection[i]);
+					}
+					break;
+				case TO_NOMINAL:
+					for(int selected : selection) {
+						int attIndex = keptAttIndexes.get(selected);
+						if(instanceHeader.attribute(attIndex).isString()) {
+							toNominal[attIndex] = true;
+						}
+					}
+					break;
+				}
+			}
+
+			int[] instanceAttIndexesAppo = new int[keptAttIndexes.size()];
+			int[] modelAttIndexesAppo = new int[keptAttIndexes.size()];
+			int[][] nominalValueMappingsAppo = new int[keptAttIndexes.size()][];
+			int mappedCount = 0;
+			int[] nominalAttIndexesAppo = new int[keptAttIndexes.size()];
+			int[] nominalModelAttIndexesAppo = new int[keptAttIndexes.size()];
+			int nominalCount = 0;
+			boolean[] modelAttMapped = new boolean[modelHeader.numAttributes()];
+
+			for(int attIndex : keptAttIndexes) {
+				Attribute instanceAtt = instanceHeader.attribute(attIndex);
+				Attribute modelAtt = getModelAttribute(modelHeader, instanceAtt.name().trim());
+				if(modelAtt == null || modelAtt.index() == modelHeader.classIndex() || attIndex == instanceHeader.classIndex() || modelAttMapped[modelAtt.index()]) {
+					continue;
+				}
+
+				if(toNominal[attIndex]) {
+					if(!modelAtt.isNominal()) {
+						continue;
+					}
+					nominalAttIndexesAppo[nominalCount] = attIndex;
+					nominalModelAttIndexesAppo[nominalCount] = modelAtt.index();
+					nominalCount++;
+				}
+				else if(instanceAtt.type() != modelAtt.type() || !(modelAtt.isNominal() || modelAtt.isNumeric())) {
+					continue;
+				}
+				else {
+					if(modelAtt.isNominal()) {
+						int[] valueMapping = new int[instanceAtt.numValues()];
+						for(int valueIndex = 0; valueIndex < instanceAtt.numValues(); valueIndex++) {
+							valueMapping[valueIndex] = modelAtt.indexOfValue(instanceAtt.value(valueIndex).trim());
+						}
+						nominalValueMappingsAppo[mappedCount] = valueMapping;
+					}
+					instanceAttIndexesAppo[mappedCount] = attIndex;
+					modelAttIndexesAppo[mappedCount] = modelAtt.index();
+					mappedCount++;
+				}
+				modelAttMapped[modelAtt.index()] = true;
+			}
+
+			int[] wordAttIndexes = new int[wordAttIndexesAppo.size()];
+			for(int i = 0; i < wordAttIndexes.length; i++) {
+				wordAttIndexes[i] = wordAttIndexesAppo.get(i);
+			}
+
+			return new AttributeMapping(instanceHeader, Arrays.copyOf(instanceAttIndexesAppo, mappedCount), Arrays.copyOf(modelAttIndexesAppo, mappedCount), 
+					Arrays.copyOf(nominalValueMappingsAppo, mappedCount), Arrays.copyOf(nominalAttIndexesAppo, nominalCount), Arrays.copyOf(nominalModelAttIndexesAppo, nominalCount),
+					wordAttIndexes, wordPrefixesAppo.toArray(new String[wordPrefixesAppo.size()]), wordDelimitersAppo.toArray(new String[wordDelimitersAppo.size()]), modelAttMapped);
+		}
+
+		private static Attribute getModelAttribute(Instances modelHeader, String name) {
+			Attribute modelAtt = modelHeader.attribute(name);
+			for(int i = 0; i < modelHeader.numAttributes() && modelAtt == null; i++) {
+				if(modelHeader.attribute(i).name().trim().equals(name)) {
+					modelAtt = modelHeader.attribute(i);
+				}
+			}
+			return modelAtt;
+		}
+	}
+
+	private static Object getFieldValue(Object obj, String fieldName) throws IllegalAccessException {
+		for(Class<?> cls = obj.getClass(); cls != null; cls = cls.getSuperclass()) {
+			try {
+				Field field = cls.getDeclaredField(fieldName);
+				field.setAccessible(true);
+				return field.get(obj);
+			} catch (NoSuchFieldException e) {
+				/* Look in the superclass */
+			}
+		}
+		return null;
+	}
+
+	private static Object invoke(Object obj, String methodName) throws Exception {
+		Method method = obj.getClass().getMethod(methodName);
+		return method.invoke(obj);
+	}
+
+}
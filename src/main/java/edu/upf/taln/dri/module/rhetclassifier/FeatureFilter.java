@@ -16,7 +16,10 @@ import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 
+import weka.core.DenseInstance;
+import weka.core.Instance;
 import weka.core.Instances;
+import weka.core.Utils;
 import weka.filters.Filter;
 import weka.filters.unsupervised.attribute.Remove;
 import weka.filters.unsupervised.attribute.Reorder;
@@ -25,7 +28,21 @@ import weka.filters.unsupervised.attribute.StringToWordVector;
 
 public class FeatureFilter {
 
+	// Prefixes of the word attributes generated by the StringToWordVector filters of the rhetorical filter chain
+	public static final String[] wordAttrPrefixes_Rhetorical_1 = {"UNI_LEMMA_", "UNI_LEM_VERB_", "UNI_LEM_NOUN_", "BIG_LEM_", "TRIG_LEM_", "SK1_LEM_", "SK2_LEM_", "SK3_LEM_", "DEP_REL_"};
+
 	public static List<Filter> setFilterChain_Rhetorical_1() {
+		return setFilterChain_Rhetorical_1(false);
+	}
+
+	/**
+	 * Rhetorical filter chain
+	 * 
+	 * @param keepAllWords if true, the StringToWordVector filters keep all the words, not only the most frequent ones 
+	 * (to filter a batch of instances, generated from more sentences)
+	 * @return
+	 */
+	public static List<Filter> setFilterChain_Rhetorical_1(boolean keepAllWords) {
 		// SET FILTER CHAIN
 		List<Filter> filterList = new ArrayList<Filter>();
 
@@ -86,6 +103,14 @@ public class FeatureFilter {
 			removeFilter_THIRD.setOptions(weka.core.Utils.splitOptions("-R 40,43,45,48,50,51,53,60,63,95,98,99,102,103,106,107,109,111,113,115"));
 			filterList.add(removeFilter_THIRD);
 
+			if(keepAllWords) {
+				for(Filter filter : filterList) {
+					if(filter instanceof StringToWordVector) {
+						((StringToWordVector) filter).setWordsToKeep(Integer.MAX_VALUE);
+					}
+				}
+			}
+
 		} catch (Exception e) {
 			e.printStackTrace();
 			return null;
@@ -141,5 +166,47 @@ public class FeatureFilter {
 
 	}
 
+	/**
+	 * Set as missing the word attributes (generated by the StringToWordVector filters of the rhetorical filter chain) equal to zero, 
+	 * that are the words that do not occur in the sentence of each instance.<br/>
+	 * When a single sentence is filtered, only the words of the sentence become attributes, thus the other word attributes of the model 
+	 * are missing once the instance is mapped to the model: in a batch of sentences, absent words have to be missing in the same way.
+	 * 
+	 * @param wekaInst
+	 * @return
+	 */
+	public static Instances setAbsentWordsAsMissing_Rhetorical_1(Instances wekaInst) {
+
+		List<Integer> wordAttrIndexes = new ArrayList<Integer>();
+		for(int attIndex = 0; attIndex < wekaInst.numAttributes(); attIndex++) {
+			if(attIndex != wekaInst.classIndex() && wekaInst.attribute(attIndex).isNumeric()) {
+				for(String wordAttrPrefix : wordAttrPrefixes_Rhetorical_1) {
+					if(wekaInst.attribute(attIndex).name().startsWith(wordAttrPrefix)) {
+						wordAttrIndexes.add(attIndex);
+						break;
+					}
+				}
+			}
+		}
+
+		if(wordAttrIndexes.size() == 0) {
+			return wekaInst;
+		}
+
+		Instances retInst = new Instances(wekaInst, wekaInst.numInstances());
+		for(int instIndex = 0; instIndex < wekaInst.numInstances(); instIndex++) {
+			Instance inst = wekaInst.instance(instIndex);
+			double[] values = inst.toDoubleArray();
+			for(Integer wordAttrIndex : wordAttrIndexes) {
+				if(values[wordAttrIndex] == 0d) {
+					values[wordAttrIndex] = Utils.missingValue();
+				}
+			}
+			retInst.add(new DenseInstance(inst.weight(), values));
+		}
+
+		return retInst;
+	}
+
 
 }
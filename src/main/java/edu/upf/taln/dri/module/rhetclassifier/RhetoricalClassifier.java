@@ -20,12 +20,18 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
@@ -39,6 +45,7 @@ import edu.upf.taln.dri.module.DRIModule;
 import edu.upf.taln.dri.module.importer.ImporterBase;
 import edu.upf.taln.dri.module.rhetclassifier.feats.FeatG;
 import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
+import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.LayeredDocFrequencyMap;
 import edu.upf.taln.ml.feat.FeatUtil;
 import edu.upf.taln.ml.feat.FeatureSet;
 import gate.Annotation;
@@ -55,6 +62,8 @@ import gate.creole.metadata.RunTime;
 import weka.classifiers.functions.LibLINEAR;
 import weka.classifiers.misc.InputMappedClassifier;
 import weka.classifiers.misc.SerializedClassifier;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
 import weka.core.Instance;
 import weka.core.Instances;
 import weka.filters.Filter;
@@ -76,9 +85,18 @@ public class RhetoricalClassifier extends AbstractLanguageAnalyser implements Pr
 	private boolean annotationReset = false;
 
 	public static boolean storeClassificationFeatures = false;
-	private static Instances headerModel = null;
-
-	private static Map<String, Double> term_DF_map_DRI = new HashMap<String, Double>();
+	// If true, all the sentences of a document are classified as a single batch of instances
+	public static boolean batchClassification = true;
+	// If true, sentences are classified by the compiled classification model and filter chain (same predictions of the Weka classifier): 
+	// the predictions of the first compiledInferenceCheckCount sentences are checked against the ones of the Weka classifier
+	public static boolean compiledInference = true;
+	public static int compiledInferenceCheckCount = 100;
+	// Number of threads of the fork-join pool that extracts in parallel the features of the sentences of a document classified as a batch
+	// (if lower than 2 or if the classification features are stored in the sentence annotations, the features are extracted sequentially)
+	public static volatile int featureExtractionParallelism = Runtime.getRuntime().availableProcessors();
+	private static volatile Instances headerModel = null;
+
+	private static volatile Map<String, Double> term_DF_map_DRI = Collections.unmodifiableMap(new HashMap<String, Double>());
 
 	// Input and output annotation
 	private String inputSentenceASname = ImporterBase.driAnnSet;
@@ -90,8 +108,20 @@ public class RhetoricalClassifier extends AbstractLanguageAnalyser implements Pr
 	
 	private String sentenceLanguageFilter = null;
 
-	private static FeatureSet<Annotation, DocumentCtx> featSet = null;
-	private static InputMappedClassifier classif;
+	// Lock of the document released while classifying the sentences (null if the document is not shared among threads)
+	private Lock documentLock = null;
+
+	// The classifier, its header and the document frequency map are shared by all the instances of the resource pool:
+	// they are loaded once (by the first instance initialized) and the Weka classifier is used by one thread at a time
+	private static volatile InputMappedClassifier classif;
+	private static String loadedModelKey = null;
+	private static final Object wekaClassifierLock = new Object();
+	private static volatile CompiledLinearModel compiledModel = null;
+	private static final AtomicInteger compiledModelChecks = new AtomicInteger(0);
+	private static final AtomicInteger compiledModelCheckedCount = new AtomicInteger(0);
+	private static double compiledModelMaxDeviation = 0d;
+	private static ForkJoinPool featureExtractionPool = null;
+	private static final int FEATURE_CHUNK_MIN_SIZE = 4;
 
 	public String getInputSentenceASname() {
 		return inputSentenceASname;
@@ -153,66 +183,89 @@ public class RhetoricalClassifier extends AbstractLanguageAnalyser implements Pr
 		this.sentenceLanguageFilter = sentenceLanguageFilter;
 	}
 
+	public Lock getDocumentLock() {
+		return documentLock;
+	}
+
+	/**
+	 * Set the lock that guards the accesses to the document: it has to be held by the thread executing the classifier,
+	 * that releases it while classifying the sentences as a batch, so that other threads can access the document meanwhile.
+	 *
+	 * @param documentLock null if the document is not shared among threads
+	 */
+	public void setDocumentLock(Lock documentLock) {
+		this.documentLock = documentLock;
+	}
+
 	@Override
 	public Resource init() {
 		logger.debug("Instantiating classifier...");
 
-		classif = null;
-
-		/* Load model from file */
-		try {
-			logger.debug("Loading classifier new...");
-			/* OLD CODE
-				SMO cModel = (SMO) weka.core.SerializationHelper.read(new File(this.getClassifierModelURL().toURI()).getAbsolutePath());
-				DataSource source = new DataSource(new File(this.getClassifierStructureURL().toURI()).getAbsolutePath());
-				Instances dataModel = source.getDataSet();
-				dataModel.setClassIndex(dataModel.numAttributes() - 1);
-				imc.setModelHeader(dataModel);
-				imc.setClassifier(cModel);
-			 */
-			
-			boolean modelLoaded = this.loadClassificationModel();
-			
-			if(modelLoaded) {
-				logger.debug("Classifiers loaded.");
+		synchronized(RhetoricalClassifier.class) {
+			/* Load model from file */
+			String modelKey = this.getClassifierModelURL() + "\t" + this.getClassifierStructureURL();
+			if(classif != null && modelKey.equals(loadedModelKey)) {
+				logger.debug("Classifier already loaded.");
 			}
 			else {
-				Util.notifyException("Impossible to load the classifier", new Exception("Error while loading classifier"), logger);
+				try {
+					logger.debug("Loading classifier new...");
+					/* OLD CODE
+						SMO cModel = (SMO) weka.core.SerializationHelper.read(new File(this.getClassifierModelURL().toURI()).getAbsolutePath());
+						DataSource source = new DataSource(new File(this.getClassifierStructureURL().toURI()).getAbsolutePath());
+						Instances dataModel = source.getDataSet();
+						dataModel.setClassIndex(dataModel.numAttributes() - 1);
+						imc.setModelHeader(dataModel);
+						imc.setClassifier(cModel);
+					 */
+
+					boolean modelLoaded = this.loadClassificationModel();
+
+					if(modelLoaded) {
+						loadedModelKey = modelKey;
+						logger.debug("Classifiers loaded.");
+					}
+					else {
+						Util.notifyException("Impossible to load the classifier", new Exception("Error while loading classifier"), logger);
+					}
+
+				} catch (Exception ex) {
+					ex.printStackTrace();
+					logger.error("Exception while loading classifier - " + ex.getMessage());
+					return this;
+				}
 			}
 
-		} catch (Exception ex) {
-			ex.printStackTrace();
-			logger.error("Exception while loading classifier - " + ex.getMessage());
-			return this;
-		}
+			/* Load the document frequency map of the DRI Corpus */
+			if(term_DF_map_DRI.size() == 0) {
+				Map<String, Double> term_DF_map_DRI_load = new HashMap<String, Double>();
+				try {
+					InputStream documentFrequencyMap = RhetoricalClassifier.class.getResourceAsStream("/corpus/DRIcorpusFrequencies.list");
+					BufferedReader documentFrequencyMapReader = new BufferedReader(new InputStreamReader(documentFrequencyMap));
+
+					String documentFrequencyMapLine = documentFrequencyMapReader.readLine();
+					while(documentFrequencyMapLine != null){
+						documentFrequencyMapLine = documentFrequencyMapLine.trim();
+						String[] documentFrequencyMapLineSplit = documentFrequencyMapLine.split("\t");
+						if(documentFrequencyMapLineSplit != null && documentFrequencyMapLineSplit.length == 2) {
+							try {
+								term_DF_map_DRI_load.put(documentFrequencyMapLineSplit[0].trim(), Double.valueOf(documentFrequencyMapLineSplit[1].trim()));
+							}
+							catch (Exception ex) {
+								/* DO NOTHING */
+							}
+						}
 
-		/* Load the document frequency map of the DRI Corpus */
-		try {
-			term_DF_map_DRI = new HashMap<String, Double>();
-			InputStream documentFrequencyMap = RhetoricalClassifier.class.getResourceAsStream("/corpus/DRIcorpusFrequencies.list");
-			BufferedReader documentFrequencyMapReader = new BufferedReader(new InputStreamReader(documentFrequencyMap));
-
-			String documentFrequencyMapLine = documentFrequencyMapReader.readLine();
-			while(documentFrequencyMapLine != null){
-				documentFrequencyMapLine = documentFrequencyMapLine.trim();
-				String[] documentFrequencyMapLineSplit = documentFrequencyMapLine.split("\t");
-				if(documentFrequencyMapLineSplit != null && documentFrequencyMapLineSplit.length == 2) {
-					try {
-						term_DF_map_DRI.put(documentFrequencyMapLineSplit[0].trim(), Double.valueOf(documentFrequencyMapLineSplit[1].trim()));
-					}
-					catch (Exception ex) {
-						/* DO NOTHING */
+						documentFrequencyMapLine = documentFrequencyMapReader.readLine();
 					}
+				} catch (Exception ex) {
+					logger.error("Exception instantiating filters - " + ex.getMessage());
+					return this;
 				}
-
-				documentFrequencyMapLine = documentFrequencyMapReader.readLine();
+				term_DF_map_DRI = Collections.unmodifiableMap(term_DF_map_DRI_load);
 			}
-		} catch (Exception ex) {
-			logger.error("Exception instantiating filters - " + ex.getMessage());
-			return this;
+			logger.debug("DRI doc. frequency map: " + term_DF_map_DRI.size() + " entries.");
 		}
-		term_DF_map_DRI = Collections.unmodifiableMap(term_DF_map_DRI);
-		logger.debug("DRI doc. frequency map: " + term_DF_map_DRI.size() + " entries.");
 
 		return this;
 	}
@@ -237,8 +290,6 @@ public class RhetoricalClassifier extends AbstractLanguageAnalyser implements Pr
 			Map<String, Double> rawTF_map = new HashMap<String, Double>();
 			// 2) maxTFvalue: the maximum term frequency value for the document
 			Double maxTFvalue = 0d;
-			// 3) term_DF_map: in how many documents each term occur? --> KEY: the term / VALUE: the number of documents of the corpus where the term occurs at least once
-			Map<String, Double> term_DF_map = new HashMap<String, Double>();
 
 			AnnotationSet sentenceAnnotations = doc.getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.sentenceAnnType);
 
@@ -348,23 +399,9 @@ public class RhetoricalClassifier extends AbstractLanguageAnalyser implements Pr
 				}
 			}
 
-			// Compute the document frequency map enriching the DRI corpus one
-			for(Entry<String, Double> term_DF_map_DRIentry : term_DF_map_DRI.entrySet()) {
-				term_DF_map.put(new String(term_DF_map_DRIentry.getKey()), new Double(term_DF_map_DRIentry.getValue()));
-			}
-
-			if(rawTF_map != null) {
-				for(Entry<String, Double> rawTF_mapEntry : rawTF_map.entrySet()) {
-					if(rawTF_mapEntry != null && rawTF_mapEntry.getKey() != null && rawTF_mapEntry.getValue() != null) {
-						if(term_DF_map.containsKey(rawTF_mapEntry.getKey())) {
-							term_DF_map.put(rawTF_mapEntry.getKey(), term_DF_map.get(rawTF_mapEntry.getKey()) + 1d);
-						}
-						else {
-							term_DF_map.put(rawTF_mapEntry.getKey(), 1d);
-						}
-					}
-				}
-			}
+			// term_DF_map: in how many documents each term occur? --> KEY: the term / VALUE: the number of documents of the corpus where the term occurs at least once
+			// The document frequency map of the DRI corpus is extended with the terms of the document under analysis, without copying it
+			Map<String, Double> term_DF_map = new LayeredDocFrequencyMap(term_DF_map_DRI, rawTF_map.keySet());
 			// --- Compute TF-IDF of words - END
 
 
@@ -398,203 +435,730 @@ public class RhetoricalClassifier extends AbstractLanguageAnalyser implements Pr
 			}
 			
 			if(!CollectionUtils.isEmpty(sentencesToClassify)) {
-				for(Annotation sentenceToClassify : sentencesToClassify) {
-					if(sentenceToClassify != null) {
-						
-						// Feature schema header
-						// The object is a citing sentence annotaiton and the context is the document the sentence belongs to
-						logger.debug("Instantiating feature schema header...");
-						featSet = FeatG.generateFeatSet();
-
-						boolean correctlyAdded = false;
-						try {correctlyAdded = featSet.addElement(sentenceToClassify, new DocumentCtx(cacheManager.getGateDoc(), "Sentence", 
-								"", "", "", 1d, "", "", "", "", "",
-								rawTF_map,
-								maxTFvalue,
-								term_DF_map));
-						}
-						catch (Exception e) {
-							Util.notifyException("Rhetorical classification of sentence: " + GateUtil.getAnnotationText(sentenceToClassify, doc).orElse("NOT_PRESENT"), e, logger);
+				DocumentCtx docCtx = new DocumentCtx(cacheManager.getGateDoc(), "Sentence", 
+						"", "", "", 1d, "", "", "", "", "",
+						rawTF_map,
+						maxTFvalue,
+						term_DF_map);
+
+				if(!batchClassification || !classifySentenceBatch(sentencesToClassify, docCtx, outputASfeatureNameAppo)) {
+					for(Annotation sentenceToClassify : sentencesToClassify) {
+						if(sentenceToClassify != null) {
+							classifySentence(sentenceToClassify, docCtx, outputASfeatureNameAppo);
 						}
+					}
+				}
+			}
 
-						if(correctlyAdded) {
-							Instances wekaInstPreFilter = null;
-							try {
-								wekaInstPreFilter = FeatUtil.wekaInstanceGeneration(featSet, "relation");
-
-								if(wekaInstPreFilter != null) {
-									
-									// Print attribute values before any filter - START
-									/*
-									for(int attrIndx = 0; attrIndx  < wekaInstPreFilter.instance(0).numAttributes(); attrIndx++) {
-										if(wekaInstPreFilter.instance(0).isMissing(attrIndx)) {
-											System.out.println("ATT: " + attrIndx + " MISSING -> " + wekaInstPreFilter.instance(0).attribute(attrIndx).name() + " *** MISSING ***");
-										}
-										else if(wekaInstPreFilter.instance(0).attribute(attrIndx).isNumeric()) {
-											System.out.println("ATT: " + attrIndx + " NUMERIC -> " + wekaInstPreFilter.instance(0).attribute(attrIndx).name() + " VALUE: " + wekaInstPreFilter.instance(0).value(attrIndx));
-										}
-										else if(wekaInstPreFilter.instance(0).attribute(attrIndx).isNominal()) {
-											System.out.println("ATT: " + attrIndx + " NOMINAL -> " + wekaInstPreFilter.instance(0).attribute(attrIndx).name() + " VALUE: " + wekaInstPreFilter.instance(0).attribute(attrIndx).value( (new Double(wekaInstPreFilter.instance(0).value(attrIndx)).intValue())) );
-										}
-										else if(wekaInstPreFilter.instance(0).attribute(attrIndx).isString()) {
-											System.out.println("ATT: " + attrIndx + " STRING -> " + wekaInstPreFilter.instance(0).attribute(attrIndx).name() + " VALUE: " + wekaInstPreFilter.instance(0).attribute(attrIndx).value( (new Double(wekaInstPreFilter.instance(0).value(attrIndx)).intValue())) );
-										}
-										else {
-											System.out.println("ATT: " + attrIndx + " OTHER -> " + wekaInstPreFilter.instance(0).attribute(attrIndx).name() + " VALUE: " + wekaInstPreFilter.instance(0).value(attrIndx));
-										}
-									}
-									*/
-									// Print attribute values before any filter - START
-									
-									MultiFilter multiFilter = new MultiFilter();
-
-									Filter[] filtersArray = new Filter[FeatureFilter.setFilterChain_Rhetorical_1().size()];
-									filtersArray = FeatureFilter.setFilterChain_Rhetorical_1().toArray(filtersArray);
-									multiFilter.setFilters(filtersArray);
-
-									// Set filter and classifier
-									multiFilter.setInputFormat(wekaInstPreFilter);
-									Instances wekaInst = Filter.useFilter(wekaInstPreFilter, multiFilter);
-
-									// Set the Class_rhetorical attribute as the last one
-									wekaInst = FeatureFilter.setClassAsLastAttr_Rhetorical_1(wekaInst, "Class_rhetorical");
-
-									// Check the position of the Class_rhetorical attribute - START
-									/*
-									int classRhetIndex = -1;
-									for(int attIndex = 0; attIndex < wekaInst.numAttributes(); attIndex++) {
-										System.out.print("ID: " + attIndex + " : " + wekaInst.attribute(attIndex).name() + " - ");
-										if(wekaInst.attribute(attIndex).name().equals("Class_rhetorical")) {
-											classRhetIndex = attIndex;
-										}
-										if(attIndex % 10 == 0) {
-											System.out.print("\n");
-										}
-									}
-									System.out.println("CLASS RHETORICAL INDEX: " + (classRhetIndex + 1) + " over " + wekaInst.numAttributes() + " attributes.");
-									 */
-									// Check the position of the Class_rhetorical attribute - END
+		} catch (InternalProcessingException e1) {
+			Util.notifyException("Executing rhetorical classifier", e1, logger);
+		}
+	}
 
-									// Alert if more than one instance / sentence is present in the dataset
-									if(wekaInst.numInstances() > 1) {
-										logger.error("There is more than one instance / sentence to classify!!!");
-									}
+	/**
+	 * Classify all the sentences of a document as a single batch: the features of the sentences are extracted in parallel 
+	 * (see {@link #extractFeatures(List, DocumentCtx) extractFeatures}) and each instance is classified by the compiled model.<br/>
+	 * If the compiled model is not available, the instances are merged in a single dataset, the filter chain is 
+	 * initialized once and applied to the whole dataset and then each instance is classified by Weka.
+	 * 
+	 * @param sentencesToClassify
+	 * @param docCtx
+	 * @param outputASfeatureNameAppo
+	 * @return false if the dataset of the batch can't be generated or filtered, thus the sentences have to be classified one by one
+	 */
+	private boolean classifySentenceBatch(List<Annotation> sentencesToClassify, DocumentCtx docCtx, String outputASfeatureNameAppo) {
+
+		List<FeatureChunk> featureChunks = null;
+		try {
+			featureChunks = extractFeatures(sentencesToClassify, docCtx);
+		} catch (Exception e) {
+			Util.notifyException("Feature extraction of " + sentencesToClassify.size() + " sentences", e, logger);
+			return false;
+		}
 
-									wekaInst.setClassIndex(wekaInst.numAttributes() - 1);
-
-									// PRINT ATTRIBUTES NAMES AND VALUES BEFORE AND AFTER MAPPING - START
-									/*									
-									for(int attrIndx = 0; attrIndx  < wekaInst.instance(0).numAttributes(); attrIndx++) {
-										if(wekaInst.instance(0).isMissing(attrIndx)) {
-											System.out.println("ATT: " + attrIndx + " MISSING -> " + wekaInst.instance(0).attribute(attrIndx).name() + " *** MISSING ***");
-										}
-										else if(wekaInst.instance(0).attribute(attrIndx).isNumeric()) {
-											System.out.println("ATT: " + attrIndx + " NUMERIC -> " + wekaInst.instance(0).attribute(attrIndx).name() + " VALUE: " + wekaInst.instance(0).value(attrIndx));
-										}
-										else if(wekaInst.instance(0).attribute(attrIndx).isNominal()) {
-											System.out.println("ATT: " + attrIndx + " NOMINAL -> " + wekaInst.instance(0).attribute(attrIndx).name() + " VALUE: " + wekaInst.instance(0).attribute(attrIndx).value( (new Double(wekaInst.instance(0).value(attrIndx)).intValue())) );
-										}
-										else if(wekaInst.instance(0).attribute(attrIndx).isString()) {
-											System.out.println("ATT: " + attrIndx + " STRING -> " + wekaInst.instance(0).attribute(attrIndx).name() + " VALUE: " + wekaInst.instance(0).attribute(attrIndx).value( (new Double(wekaInst.instance(0).value(attrIndx)).intValue())) );
-										}
-										else {
-											System.out.println("ATT: " + attrIndx + " OTHER -> " + wekaInst.instance(0).attribute(attrIndx).name() + " VALUE: " + wekaInst.instance(0).value(attrIndx));
-										}
-									}
-									
-									// Print mapping details
-									classif.setSuppressMappingReport(false);			
-									classif.setDebug(true);
-									Instance mappedInstance = classif.constructMappedInstance(wekaInst.instance(0));
-									classif.setSuppressMappingReport(true);
-									classif.setDebug(false);
-									
-									for(int attrIndx = 0; attrIndx  < mappedInstance.numAttributes(); attrIndx++) {
-										if(wekaInst.instance(0).isMissing(attrIndx)) {
-											System.out.println("MAPPED ATT: " + attrIndx + " MISSING -> " + mappedInstance.attribute(attrIndx).name() + " *** MISSING ***");
-										}
-										else if(mappedInstance.attribute(attrIndx).isNumeric() && !(Double.valueOf(mappedInstance.value(attrIndx)).equals("NaN")) ) {
-											System.out.println("MAPPED ATT: " + attrIndx + " NUMERIC -> " + mappedInstance.attribute(attrIndx).name() + " VALUE: " + mappedInstance.value(attrIndx));
-										}
-										else if(mappedInstance.attribute(attrIndx).isNominal()) {
-											System.out.println("MAPPED ATT: " + attrIndx + " NOMINAL -> " + mappedInstance.attribute(attrIndx).name() + " VALUE: " + mappedInstance.attribute(attrIndx).value( (new Double(mappedInstance.value(attrIndx)).intValue())) );
-										}
-										else if(mappedInstance.attribute(attrIndx).isString()) {
-											System.out.println("MAPPED ATT: " + attrIndx + " STRING -> " + mappedInstance.attribute(attrIndx).name() + " VALUE: " + mappedInstance.attribute(attrIndx).value( (new Double(mappedInstance.value(attrIndx)).intValue())) );
-										}
-										else {
-											System.out.println("ATT: " + attrIndx + " OTHER -> " + wekaInst.instance(0).attribute(attrIndx).name() + " VALUE: " + wekaInst.instance(0).value(attrIndx));
-										}
-									}
-									*/
-									// PRINT ATTRIBUTES NAMES AND VALUES BEFORE AND AFTER MAPPING - END
-
-									// Classify instance
-									Instance inst = wekaInst.instance(0);
-									Double classInst = null;
-									double[] classDistibInst = null;
-									String annotationType = null;
-									
-									/* REDIRECTING STD OUT AND ERR - START */
-									PrintStream out = System.out;
-									PrintStream err = System.err;
-									System.setOut(new PrintStream(new OutputStream() {
-										@Override public void write(int b) throws IOException {}
-									}));
-									System.setErr(new PrintStream(new OutputStream() {
-										@Override public void write(int b) throws IOException {}
-									}));
-									
-									try {
-										/* original code start */
-										classInst = classif.classifyInstance(inst);
-										annotationType = headerModel.attribute(headerModel.numAttributes() -1).value((int) classInst.intValue());
-										logger.debug("\n---\n* Instance classified as: " + annotationType);
-										classDistibInst = classif.distributionForInstance(inst);
-										/* original code end */
-									} finally {
-										System.setOut(out);
-										System.setErr(err);
-									}
-									/* REDIRECTING STD OUT AND ERR - END */
-									
-									FeatureMap fm = Factory.newFeatureMap();
-									Map<String, Double> classProbabilityMap = new HashMap<String, Double>();
-									for(int i = 0; i < classDistibInst.length; i++) {
-										logger.debug("    -> Instance: " + headerModel.attribute(headerModel.numAttributes() -1).value((int) i) + " (" + i + ") --> " + classDistibInst[i]);
-										fm.put(headerModel.attribute(headerModel.numAttributes() -1).value((int) i), classDistibInst[i]);
-										classProbabilityMap.put(headerModel.attribute(headerModel.numAttributes() -1).value((int) i), classDistibInst[i]);
-										// Add to sentence feature set the probability assigned to each class
-										sentenceToClassify.getFeatures().put("PROB_" + headerModel.attribute(headerModel.numAttributes() -1).value((int) i), classDistibInst[i]);
-									}
+		List<Annotation> addedSentences = new ArrayList<Annotation>();
+		List<Instances> chunkInstances = new ArrayList<Instances>();
+		for(FeatureChunk featureChunk : featureChunks) {
+			if(featureChunk.addedSentences.size() == 0) {
+				continue;
+			}
 
-									// CORRECTIONS TO ANNOTAITON - TO IMPROVE CLASSIFIER - START
-									String sentence = GateUtil.getAnnotationText(sentenceToClassify, this.document).orElse(null);
-									if(sentence.toLowerCase().contains("future work") || sentence.toLowerCase().contains("future venue") ||
-											sentence.toLowerCase().contains("future research") ||
-											sentence.toLowerCase().contains("in future") || sentence.toLowerCase().contains("future investigation") ) {
-										annotationType = "DRI_FutureWork";
-									}	
-									// CORRECTIONS TO ANNOTAITON - TO IMPROVE CLASSIFIER - END
-
-									// GENERATE ANNOTATION
-									sentenceToClassify.getFeatures().put(outputASfeatureNameAppo, annotationType);
-								}
-							} catch (Exception e) {
-								e.printStackTrace();
-								Util.notifyException("Rhetorical classification of sentence: " + GateUtil.getAnnotationText(sentenceToClassify, doc).orElse("NOT_PRESENT"), e, logger);
-							}
-						}
-						else {
-							Util.notifyException("Rhetorical classification of sentence: " + GateUtil.getAnnotationText(sentenceToClassify, doc).orElse("NOT_PRESENT"), new Exception("Errors when generating features"), logger);
+			if(featureChunk.instances == null || featureChunk.instances.numInstances() != featureChunk.addedSentences.size()) {
+				logger.warn("Impossible to classify the sentences as a batch: " + ((featureChunk.instances != null) ? featureChunk.instances.numInstances() : 0) + " instances generated from " + featureChunk.addedSentences.size() + " sentences.");
+				return false;
+			}
+
+			addedSentences.addAll(featureChunk.addedSentences);
+			chunkInstances.add(featureChunk.instances);
+		}
+
+		if(addedSentences.size() == 0) {
+			return true;
+		}
+
+		// The instances are filtered and classified without accessing the document, thus its lock is released meanwhile
+		double[][] classDistibInstances = new double[addedSentences.size()][];
+		Exception[] classificationExceptions = new Exception[addedSentences.size()];
+		if(documentLock != null) {
+			documentLock.unlock();
+		}
+		try {
+			logger.debug("Classifying " + addedSentences.size() + " sentences as a batch...");
+			boolean wekaClassification = false;
+			int instIndex = 0;
+			for(Instances chunkInst : chunkInstances) {
+				for(int i = 0; i < chunkInst.numInstances(); i++, instIndex++) {
+					try {
+						classDistibInstances[instIndex] = compiledDistributionForInstance(chunkInst.instance(i));
+						wekaClassification = wekaClassification || classDistibInstances[instIndex] == null;
+					} catch (Exception e) {
+						classificationExceptions[instIndex] = e;
+					}
+				}
+			}
+
+			if(wekaClassification) {
+				Instances wekaInst = null;
+				try {
+					Instances wekaInstPreFilter = mergeInstances(chunkInstances);
+					if(wekaInstPreFilter == null || wekaInstPreFilter.numInstances() != addedSentences.size()) {
+						logger.warn("Impossible to classify the sentences as a batch: the instances generated from " + chunkInstances.size() + " groups of sentences can't be merged.");
+						return false;
+					}
+
+					wekaInst = filterInstances(wekaInstPreFilter, true);
+				} catch (Exception e) {
+					Util.notifyException("Batch rhetorical classification of " + addedSentences.size() + " sentences", e, logger);
+					return false;
+				}
+
+				for(int i = 0; i < addedSentences.size(); i++) {
+					if(classDistibInstances[i] == null && classificationExceptions[i] == null) {
+						try {
+							classDistibInstances[i] = distributionForInstance(wekaInst.instance(i));
+						} catch (Exception e) {
+							classificationExceptions[i] = e;
 						}
 					}
 				}
 			}
+		} finally {
+			if(documentLock != null) {
+				documentLock.lock();
+			}
+		}
 
-		} catch (InternalProcessingException e1) {
-			Util.notifyException("Executing rhetorical classifier", e1, logger);
+		for(int i = 0; i < addedSentences.size(); i++) {
+			if(classificationExceptions[i] != null) {
+				Util.notifyException("Rhetorical classification of sentence: " + GateUtil.getAnnotationText(addedSentences.get(i), document).orElse("NOT_PRESENT"), classificationExceptions[i], logger);
+			}
+			else {
+				annotateSentence(addedSentences.get(i), classDistibInstances[i], outputASfeatureNameAppo);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Extract the features of a list of sentences: the sentences are split in consecutive groups (chunks), each one with its
+	 * own feature set, and the features of the chunks are extracted in parallel by a fork-join pool of {@link #featureExtractionParallelism} threads.<br/>
+	 * The feature sets are instantiated, the features of the first sentence are extracted and the views of all the sentences
+	 * are built by the calling thread (see {@link edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx#prepareParallelAccess(List) 
+	 * DocumentCtx.prepareParallelAccess(List)}), so that the annotation sets and indexes that the GATE document creates lazily
+	 * (not in a thread-safe way) are already there and are only read when the chunks are processed in parallel.
+	 * 
+	 * @param sentencesToClassify
+	 * @param docCtx
+	 * @return the chunks of sentences, in document order
+	 */
+	private List<FeatureChunk> extractFeatures(List<Annotation> sentencesToClassify, DocumentCtx docCtx) {
+
+		List<Annotation> sentences = new ArrayList<Annotation>();
+		for(Annotation sentenceToClassify : sentencesToClassify) {
+			if(sentenceToClassify != null) {
+				sentences.add(sentenceToClassify);
+			}
+		}
+
+		int parallelism = (storeClassificationFeatures) ? 1 : Math.max(featureExtractionParallelism, 1);
+		int chunkSize = Math.max(FEATURE_CHUNK_MIN_SIZE, (sentences.size() + (2 * parallelism) - 1) / (2 * parallelism));
+
+		// Feature schema header
+		// The objects are the sentence annotations and the context is the document the sentences belong to
+		logger.debug("Instantiating feature schema header...");
+		List<FeatureChunk> featureChunks = new ArrayList<FeatureChunk>();
+		for(int i = 0; i == 0 || i < sentences.size(); i += chunkSize) {
+			featureChunks.add(new FeatureChunk(sentences.subList(i, Math.min(i + chunkSize, sentences.size())), FeatG.generateFeatSet()));
+		}
+
+		if(featureChunks.size() == 1) {
+			featureChunks.get(0).extractFeatures(docCtx);
+		}
+		else {
+			featureChunks.get(0).addSentence(docCtx);
+			docCtx.prepareParallelAccess(sentences);
+
+			logger.debug("Extracting the features of " + sentences.size() + " sentences in " + featureChunks.size() + " chunks...");
+			try {
+				getFeatureExtractionPool(parallelism).invoke(new FeatureExtractionTask(featureChunks, 0, featureChunks.size(), docCtx));
+			}
+			catch (RejectedExecutionException e) {
+				// The pool has been shut down since its parallelism has been changed meanwhile: no chunk has been processed
+				logger.debug("Feature extraction pool replaced, extracting the features of the sentences sequentially");
+				for(FeatureChunk featureChunk : featureChunks) {
+					featureChunk.extractFeatures(docCtx);
+				}
+			}
+		}
+
+		return featureChunks;
+	}
+
+	/**
+	 * Get the fork-join pool that extracts the features of the sentences, replaced by a new one if its parallelism is changed.<br/>
+	 * The replaced pool is shut down: the feature extractions already submitted to it are completed, while the ones submitted
+	 * later are rejected and executed sequentially by the calling thread.
+	 * 
+	 * @param parallelism
+	 * @return
+	 */
+	private static synchronized ForkJoinPool getFeatureExtractionPool(int parallelism) {
+		if(featureExtractionPool == null || featureExtractionPool.getParallelism() != parallelism) {
+			ForkJoinPool replacedPool = featureExtractionPool;
+			featureExtractionPool = new ForkJoinPool(parallelism);
+			if(replacedPool != null) {
+				replacedPool.shutdown();
+			}
 		}
+		return featureExtractionPool;
+	}
+
+	/**
+	 * Merge the datasets generated from the chunks of sentences of a document, in the same order: string attributes are 
+	 * re-indexed with respect to the merged dataset and nominal attributes are mapped by label.
+	 * 
+	 * @param chunkInstances
+	 * @return null if the datasets don't have the same attributes
+	 */
+	private static Instances mergeInstances(List<Instances> chunkInstances) {
+
+		if(chunkInstances.size() == 1) {
+			return chunkInstances.get(0);
+		}
+
+		Instances mergedInst = chunkInstances.get(0).stringFreeStructure();
+		for(Instances chunkInst : chunkInstances) {
+			if(chunkInst.numAttributes() != mergedInst.numAttributes()) {
+				return null;
+			}
+			for(int attIndex = 0; attIndex < mergedInst.numAttributes(); attIndex++) {
+				if(!mergedInst.attribute(attIndex).name().equals(chunkInst.attribute(attIndex).name()) ||
+						mergedInst.attribute(attIndex).type() != chunkInst.attribute(attIndex).type()) {
+					return null;
+				}
+			}
+
+			for(int instIndex = 0; instIndex < chunkInst.numInstances(); instIndex++) {
+				if(!addInstance(mergedInst, chunkInst.instance(instIndex))) {
+					return null;
+				}
+			}
+		}
+
+		return mergedInst;
+	}
+
+	/**
+	 * Add a copy of an instance to a dataset with the same attributes: string attributes are re-indexed with respect to the 
+	 * dataset and nominal attributes are mapped by label.
+	 * 
+	 * @param dataset
+	 * @param inst
+	 * @return false if the instance can't be added
+	 */
+	private static boolean addInstance(Instances dataset, Instance inst) {
+		double[] values = new double[dataset.numAttributes()];
+		for(int attIndex = 0; attIndex < dataset.numAttributes(); attIndex++) {
+			Attribute att = dataset.attribute(attIndex);
+			if(inst.isMissing(attIndex)) {
+				values[attIndex] = weka.core.Utils.missingValue();
+			}
+			else if(att.isString()) {
+				values[attIndex] = att.addStringValue(inst.stringValue(attIndex));
+			}
+			else if(att.isNominal()) {
+				values[attIndex] = att.indexOfValue(inst.stringValue(attIndex));
+				if(values[attIndex] < 0d) {
+					return false;
+				}
+			}
+			else if(att.isNumeric() || att.isDate()) {
+				values[attIndex] = inst.value(attIndex);
+			}
+			else {
+				return false;
+			}
+		}
+		dataset.add(new DenseInstance(inst.weight(), values));
+		return true;
+	}
+
+	/**
+	 * Consecutive sentences of a document, with the feature set their features are extracted to 
+	 * and the dataset generated from the feature set
+	 * 
+	 *
+	 */
+	private class FeatureChunk {
+
+		private final List<Annotation> sentences;
+		private final FeatureSet<Annotation, DocumentCtx> featSet;
+		private final List<Annotation> addedSentences = new ArrayList<Annotation>();
+		private int nextSentence = 0;
+		private Instances instances = null;
+
+		private FeatureChunk(List<Annotation> sentences, FeatureSet<Annotation, DocumentCtx> featSet) {
+			this.sentences = sentences;
+			this.featSet = featSet;
+		}
+
+		/**
+		 * Extract the features of the next sentence of the chunk
+		 * 
+		 * @param docCtx
+		 */
+		private void addSentence(DocumentCtx docCtx) {
+			Annotation sentenceToClassify = sentences.get(nextSentence++);
+
+			boolean correctlyAdded = false;
+			try {
+				correctlyAdded = featSet.addElement(sentenceToClassify, docCtx);
+			}
+			catch (Exception e) {
+				Util.notifyException("Rhetorical classification of sentence: " + GateUtil.getAnnotationText(sentenceToClassify, document).orElse("NOT_PRESENT"), e, logger);
+			}
+
+			if(correctlyAdded) {
+				addedSentences.add(sentenceToClassify);
+			}
+			else {
+				Util.notifyException("Rhetorical classification of sentence: " + GateUtil.getAnnotationText(sentenceToClassify, document).orElse("NOT_PRESENT"), new Exception("Errors when generating features"), logger);
+			}
+		}
+
+		/**
+		 * Extract the features of the remaining sentences of the chunk and generate the dataset
+		 * 
+		 * @param docCtx
+		 */
+		private void extractFeatures(DocumentCtx docCtx) {
+			while(nextSentence < sentences.size()) {
+				addSentence(docCtx);
+			}
+
+			if(addedSentences.size() > 0) {
+				try {
+					instances = FeatUtil.wekaInstanceGeneration(featSet, "relation");
+				} catch (Exception e) {
+					Util.notifyException("Generation of the dataset of " + addedSentences.size() + " sentences", e, logger);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fork-join task that extracts the features of a range of chunks of sentences, split in halves down to single chunks
+	 * 
+	 *
+	 */
+	private static class FeatureExtractionTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<FeatureChunk> featureChunks;
+		private final int from;
+		private final int to;
+		private final DocumentCtx docCtx;
+
+		private FeatureExtractionTask(List<FeatureChunk> featureChunks, int from, int to, DocumentCtx docCtx) {
+			this.featureChunks = featureChunks;
+			this.from = from;
+			this.to = to;
+			this.docCtx = docCtx;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from == 1) {
+				featureChunks.get(from).extractFeatures(docCtx);
+			}
+			else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new FeatureExtractionTask(featureChunks, from, middle, docCtx), new FeatureExtractionTask(featureChunks, middle, to, docCtx));
+			}
+		}
+	}
+
+	/**
+	 * Classify a single sentence
+	 * 
+	 * @param sentenceToClassify
+	 * @param docCtx
+	 * @param outputASfeatureNameAppo
+	 */
+	private void classifySentence(Annotation sentenceToClassify, DocumentCtx docCtx, String outputASfeatureNameAppo) {
+
+		// Feature schema header
+		// The object is a citing sentence annotaiton and the context is the document the sentence belongs to
+		logger.debug("Instantiating feature schema header...");
+		FeatureSet<Annotation, DocumentCtx> featSet = FeatG.generateFeatSet();
+
+		boolean correctlyAdded = false;
+		try {
+			correctlyAdded = featSet.addElement(sentenceToClassify, docCtx);
+		}
+		catch (Exception e) {
+			Util.notifyException("Rhetorical classification of sentence: " + GateUtil.getAnnotationText(sentenceToClassify, document).orElse("NOT_PRESENT"), e, logger);
+		}
+
+		if(correctlyAdded) {
+			try {
+				Instances wekaInstPreFilter = FeatUtil.wekaInstanceGeneration(featSet, "relation");
+
+				if(wekaInstPreFilter != null) {
+					// Alert if more than one instance / sentence is present in the dataset
+					if(wekaInstPreFilter.numInstances() > 1) {
+						logger.error("There is more than one instance / sentence to classify!!!");
+					}
+
+					double[] classDistibInst = compiledDistributionForInstance(wekaInstPreFilter.instance(0));
+					if(classDistibInst == null) {
+						Instances wekaInst = filterInstances(wekaInstPreFilter, false);
+						classDistibInst = distributionForInstance(wekaInst.instance(0));
+					}
+
+					annotateSentence(sentenceToClassify, classDistibInst, outputASfeatureNameAppo);
+				}
+			} catch (Exception e) {
+				e.printStackTrace();
+				Util.notifyException("Rhetorical classification of sentence: " + GateUtil.getAnnotationText(sentenceToClassify, document).orElse("NOT_PRESENT"), e, logger);
+			}
+		}
+		else {
+			Util.notifyException("Rhetorical classification of sentence: " + GateUtil.getAnnotationText(sentenceToClassify, document).orElse("NOT_PRESENT"), new Exception("Errors when generating features"), logger);
+		}
+	}
+
+	/**
+	 * Apply the filter chain of the rhetorical classifier to the instances generated from one or more sentences
+	 * and set the Class_rhetorical attribute as the last one (class attribute).<br/>
+	 * When a batch of sentences is filtered, all the words are kept as attributes and then, in each instance,
+	 * the words that do not occur in the sentence are set as missing: the values of the words, once mapped to the attributes 
+	 * of the model, are the same as when the sentence is filtered alone.
+	 * 
+	 * @param wekaInstPreFilter
+	 * @param batch true if the instances have been generated from more sentences
+	 * @return
+	 * @throws Exception
+	 */
+	private static Instances filterInstances(Instances wekaInstPreFilter, boolean batch) throws Exception {
+
+		// Print attribute values before any filter - START
+		/*
+		for(int attrIndx = 0; attrIndx  < wekaInstPreFilter.instance(0).numAttributes(); attrIndx++) {
+			if(wekaInstPreFilter.instance(0).isMissing(attrIndx)) {
+				System.out.println("ATT: " + attrIndx + " MISSING -> " + wekaInstPreFilter.instance(0).attribute(attrIndx).name() + " *** MISSING ***");
+			}
+			else if(wekaInstPreFilter.instance(0).attribute(attrIndx).isNumeric()) {
+				System.out.println("ATT: " + attrIndx + " NUMERIC -> " + wekaInstPreFilter.instance(0).attribute(attrIndx).name() + " VALUE: " + wekaInstPreFilter.instance(0).value(attrIndx));
+			}
+			else if(wekaInstPreFilter.instance(0).attribute(attrIndx).isNominal()) {
+				System.out.println("ATT: " + attrIndx + " NOMINAL -> " + wekaInstPreFilter.instance(0).attribute(attrIndx).name() + " VALUE: " + wekaInstPreFilter.instance(0).attribute(attrIndx).value( (new Double(wekaInstPreFilter.instance(0).value(attrIndx)).intValue())) );
+			}
+			else if(wekaInstPreFilter.instance(0).attribute(attrIndx).isString()) {
+				System.out.println("ATT: " + attrIndx + " STRING -> " + wekaInstPreFilter.instance(0).attribute(attrIndx).name() + " VALUE: " + wekaInstPreFilter.instance(0).attribute(attrIndx).value( (new Double(wekaInstPreFilter.instance(0).value(attrIndx)).intValue())) );
+			}
+			else {
+				System.out.println("ATT: " + attrIndx + " OTHER -> " + wekaInstPreFilter.instance(0).attribute(attrIndx).name() + " VALUE: " + wekaInstPreFilter.instance(0).value(attrIndx));
+			}
+		}
+		*/
+		// Print attribute values before any filter - START
+
+		List<Filter> filterChain = FeatureFilter.setFilterChain_Rhetorical_1(batch);
+		MultiFilter multiFilter = new MultiFilter();
+		multiFilter.setFilters(filterChain.toArray(new Filter[filterChain.size()]));
+
+		// Set filter and classifier
+		multiFilter.setInputFormat(wekaInstPreFilter);
+		Instances wekaInst = Filter.useFilter(wekaInstPreFilter, multiFilter);
+
+		// Set the Class_rhetorical attribute as the last one
+		wekaInst = FeatureFilter.setClassAsLastAttr_Rhetorical_1(wekaInst, "Class_rhetorical");
+
+		// Check the position of the Class_rhetorical attribute - START
+		/*
+		int classRhetIndex = -1;
+		for(int attIndex = 0; attIndex < wekaInst.numAttributes(); attIndex++) {
+			System.out.print("ID: " + attIndex + " : " + wekaInst.attribute(attIndex).name() + " - ");
+			if(wekaInst.attribute(attIndex).name().equals("Class_rhetorical")) {
+				classRhetIndex = attIndex;
+			}
+			if(attIndex % 10 == 0) {
+				System.out.print("\n");
+			}
+		}
+		System.out.println("CLASS RHETORICAL INDEX: " + (classRhetIndex + 1) + " over " + wekaInst.numAttributes() + " attributes.");
+		 */
+		// Check the position of the Class_rhetorical attribute - END
+
+		if(batch) {
+			wekaInst = FeatureFilter.setAbsentWordsAsMissing_Rhetorical_1(wekaInst);
+		}
+
+		wekaInst.setClassIndex(wekaInst.numAttributes() - 1);
+
+		return wekaInst;
+	}
+
+	/**
+	 * Get the class distribution of the instance of a sentence (not filtered) by the compiled model (the document is not accessed).<br/>
+	 * The predictions of the first {@link #compiledInferenceCheckCount} instances are checked against the ones of the Weka classifier,
+	 * once the instance is filtered alone: if they differ, the compiled model is disabled.
+	 * 
+	 * @param preFilterInst
+	 * @return null if the compiled model is not available, thus the instance has to be filtered and classified by Weka
+	 * @throws Exception
+	 */
+	private static double[] compiledDistributionForInstance(Instance preFilterInst) throws Exception {
+		CompiledLinearModel currentCompiledModel = compiledModel;
+		if(currentCompiledModel == null) {
+			return null;
+		}
+
+		double[] classDistibInst = currentCompiledModel.distributionForInstance(preFilterInst);
+		if(classDistibInst == null) {
+			disableCompiledModel(currentCompiledModel, "the instances of the sentences can't be mapped to the attributes of the model");
+			return null;
+		}
+
+		// Check the predictions of the compiled model against the ones of the Weka classifier
+		if(compiledModelChecks.get() > 0 && compiledModelChecks.decrementAndGet() >= 0) {
+			Instances wekaInstPreFilter = preFilterInst.dataset().stringFreeStructure();
+			if(!addInstance(wekaInstPreFilter, preFilterInst)) {
+				throw new Exception("Impossible to copy the instance of the sentence");
+			}
+
+			double[] wekaClassDistribInst = distributionForInstance(filterInstances(wekaInstPreFilter, false).instance(0));
+			recordCheck(classDistibInst, wekaClassDistribInst);
+			if(!CompiledLinearModel.sameDistribution(classDistibInst, wekaClassDistribInst)) {
+				disableCompiledModel(currentCompiledModel, "it does not give the same predictions of the Weka classifier");
+				return wekaClassDistribInst;
+			}
+		}
+
+		return classDistibInst;
+	}
+
+	private static void disableCompiledModel(CompiledLinearModel currentCompiledModel, String reason) {
+		synchronized(RhetoricalClassifier.class) {
+			if(compiledModel == currentCompiledModel) {
+				logger.warn("Compiled inference disabled: " + reason + ".");
+				compiledModel = null;
+			}
+		}
+	}
+
+	/**
+	 * True if the sentences are classified by the compiled model (the model has been compiled and its predictions 
+	 * have not differed from the ones of the Weka classifier)
+	 * 
+	 * @return
+	 */
+	public static boolean isCompiledInferenceEnabled() {
+		return compiledModel != null;
+	}
+
+	/**
+	 * Check the predictions of the next sentences classified by the compiled model against the ones of the Weka classifier
+	 * 
+	 * @param checkCount number of sentences to check
+	 */
+	public static void checkCompiledInference(int checkCount) {
+		synchronized(compiledModelCheckedCount) {
+			compiledModelCheckedCount.set(0);
+			compiledModelMaxDeviation = 0d;
+		}
+		compiledModelChecks.set(checkCount);
+	}
+
+	/**
+	 * Number of class distributions of the compiled model checked against the ones of the Weka classifier since the last call of 
+	 * {@link #checkCompiledInference(int) checkCompiledInference(int)}
+	 * 
+	 * @return
+	 */
+	public static int getCompiledInferenceCheckedCount() {
+		return compiledModelCheckedCount.get();
+	}
+
+	/**
+	 * Maximum absolute difference between a class probability of the compiled model and the one of the Weka classifier, among the
+	 * class distributions checked since the last call of {@link #checkCompiledInference(int) checkCompiledInference(int)}
+	 * 
+	 * @return {@link Double#POSITIVE_INFINITY} if two checked distributions have not the same number of classes
+	 */
+	public static double getCompiledInferenceMaxDeviation() {
+		synchronized(compiledModelCheckedCount) {
+			return compiledModelMaxDeviation;
+		}
+	}
+
+	private static void recordCheck(double[] classDistrib, double[] wekaClassDistrib) {
+		double deviation = 0d;
+		if(classDistrib == null || wekaClassDistrib == null || classDistrib.length != wekaClassDistrib.length) {
+			deviation = Double.POSITIVE_INFINITY;
+		}
+		else {
+			for(int i = 0; i < classDistrib.length; i++) {
+				deviation = Math.max(deviation, Math.abs(classDistrib[i] - wekaClassDistrib[i]));
+			}
+		}
+
+		synchronized(compiledModelCheckedCount) {
+			compiledModelCheckedCount.incrementAndGet();
+			compiledModelMaxDeviation = Math.max(compiledModelMaxDeviation, deviation);
+		}
+	}
+
+	/**
+	 * Get the class distribution of the filtered instance of a sentence by the Weka classifier (the document is not accessed)
+	 * 
+	 * @param inst
+	 * @return
+	 * @throws Exception
+	 */
+	private static double[] distributionForInstance(Instance inst) throws Exception {
+
+		// PRINT ATTRIBUTES NAMES AND VALUES BEFORE AND AFTER MAPPING - START
+		/*									
+		for(int attrIndx = 0; attrIndx  < inst.numAttributes(); attrIndx++) {
+			if(inst.isMissing(attrIndx)) {
+				System.out.println("ATT: " + attrIndx + " MISSING -> " + inst.attribute(attrIndx).name() + " *** MISSING ***");
+			}
+			else if(inst.attribute(attrIndx).isNumeric()) {
+				System.out.println("ATT: " + attrIndx + " NUMERIC -> " + inst.attribute(attrIndx).name() + " VALUE: " + inst.value(attrIndx));
+			}
+			else if(inst.attribute(attrIndx).isNominal()) {
+				System.out.println("ATT: " + attrIndx + " NOMINAL -> " + inst.attribute(attrIndx).name() + " VALUE: " + inst.attribute(attrIndx).value( (new Double(inst.value(attrIndx)).intValue())) );
+			}
+			else if(inst.attribute(attrIndx).isString()) {
+				System.out.println("ATT: " + attrIndx + " STRING -> " + inst.attribute(attrIndx).name() + " VALUE: " + inst.attribute(attrIndx).value( (new Double(inst.value(attrIndx)).intValue())) );
+			}
+			else {
+				System.out.println("ATT: " + attrIndx + " OTHER -> " + inst.attribute(attrIndx).name() + " VALUE: " + inst.value(attrIndx));
+			}
+		}
+		
+		// Print mapping details
+		classif.setSuppressMappingReport(false);			
+		classif.setDebug(true);
+		Instance mappedInstance = classif.constructMappedInstance(inst);
+		classif.setSuppressMappingReport(true);
+		classif.setDebug(false);
+		
+		for(int attrIndx = 0; attrIndx  < mappedInstance.numAttributes(); attrIndx++) {
+			if(inst.isMissing(attrIndx)) {
+				System.out.println("MAPPED ATT: " + attrIndx + " MISSING -> " + mappedInstance.attribute(attrIndx).name() + " *** MISSING ***");
+			}
+			else if(mappedInstance.attribute(attrIndx).isNumeric() && !(Double.valueOf(mappedInstance.value(attrIndx)).equals("NaN")) ) {
+				System.out.println("MAPPED ATT: " + attrIndx + " NUMERIC -> " + mappedInstance.attribute(attrIndx).name() + " VALUE: " + mappedInstance.value(attrIndx));
+			}
+			else if(mappedInstance.attribute(attrIndx).isNominal()) {
+				System.out.println("MAPPED ATT: " + attrIndx + " NOMINAL -> " + mappedInstance.attribute(attrIndx).name() + " VALUE: " + mappedInstance.attribute(attrIndx).value( (new Double(mappedInstance.value(attrIndx)).intValue())) );
+			}
+			else if(mappedInstance.attribute(attrIndx).isString()) {
+				System.out.println("MAPPED ATT: " + attrIndx + " STRING -> " + mappedInstance.attribute(attrIndx).name() + " VALUE: " + mappedInstance.attribute(attrIndx).value( (new Double(mappedInstance.value(attrIndx)).intValue())) );
+			}
+			else {
+				System.out.println("ATT: " + attrIndx + " OTHER -> " + inst.attribute(attrIndx).name() + " VALUE: " + inst.value(attrIndx));
+			}
+		}
+		*/
+		// PRINT ATTRIBUTES NAMES AND VALUES BEFORE AND AFTER MAPPING - END
+
+		// Classify instance
+		return classifyByWeka(inst);
+	}
+
+	/**
+	 * Set the rhetorical class and the probability of each class as features of the sentence annotation
+	 * 
+	 * @param sentenceToClassify
+	 * @param classDistibInst
+	 * @param outputASfeatureNameAppo
+	 */
+	private void annotateSentence(Annotation sentenceToClassify, double[] classDistibInst, String outputASfeatureNameAppo) {
+		Double classInst = CompiledLinearModel.classify(classDistibInst);
+		String annotationType = headerModel.attribute(headerModel.numAttributes() -1).value((int) classInst.intValue());
+		logger.debug("\n---\n* Instance classified as: " + annotationType);
+		
+		FeatureMap fm = Factory.newFeatureMap();
+		Map<String, Double> classProbabilityMap = new HashMap<String, Double>();
+		for(int i = 0; i < classDistibInst.length; i++) {
+			logger.debug("    -> Instance: " + headerModel.attribute(headerModel.numAttributes() -1).value((int) i) + " (" + i + ") --> " + classDistibInst[i]);
+			fm.put(headerModel.attribute(headerModel.numAttributes() -1).value((int) i), classDistibInst[i]);
+			classProbabilityMap.put(headerModel.attribute(headerModel.numAttributes() -1).value((int) i), classDistibInst[i]);
+			// Add to sentence feature set the probability assigned to each class
+			sentenceToClassify.getFeatures().put("PROB_" + headerModel.attribute(headerModel.numAttributes() -1).value((int) i), classDistibInst[i]);
+		}
+
+		// CORRECTIONS TO ANNOTAITON - TO IMPROVE CLASSIFIER - START
+		String sentence = GateUtil.getAnnotationText(sentenceToClassify, this.document).orElse(null);
+		if(sentence.toLowerCase().contains("future work") || sentence.toLowerCase().contains("future venue") ||
+				sentence.toLowerCase().contains("future research") ||
+				sentence.toLowerCase().contains("in future") || sentence.toLowerCase().contains("future investigation") ) {
+			annotationType = "DRI_FutureWork";
+		}	
+		// CORRECTIONS TO ANNOTAITON - TO IMPROVE CLASSIFIER - END
+
+		// GENERATE ANNOTATION
+		sentenceToClassify.getFeatures().put(outputASfeatureNameAppo, annotationType);
+	}
+
+	/**
+	 * Get the class distribution of an instance by the Weka classifier
+	 * 
+	 * @param inst
+	 * @return
+	 * @throws Exception
+	 */
+	private static double[] classifyByWeka(Instance inst) throws Exception {
+		double[] classDistibInst = null;
+
+		// The Weka classifier and the redirection of the standard output and error are shared by all the threads
+		synchronized(wekaClassifierLock) {
+			/* REDIRECTING STD OUT AND ERR - START */
+			PrintStream out = System.out;
+			PrintStream err = System.err;
+			System.setOut(new PrintStream(new OutputStream() {
+				@Override public void write(int b) throws IOException {}
+			}));
+			System.setErr(new PrintStream(new OutputStream() {
+				@Override public void write(int b) throws IOException {}
+			}));
+
+			try {
+				classDistibInst = classif.distributionForInstance(inst);
+			} finally {
+				System.setOut(out);
+				System.setErr(err);
+			}
+			/* REDIRECTING STD OUT AND ERR - END */
+		}
+
+		return classDistibInst;
 	}
 
 	@Override
@@ -648,30 +1212,46 @@ public class RhetoricalClassifier extends AbstractLanguageAnalyser implements Pr
 		}
 		
 		
-		headerModel = null;
-		classif = null;
-		
 		// Load classifier
 		SerializedClassifier coreClassifier = new SerializedClassifier();
 		coreClassifier.setModelFile(classifierModel);
 		coreClassifier.setDebug(false);
 		
 		// Load InputMappedClassifier and set the just loaded model as classifier
-		classif = new InputMappedClassifier();
-		classif.setClassifier(coreClassifier);
+		InputMappedClassifier loadedClassif = new InputMappedClassifier();
+		loadedClassif.setClassifier(coreClassifier);
 		
 		// DataSource source = new DataSource(classifierDataStructure.getAbsolutePath());
 		// headerModel = source.getDataSet();
 		
 		BufferedReader reader = new BufferedReader(new FileReader(classifierDataStructure.getAbsolutePath()));
-		headerModel = new Instances(reader);
-		headerModel.setClassIndex(headerModel.numAttributes() - 1);
-		classif.setModelHeader(headerModel);
+		Instances loadedHeaderModel = new Instances(reader);
+		loadedHeaderModel.setClassIndex(loadedHeaderModel.numAttributes() - 1);
+		loadedClassif.setModelHeader(loadedHeaderModel);
 		
-		classif.setDebug(false);
-		classif.setSuppressMappingReport(true);			
-		classif.setTrim(true);
-		classif.setIgnoreCaseForNames(false);
+		loadedClassif.setDebug(false);
+		loadedClassif.setSuppressMappingReport(true);			
+		loadedClassif.setTrim(true);
+		loadedClassif.setIgnoreCaseForNames(false);
+
+		// Compile the classifier and the filter chain to classify sentences without filtering and mapping each instance to the model header by Weka
+		CompiledLinearModel loadedCompiledModel = null;
+		if(compiledInference) {
+			try {
+				loadedCompiledModel = CompiledLinearModel.compile(coreClassifier.getCurrentModel(), loadedHeaderModel, FeatureFilter.setFilterChain_Rhetorical_1(true));
+			} catch (Exception e) {
+				logger.warn("Impossible to compile the classification model - " + e.getMessage());
+			}
+		}
+
+		synchronized(RhetoricalClassifier.class) {
+			synchronized(wekaClassifierLock) {
+				headerModel = loadedHeaderModel;
+				classif = loadedClassif;
+				compiledModel = loadedCompiledModel;
+				compiledModelChecks.set(compiledInferenceCheckCount);
+			}
+		}
 
 		return true;
 	}
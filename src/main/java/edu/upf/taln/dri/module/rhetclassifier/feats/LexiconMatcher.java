@@ -0,0 +1,286 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ * 
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ * 
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.module.rhetclassifier.feats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton compiled from a lexicon (set of words or expressions) to find in a single pass over a text
+ * all the entries of the lexicon that occur in the text.<br/>
+ * An entry that contains a space matches anywhere in the text; an entry without spaces matches only if at least one
+ * of its occurrences is followed by one of the chars {@value #RIGHT_BOUNDARY_CHARS} or preceded by one of the chars 
+ * {@value #LEFT_BOUNDARY_CHARS}.<br/>
+ * Get the matcher of a lexicon by {@link #getMatcher(Set, boolean) getMatcher}: the automaton is compiled the first time 
+ * and shared by all the feature calculators that use the same lexicon.
+ * 
+ *
+ */
+public class LexiconMatcher {
+
+	public static final String RIGHT_BOUNDARY_CHARS = " .,;)]:";
+	public static final String LEFT_BOUNDARY_CHARS = " .,;:([";
+
+	private static final Map<Set<String>, LexiconMatcher> caseSensitiveMatchers = Collections.synchronizedMap(new IdentityHashMap<Set<String>, LexiconMatcher>());
+	private static final Map<Set<String>, LexiconMatcher> caseInsensitiveMatchers = Collections.synchronizedMap(new IdentityHashMap<Set<String>, LexiconMatcher>());
+
+	private final boolean caseInsensitive;
+	private final int entryCount;
+
+	// Patterns (distinct lexicon entries, lower-cased if case insensitive)
+	private final String[] patterns;
+	private final boolean[] patternNeedsBoundary;
+	private final List<List<String>> patternEntries;
+
+	// Automaton: transitions of each node as sorted chars and target nodes, failure link,
+	// pattern ending in the node (-1 if none) and closest node reachable by failure links with a pattern (-1 if none)
+	private final char[][] transitionChars;
+	private final int[][] transitionTargets;
+	private final int[] failure;
+	private final int[] nodePattern;
+	private final int[] outputLink;
+
+	/**
+	 * Get the matcher of a lexicon, compiling it the first time
+	 * 
+	 * @param lexicon
+	 * @param caseInsensitive if true, the entries of the lexicon are matched against the lower-cased text
+	 * @return
+	 */
+	public static LexiconMatcher getMatcher(Set<String> lexicon, boolean caseInsensitive) {
+		if(lexicon == null) {
+			return null;
+		}
+
+		Map<Set<String>, LexiconMatcher> matchers = (caseInsensitive) ? caseInsensitiveMatchers : caseSensitiveMatchers;
+		synchronized(matchers) {
+			LexiconMatcher matcher = matchers.get(lexicon);
+			if(matcher == null) {
+				matcher = new LexiconMatcher(lexicon, caseInsensitive);
+				matchers.put(lexicon, matcher);
+			}
+			return matcher;
+		}
+	}
+
+	private LexiconMatcher(Set<String> lexicon, boolean caseInsensitive) {
+		this.caseInsensitive = caseInsensitive;
+
+		// Group the entries by pattern
+		Map<String, List<String>> entriesByPattern = new HashMap<String, List<String>>();
+		List<String> patternList = new ArrayList<String>();
+		int entries = 0;
+		for(String entry : lexicon) {
+			if(entry != null && !entry.equals("")) {
+				String pattern = (caseInsensitive) ? entry.toLowerCase() : entry;
+				List<String> entriesOfPattern = entriesByPattern.get(pattern);
+				if(entriesOfPattern == null) {
+					entriesOfPattern = new ArrayList<String>();
+					entriesByPattern.put(pattern, entriesOfPattern);
+					patternList.add(pattern);
+				}
+				entriesOfPattern.add(entry);
+				entries++;
+			}
+		}
+		this.entryCount = entries;
+
+		this.patterns = patternList.toArray(new String[patternList.size()]);
+		this.patternNeedsBoundary = new boolean[patterns.length];
+		this.patternEntries = new ArrayList<List<String>>();
+		for(int p = 0; p < patterns.length; p++) {
+			patternNeedsBoundary[p] = !patterns[p].contains(" ");
+			patternEntries.add(Collections.unmodifiableList(entriesByPattern.get(patterns[p])));
+		}
+
+		// Build the trie
+		List<TreeMap<Character, Integer>> trie = new ArrayList<TreeMap<Character, Integer>>();
+		List<Integer> trieNodePattern = new ArrayList<Integer>();
+		trie.add(new TreeMap<Character, Integer>());
+		trieNodePattern.add(-1);
+		for(int p = 0; p < patterns.length; p++) {
+			int node = 0;
+			for(int i = 0; i < patterns[p].length(); i++) {
+				Integer next = trie.get(node).get(patterns[p].charAt(i));
+				if(next == null) {
+					next = trie.size();
+					trie.add(new TreeMap<Character, Integer>());
+					trieNodePattern.add(-1);
+					trie.get(node).put(patterns[p].charAt(i), next);
+				}
+				node = next;
+			}
+			trieNodePattern.set(node, p);
+		}
+
+		int nodeCount = trie.size();
+		this.transitionChars = new char[nodeCount][];
+		this.transitionTargets = new int[nodeCount][];
+		this.failure = new int[nodeCount];
+		this.nodePattern = new int[nodeCount];
+		this.outputLink = new int[nodeCount];
+		for(int node = 0; node < nodeCount; node++) {
+			TreeMap<Character, Integer> transitions = trie.get(node);
+			transitionChars[node] = new char[transitions.size()];
+			transitionTargets[node] = new int[transitions.size()];
+			int t = 0;
+			for(Entry<Character, Integer> transition : transitions.entrySet()) {
+				transitionChars[node][t] = transition.getKey();
+				transitionTargets[node][t] = transition.getValue();
+				t++;
+			}
+			nodePattern[node] = trieNodePattern.get(node);
+		}
+
+		// Compute failure and output links (breadth-first)
+		Arrays.fill(outputLink, -1);
+		LinkedList<Integer> queue = new LinkedList<Integer>();
+		for(int target : transitionTargets[0]) {
+			failure[target] = 0;
+			queue.add(target);
+		}
+		while(!queue.isEmpty()) {
+			int node = queue.removeFirst();
+			for(int t = 0; t < transitionChars[node].length; t++) {
+				char c = transitionChars[node][t];
+				int target = transitionTargets[node][t];
+
+				int fail = failure[node];
+				while(fail != 0 && next(fail, c) < 0) {
+					fail = failure[fail];
+				}
+				int failTarget = next(fail, c);
+				failure[target] = (failTarget >= 0 && failTarget != target) ? failTarget : 0;
+				outputLink[target] = (nodePattern[failure[target]] >= 0) ? failure[target] : outputLink[failure[target]];
+
+				queue.add(target);
+			}
+		}
+	}
+
+	private int next(int node, char c) {
+		int t = Arrays.binarySearch(transitionChars[node], c);
+		return (t >= 0) ? transitionTargets[node][t] : -1;
+	}
+
+	/**
+	 * True if the entries of the lexicon are matched against the lower-cased text
+	 * 
+	 * @return
+	 */
+	public boolean isCaseInsensitive() {
+		return caseInsensitive;
+	}
+
+	/**
+	 * Number of not empty entries of the lexicon
+	 * 
+	 * @return
+	 */
+	public int getEntryCount() {
+		return entryCount;
+	}
+
+	/**
+	 * Match the lexicon against a text in a single pass.
+	 * If the matcher is case insensitive, the text is expected to be lower-cased.
+	 * 
+	 * @param text
+	 * @return
+	 */
+	public Matches match(String text) {
+		boolean[] matched = new boolean[patterns.length];
+
+		if(text != null) {
+			int node = 0;
+			for(int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+				int target = next(node, c);
+				while(target < 0 && node != 0) {
+					node = failure[node];
+					target = next(node, c);
+				}
+				node = (target >= 0) ? target : 0;
+
+				for(int out = (nodePattern[node] >= 0) ? node : outputLink[node]; out >= 0; out = outputLink[out]) {
+					int p = nodePattern[out];
+					if(!matched[p]) {
+						int start = i - patterns[p].length() + 1;
+						matched[p] = !patternNeedsBoundary[p] ||
+								(i + 1 < text.length() && RIGHT_BOUNDARY_CHARS.indexOf(text.charAt(i + 1)) >= 0) ||
+								(start > 0 && LEFT_BOUNDARY_CHARS.indexOf(text.charAt(start - 1)) >= 0);
+					}
+				}
+			}
+		}
+
+		return new Matches(matched);
+	}
+
+	/**
+	 * Entries of a lexicon matched in a text
+	 * 
+	 *
+	 */
+	public class Matches {
+
+		private final boolean[] matched;
+		private final int matchedEntryCount;
+
+		private Matches(boolean[] matched) {
+			this.matched = matched;
+
+			int count = 0;
+			for(int p = 0; p < matched.length; p++) {
+				if(matched[p]) {
+					count += patternEntries.get(p).size();
+				}
+			}
+			this.matchedEntryCount = count;
+		}
+
+		/**
+		 * Number of entries of the lexicon matched in the text
+		 * 
+		 * @return
+		 */
+		public int getMatchedEntryCount() {
+			return matchedEntryCount;
+		}
+
+		/**
+		 * Entries of the lexicon matched in the text
+		 * 
+		 * @return
+		 */
+		public List<String> getMatchedEntries() {
+			List<String> matchedEntries = new ArrayList<String>();
+			for(int p = 0; p < matched.length; p++) {
+				if(matched[p]) {
+					matchedEntries.addAll(patternEntries.get(p));
+				}
+			}
+			return matchedEntries;
+		}
+
+	}
+
+}
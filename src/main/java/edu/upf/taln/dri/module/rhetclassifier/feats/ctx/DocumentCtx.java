@@ -11,13 +11,14 @@
  */
 package edu.upf.taln.dri.module.rhetclassifier.feats.ctx;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import edu.upf.taln.dri.common.util.GateUtil;
-import edu.upf.taln.dri.module.importer.ImporterBase;
 import edu.upf.taln.dri.module.parser.MateParser;
 import edu.upf.taln.dri.module.rhetclassifier.feats.StopWords;
 import gate.Annotation;
@@ -51,6 +52,12 @@ public class DocumentCtx {
 	private Double maxTFvalue = 0d;
 	private Map<String, Double> term_DF_map = new HashMap<String, Double>();
 
+	// Memoized per-sentence views shared by the feature calculators, by sentence annotation id
+	private Map<Integer, SentenceCtx> sentenceCtxMap = new ConcurrentHashMap<Integer, SentenceCtx>();
+	// If false, the view of a sentence is built again each time a feature calculator asks for it, as if each calculator 
+	// queried the GATE document by itself: only useful to check that the memoized views give the same features
+	private boolean memoizeSentenceCtx = true;
+
 	// Consturctor
 	public DocumentCtx(Document gateDoc, String classNameRhet,
 			String classNameAspect, String classNameMainCit,
@@ -135,6 +142,67 @@ public class DocumentCtx {
 		return term_DF_map;
 	}
 
+	/**
+	 * Get the memoized view of a sentence of the document (text, contained annotations and tokens with their features).<br/>
+	 * The view is built the first time a feature calculator asks for it and shared by all the other calculators.
+	 * 
+	 * @param sentence
+	 * @return
+	 */
+	public SentenceCtx getSentenceCtx(Annotation sentence) {
+		if(!memoizeSentenceCtx) {
+			return new SentenceCtx(gateDoc, sentence);
+		}
+
+		SentenceCtx sentenceCtx = sentenceCtxMap.get(sentence.getId());
+		if(sentenceCtx == null || sentenceCtx.getSentence() != sentence) {
+			sentenceCtx = new SentenceCtx(gateDoc, sentence);
+			sentenceCtxMap.put(sentence.getId(), sentenceCtx);
+		}
+		return sentenceCtx;
+	}
+
+	/**
+	 * Prepare the document for the extraction of the features of several sentences in parallel: the calling thread builds the 
+	 * views of all the sentences provided together with the type and offset indexes of all the annotation sets of the GATE document, 
+	 * that are created lazily and not in a thread-safe way.<br/>
+	 * After this call the feature calculators only read the annotation sets and indexes of the GATE document, provided that the 
+	 * annotation sets the calculators access already exist (for instance, by extracting the features of a sentence before this call).
+	 * 
+	 * @param sentences
+	 */
+	public void prepareParallelAccess(List<Annotation> sentences) {
+		List<AnnotationSet> annotationSets = new ArrayList<AnnotationSet>();
+		annotationSets.add(gateDoc.getAnnotations());
+		if(gateDoc.getAnnotationSetNames() != null) {
+			for(String annotationSetName : new ArrayList<String>(gateDoc.getAnnotationSetNames())) {
+				annotationSets.add(gateDoc.getAnnotations(annotationSetName));
+			}
+		}
+
+		for(AnnotationSet annotationSet : annotationSets) {
+			// Build the index by type and the index by offset of the annotation set
+			annotationSet.getAllTypes();
+			annotationSet.get(0l);
+		}
+
+		if(sentences != null) {
+			for(Annotation sentence : sentences) {
+				if(sentence != null) {
+					getSentenceCtx(sentence);
+				}
+			}
+		}
+	}
+
+	public boolean isMemoizeSentenceCtx() {
+		return memoizeSentenceCtx;
+	}
+
+	public void setMemoizeSentenceCtx(boolean memoizeSentenceCtx) {
+		this.memoizeSentenceCtx = memoizeSentenceCtx;
+	}
+
 	public Double getInstanceWeight() {
 		return instanceWeight;
 	}
@@ -147,8 +215,7 @@ public class DocumentCtx {
 		double retDouble = 0d;
 		double termCount = 0d;
 
-		AnnotationSet intersectingTokens = ctx.getGateDoc().getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.tokenAnnType).getContained(sentence.getStartNode().getOffset(), sentence.getEndNode().getOffset());
-		List<Annotation> intersectingTokensOrderedList = gate.Utils.inDocumentOrder(intersectingTokens);
+		List<Annotation> intersectingTokensOrderedList = ctx.getSentenceCtx(sentence).getTokens();
 		if(intersectingTokensOrderedList != null && intersectingTokensOrderedList.size() > 0) {
 			for(Annotation intersectingToken : intersectingTokensOrderedList) {
 				if(intersectingToken != null) {
@@ -186,8 +253,7 @@ public class DocumentCtx {
 
 		// Sentence 1
 		Map<String, Double> sent1Map = new HashMap<String, Double>();
-		AnnotationSet intersectingTokens_sent1 = ctx.getGateDoc().getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.tokenAnnType).getContained(sentence1.getStartNode().getOffset(), sentence1.getEndNode().getOffset());
-		List<Annotation> intersectingTokensOrderedList_sent1 = gate.Utils.inDocumentOrder(intersectingTokens_sent1);
+		List<Annotation> intersectingTokensOrderedList_sent1 = ctx.getSentenceCtx(sentence1).getTokens();
 
 		if(intersectingTokensOrderedList_sent1 != null && intersectingTokensOrderedList_sent1.size() > 0) {
 			for(Annotation intersectingToken : intersectingTokensOrderedList_sent1) {
@@ -220,8 +286,7 @@ public class DocumentCtx {
 
 		// Sentence 2
 		Map<String, Double> sent2Map = new HashMap<String, Double>();
-		AnnotationSet intersectingTokens_sent2 = ctx.getGateDoc().getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.tokenAnnType).getContained(sentence2.getStartNode().getOffset(), sentence2.getEndNode().getOffset());
-		List<Annotation> intersectingTokensOrderedList_sent2 = gate.Utils.inDocumentOrder(intersectingTokens_sent2);
+		List<Annotation> intersectingTokensOrderedList_sent2 = ctx.getSentenceCtx(sentence2).getTokens();
 
 		if(intersectingTokensOrderedList_sent2 != null && intersectingTokensOrderedList_sent2.size() > 0) {
 			for(Annotation intersectingToken : intersectingTokensOrderedList_sent2) {
@@ -0,0 +1,138 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ * 
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ * 
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.module.rhetclassifier.feats.ctx;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only document frequency map of a corpus extended with the document under analysis: the document frequency of each
+ * term of the document is the one of the corpus plus one.<br/>
+ * The document frequencies of the corpus (base layer) are shared among all the documents and never copied: only the set of
+ * terms of the document (overlay) is kept by each instance.
+ * 
+ *
+ */
+public class LayeredDocFrequencyMap extends AbstractMap<String, Double> {
+
+	private final Map<String, Double> corpusDF_map;
+	private final Set<String> documentTerms;
+
+	private Set<Entry<String, Double>> entrySet = null;
+	private int size = -1;
+
+	/**
+	 * Create the document frequency map of the corpus extended with a document
+	 * 
+	 * @param corpusDF_map document frequencies of the corpus (KEY: term / VALUE: number of documents containing the term), not modified
+	 * @param documentTerms terms occurring in the document under analysis
+	 */
+	public LayeredDocFrequencyMap(Map<String, Double> corpusDF_map, Set<String> documentTerms) {
+		this.corpusDF_map = (corpusDF_map != null) ? corpusDF_map : Collections.<String, Double>emptyMap();
+		this.documentTerms = (documentTerms != null) ? documentTerms : Collections.<String>emptySet();
+	}
+
+	@Override
+	public Double get(Object key) {
+		Double corpusDF = corpusDF_map.get(key);
+		boolean inDocument = documentTerms.contains(key);
+
+		if(corpusDF == null) {
+			return (inDocument) ? 1d : null;
+		}
+		return (inDocument) ? corpusDF + 1d : corpusDF;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return documentTerms.contains(key) || corpusDF_map.containsKey(key);
+	}
+
+	@Override
+	public int size() {
+		if(size < 0) {
+			int documentOnlyTerms = 0;
+			for(String term : documentTerms) {
+				if(!corpusDF_map.containsKey(term)) {
+					documentOnlyTerms++;
+				}
+			}
+			size = corpusDF_map.size() + documentOnlyTerms;
+		}
+		return size;
+	}
+
+	@Override
+	public Set<Entry<String, Double>> entrySet() {
+		if(entrySet == null) {
+			entrySet = new AbstractSet<Entry<String, Double>>() {
+
+				@Override
+				public Iterator<Entry<String, Double>> iterator() {
+					return new LayeredIterator();
+				}
+
+				@Override
+				public int size() {
+					return LayeredDocFrequencyMap.this.size();
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	/**
+	 * Iterates the terms of the corpus and then the terms occurring only in the document
+	 *
+	 */
+	private class LayeredIterator implements Iterator<Entry<String, Double>> {
+
+		private final Iterator<String> corpusTermIter = corpusDF_map.keySet().iterator();
+		private final Iterator<String> documentTermIter = documentTerms.iterator();
+		private String nextTerm = null;
+
+		@Override
+		public boolean hasNext() {
+			if(nextTerm != null) {
+				return true;
+			}
+			if(corpusTermIter.hasNext()) {
+				nextTerm = corpusTermIter.next();
+				return true;
+			}
+			while(documentTermIter.hasNext()) {
+				String documentTerm = documentTermIter.next();
+				if(!corpusDF_map.containsKey(documentTerm)) {
+					nextTerm = documentTerm;
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public Entry<String, Double> next() {
+			if(!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			String term = nextTerm;
+			nextTerm = null;
+			return new SimpleImmutableEntry<String, Double>(term, get(term));
+		}
+	}
+
+}
@@ -0,0 +1,365 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ * 
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ * 
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.module.rhetclassifier.feats.ctx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+import edu.upf.taln.dri.common.util.GateUtil;
+import edu.upf.taln.dri.module.importer.ImporterBase;
+import edu.upf.taln.dri.module.parser.MateParser;
+import edu.upf.taln.dri.module.rhetclassifier.feats.LexiconMatcher;
+import gate.Annotation;
+import gate.Document;
+import gate.util.InvalidOffsetException;
+
+/**
+ * Memoized view of a sentence shared by all the feature calculators of the rhetorical classifier: the text of the sentence 
+ * (raw and lower-cased), the annotations contained in the sentence (by annotation set and type, in document order),
+ * the text of the contained annotations and the tokens of the sentence with their features (lemma, POS, kind, dependency 
+ * function and head), thus each calculator does not query again the GATE document.<br/>
+ * Retrieve the view of a sentence by {@link edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx#getSentenceCtx(Annotation) DocumentCtx.getSentenceCtx(Annotation)}.
+ * The lists returned are not modifiable.
+ * 
+ *
+ */
+public class SentenceCtx {
+
+	private final Document gateDoc;
+	private final Annotation sentence;
+
+	private final String text;
+	private final String lowerCaseText;
+
+	// Annotations contained in the sentence by annotation set name + type
+	private final Map<String, List<Annotation>> containedAnnotations = new ConcurrentHashMap<String, List<Annotation>>();
+	// Annotations contained in the sentence and not inside an inline citation span by annotation set name + type
+	private final Map<String, List<Annotation>> containedOutsideCitSpanAnnotations = new ConcurrentHashMap<String, List<Annotation>>();
+	// Text of the annotations contained in the sentence by annotation id
+	private final Map<Integer, String> annotationText = new ConcurrentHashMap<Integer, String>();
+
+	// Matches of the lexicons in the text of the sentence by lexicon matcher
+	private final Map<LexiconMatcher, LexiconMatcher.Matches> lexiconMatches = new ConcurrentHashMap<LexiconMatcher, LexiconMatcher.Matches>();
+
+	// Tokens (annotation set: Analysis, type: Token) with their features
+	private final List<Annotation> tokens;
+	private final String[] tokenString;
+	private final String[] tokenLemma;
+	private final String[] tokenPOS;
+	private final String[] tokenKind;
+	private final String[] tokenDepFunct;
+	private final Integer[] tokenDepTargetId;
+	private final int[] tokenDepTargetIndex;
+	private final boolean[] tokenInsideCitSpan;
+
+	private volatile Integer depTreeMaxDepth = null;
+
+	SentenceCtx(Document gateDoc, Annotation sentence) {
+		this.gateDoc = gateDoc;
+		this.sentence = sentence;
+
+		String sentenceText = "";
+		try {
+			sentenceText = gateDoc.getContent().getContent(sentence.getStartNode().getOffset(), sentence.getEndNode().getOffset()).toString();
+		} catch (InvalidOffsetException e) {
+			e.printStackTrace();
+		}
+		this.text = sentenceText;
+		this.lowerCaseText = sentenceText.toLowerCase();
+
+		this.tokens = getContained(ImporterBase.driAnnSet, ImporterBase.tokenAnnType);
+		List<Annotation> citSpans = getContained(ImporterBase.driAnnSet, ImporterBase.inlineCitationAnnType);
+
+		int tokenCount = tokens.size();
+		this.tokenString = new String[tokenCount];
+		this.tokenLemma = new String[tokenCount];
+		this.tokenPOS = new String[tokenCount];
+		this.tokenKind = new String[tokenCount];
+		this.tokenDepFunct = new String[tokenCount];
+		this.tokenDepTargetId = new Integer[tokenCount];
+		this.tokenDepTargetIndex = new int[tokenCount];
+		this.tokenInsideCitSpan = new boolean[tokenCount];
+
+		Map<Integer, Integer> tokenIndexById = new HashMap<Integer, Integer>();
+		for(int i = 0; i < tokenCount; i++) {
+			tokenIndexById.put(tokens.get(i).getId(), i);
+		}
+
+		for(int i = 0; i < tokenCount; i++) {
+			Annotation token = tokens.get(i);
+			tokenString[i] = getAnnotationText(token);
+			tokenLemma[i] = GateUtil.getStringFeature(token, ImporterBase.token_LemmaFeat).orElse("");
+			tokenPOS[i] = GateUtil.getStringFeature(token, MateParser.posFeat).orElse("");
+			tokenKind[i] = GateUtil.getStringFeature(token, "kind").orElse("");
+			tokenDepFunct[i] = GateUtil.getStringFeature(token, MateParser.depKindFeat).orElse("");
+
+			Object depTargetId = (token.getFeatures() != null) ? token.getFeatures().get(MateParser.depTargetIdFeat) : null;
+			tokenDepTargetId[i] = (depTargetId instanceof Integer) ? (Integer) depTargetId : null;
+			Integer depTargetIndex = (tokenDepTargetId[i] != null) ? tokenIndexById.get(tokenDepTargetId[i]) : null;
+			tokenDepTargetIndex[i] = (depTargetIndex != null) ? depTargetIndex : -1;
+
+			for(Annotation citSpan : citSpans) {
+				if(citSpan != null && token.getStartNode().getOffset() >= citSpan.getStartNode().getOffset() && token.getEndNode().getOffset() <= citSpan.getEndNode().getOffset()) {
+					tokenInsideCitSpan[i] = true;
+					break;
+				}
+			}
+		}
+	}
+
+	public Annotation getSentence() {
+		return sentence;
+	}
+
+	/**
+	 * Text of the sentence
+	 * 
+	 * @return
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * Lower-cased text of the sentence
+	 * 
+	 * @return
+	 */
+	public String getLowerCaseText() {
+		return lowerCaseText;
+	}
+
+	/**
+	 * Entries of a lexicon matched in the text of the sentence (lower-cased if the matcher is case insensitive)
+	 * 
+	 * @param matcher
+	 * @return
+	 */
+	public LexiconMatcher.Matches getLexiconMatches(LexiconMatcher matcher) {
+		LexiconMatcher.Matches matches = lexiconMatches.get(matcher);
+		if(matches == null) {
+			matches = matcher.match((matcher.isCaseInsensitive()) ? lowerCaseText : text);
+			lexiconMatches.put(matcher, matches);
+		}
+		return matches;
+	}
+
+	/**
+	 * Annotations of an annotation set and type contained in the sentence, in document order
+	 * 
+	 * @param annotationSetName
+	 * @param annotationType
+	 * @return
+	 */
+	public List<Annotation> getContained(String annotationSetName, String annotationType) {
+		String key = StringUtils.defaultString(annotationSetName) + "\t" + StringUtils.defaultString(annotationType);
+		List<Annotation> contained = containedAnnotations.get(key);
+		if(contained == null) {
+			contained = Collections.unmodifiableList(new ArrayList<Annotation>(gate.Utils.inDocumentOrder(gateDoc.getAnnotations(annotationSetName).get(annotationType).getContained(
+					sentence.getStartNode().getOffset(), sentence.getEndNode().getOffset()))));
+			containedAnnotations.put(key, contained);
+		}
+		return contained;
+	}
+
+	/**
+	 * Annotations of an annotation set and type contained in the sentence, in document order, excluding the ones
+	 * included in an inline citation span (annotation set: Analysis, type: CitSpan)
+	 * 
+	 * @param annotationSetName
+	 * @param annotationType
+	 * @return
+	 */
+	public List<Annotation> getContainedOutsideCitSpans(String annotationSetName, String annotationType) {
+		String key = StringUtils.defaultString(annotationSetName) + "\t" + StringUtils.defaultString(annotationType);
+		List<Annotation> containedOutsideCitSpan = containedOutsideCitSpanAnnotations.get(key);
+		if(containedOutsideCitSpan == null) {
+			List<Annotation> citSpans = getContained(ImporterBase.driAnnSet, ImporterBase.inlineCitationAnnType);
+			List<Annotation> outsideCitSpan = new ArrayList<Annotation>();
+			for(Annotation ann : getContained(annotationSetName, annotationType)) {
+				boolean annInsideCitSpan = false;
+				for(Annotation citSpan : citSpans) {
+					if(citSpan != null && ann.getStartNode().getOffset() >= citSpan.getStartNode().getOffset() && ann.getEndNode().getOffset() <= citSpan.getEndNode().getOffset()) {
+						annInsideCitSpan = true;
+						break;
+					}
+				}
+				
+				if(!annInsideCitSpan) {
+					outsideCitSpan.add(ann);
+				}
+			}
+			containedOutsideCitSpan = Collections.unmodifiableList(outsideCitSpan);
+			containedOutsideCitSpanAnnotations.put(key, containedOutsideCitSpan);
+		}
+		return containedOutsideCitSpan;
+	}
+
+	/**
+	 * Text of an annotation contained in the sentence
+	 * 
+	 * @param ann
+	 * @return empty string if the offsets are not valid
+	 */
+	public String getAnnotationText(Annotation ann) {
+		String annText = annotationText.get(ann.getId());
+		if(annText == null) {
+			annText = "";
+			long start = ann.getStartNode().getOffset() - sentence.getStartNode().getOffset();
+			long end = ann.getEndNode().getOffset() - sentence.getStartNode().getOffset();
+			if(start >= 0l && end <= text.length() && start <= end) {
+				annText = text.substring((int) start, (int) end);
+			}
+			else {
+				try {
+					annText = gateDoc.getContent().getContent(ann.getStartNode().getOffset(), ann.getEndNode().getOffset()).toString();
+				} catch (InvalidOffsetException e) {
+					e.printStackTrace();
+				}
+			}
+			annotationText.put(ann.getId(), annText);
+		}
+		return annText;
+	}
+
+	/**
+	 * Tokens of the sentence (annotation set: Analysis, type: Token), in document order
+	 * 
+	 * @return
+	 */
+	public List<Annotation> getTokens() {
+		return tokens;
+	}
+
+	/**
+	 * Text of the i-th token of the sentence
+	 * 
+	 * @param tokenIndex
+	 * @return
+	 */
+	public String getTokenString(int tokenIndex) {
+		return tokenString[tokenIndex];
+	}
+
+	/**
+	 * Lemma of the i-th token of the sentence
+	 * 
+	 * @param tokenIndex
+	 * @return empty string if not defined
+	 */
+	public String getTokenLemma(int tokenIndex) {
+		return tokenLemma[tokenIndex];
+	}
+
+	/**
+	 * POS of the i-th token of the sentence
+	 * 
+	 * @param tokenIndex
+	 * @return empty string if not defined
+	 */
+	public String getTokenPOS(int tokenIndex) {
+		return tokenPOS[tokenIndex];
+	}
+
+	/**
+	 * Kind of the i-th token of the sentence
+	 * 
+	 * @param tokenIndex
+	 * @return empty string if not defined
+	 */
+	public String getTokenKind(int tokenIndex) {
+		return tokenKind[tokenIndex];
+	}
+
+	/**
+	 * Dependency function of the i-th token of the sentence
+	 * 
+	 * @param tokenIndex
+	 * @return empty string if not defined
+	 */
+	public String getTokenDepFunct(int tokenIndex) {
+		return tokenDepFunct[tokenIndex];
+	}
+
+	/**
+	 * Annotation id of the token that is the head (target) of the dependency relation of the i-th token
+	 * 
+	 * @param tokenIndex
+	 * @return null if not defined
+	 */
+	public Integer getTokenDepTargetId(int tokenIndex) {
+		return tokenDepTargetId[tokenIndex];
+	}
+
+	/**
+	 * Index of the token of the sentence that is the head (target) of the dependency relation of the i-th token
+	 * 
+	 * @param tokenIndex
+	 * @return -1 if the token has no dependency target inside the sentence
+	 */
+	public int getTokenDepTargetIndex(int tokenIndex) {
+		return tokenDepTargetIndex[tokenIndex];
+	}
+
+	/**
+	 * Check if the i-th token of the sentence is inside an inline citation span
+	 * 
+	 * @param tokenIndex
+	 * @return
+	 */
+	public boolean isTokenInsideCitSpan(int tokenIndex) {
+		return tokenInsideCitSpan[tokenIndex];
+	}
+
+	/**
+	 * Max depth of the dependency tree of the sentence: the longest chain of dependency relations starting from a token,
+	 * counting the root node
+	 * 
+	 * @return
+	 */
+	public int getDepTreeMaxDepth() {
+		Integer maxDepthAppo = depTreeMaxDepth;
+		if(maxDepthAppo == null) {
+			int maxDepth = 0;
+			for(int i = 0; i < tokens.size(); i++) {
+				if(StringUtils.isNotBlank(tokenDepFunct[i]) && tokenDepTargetId[i] != null) {
+					// The target of the relation counts 1 even if outside the sentence
+					boolean[] visited = new boolean[tokens.size()];
+					int branchDepth = 1;
+					for(int current = tokenDepTargetIndex[i]; current >= 0; ) {
+						visited[current] = true;
+						int next = tokenDepTargetIndex[current];
+						if(StringUtils.isNotBlank(tokenDepFunct[current]) && tokenDepTargetId[current] != null && (next < 0 || !visited[next])) {
+							branchDepth++;
+							current = next;
+						}
+						else {
+							break;
+						}
+					}
+					maxDepth = Math.max(maxDepth, branchDepth);
+				}
+			}
+			// Increase maxDepth by 1 because the root node is not considered
+			maxDepthAppo = maxDepth + 1;
+			depTreeMaxDepth = maxDepthAppo;
+		}
+		return maxDepthAppo;
+	}
+
+}
@@ -16,7 +16,6 @@ import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyString;
 import gate.Annotation;
-import gate.util.InvalidOffsetException;
 
 /**
  * Get the text of the annotation.
@@ -28,12 +27,7 @@ public class AnnotationTextC implements FeatCalculator<String, Annotation, Docum
 	
 	@Override
 	public MyString calculateFeature(Annotation obj, DocumentCtx doc, String featName) {
-		String stringText = null;
-		try {
-			stringText = doc.getGateDoc().getContent().getContent(obj.getStartNode().getOffset(), obj.getEndNode().getOffset()).toString();
-		} catch (InvalidOffsetException e) {
-			e.printStackTrace();
-		}
+		String stringText = doc.getSentenceCtx(obj).getText();
 		MyString retValue = new MyString("");
 		
 		if(stringText != null) {
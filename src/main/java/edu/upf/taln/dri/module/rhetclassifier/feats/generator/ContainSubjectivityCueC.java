@@ -23,7 +23,6 @@ import edu.upf.taln.dri.module.rhetclassifier.feats.generator.opinionfinder.Subj
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyDouble;
 import gate.Annotation;
-import gate.AnnotationSet;
 
 /**
  * Check if the text contains any subjectivity cue
@@ -73,8 +72,7 @@ public class ContainSubjectivityCueC implements FeatCalculator<Double, Annotatio
 
 		try {
 			// Get all tokens
-			AnnotationSet intersectTokens = doc.getGateDoc().getAnnotations(tokenAnnotationSet).get(tokenAnnotationName).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
-			List<Annotation> intersectingTokensOrdered  = gate.Utils.inDocumentOrder(intersectTokens);
+			List<Annotation> intersectingTokensOrdered = doc.getSentenceCtx(obj).getContained(tokenAnnotationSet, tokenAnnotationName);
 
 			if(intersectingTokensOrdered != null && intersectingTokensOrdered.size() > 0) {
 
@@ -14,6 +14,7 @@ package edu.upf.taln.dri.module.rhetclassifier.feats.generator;
 import java.util.Set;
 
 import edu.upf.taln.dri.module.rhetclassifier.RhetoricalClassifier;
+import edu.upf.taln.dri.module.rhetclassifier.feats.LexiconMatcher;
 import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyDouble;
@@ -26,13 +27,13 @@ import gate.Annotation;
  */
 public class ContainTextInListC implements FeatCalculator<Double, Annotation, DocumentCtx> {
 
-	private Set<String> listOfWordsToMathc;
-	private boolean caseInsensitiveMatch = false;
+	private LexiconMatcher lexiconMatcher;
 	private boolean booleanOutput = false;
 
 
 	/**
 	 * The list of words to match is matched against the whole text taken from the sentence annotation.
+	 * The list is compiled to a {@link edu.upf.taln.dri.module.rhetclassifier.feats.LexiconMatcher LexiconMatcher}.
 	 * 
 	 * @param listOfWordsToMathc
 	 * @param caseInsensitiveMatch
@@ -42,8 +43,7 @@ public class ContainTextInListC implements FeatCalculator<Double, Annotation, Do
 			boolean caseInsensitiveMatch,
 			boolean booleanOutput) {
 		super();
-		this.listOfWordsToMathc = listOfWordsToMathc;
-		this.caseInsensitiveMatch = caseInsensitiveMatch;
+		this.lexiconMatcher = LexiconMatcher.getMatcher(listOfWordsToMathc, caseInsensitiveMatch);
 		this.booleanOutput = booleanOutput;
 	}
 
@@ -52,63 +52,11 @@ public class ContainTextInListC implements FeatCalculator<Double, Annotation, Do
 
 		Double returnValue = 0d;
 
-		if(listOfWordsToMathc != null && listOfWordsToMathc.size() > 0) {
+		if(lexiconMatcher != null && lexiconMatcher.getEntryCount() > 0) {
 
 			try {
-				String textOfSentence = doc.getGateDoc().getContent().getContent(
-						obj.getStartNode().getOffset(),
-						obj.getEndNode().getOffset()).toString();
-				
-				for(String wordToMathc : listOfWordsToMathc) {
-					if( wordToMathc != null && !wordToMathc.equals("") ) {
-						
-						if(wordToMathc.contains(" ")) {
-							if(this.caseInsensitiveMatch) {
-								returnValue += (textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase())) ? 1d : 0d;
-							}
-							else {
-								returnValue += (textOfSentence.contains(wordToMathc)) ? 1d : 0d;
-							}
-						}
-						else {
-							if(this.caseInsensitiveMatch) {
-								returnValue += (textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase() + " ") ||
-												textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase() + ".") ||
-												textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase() + ",") ||
-												textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase() + ";") ||
-												textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase() + ")") ||
-												textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase() + "]") ||
-												textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase() + ":") ||
-												textOfSentence.toLowerCase().contains(" " + wordToMathc.toLowerCase()) ||
-												textOfSentence.toLowerCase().contains("." + wordToMathc.toLowerCase()) ||
-												textOfSentence.toLowerCase().contains("," + wordToMathc.toLowerCase()) ||
-												textOfSentence.toLowerCase().contains(";" + wordToMathc.toLowerCase()) ||
-												textOfSentence.toLowerCase().contains(":" + wordToMathc.toLowerCase()) ||
-												textOfSentence.toLowerCase().contains("(" + wordToMathc.toLowerCase()) ||
-												textOfSentence.toLowerCase().contains("[" + wordToMathc.toLowerCase()) ) ? 1d : 0d;
-							}
-							else {
-								returnValue += (textOfSentence.contains(wordToMathc + " ") ||
-										textOfSentence.contains(wordToMathc + ".") ||
-										textOfSentence.contains(wordToMathc + ",") ||
-										textOfSentence.contains(wordToMathc + ";") ||
-										textOfSentence.contains(wordToMathc + ")") ||
-										textOfSentence.contains(wordToMathc + "]") ||
-										textOfSentence.contains(wordToMathc + ":") ||
-										textOfSentence.contains(" " + wordToMathc) ||
-										textOfSentence.contains("." + wordToMathc) ||
-										textOfSentence.contains("," + wordToMathc) ||
-										textOfSentence.contains(";" + wordToMathc) ||
-										textOfSentence.contains(":" + wordToMathc) ||
-										textOfSentence.contains("(" + wordToMathc) ||
-										textOfSentence.contains("[" + wordToMathc) ) ? 1d : 0d;
-							}
-						}
-						
-						
-					}
-				}
-				
+				// Count the words of the list matched in the text of the sentence (single pass, shared by the calculators with the same list)
+				returnValue += doc.getSentenceCtx(obj).getLexiconMatches(lexiconMatcher).getMatchedEntryCount();
 			}
 			catch (Exception e) {
 				e.printStackTrace();
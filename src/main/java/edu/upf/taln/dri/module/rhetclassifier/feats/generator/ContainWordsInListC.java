@@ -20,8 +20,6 @@ import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyDouble;
 import gate.Annotation;
-import gate.AnnotationSet;
-import gate.util.InvalidOffsetException;
 
 /**
  * Match the words in the annotation against a list provided by the constructor and return the number of tokens that matched one word in the list
@@ -94,11 +92,9 @@ public class ContainWordsInListC implements FeatCalculator<Double, Annotation, D
 		
 		if(listOfWordsToMathc != null && listOfWordsToMathc.size() > 0) {
 			
-			AnnotationSet intersectingCitSpans = doc.getGateDoc().getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.inlineCitationAnnType).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
-			List<Annotation> intersectingCitSpansOrdered  = gate.Utils.inDocumentOrder(intersectingCitSpans);
+			List<Annotation> intersectingCitSpansOrdered = doc.getSentenceCtx(obj).getContained(ImporterBase.driAnnSet, ImporterBase.inlineCitationAnnType);
 			
-			AnnotationSet intersectTokens = doc.getGateDoc().getAnnotations(tokenAnnotationSet).get(tokenAnnotationName).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
-			List<Annotation> intersectingTokensOrdered  = gate.Utils.inDocumentOrder(intersectTokens);
+			List<Annotation> intersectingTokensOrdered = doc.getSentenceCtx(obj).getContained(tokenAnnotationSet, tokenAnnotationName);
 			
 			if(intersectingTokensOrdered != null && intersectingTokensOrdered.size() > 0) {
 				
@@ -147,28 +143,22 @@ public class ContainWordsInListC implements FeatCalculator<Double, Annotation, D
 						
 						
 						String textToMatch = "";
-						try {
-							if(featureName == null || featureName.equals("")) {
-								textToMatch = doc.getGateDoc().getContent().getContent(annotInt.getStartNode().getOffset(), annotInt.getEndNode().getOffset()).toString();
-							}
-							else if(annotInt.getFeatures() != null && annotInt.getFeatures().containsKey(featureName) &&
-									annotInt.getFeatures().get(featureName) != null &&
-									!((String) annotInt.getFeatures().get(featureName)).equals("") ) {
-								textToMatch = (String) annotInt.getFeatures().get(featureName);
-							}
-							
-						} catch (InvalidOffsetException e) {
-							e.printStackTrace();
+						if(featureName == null || featureName.equals("")) {
+							textToMatch = doc.getSentenceCtx(obj).getAnnotationText(annotInt);
+						}
+						else if(annotInt.getFeatures() != null && annotInt.getFeatures().containsKey(featureName) &&
+								annotInt.getFeatures().get(featureName) != null &&
+								!((String) annotInt.getFeatures().get(featureName)).equals("") ) {
+							textToMatch = (String) annotInt.getFeatures().get(featureName);
 						}
 
 						// In textToMatch there is the text we want to match
 						if(textToMatch != null && !textToMatch.equals("")) {
 							textToMatch = (caseInsensitiveMatch) ? textToMatch.trim().toLowerCase() : textToMatch.trim();
 							
-							for(String wordToMatch : listOfWordsToMathc) {
-								if(textToMatch.equals(wordToMatch)) {
-									returnValue += 1d;
-								}
+							// Hash lookup of the token in the list (equality match)
+							if(listOfWordsToMathc.contains(textToMatch)) {
+								returnValue += 1d;
 							}
 						}
 						
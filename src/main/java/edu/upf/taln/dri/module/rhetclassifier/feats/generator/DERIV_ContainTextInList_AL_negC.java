@@ -14,7 +14,9 @@ package edu.upf.taln.dri.module.rhetclassifier.feats.generator;
 import java.util.Set;
 
 import edu.upf.taln.dri.module.rhetclassifier.RhetoricalClassifier;
+import edu.upf.taln.dri.module.rhetclassifier.feats.LexiconMatcher;
 import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
+import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.SentenceCtx;
 import edu.upf.taln.dri.module.rhetclassifier.feats.generator.formulaic.ConceptLexicon;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyDouble;
@@ -27,7 +29,9 @@ import gate.Annotation;
  */
 public class DERIV_ContainTextInList_AL_negC implements FeatCalculator<Double, Annotation, DocumentCtx> {
 
-	private Set<String> listOfWordsToMathc;
+	private static final LexiconMatcher negationMatcher = LexiconMatcher.getMatcher(ConceptLexicon.coreMap.get("NEGATION"), false);
+
+	private LexiconMatcher lexiconMatcher;
 	private boolean caseInsensitiveMatch = false;
 	private boolean booleanOutput = false;
 	private boolean checkContainNegated = false;
@@ -44,7 +48,7 @@ public class DERIV_ContainTextInList_AL_negC implements FeatCalculator<Double, A
 			boolean booleanOutput,
 			boolean checkContainNegated) {
 		super();
-		this.listOfWordsToMathc = listOfWordsToMathc;
+		this.lexiconMatcher = LexiconMatcher.getMatcher(listOfWordsToMathc, caseInsensitiveMatch);
 		this.caseInsensitiveMatch = caseInsensitiveMatch;
 		this.booleanOutput = booleanOutput;
 		this.checkContainNegated = checkContainNegated;
@@ -57,105 +61,41 @@ public class DERIV_ContainTextInList_AL_negC implements FeatCalculator<Double, A
 
 		boolean negated = false;
 
-		if(listOfWordsToMathc != null && listOfWordsToMathc.size() > 0) {
+		if(lexiconMatcher != null && lexiconMatcher.getEntryCount() > 0) {
 
 			try {
-				String textOfSentence = doc.getGateDoc().getContent().getContent(
-						obj.getStartNode().getOffset(),
-						obj.getEndNode().getOffset()).toString();
-
-				for(String wordToMathc : listOfWordsToMathc) {
-					if( wordToMathc != null && !wordToMathc.equals("") ) {
-
-						int prevRetValue = returnValue.intValue();
+				SentenceCtx sentenceCtx = doc.getSentenceCtx(obj);
+				String textOfSentence = sentenceCtx.getText();
+				String lowerCaseTextOfSentence = sentenceCtx.getLowerCaseText();
+
+				// Count the words of the list matched in the text of the sentence (single pass, shared by the calculators with the same list)
+				LexiconMatcher.Matches matches = sentenceCtx.getLexiconMatches(lexiconMatcher);
+				returnValue += matches.getMatchedEntryCount();
+
+				for(String wordToMathc : matches.getMatchedEntries()) {
+					// One match has been found
+					// Check if negated or not
+					int indexOfMatch = -1;
+					if(this.caseInsensitiveMatch) {
+						indexOfMatch = lowerCaseTextOfSentence.indexOf(wordToMathc);
+					}
+					else {
+						indexOfMatch = textOfSentence.indexOf(wordToMathc);
+					}
 
-						if(wordToMathc.contains(" ")) {
-							if(this.caseInsensitiveMatch) {
-								returnValue += (textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase())) ? 1d : 0d;
-							}
-							else {
-								returnValue += (textOfSentence.contains(wordToMathc)) ? 1d : 0d;
+					if(indexOfMatch != -1) {
+						try {
+							int startSearch = ((indexOfMatch - 25) >= 0) ? (indexOfMatch - 25) : 0;
+							int endSearch = ((indexOfMatch + 25) < textOfSentence.length()) ? (indexOfMatch + 25) : (textOfSentence.length() - 1);
+							
+							String partOfTextOfSentence = lowerCaseTextOfSentence.substring(startSearch, endSearch);
+							if(negationMatcher.match(partOfTextOfSentence).getMatchedEntryCount() > 0) {
+								negated = true;
 							}
 						}
-						else {
-							if(this.caseInsensitiveMatch) {
-								returnValue += (textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase() + " ") ||
-										textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase() + ".") ||
-										textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase() + ",") ||
-										textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase() + ";") ||
-										textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase() + ")") ||
-										textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase() + "]") ||
-										textOfSentence.toLowerCase().contains(wordToMathc.toLowerCase() + ":") ||
-										textOfSentence.toLowerCase().contains(" " + wordToMathc.toLowerCase()) ||
-										textOfSentence.toLowerCase().contains("." + wordToMathc.toLowerCase()) ||
-										textOfSentence.toLowerCase().contains("," + wordToMathc.toLowerCase()) ||
-										textOfSentence.toLowerCase().contains(";" + wordToMathc.toLowerCase()) ||
-										textOfSentence.toLowerCase().contains(":" + wordToMathc.toLowerCase()) ||
-										textOfSentence.toLowerCase().contains("(" + wordToMathc.toLowerCase()) ||
-										textOfSentence.toLowerCase().contains("[" + wordToMathc.toLowerCase()) ) ? 1d : 0d;
-							}
-							else {
-								returnValue += (textOfSentence.contains(wordToMathc + " ") ||
-										textOfSentence.contains(wordToMathc + ".") ||
-										textOfSentence.contains(wordToMathc + ",") ||
-										textOfSentence.contains(wordToMathc + ";") ||
-										textOfSentence.contains(wordToMathc + ")") ||
-										textOfSentence.contains(wordToMathc + "]") ||
-										textOfSentence.contains(wordToMathc + ":") ||
-										textOfSentence.contains(" " + wordToMathc) ||
-										textOfSentence.contains("." + wordToMathc) ||
-										textOfSentence.contains("," + wordToMathc) ||
-										textOfSentence.contains(";" + wordToMathc) ||
-										textOfSentence.contains(":" + wordToMathc) ||
-										textOfSentence.contains("(" + wordToMathc) ||
-										textOfSentence.contains("[" + wordToMathc) ) ? 1d : 0d;
-							}
+						catch(Exception e) {
+							System.out.println("Negation of verb error.");
 						}
-
-						if(prevRetValue < returnValue) {
-							// One match has been found
-							// Check if negated or not
-							int indexOfMatch = -1;
-							if(this.caseInsensitiveMatch) {
-								indexOfMatch = textOfSentence.toLowerCase().indexOf(wordToMathc);
-							}
-							else {
-								indexOfMatch = textOfSentence.indexOf(wordToMathc);
-							}
-
-							if(indexOfMatch != -1) {
-								try {
-									int startSearch = ((indexOfMatch - 25) >= 0) ? (indexOfMatch - 25) : 0;
-									int endSearch = ((indexOfMatch + 25) < textOfSentence.length()) ? (indexOfMatch + 25) : (textOfSentence.length() - 1);
-									
-									String partOfTextOfSentence = textOfSentence.toLowerCase().substring(startSearch, endSearch);
-									for(String negationExpr : ConceptLexicon.coreMap.get("NEGATION")) {
-										boolean checkNegated = (partOfTextOfSentence.contains(negationExpr + " ") ||
-												partOfTextOfSentence.contains(negationExpr + ".") ||
-												partOfTextOfSentence.contains(negationExpr + ",") ||
-												partOfTextOfSentence.contains(negationExpr + ";") ||
-												partOfTextOfSentence.contains(negationExpr + ")") ||
-												partOfTextOfSentence.contains(negationExpr + "]") ||
-												partOfTextOfSentence.contains(negationExpr + ":") ||
-												partOfTextOfSentence.contains(" " + negationExpr) ||
-												partOfTextOfSentence.contains("." + negationExpr) ||
-												partOfTextOfSentence.contains("," + negationExpr) ||
-												partOfTextOfSentence.contains(";" + negationExpr) ||
-												partOfTextOfSentence.contains(":" + negationExpr) ||
-												partOfTextOfSentence.contains("(" + negationExpr) ||
-												partOfTextOfSentence.contains("[" + negationExpr) ) ? true : false;
-										
-										if(checkNegated) {
-											negated = true;
-										}
-									}
-								}
-								catch(Exception e) {
-									System.out.println("Negation of verb error.");
-								}
-							}
-						}
-
 					}
 				}
 
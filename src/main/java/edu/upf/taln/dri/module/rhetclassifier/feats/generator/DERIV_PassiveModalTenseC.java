@@ -20,7 +20,6 @@ import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyString;
 import gate.Annotation;
-import gate.AnnotationSet;
 
 
 /**
@@ -51,13 +50,13 @@ public class DERIV_PassiveModalTenseC implements FeatCalculator<String, Annotati
 
 	@Override
 	public MyString calculateFeature(Annotation obj, DocumentCtx doc, String featName) {
-		AnnotationSet intersectingTokens = doc.getGateDoc().getAnnotations(tokenAnnotationSet).get(tokenAnnotationName).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
+		List<Annotation> intersectingTokens = doc.getSentenceCtx(obj).getContained(tokenAnnotationSet, tokenAnnotationName);
 
 		MyString retValue = new MyString("NoVerb");
 
 		if(intersectingTokens != null) {
 
-			List<Annotation> intersectingTokensOrdered = gate.Utils.inDocumentOrder(intersectingTokens);
+			List<Annotation> intersectingTokensOrdered = intersectingTokens;
 
 			// Look for root token
 			for(Annotation intersectingToken : intersectingTokensOrdered) {
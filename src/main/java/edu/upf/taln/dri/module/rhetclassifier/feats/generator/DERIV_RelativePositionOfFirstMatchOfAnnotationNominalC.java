@@ -20,7 +20,6 @@ import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyString;
 import gate.Annotation;
-import gate.AnnotationSet;
 
 /**
  * Get the sentence relative position of the first match of a certain annotation
@@ -71,8 +70,7 @@ public class DERIV_RelativePositionOfFirstMatchOfAnnotationNominalC implements F
 
 		boolean foundFisrstOccurrence = false;
 
-		AnnotationSet intersectTokens = doc.getGateDoc().getAnnotations(tokenAnnotationSet).get(tokenAnnotationName).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
-		List<Annotation> intersectingTokensOrdered  = gate.Utils.inDocumentOrder(intersectTokens);
+		List<Annotation> intersectingTokensOrdered = doc.getSentenceCtx(obj).getContained(tokenAnnotationSet, tokenAnnotationName);
 
 		if(intersectingTokensOrdered != null && intersectingTokensOrdered.size() > 0) {
 
@@ -19,8 +19,6 @@ import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyString;
 import gate.Annotation;
-import gate.AnnotationSet;
-import gate.util.InvalidOffsetException;
 
 /**
  * Get the sentence relative position of the first match of the words in the annotation
@@ -88,8 +86,7 @@ public class DERIV_RelativePositionOfFirstMatchOfWordsInListC implements FeatCal
 		boolean foundFisrstOccurrence = false;
 		if(listOfWordsToMathc != null && listOfWordsToMathc.size() > 0) {
 
-			AnnotationSet intersectTokens = doc.getGateDoc().getAnnotations(tokenAnnotationSet).get(tokenAnnotationName).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
-			List<Annotation> intersectingTokensOrdered  = gate.Utils.inDocumentOrder(intersectTokens);
+			List<Annotation> intersectingTokensOrdered = doc.getSentenceCtx(obj).getContained(tokenAnnotationSet, tokenAnnotationName);
 
 			if(intersectingTokensOrdered != null && intersectingTokensOrdered.size() > 0) {
 
@@ -120,49 +117,42 @@ public class DERIV_RelativePositionOfFirstMatchOfWordsInListC implements FeatCal
 
 
 						String textToMatch = "";
-						try {
-							if(featureName == null || featureName.equals("")) {
-								textToMatch = doc.getGateDoc().getContent().getContent(annotInt.getStartNode().getOffset(), annotInt.getEndNode().getOffset()).toString();
-							}
-							else if(annotInt.getFeatures() != null && annotInt.getFeatures().containsKey(featureName) &&
-									annotInt.getFeatures().get(featureName) != null &&
-									!((String) annotInt.getFeatures().get(featureName)).equals("") ) {
-								textToMatch = (String) annotInt.getFeatures().get(featureName);
-							}
-
-						} catch (InvalidOffsetException e) {
-							e.printStackTrace();
+						if(featureName == null || featureName.equals("")) {
+							textToMatch = doc.getSentenceCtx(obj).getAnnotationText(annotInt);
+						}
+						else if(annotInt.getFeatures() != null && annotInt.getFeatures().containsKey(featureName) &&
+								annotInt.getFeatures().get(featureName) != null &&
+								!((String) annotInt.getFeatures().get(featureName)).equals("") ) {
+							textToMatch = (String) annotInt.getFeatures().get(featureName);
 						}
 
 						// In textToMatch there is the text we want to match
 						if(textToMatch != null && !textToMatch.equals("")) {
 							textToMatch = (caseInsensitiveMatch) ? textToMatch.trim().toLowerCase() : textToMatch.trim();
 
-							for(String wordToMatch : listOfWordsToMathc) {
-								if(textToMatch.equals(wordToMatch)) {
-									// Compute the relative position in the sentence of the annotaiton
-									Long startOffsetOfSentenceAnnotation = obj.getStartNode().getOffset();
-									Long endOffsetOfSentenceAnnotation = obj.getEndNode().getOffset();
-
-									Long startOffsetOfInternalAnnotation = annotInt.getStartNode().getOffset();
-									Long endOffsetOfInternalAnnotation = annotInt.getEndNode().getOffset();
-
-									if(!foundFisrstOccurrence &&
-											startOffsetOfSentenceAnnotation !=  null && startOffsetOfSentenceAnnotation >= 0l &&
-											endOffsetOfSentenceAnnotation !=  null && endOffsetOfSentenceAnnotation >= 0l &&
-											startOffsetOfInternalAnnotation !=  null && startOffsetOfInternalAnnotation >= 0l &&
-											endOffsetOfInternalAnnotation !=  null && endOffsetOfInternalAnnotation >= 0l &&
-											startOffsetOfSentenceAnnotation < endOffsetOfInternalAnnotation &&
-											startOffsetOfInternalAnnotation < endOffsetOfInternalAnnotation && 
-											startOffsetOfSentenceAnnotation <= startOffsetOfInternalAnnotation) {
-										Double sentenceLength = endOffsetOfSentenceAnnotation.doubleValue() - startOffsetOfSentenceAnnotation.doubleValue();
-										Double internalAnnotationMiddleOffset = (startOffsetOfInternalAnnotation.doubleValue() - startOffsetOfSentenceAnnotation.doubleValue()) + ( (endOffsetOfInternalAnnotation.doubleValue() - startOffsetOfInternalAnnotation.doubleValue()) / 2d );
-
-										if(sentenceLength > 0d) {
-											returnValue = round( ( internalAnnotationMiddleOffset / sentenceLength ), 2) * 100d;
-											foundFisrstOccurrence = true;
-											break;
-										}
+							// Hash lookup of the token in the list (equality match)
+							if(listOfWordsToMathc.contains(textToMatch)) {
+								// Compute the relative position in the sentence of the annotaiton
+								Long startOffsetOfSentenceAnnotation = obj.getStartNode().getOffset();
+								Long endOffsetOfSentenceAnnotation = obj.getEndNode().getOffset();
+
+								Long startOffsetOfInternalAnnotation = annotInt.getStartNode().getOffset();
+								Long endOffsetOfInternalAnnotation = annotInt.getEndNode().getOffset();
+
+								if(!foundFisrstOccurrence &&
+										startOffsetOfSentenceAnnotation !=  null && startOffsetOfSentenceAnnotation >= 0l &&
+										endOffsetOfSentenceAnnotation !=  null && endOffsetOfSentenceAnnotation >= 0l &&
+										startOffsetOfInternalAnnotation !=  null && startOffsetOfInternalAnnotation >= 0l &&
+										endOffsetOfInternalAnnotation !=  null && endOffsetOfInternalAnnotation >= 0l &&
+										startOffsetOfSentenceAnnotation < endOffsetOfInternalAnnotation &&
+										startOffsetOfInternalAnnotation < endOffsetOfInternalAnnotation && 
+										startOffsetOfSentenceAnnotation <= startOffsetOfInternalAnnotation) {
+									Double sentenceLength = endOffsetOfSentenceAnnotation.doubleValue() - startOffsetOfSentenceAnnotation.doubleValue();
+									Double internalAnnotationMiddleOffset = (startOffsetOfInternalAnnotation.doubleValue() - startOffsetOfSentenceAnnotation.doubleValue()) + ( (endOffsetOfInternalAnnotation.doubleValue() - startOffsetOfInternalAnnotation.doubleValue()) / 2d );
+
+									if(sentenceLength > 0d) {
+										returnValue = round( ( internalAnnotationMiddleOffset / sentenceLength ), 2) * 100d;
+										foundFisrstOccurrence = true;
 									}
 								}
 							}
@@ -20,7 +20,6 @@ import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyString;
 import gate.Annotation;
-import gate.AnnotationSet;
 
 
 /**
@@ -61,10 +60,9 @@ public class DERIV_SentLengthNominalC implements FeatCalculator<String, Annotati
 
 	@Override
 	public MyString calculateFeature(Annotation obj, DocumentCtx doc, String featName) {
-		AnnotationSet intersectingCitSpans = doc.getGateDoc().getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.inlineCitationAnnType).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
-		List<Annotation> intersectingCitSpansOrdered  = gate.Utils.inDocumentOrder(intersectingCitSpans);
+		List<Annotation> intersectingCitSpansOrdered = doc.getSentenceCtx(obj).getContained(ImporterBase.driAnnSet, ImporterBase.inlineCitationAnnType);
 		
-		AnnotationSet intersectingTokens = doc.getGateDoc().getAnnotations(tokenAnnotationSet).get(tokenAnnotationName).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
+		List<Annotation> intersectingTokens = doc.getSentenceCtx(obj).getContained(tokenAnnotationSet, tokenAnnotationName);
 		MyString retValue = new MyString("Short");
 		
 		Double totalIntersecting = 0d;
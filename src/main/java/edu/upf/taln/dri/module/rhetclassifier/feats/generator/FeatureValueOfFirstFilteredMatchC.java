@@ -18,7 +18,6 @@ import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyString;
 import gate.Annotation;
-import gate.AnnotationSet;
 
 /**
  * Get a feature value of the feature with name equal to featureName of the first annotation that matches 
@@ -74,8 +73,7 @@ public class FeatureValueOfFirstFilteredMatchC implements FeatCalculator<String,
 
 		boolean foundFisrstOccurrence = false;
 
-		AnnotationSet intersectTokens = doc.getGateDoc().getAnnotations(tokenAnnotationSet).get(tokenAnnotationName).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
-		List<Annotation> intersectingTokensOrdered  = gate.Utils.inDocumentOrder(intersectTokens);
+		List<Annotation> intersectingTokensOrdered = doc.getSentenceCtx(obj).getContained(tokenAnnotationSet, tokenAnnotationName);
 
 		if(intersectingTokensOrdered != null && intersectingTokensOrdered.size() > 0) {
 
@@ -12,13 +12,13 @@
 package edu.upf.taln.dri.module.rhetclassifier.feats.generator;
 
 import java.util.Iterator;
+import java.util.List;
 
 import edu.upf.taln.dri.module.rhetclassifier.RhetoricalClassifier;
 import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyDouble;
 import gate.Annotation;
-import gate.AnnotationSet;
 
 
 /**
@@ -51,7 +51,7 @@ public class IntersectingAnnotationBooleanCountC implements FeatCalculator<Doubl
 
 	@Override
 	public MyDouble calculateFeature(Annotation obj, DocumentCtx doc, String featName) {
-		AnnotationSet intersectingTokens = doc.getGateDoc().getAnnotations(tokenAnnotationSet).get(tokenAnnotationName).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
+		List<Annotation> intersectingTokens = doc.getSentenceCtx(obj).getContained(tokenAnnotationSet, tokenAnnotationName);
 		MyDouble retValue = new MyDouble(0d);
 
 		if(intersectingTokens != null) {
@@ -20,7 +20,6 @@ import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyDouble;
 import gate.Annotation;
-import gate.AnnotationSet;
 
 
 /**
@@ -63,10 +62,9 @@ public class IntersectingAnnotationStringCountC implements FeatCalculator<Double
 
 	@Override
 	public MyDouble calculateFeature(Annotation obj, DocumentCtx doc, String featName) {
-		AnnotationSet intersectingCitSpans = doc.getGateDoc().getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.inlineCitationAnnType).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
-		List<Annotation> intersectingCitSpansOrdered  = gate.Utils.inDocumentOrder(intersectingCitSpans);
+		List<Annotation> intersectingCitSpansOrdered = doc.getSentenceCtx(obj).getContained(ImporterBase.driAnnSet, ImporterBase.inlineCitationAnnType);
 
-		AnnotationSet intersectingTokens = doc.getGateDoc().getAnnotations(tokenAnnotationSet).get(tokenAnnotationName).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
+		List<Annotation> intersectingTokens = doc.getSentenceCtx(obj).getContained(tokenAnnotationSet, tokenAnnotationName);
 		MyDouble retValue = new MyDouble(0d);
 
 		Double totalIntersecting = new Double(intersectingTokens.size());
@@ -18,11 +18,10 @@ import org.apache.commons.lang3.StringUtils;
 import edu.upf.taln.dri.module.importer.ImporterBase;
 import edu.upf.taln.dri.module.rhetclassifier.RhetoricalClassifier;
 import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
+import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.SentenceCtx;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyString;
 import gate.Annotation;
-import gate.AnnotationSet;
-import gate.util.InvalidOffsetException;
 import weka.core.Stopwords;
 
 /**
@@ -71,11 +70,11 @@ public class IntersectingAnnotationTextC implements FeatCalculator<String, Annot
 
 	@Override
 	public MyString calculateFeature(Annotation obj, DocumentCtx doc, String featName) {
-		AnnotationSet intersectingCitSpans = doc.getGateDoc().getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.inlineCitationAnnType).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
-		List<Annotation> intersectingCitSpansOrdered  = gate.Utils.inDocumentOrder(intersectingCitSpans);
+		SentenceCtx sentenceCtx = doc.getSentenceCtx(obj);
 		
-		AnnotationSet intersectTokens = doc.getGateDoc().getAnnotations(tokenAnnotationSet).get(tokenAnnotationName).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
-		List<Annotation> intersectingTokensOrdered  = gate.Utils.inDocumentOrder(intersectTokens);
+		// Do not consider the token if inside a citation span (Analysis --> CitSpan annotation)
+		List<Annotation> intersectingTokensOrdered = (this.excludeCitSpan) ? sentenceCtx.getContainedOutsideCitSpans(tokenAnnotationSet, tokenAnnotationName) :
+			sentenceCtx.getContained(tokenAnnotationSet, tokenAnnotationName);
 		
 		MyString retValue = new MyString("");
 
@@ -87,31 +86,7 @@ public class IntersectingAnnotationTextC implements FeatCalculator<String, Annot
 			for(Annotation annotInt : intersectingTokensOrdered) {
 				if(annotInt != null) {
 					
-					// Do not consider the token if inside a citation span (Analysis --> CitSpan annotation)
-					if(this.excludeCitSpan) {
-						boolean tokenInsideCitSpan = false;
-						if(intersectingCitSpansOrdered != null && intersectingCitSpansOrdered.size() > 0) {
-							for(Annotation intersectingCitSpan : intersectingCitSpansOrdered) {
-								if(intersectingCitSpan != null && 
-										annotInt.getStartNode().getOffset() >= intersectingCitSpan.getStartNode().getOffset() && annotInt.getEndNode().getOffset() <= intersectingCitSpan.getEndNode().getOffset()) {
-									tokenInsideCitSpan = true;
-									break;
-								}
-							}
-						}
-						
-						if(tokenInsideCitSpan) {
-							continue;
-						}
-					}
-					
-
-					String annotIntText = "";
-					try {
-						annotIntText = doc.getGateDoc().getContent().getContent(annotInt.getStartNode().getOffset(), annotInt.getEndNode().getOffset()).toString();
-					} catch (InvalidOffsetException e) {
-						e.printStackTrace();
-					}
+					String annotIntText = sentenceCtx.getAnnotationText(annotInt);
 
 					// Check if to filter or not also by feature name and value
 					if( StringUtils.isBlank(this.featureName) ) {
@@ -11,6 +11,8 @@
  */
 package edu.upf.taln.dri.module.rhetclassifier.feats.generator;
 
+import java.util.List;
+
 import edu.upf.taln.dri.module.rhetclassifier.RhetoricalClassifier;
 import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
@@ -52,7 +54,7 @@ public class IntersectingGroupsOfCitationCountC implements FeatCalculator<Double
 		
 		Double retValue = 0d;
 		
-		AnnotationSet intersectingInlineCitations = doc.getGateDoc().getAnnotations(citationAnnotationSet).get(inlineCitationAnnotationName).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
+		List<Annotation> intersectingInlineCitations = doc.getSentenceCtx(obj).getContained(citationAnnotationSet, inlineCitationAnnotationName);
 		
 		if(intersectingInlineCitations != null && intersectingInlineCitations.size() > 0) {
 			for(Annotation inlineCitationAnn : intersectingInlineCitations) {
@@ -18,16 +18,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import edu.upf.taln.dri.module.importer.ImporterBase;
 import edu.upf.taln.dri.module.rhetclassifier.RhetoricalClassifier;
 import edu.upf.taln.dri.module.rhetclassifier.feats.StopWords;
 import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
+import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.SentenceCtx;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyString;
 import gate.Annotation;
-import gate.AnnotationSet;
-import gate.Document;
-import gate.util.InvalidOffsetException;
 
 /**
  * Generate skipgrams from the text or lemmatized text of a sentence
@@ -46,7 +43,6 @@ public class NgramsC implements FeatCalculator<String, Annotation, DocumentCtx>
 
 	private Integer ngramFactor;
 	private boolean removeStopWords;
-	private Document gateDoc;
 	private boolean excludeCitSpan = false;
 
 	/**
@@ -100,37 +96,11 @@ public class NgramsC implements FeatCalculator<String, Annotation, DocumentCtx>
 
 		String nGramString = "";
 
-		this.gateDoc = doc.getGateDoc();
+		SentenceCtx sentenceCtx = doc.getSentenceCtx(obj);
 
-		AnnotationSet intersectingCitSpans = doc.getGateDoc().getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.inlineCitationAnnType).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
-		List<Annotation> intersectingCitSpansOrdered  = gate.Utils.inDocumentOrder(intersectingCitSpans);
-
-		List<Annotation> tokenListWithCitSpan = gate.Utils.inDocumentOrder(doc.getGateDoc().getAnnotations(this.tokenAnnotationSet).get(this.tokenAnnotationName).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset()));
-
-		List<Annotation> tokenListWithoutCitSpan = new ArrayList<Annotation>();
 		// Do not consider the token if inside a citation span (Analysis --> CitSpan annotation)
-		// From the coplete token list (tokenListWithCitSpan) generate the token list without citation spans tokenListWithoutCitSpan
-		if(this.excludeCitSpan) {
-			for(Annotation tokenAnn : tokenListWithCitSpan) {
-				boolean tokenInsideCitSpan = false;
-				if(intersectingCitSpansOrdered != null && intersectingCitSpansOrdered.size() > 0) {
-					for(Annotation intersectingCitSpan : intersectingCitSpansOrdered) {
-						if(intersectingCitSpan != null && 
-								tokenAnn.getStartNode().getOffset() >= intersectingCitSpan.getStartNode().getOffset() && tokenAnn.getEndNode().getOffset() <= intersectingCitSpan.getEndNode().getOffset()) {
-							tokenInsideCitSpan = true;
-							break;
-						}
-					}
-				}
-
-				if(!tokenInsideCitSpan) {
-					tokenListWithoutCitSpan.add(tokenAnn);
-				}
-			}
-		}
-		else {
-			tokenListWithoutCitSpan = tokenListWithCitSpan;
-		}
+		List<Annotation> tokenListWithoutCitSpan = (this.excludeCitSpan) ? sentenceCtx.getContainedOutsideCitSpans(this.tokenAnnotationSet, this.tokenAnnotationName) :
+			sentenceCtx.getContained(this.tokenAnnotationSet, this.tokenAnnotationName);
 
 		List<Annotation> tokenListFiltered = new ArrayList<Annotation>();
 
@@ -186,7 +156,7 @@ public class NgramsC implements FeatCalculator<String, Annotation, DocumentCtx>
 
 		// After getting the list of feature values for the sentence, generate the related ngrams
 		if(tokenMap != null && tokenMap.size() > 0) {
-			List<String> nGramsList = nGrams(tokenMap, this.ngramFactor, idOfTokenListFiltered);
+			List<String> nGramsList = nGrams(sentenceCtx, tokenMap, this.ngramFactor, idOfTokenListFiltered);
 
 			// Populate skipGramString
 			if(nGramsList != null && nGramsList.size() > 0) {
@@ -211,7 +181,7 @@ public class NgramsC implements FeatCalculator<String, Annotation, DocumentCtx>
 	}
 
 	// Utility methods
-	private List<String> nGrams(Map<Integer, Annotation> orderedAnnotations, Integer ngFactor, Set<Integer> idOfTokenListFiltered) {
+	private List<String> nGrams(SentenceCtx sentenceCtx, Map<Integer, Annotation> orderedAnnotations, Integer ngFactor, Set<Integer> idOfTokenListFiltered) {
 		List<String> retNGrams = new ArrayList<String>();
 
 		if(orderedAnnotations != null && orderedAnnotations.size() > 0 && ngFactor != null && ngFactor >= 0) {
@@ -258,12 +228,7 @@ public class NgramsC implements FeatCalculator<String, Annotation, DocumentCtx>
 							skipAdditionOfNgram = true;
 						}
 
-						String tokenText = "";
-						try {
-							tokenText = gateDoc.getContent().getContent(annToCheck.getStartNode().getOffset(), annToCheck.getEndNode().getOffset()).toString();
-						} catch (InvalidOffsetException e) {
-							e.printStackTrace();
-						}
+						String tokenText = sentenceCtx.getAnnotationText(annToCheck);
 
 						String tokenOfNgramAnnotationString = (annToCheck.getFeatures() != null && annToCheck.getFeatures().containsKey(this.featureName) && 
 								!((String) annToCheck.getFeatures().get(this.featureName)).equals("")
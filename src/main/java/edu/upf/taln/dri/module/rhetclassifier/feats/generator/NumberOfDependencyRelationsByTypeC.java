@@ -55,8 +55,7 @@ public class NumberOfDependencyRelationsByTypeC implements FeatCalculator<Double
 		Double totalDepRels = 0d;
 		Double matchingDepRels = 0d;
 		
-		List<Annotation> tokensOrdered = gate.Utils.inDocumentOrder(doc.getGateDoc().getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.tokenAnnType).getContained(
-				obj.getStartNode().getOffset(), obj.getEndNode().getOffset()));
+		List<Annotation> tokensOrdered = doc.getSentenceCtx(obj).getContained(ImporterBase.driAnnSet, ImporterBase.tokenAnnType);
 		
 		if(!CollectionUtils.isEmpty(tokensOrdered)) {
 			for(Annotation token : tokensOrdered) {
@@ -18,7 +18,6 @@ import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyDouble;
 import gate.Annotation;
-import gate.AnnotationSet;
 
 /**
  * Get the sentence relative position of the first match of a certain annotation
@@ -69,8 +68,7 @@ public class RelativePositionOfFirstMatchOfAnnotationC implements FeatCalculator
 
 		boolean foundFisrstOccurrence = false;
 
-		AnnotationSet intersectTokens = doc.getGateDoc().getAnnotations(tokenAnnotationSet).get(tokenAnnotationName).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
-		List<Annotation> intersectingTokensOrdered  = gate.Utils.inDocumentOrder(intersectTokens);
+		List<Annotation> intersectingTokensOrdered = doc.getSentenceCtx(obj).getContained(tokenAnnotationSet, tokenAnnotationName);
 
 		if(intersectingTokensOrdered != null && intersectingTokensOrdered.size() > 0) {
 
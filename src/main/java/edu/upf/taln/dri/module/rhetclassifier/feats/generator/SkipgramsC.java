@@ -18,15 +18,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import edu.upf.taln.dri.module.importer.ImporterBase;
 import edu.upf.taln.dri.module.rhetclassifier.RhetoricalClassifier;
 import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
+import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.SentenceCtx;
 import edu.upf.taln.ml.feat.base.FeatCalculator;
 import edu.upf.taln.ml.feat.base.MyString;
 import gate.Annotation;
-import gate.AnnotationSet;
-import gate.Document;
-import gate.util.InvalidOffsetException;
 import weka.core.Stopwords;
 
 /**
@@ -47,7 +44,6 @@ public class SkipgramsC implements FeatCalculator<String, Annotation, DocumentCt
 	private Integer skipFactor;
 	private boolean removeStopWords;
 	private Set<String> stopWords;
-	private Document gateDoc;
 	private boolean excludeCitSpan = false;
 
 	/**
@@ -100,39 +96,12 @@ public class SkipgramsC implements FeatCalculator<String, Annotation, DocumentCt
 
 		String skipGramString = "";
 
-		this.gateDoc = doc.getGateDoc();
-		
-		AnnotationSet intersectingCitSpans = doc.getGateDoc().getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.inlineCitationAnnType).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset());
-		List<Annotation> intersectingCitSpansOrdered  = gate.Utils.inDocumentOrder(intersectingCitSpans);
-
-		List<Annotation> tokenListWithCitSpan = gate.Utils.inDocumentOrder(doc.getGateDoc().getAnnotations(this.tokenAnnotationSet).get(this.tokenAnnotationName).getContained(obj.getStartNode().getOffset(), obj.getEndNode().getOffset()));
+		SentenceCtx sentenceCtx = doc.getSentenceCtx(obj);
 
-		List<Annotation> tokenListWithoutCitSpan = new ArrayList<Annotation>();
 		// Do not consider the token if inside a citation span (Analysis --> CitSpan annotation)
-		// From the coplete token list (tokenListWithCitSpan) generate the token list without citation spans tokenListWithoutCitSpan
-		if(this.excludeCitSpan) {
-			for(Annotation tokenAnn : tokenListWithCitSpan) {
-				boolean tokenInsideCitSpan = false;
-				if(intersectingCitSpansOrdered != null && intersectingCitSpansOrdered.size() > 0) {
-					for(Annotation intersectingCitSpan : intersectingCitSpansOrdered) {
-						if(intersectingCitSpan != null && 
-								tokenAnn.getStartNode().getOffset() >= intersectingCitSpan.getStartNode().getOffset() && tokenAnn.getEndNode().getOffset() <= intersectingCitSpan.getEndNode().getOffset()) {
-							tokenInsideCitSpan = true;
-							break;
-						}
-					}
-				}
+		List<Annotation> tokenListWithoutCitSpan = (this.excludeCitSpan) ? sentenceCtx.getContainedOutsideCitSpans(this.tokenAnnotationSet, this.tokenAnnotationName) :
+			sentenceCtx.getContained(this.tokenAnnotationSet, this.tokenAnnotationName);
 
-				if(!tokenInsideCitSpan) {
-					tokenListWithoutCitSpan.add(tokenAnn);
-				}
-			}
-		}
-		else {
-			tokenListWithoutCitSpan = tokenListWithCitSpan;
-		}
-		
-		
 		List<Annotation> tokenListFiltered = new ArrayList<Annotation>();
 
 		for(Annotation ann : tokenListWithoutCitSpan) {
@@ -187,7 +156,7 @@ public class SkipgramsC implements FeatCalculator<String, Annotation, DocumentCt
 		
 		// After getting the list of feature values for the sentence, generate the related skipgrams
 		if(tokenMap != null && tokenMap.size() > 0) {
-			List<String> skipGrams = skipGrams(tokenMap, this.skipFactor, idOfTokenListFiltered);
+			List<String> skipGrams = skipGrams(sentenceCtx, tokenMap, this.skipFactor, idOfTokenListFiltered);
 
 			// Populate skipGramString
 			if(skipGrams != null && skipGrams.size() > 0) {
@@ -212,7 +181,7 @@ public class SkipgramsC implements FeatCalculator<String, Annotation, DocumentCt
 	}
 
 	// Utility methods
-	private List<String> skipGrams(Map<Integer, Annotation> orderedAnnotations, Integer skipFactor, Set<Integer> idOfTokenListFiltered) {
+	private List<String> skipGrams(SentenceCtx sentenceCtx, Map<Integer, Annotation> orderedAnnotations, Integer skipFactor, Set<Integer> idOfTokenListFiltered) {
 		List<String> retSkipGrams = new ArrayList<String>();
 
 		if(orderedAnnotations != null && orderedAnnotations.size() > 0 && skipFactor != null && skipFactor >= 0) {
@@ -228,19 +197,9 @@ public class SkipgramsC implements FeatCalculator<String, Annotation, DocumentCt
 						continue;
 					}
 					
-					String tokenText_start = "";
-					try {
-						tokenText_start = gateDoc.getContent().getContent(startAnnotation.getStartNode().getOffset(), startAnnotation.getEndNode().getOffset()).toString();
-					} catch (InvalidOffsetException e) {
-						e.printStackTrace();
-					}
+					String tokenText_start = sentenceCtx.getAnnotationText(startAnnotation);
 					
-					String tokenText_end = "";
-					try {
-						tokenText_end = gateDoc.getContent().getContent(endAnnotation.getStartNode().getOffset(), endAnnotation.getEndNode().getOffset()).toString();
-					} catch (InvalidOffsetException e) {
-						e.printStackTrace();
-					}
+					String tokenText_end = sentenceCtx.getAnnotationText(endAnnotation);
 					
 					String startAnnotationString = (startAnnotation.getFeatures() != null && startAnnotation.getFeatures().containsKey(this.featureName) && 
 							!((String) startAnnotation.getFeatures().get(this.featureName)).equals("")
@@ -279,12 +238,7 @@ public class SkipgramsC implements FeatCalculator<String, Annotation, DocumentCt
 								skipAdditionOfSkipgram = true;
 							}
 							
-							String tokenText_skip = "";
-							try {
-								tokenText_skip = gateDoc.getContent().getContent(tokenToSkipAnnotation.getStartNode().getOffset(), tokenToSkipAnnotation.getEndNode().getOffset()).toString();
-							} catch (InvalidOffsetException e) {
-								e.printStackTrace();
-							}
+							String tokenText_skip = sentenceCtx.getAnnotationText(tokenToSkipAnnotation);
 							
 							String tokenToSkipAnnotationString = (tokenToSkipAnnotation.getFeatures() != null && tokenToSkipAnnotation.getFeatures().containsKey(this.featureName) && 
 									!((String) tokenToSkipAnnotation.getFeatures().get(this.featureName)).equals("")
@@ -17,6 +17,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Logger;
 
@@ -50,7 +51,7 @@ public class TitleSimSummarizer extends AbstractLanguageAnalyser implements Proc
 
 	private static final long serialVersionUID = 1L;
 
-	private static Map<SimLangENUM, TFIDFVectorWiki> TFIDFcomput = new HashMap<SimLangENUM, TFIDFVectorWiki>();
+	private static Map<SimLangENUM, TFIDFVectorWiki> TFIDFcomput = new ConcurrentHashMap<SimLangENUM, TFIDFVectorWiki>();
 
 	@Override
 	public Resource init() {
@@ -96,21 +97,25 @@ public class TitleSimSummarizer extends AbstractLanguageAnalyser implements Proc
 		// Only English and Spanish considered!
 		TFIDFVectorWiki currentTFIDFVectorWiki = null;
 		if(!selectedMajorityLang.trim().toLowerCase().equals("es")) {
-			if(!TFIDFcomput.containsKey(SimLangENUM.English)) {
-				try {
-					TFIDFcomput.put(SimLangENUM.English, new TFIDFVectorWiki(SimLangENUM.English));
-				} catch (InvalidParameterException e) {
-					Util.notifyException("Impossible to initialize the TF IDF tables accessor (English))", e, logger);
+			synchronized(TFIDFcomput) {
+				if(!TFIDFcomput.containsKey(SimLangENUM.English)) {
+					try {
+						TFIDFcomput.put(SimLangENUM.English, new TFIDFVectorWiki(SimLangENUM.English));
+					} catch (InvalidParameterException e) {
+						Util.notifyException("Impossible to initialize the TF IDF tables accessor (English))", e, logger);
+					}
 				}
 			}
 			currentTFIDFVectorWiki = TFIDFcomput.get(SimLangENUM.English);
 		}
 		else if(selectedMajorityLang.trim().toLowerCase().equals("es") && !TFIDFcomput.containsKey(SimLangENUM.Spanish)) {
-			if(!TFIDFcomput.containsKey(SimLangENUM.Spanish)) {
-				try {
-					TFIDFcomput.put(SimLangENUM.Spanish, new TFIDFVectorWiki(SimLangENUM.Spanish));
-				} catch (InvalidParameterException e) {
-					Util.notifyException("Impossible to initialize the TF IDF tables accessor (Spanish))", e, logger);
+			synchronized(TFIDFcomput) {
+				if(!TFIDFcomput.containsKey(SimLangENUM.Spanish)) {
+					try {
+						TFIDFcomput.put(SimLangENUM.Spanish, new TFIDFVectorWiki(SimLangENUM.Spanish));
+					} catch (InvalidParameterException e) {
+						Util.notifyException("Impossible to initialize the TF IDF tables accessor (Spanish))", e, logger);
+					}
 				}
 			}
 			currentTFIDFVectorWiki = TFIDFcomput.get(SimLangENUM.Spanish);
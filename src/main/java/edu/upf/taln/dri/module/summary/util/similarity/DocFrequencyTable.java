@@ -0,0 +1,249 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ * 
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ * 
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.module.summary.util.similarity;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read-only table of document frequencies (LEMMA_POS key, document frequency) stored in a precompiled binary file that is
+ * memory-mapped: the table is not loaded in the heap and the pages of the file are shared by all the JVMs of the host
+ * that open it.<br/>
+ * File format (version {@value #FORMAT_VERSION}): magic bytes DRDF, format version, number of keys (N), size of the key pool,
+ * N + 1 offsets of the keys in the pool, N document frequencies and the pool of keys (UTF-8), sorted by unsigned byte order.
+ * Keys are looked up by binary search.<br/>
+ * Build the binary files from the Wikipedia document frequency lists (.dat files) by the main method of this class or 
+ * by {@link #build(Map, File) build(Map, File)}.
+ * 
+ *
+ */
+public class DocFrequencyTable {
+
+	private static final Logger logger = LoggerFactory.getLogger(DocFrequencyTable.class);
+
+	public static final int FORMAT_VERSION = 1;
+	public static final String FILE_EXTENSION = ".bin";
+
+	private static final byte[] MAGIC = { 'D', 'R', 'D', 'F' };
+	private static final int HEADER_SIZE = MAGIC.length + 12;
+
+	private final MappedByteBuffer buffer;
+	private final int size;
+	private final int offsetsStart;
+	private final int freqsStart;
+	private final int poolStart;
+
+	private DocFrequencyTable(MappedByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+
+		if(buffer.capacity() < HEADER_SIZE) {
+			throw new IOException("Invalid document frequency table (too short)");
+		}
+		for(int i = 0; i < MAGIC.length; i++) {
+			if(buffer.get(i) != MAGIC[i]) {
+				throw new IOException("Invalid document frequency table (wrong magic bytes)");
+			}
+		}
+		int version = buffer.getInt(MAGIC.length);
+		if(version != FORMAT_VERSION) {
+			throw new IOException("Unsupported document frequency table format version: " + version);
+		}
+
+		this.size = buffer.getInt(MAGIC.length + 4);
+		int poolSize = buffer.getInt(MAGIC.length + 8);
+		this.offsetsStart = HEADER_SIZE;
+		this.freqsStart = offsetsStart + (size + 1) * 4;
+		this.poolStart = freqsStart + size * 4;
+
+		if(size < 0 || poolSize < 0 || ((long) poolStart + (long) poolSize) != (long) buffer.capacity()) {
+			throw new IOException("Invalid document frequency table (inconsistent size)");
+		}
+	}
+
+	/**
+	 * Memory-map a binary document frequency table
+	 * 
+	 * @param tableFile
+	 * @return
+	 * @throws IOException if the file can't be read or is not a valid document frequency table
+	 */
+	public static DocFrequencyTable open(File tableFile) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(tableFile, "r");
+				FileChannel channel = raf.getChannel()) {
+			if(channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Document frequency table too big: " + tableFile.getAbsolutePath());
+			}
+			// The mapping remains valid after the channel is closed
+			return new DocFrequencyTable(channel.map(FileChannel.MapMode.READ_ONLY, 0l, channel.size()));
+		}
+	}
+
+	/**
+	 * Number of keys of the table
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get the document frequency of a key
+	 * 
+	 * @param key
+	 * @return 0 if the key is not in the table
+	 */
+	public int getDocumentFrequency(String key) {
+		if(key == null) {
+			return 0;
+		}
+
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		int low = 0;
+		int high = size - 1;
+		while(low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = compareKey(mid, keyBytes);
+			if(cmp < 0) {
+				low = mid + 1;
+			}
+			else if(cmp > 0) {
+				high = mid - 1;
+			}
+			else {
+				return buffer.getInt(freqsStart + mid * 4);
+			}
+		}
+
+		return 0;
+	}
+
+	// Compare the key at the index with the key provided (unsigned byte order) - absolute gets only, thus thread-safe
+	private int compareKey(int index, byte[] keyBytes) {
+		int start = poolStart + buffer.getInt(offsetsStart + index * 4);
+		int length = poolStart + buffer.getInt(offsetsStart + (index + 1) * 4) - start;
+
+		int minLength = Math.min(length, keyBytes.length);
+		for(int i = 0; i < minLength; i++) {
+			int cmp = (buffer.get(start + i) & 0xFF) - (keyBytes[i] & 0xFF);
+			if(cmp != 0) {
+				return cmp;
+			}
+		}
+		return length - keyBytes.length;
+	}
+
+	/**
+	 * Write a binary document frequency table. The file is written to a temporary file and then moved, 
+	 * thus JVMs that are mapping the table never see partially written tables.
+	 * 
+	 * @param docFrequencies map with key and document frequency
+	 * @param tableFile
+	 * @throws IOException
+	 */
+	public static void build(Map<String, Integer> docFrequencies, File tableFile) throws IOException {
+		byte[][] keys = new byte[docFrequencies.size()][];
+		int keyIndex = 0;
+		long poolSize = 0l;
+		for(String key : docFrequencies.keySet()) {
+			keys[keyIndex++] = key.getBytes(StandardCharsets.UTF_8);
+			poolSize += keys[keyIndex - 1].length;
+		}
+		if(HEADER_SIZE + (keys.length * 8l) + 4l + poolSize > Integer.MAX_VALUE) {
+			throw new IOException("Too many document frequencies to build a table");
+		}
+
+		Arrays.sort(keys, (key1, key2) -> {
+			int minLength = Math.min(key1.length, key2.length);
+			for(int i = 0; i < minLength; i++) {
+				int cmp = (key1[i] & 0xFF) - (key2[i] & 0xFF);
+				if(cmp != 0) {
+					return cmp;
+				}
+			}
+			return key1.length - key2.length;
+		});
+
+		File tableFolder = tableFile.getAbsoluteFile().getParentFile();
+		File tempFile = File.createTempFile(tableFile.getName(), ".tmp", tableFolder);
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 65536))) {
+				out.write(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(keys.length);
+				out.writeInt((int) poolSize);
+
+				int offset = 0;
+				for(byte[] key : keys) {
+					out.writeInt(offset);
+					offset += key.length;
+				}
+				out.writeInt(offset);
+
+				for(byte[] key : keys) {
+					Integer docFrequency = docFrequencies.get(new String(key, StandardCharsets.UTF_8));
+					out.writeInt((docFrequency != null) ? docFrequency : 0);
+				}
+
+				for(byte[] key : keys) {
+					out.write(key);
+				}
+			}
+			Files.move(tempFile.toPath(), tableFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally {
+			Files.deleteIfExists(tempFile.toPath());
+		}
+
+		logger.info("Built document frequency table " + tableFile.getAbsolutePath() + " with " + keys.length + " keys.");
+	}
+
+	/**
+	 * Build the binary document frequency tables from Wikipedia document frequency lists (.dat files). 
+	 * Each table is written in the same folder of the list, with the extension {@value #FILE_EXTENSION}.
+	 * 
+	 * @param args paths of the .dat files
+	 */
+	public static void main(String[] args) {
+		if(args == null || args.length == 0) {
+			System.out.println("Usage: DocFrequencyTable <path of the Wikipedia lemma POS TF DF .dat file> ...");
+			return;
+		}
+
+		for(String datFilePath : args) {
+			File datFile = new File(datFilePath);
+			try {
+				Map<String, Integer> docFrequencies = WikipediaLemmaPOSfFrequency.readDocFrequencyFile(datFile);
+				File tableFile = WikipediaLemmaPOSfFrequency.getTableFile(datFile);
+				build(docFrequencies, tableFile);
+				System.out.println("Built document frequency table of " + datFile.getAbsolutePath() + " (" + docFrequencies.size() + " keys) to " + tableFile.getAbsolutePath());
+			} catch (IOException e) {
+				System.out.println("Impossible to build document frequency table of " + datFile.getAbsolutePath() + " - " + e.getMessage());
+			}
+		}
+	}
+
+}
@@ -16,10 +16,10 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,21 +35,27 @@ public class StopWordList {
 
 	private static final Logger logger = LoggerFactory.getLogger(StopWordList.class);
 
-	private static Map<SimLangENUM, Set<String>> stopwordLists = new HashMap<SimLangENUM, Set<String>>();
+	// Stop word lists by language: each list is published only once completely loaded and is never modified afterwards
+	private static final Map<SimLangENUM, Set<String>> stopwordLists = new ConcurrentHashMap<SimLangENUM, Set<String>>();
 
-	private static String resourcePath = "";
+	private static volatile String resourcePath = "";
 	
 	public static void setResourcePath(String resPath) {
-		resourcePath = resPath;
-		resourcePath = (resourcePath.endsWith(File.separator)) ? resourcePath : resourcePath + File.separator;
+		resourcePath = (resPath.endsWith(File.separator)) ? resPath : resPath + File.separator;
 	}
 	
-	private static void initStopWordList(SimLangENUM lang) throws InternalProcessingException {
+	private static synchronized void initStopWordList(SimLangENUM lang) throws InternalProcessingException {
 
-		if(lang != null && !stopwordLists.containsKey(lang)) {
-			resourcePath = (resourcePath.endsWith(File.separator)) ? resourcePath : resourcePath + File.separator;
+		if(lang != null && stopwordLists.containsKey(lang)) {
+			// Already loaded by another thread
+			return;
+		}
+
+		if(lang != null) {
+			String resPath = resourcePath;
+			resPath = (resPath.endsWith(File.separator)) ? resPath : resPath + File.separator;
 
-			String stopwordsFileName = resourcePath + "stopwords" + File.separator;
+			String stopwordsFileName = resPath + "stopwords" + File.separator;
 
 			switch(lang) {
 			case English:
@@ -70,7 +76,6 @@ public class StopWordList {
 			if(stopwordsFile != null && stopwordsFile.exists() && stopwordsFile.isFile()) {
 				// Load stopwords
 				Set<String> stopwordsLst = new HashSet<String>();
-				stopwordLists.put(lang, stopwordsLst);
 
 				try(BufferedReader br = new BufferedReader(new FileReader(stopwordsFile))) {
 					for(String line; (line = br.readLine()) != null; ) {
@@ -84,6 +89,8 @@ public class StopWordList {
 							((stopwordsFileName != null) ? stopwordsFileName : "NULL")+ "' - " + e.getMessage());
 				}
 
+				stopwordLists.put(lang, Collections.unmodifiableSet(stopwordsLst));
+
 				logger.info("Loaded " + lang + " stop words: " + stopwordsLst.size() + " words.");
 
 			}
@@ -110,8 +117,9 @@ public class StopWordList {
 			}
 		}
 
-		if(lang != null && word != null && !word.equals("") && stopwordLists.get(lang) != null) {
-			return stopwordLists.get(lang).contains(word.trim().toLowerCase());
+		Set<String> stopwordsLst = (lang != null) ? stopwordLists.get(lang) : null;
+		if(word != null && !word.equals("") && stopwordsLst != null) {
+			return stopwordsLst.contains(word.trim().toLowerCase());
 		}
 
 		return false;
@@ -128,8 +136,9 @@ public class StopWordList {
 			}
 		}
 
-		if(lang != null && stopwordLists.get(lang) != null) {
-			return Collections.unmodifiableSet(stopwordLists.get(lang));
+		Set<String> stopwordsLst = (lang != null) ? stopwordLists.get(lang) : null;
+		if(stopwordsLst != null) {
+			return stopwordsLst;
 		}
 
 		return new HashSet<String>();
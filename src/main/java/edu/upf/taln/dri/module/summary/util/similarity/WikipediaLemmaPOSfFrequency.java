@@ -17,6 +17,7 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,7 +28,10 @@ import edu.upf.taln.dri.lib.exception.InternalProcessingException;
 import edu.upf.taln.dri.lib.exception.InvalidParameterException;
 
 /**
- * Utility class to retrieve lemma document frequency in Wikipedia.
+ * Utility class to retrieve lemma document frequency in Wikipedia.<br/>
+ * Document frequencies are read from the precompiled binary tables (see {@link edu.upf.taln.dri.module.summary.util.similarity.DocFrequencyTable DocFrequencyTable}),
+ * memory-mapped and shared by all the JVMs of the host. If the binary table of a language does not exist, it is built from the 
+ * Wikipedia document frequency list (.dat file); if it can't be built (e.g. read-only resource folder), the list is loaded in the heap.
  * 
  *
  */
@@ -35,7 +39,8 @@ public class WikipediaLemmaPOSfFrequency {
 
 	private static final Logger logger = LoggerFactory.getLogger(WikipediaLemmaPOSfFrequency.class);
 
-	private static Map<SimLangENUM, Map<String, Integer>> wordFrequency = new HashMap<SimLangENUM, Map<String, Integer>>();
+	private static Map<SimLangENUM, DocFrequencyTable> docFrequencyTable = new ConcurrentHashMap<SimLangENUM, DocFrequencyTable>();
+	private static Map<SimLangENUM, Map<String, Integer>> wordFrequency = new ConcurrentHashMap<SimLangENUM, Map<String, Integer>>();
 
 	private static String resourcePath = "";
 
@@ -45,24 +50,22 @@ public class WikipediaLemmaPOSfFrequency {
 	}
 	
 	/**
-	 * Load a map with LEMMA_POS key and document frequency from Wikipedia
+	 * Load the table or the map with LEMMA_POS key and document frequency from Wikipedia
 	 * 
 	 * @param lang
 	 * @return
 	 * @throws InvalidParameterException 
 	 * @throws TextDigesterException
 	 */
-	private static void loadLemmaPOSdocFrequencyMap(SimLangENUM lang) throws InternalProcessingException, InvalidParameterException {
+	private static synchronized void loadLemmaPOSdocFrequencyMap(SimLangENUM lang) throws InternalProcessingException, InvalidParameterException {
 
 
 		if(lang != null) {
 
-			if(wordFrequency.containsKey(lang) && wordFrequency.get(lang) != null) {
+			if(docFrequencyTable.containsKey(lang) || wordFrequency.containsKey(lang)) {
 				return;
 			}
 
-			Map<String, Integer> retMap = new HashMap<String, Integer>();
-
 			String tfidfFileName = resourcePath + "tfidfmodels" + File.separator;
 
 			switch(lang) {
@@ -80,32 +83,33 @@ public class WikipediaLemmaPOSfFrequency {
 			}
 
 			File tfidfFile = new File(tfidfFileName);
+			File tableFile = getTableFile(tfidfFile);
+
+			// Build the binary table if missing or older than the list
+			Map<String, Integer> retMap = null;
+			if(tfidfFile.isFile() && (!tableFile.isFile() || tableFile.lastModified() < tfidfFile.lastModified())) {
+				try {
+					retMap = readDocFrequencyFile(tfidfFile);
+					DocFrequencyTable.build(retMap, tableFile);
+				} catch (IOException e) {
+					logger.warn("Impossible to build the binary tfidf table of " + lang + " to file: '" + tableFile.getAbsolutePath() + "' - " + e.getMessage());
+				}
+			}
 
-			if(tfidfFile != null && tfidfFile.exists() && tfidfFile.isFile()) {
-
-
-				try(BufferedReader br = new BufferedReader(new FileReader(tfidfFile))) {
-					for(String line; (line = br.readLine()) != null; ) {
-						line = line.trim();
-						try {
-							if(line.length() > 0) {
-								String[] splitLine = line.split(" ");
-								if(splitLine.length == 4) {
-									String lemma = splitLine[0];
-									String POS = splitLine[1];
-									// String termFrequ = splitLine[2];
-									String docFrequ = splitLine[3];
-
-									if(!Strings.isNullOrEmpty(lemma) && !Strings.isNullOrEmpty(POS) && !Strings.isNullOrEmpty(docFrequ)) {
-										retMap.put(lemma.trim() + "_" + POS.trim().substring(0, 1), Integer.valueOf(docFrequ));
-									}
-								}
-							}
-						}
-						catch(Exception e) {
-							/* Do nothing */
-						}
-					}
+			if(tableFile.isFile()) {
+				try {
+					DocFrequencyTable table = DocFrequencyTable.open(tableFile);
+					docFrequencyTable.put(lang, table);
+					logger.info("Mapped tfidf table of " + lang + " with: " + table.size() + " words.");
+					return;
+				} catch (IOException e) {
+					logger.warn("Impossible to map the binary tfidf table of " + lang + " from file: '" + tableFile.getAbsolutePath() + "' - " + e.getMessage());
+				}
+			}
+
+			if(tfidfFile.isFile()) {
+				try {
+					retMap = (retMap != null) ? retMap : readDocFrequencyFile(tfidfFile);
 				} catch (IOException e) {
 					throw new InternalProcessingException("Impossible to read tfidf list for " + lang + " from file: '" +
 							((tfidfFileName != null) ? tfidfFileName : "NULL")+ "' - " + e.getMessage());
@@ -128,6 +132,55 @@ public class WikipediaLemmaPOSfFrequency {
 		return;
 	}
 
+	/**
+	 * Read a Wikipedia document frequency list: each line contains lemma, POS, term frequency and document frequency, separated by a space
+	 * 
+	 * @param tfidfFile
+	 * @return map with LEMMA_POS key (first char of the POS) and document frequency
+	 * @throws IOException
+	 */
+	static Map<String, Integer> readDocFrequencyFile(File tfidfFile) throws IOException {
+		Map<String, Integer> retMap = new HashMap<String, Integer>();
+
+		try(BufferedReader br = new BufferedReader(new FileReader(tfidfFile))) {
+			for(String line; (line = br.readLine()) != null; ) {
+				line = line.trim();
+				try {
+					if(line.length() > 0) {
+						String[] splitLine = line.split(" ");
+						if(splitLine.length == 4) {
+							String lemma = splitLine[0];
+							String POS = splitLine[1];
+							// String termFrequ = splitLine[2];
+							String docFrequ = splitLine[3];
+
+							if(!Strings.isNullOrEmpty(lemma) && !Strings.isNullOrEmpty(POS) && !Strings.isNullOrEmpty(docFrequ)) {
+								retMap.put(lemma.trim() + "_" + POS.trim().substring(0, 1), Integer.valueOf(docFrequ));
+							}
+						}
+					}
+				}
+				catch(Exception e) {
+					/* Do nothing */
+				}
+			}
+		}
+
+		return retMap;
+	}
+
+	/**
+	 * Get the binary table file of a Wikipedia document frequency list: same folder and name, extension {@value DocFrequencyTable#FILE_EXTENSION}
+	 * 
+	 * @param tfidfFile
+	 * @return
+	 */
+	static File getTableFile(File tfidfFile) {
+		String tableFileName = tfidfFile.getName();
+		tableFileName = (tableFileName.endsWith(".dat")) ? tableFileName.substring(0, tableFileName.length() - 4) : tableFileName;
+		return new File(tfidfFile.getAbsoluteFile().getParentFile(), tableFileName + DocFrequencyTable.FILE_EXTENSION);
+	}
+
 	public static Integer getTotNumDoc(SimLangENUM lang) throws InternalProcessingException, InvalidParameterException {
 
 		if(lang == null) {
@@ -156,9 +209,18 @@ public class WikipediaLemmaPOSfFrequency {
 			return 0;
 		}
 
-		loadLemmaPOSdocFrequencyMap(lang);
+		DocFrequencyTable table = docFrequencyTable.get(lang);
+		if(table == null && !wordFrequency.containsKey(lang)) {
+			loadLemmaPOSdocFrequencyMap(lang);
+			table = docFrequencyTable.get(lang);
+		}
+
+		if(table != null) {
+			return table.getDocumentFrequency(lemmaPOS);
+		}
 
-		return (wordFrequency.get(lang).containsKey(lemmaPOS) ? wordFrequency.get(lang).get(lemmaPOS) : 0);
+		Integer docFrequency = wordFrequency.get(lang).get(lemmaPOS);
+		return (docFrequency != null) ? docFrequency : 0;
 	}
 
 }
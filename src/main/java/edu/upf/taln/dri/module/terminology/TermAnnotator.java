@@ -55,18 +55,18 @@ public class TermAnnotator  extends AbstractLanguageAnalyser implements Processi
 	private static final long serialVersionUID = 1L;
 	private boolean annotationReset = false;
 
-	// List of POS patterns (regexp) to check for candidate terms
-	private static List<String> POSpatterns;
+	// List of POS patterns (regexp) to check for candidate terms, compiled once and never modified
+	private static final List<Pattern> POSpatterns;
 
 	static {
-		POSpatterns = new ArrayList<String>();
-		POSpatterns.add("[JN]*N");
-		POSpatterns.add("[NV]*J?N+");
-		POSpatterns.add("J+N+");
-		POSpatterns.add("[JN]ID?N+");
-		POSpatterns.add("[JN].*?N");
-
-		POSpatterns = Collections.unmodifiableList(POSpatterns);
+		List<Pattern> POSpatternList = new ArrayList<Pattern>();
+		POSpatternList.add(Pattern.compile("[JN]*N"));
+		POSpatternList.add(Pattern.compile("[NV]*J?N+"));
+		POSpatternList.add(Pattern.compile("J+N+"));
+		POSpatternList.add(Pattern.compile("[JN]ID?N+"));
+		POSpatternList.add(Pattern.compile("[JN].*?N"));
+
+		POSpatterns = Collections.unmodifiableList(POSpatternList);
 	}
 
 	// Input and output annotation
@@ -203,8 +203,8 @@ public class TermAnnotator  extends AbstractLanguageAnalyser implements Processi
 				if(POSpatternOfSentence != null && !POSpatternOfSentence.equals("")) {
 
 					// For every POS pattern for candidate term identification, check for a possible match
-					for(String patternForTerm : POSpatterns) {
-						Pattern pattern = Pattern.compile(patternForTerm);
+					for(Pattern pattern : POSpatterns) {
+						String patternForTerm = pattern.pattern();
 						Matcher matcher = pattern.matcher(POSpatternOfSentence);
 						// check all occurrences
 						while (matcher.find()) {
@@ -11,17 +11,28 @@
  */
 package edu.upf.taln.dri.lib;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.FixMethodOrder;
@@ -30,9 +41,26 @@ import org.junit.runners.MethodSorters;
 
 import edu.upf.taln.dri.lib.exception.DRIexception;
 import edu.upf.taln.dri.lib.model.Document;
+import edu.upf.taln.dri.lib.model.DocumentImpl;
+import edu.upf.taln.dri.lib.model.ext.RhetoricalClassENUM;
 import edu.upf.taln.dri.lib.model.ext.Sentence;
+import edu.upf.taln.dri.lib.model.ext.SentenceDataENUM;
 import edu.upf.taln.dri.lib.model.ext.SentenceSelectorENUM;
+import edu.upf.taln.dri.module.importer.ImporterBase;
+import edu.upf.taln.dri.module.parser.MateParser;
+import edu.upf.taln.dri.module.rhetclassifier.RhetoricalClassifier;
+import edu.upf.taln.dri.module.rhetclassifier.feats.FeatG;
+import edu.upf.taln.dri.module.rhetclassifier.feats.LexiconMatcher;
+import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.DocumentCtx;
+import edu.upf.taln.dri.module.rhetclassifier.feats.ctx.SentenceCtx;
+import edu.upf.taln.dri.module.rhetclassifier.feats.generator.StaticLists;
+import edu.upf.taln.dri.module.rhetclassifier.feats.generator.formulaic.ActionLexicon;
+import edu.upf.taln.dri.module.rhetclassifier.feats.generator.formulaic.ConceptLexicon;
+import edu.upf.taln.ml.feat.FeatUtil;
+import edu.upf.taln.ml.feat.FeatureSet;
+import gate.Annotation;
 import junit.framework.JUnit4TestAdapter;
+import weka.core.Instances;
 
 @FixMethodOrder(MethodSorters.NAME_ASCENDING)
 public class ExtractSentencesTest {
@@ -110,6 +138,293 @@ public class ExtractSentencesTest {
 		}
 	}
 	
+	@Test
+	public void ExtractRhetClassCompiledInference() {
+		// The predictions of the compiled model are checked against the ones of the Weka classifier for all the sentences:
+		// the compiled model is disabled as soon as a prediction differs
+		int checkCount = RhetoricalClassifier.compiledInferenceCheckCount;
+		RhetoricalClassifier.compiledInferenceCheckCount = Integer.MAX_VALUE;
+		RhetoricalClassifier.checkCompiledInference(Integer.MAX_VALUE);
+		try {
+			URL resourceUrl = getClass().getResource("/paper3_PDFX.xml");
+			Path resourcePath;
+			resourcePath = Paths.get(resourceUrl.toURI());
+			Document doc = Factory.createNewDocument(resourcePath.toString());
+			assertNotNull("XML doc not loaded by Dr Inventor Lib", doc);
+			
+			List<Sentence> sents = doc.extractSentences(SentenceSelectorENUM.ALL);
+			
+			int classifiedSents = 0;
+			for(Sentence sent : sents) {
+				if(sent != null && sent.getRhetoricalClass() != null) {
+					classifiedSents++;
+				}
+			}
+			
+			assertTrue("Rhetorical class not extracted", sents != null && classifiedSents > 0);
+			assertTrue("Compiled model predictions differ from the Weka classifier ones", RhetoricalClassifier.isCompiledInferenceEnabled());
+			
+			// Class distributions of the compiled model compared with the ones of the Weka classifier, sentence by sentence
+			assertTrue("No class distribution of the compiled model compared with the Weka classifier one", RhetoricalClassifier.getCompiledInferenceCheckedCount() > 0);
+			assertTrue("Compiled model class distributions differ from the Weka classifier ones by " + RhetoricalClassifier.getCompiledInferenceMaxDeviation(),
+					RhetoricalClassifier.getCompiledInferenceMaxDeviation() < 1e-6d);
+			
+		} catch (DRIexception e) {
+			fail("DRIexception: " + e.getMessage());
+		} catch (URISyntaxException e) {
+			fail("URISyntaxException: " + e.getMessage());
+		} finally {
+			RhetoricalClassifier.compiledInferenceCheckCount = checkCount;
+			RhetoricalClassifier.checkCompiledInference(checkCount);
+		}
+	}
+	
+	@Test
+	public void ExtractRhetClassLazily() {
+		try {
+			URL resourceUrl = getClass().getResource("/paper3_PDFX.xml");
+			Path resourcePath;
+			resourcePath = Paths.get(resourceUrl.toURI());
+			Document doc = Factory.createNewDocument(resourcePath.toString());
+			assertNotNull("XML doc not loaded by Dr Inventor Lib", doc);
+			
+			// Sentences extracted without the rhetorical class: the rhetorical classification is executed when the class is accessed
+			List<Sentence> sents = doc.extractSentences(SentenceSelectorENUM.ALL, EnumSet.of(SentenceDataENUM.TOKENS));
+			assertTrue("Sentence List empty", sents != null && sents.size() > 0);
+			
+			Map<Integer, RhetoricalClassENUM> lazyRhetClasses = new HashMap<Integer, RhetoricalClassENUM>();
+			Set<String> rhetClasses = new HashSet<String>();
+			for(Sentence sent : sents) {
+				assertNotEquals("Rhetorical class not loaded by the sentence", RhetoricalClassENUM.STILL_NOT_EXECUTED_RHETORICAL_CLASSIFICATION, sent.getRhetoricalClass());
+				lazyRhetClasses.put(sent.getId(), sent.getRhetoricalClass());
+				rhetClasses.add(sent.getRhetoricalClass().toString());
+			}
+			assertTrue("Rhetorical class not extracted", rhetClasses.size() > 1);
+			
+			// Sentences extracted again with the rhetorical class have the same class
+			List<Sentence> rhetSents = doc.extractSentences(SentenceSelectorENUM.ALL, EnumSet.of(SentenceDataENUM.RHETORICAL_CLASS));
+			assertEquals("Different number of sentences", sents.size(), rhetSents.size());
+			for(Sentence rhetSent : rhetSents) {
+				assertEquals("Different rhetorical class of sentence " + rhetSent.getId(), lazyRhetClasses.get(rhetSent.getId()), rhetSent.getRhetoricalClass());
+			}
+			
+		} catch (DRIexception e) {
+			fail("Error while extracting sentences: " + e.getMessage());
+		} catch (URISyntaxException e) {
+			fail("Error while loading the document: " + e.getMessage());
+		}
+	}
+	
+	@Test
+	public void ExtractRhetClassMemoizedFeatures() {
+		try {
+			URL resourceUrl = getClass().getResource("/paper3_PDFX.xml");
+			Path resourcePath;
+			resourcePath = Paths.get(resourceUrl.toURI());
+			Document doc = Factory.createNewDocument(resourcePath.toString());
+			assertNotNull("XML doc not loaded by Dr Inventor Lib", doc);
+			
+			// Execute the analyses the rhetorical classification features rely on
+			doc.extractSentences(SentenceSelectorENUM.ALL);
+			
+			gate.Document gateDoc = ((DocumentImpl) doc).cacheManager.getGateDoc();
+			List<Annotation> sentences = gate.Utils.inDocumentOrder(gateDoc.getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.sentenceAnnType));
+			assertTrue("No sentence annotated", sentences.size() > 0);
+			
+			// The features of each sentence are extracted by the calculators sharing the memoized views of the sentences and
+			// by the calculators building the view of the sentence by querying the GATE document at each call
+			DocumentCtx memoizedCtx = new DocumentCtx(gateDoc, "Sentence", "", "", "", 1d, "", "", "", "", "", 
+					new HashMap<String, Double>(), 0d, new HashMap<String, Double>());
+			DocumentCtx perCallCtx = new DocumentCtx(gateDoc, "Sentence", "", "", "", 1d, "", "", "", "", "", 
+					new HashMap<String, Double>(), 0d, new HashMap<String, Double>());
+			perCallCtx.setMemoizeSentenceCtx(false);
+			
+			FeatureSet<Annotation, DocumentCtx> memoizedFeatSet = FeatG.generateFeatSet();
+			FeatureSet<Annotation, DocumentCtx> perCallFeatSet = FeatG.generateFeatSet();
+			List<Annotation> addedSentences = new ArrayList<Annotation>();
+			for(Annotation sentence : sentences) {
+				// The view of the sentence has the same contents the former calculators got from the GATE document
+				SentenceCtx sentenceCtx = memoizedCtx.getSentenceCtx(sentence);
+				List<Annotation> tokens = gate.Utils.inDocumentOrder(gateDoc.getAnnotations(ImporterBase.driAnnSet).get(ImporterBase.tokenAnnType).getContained(
+						sentence.getStartNode().getOffset(), sentence.getEndNode().getOffset()));
+				assertEquals("Different text of sentence " + sentence.getId(), gate.Utils.stringFor(gateDoc, sentence), sentenceCtx.getText());
+				assertEquals("Different tokens of sentence " + sentence.getId(), tokens, sentenceCtx.getTokens());
+				for(int i = 0; i < tokens.size(); i++) {
+					assertEquals("Different text of token " + tokens.get(i).getId(), gate.Utils.stringFor(gateDoc, tokens.get(i)), sentenceCtx.getTokenString(i));
+				}
+				assertEquals("Different dependency tree depth of sentence " + sentence.getId(), getDepTreeMaxDepth(tokens), sentenceCtx.getDepTreeMaxDepth());
+				
+				boolean memoizedAdded = memoizedFeatSet.addElement(sentence, memoizedCtx);
+				assertEquals("Features of sentence " + sentence.getId() + " extracted only once", memoizedAdded, perCallFeatSet.addElement(sentence, perCallCtx));
+				if(memoizedAdded) {
+					addedSentences.add(sentence);
+				}
+			}
+			assertTrue("No feature vector extracted", addedSentences.size() > 0);
+			
+			Instances memoizedInst = FeatUtil.wekaInstanceGeneration(memoizedFeatSet, "relation");
+			Instances perCallInst = FeatUtil.wekaInstanceGeneration(perCallFeatSet, "relation");
+			assertEquals("Different number of feature vectors", perCallInst.numInstances(), memoizedInst.numInstances());
+			for(int i = 0; i < perCallInst.numInstances(); i++) {
+				assertEquals("Different feature vector of sentence " + addedSentences.get(i).getId(), perCallInst.instance(i).toString(), memoizedInst.instance(i).toString());
+			}
+			
+		} catch (DRIexception e) {
+			fail("Error while extracting sentences: " + e.getMessage());
+		} catch (URISyntaxException e) {
+			fail("Error while loading the document: " + e.getMessage());
+		} catch (Exception e) {
+			fail("Error while extracting the features of the sentences: " + e.getMessage());
+		}
+	}
+	
+	@Test
+	public void ExtractRhetClassLexiconMatches() {
+		// Lexicons matched by the rhetorical classification features and a lexicon with overlapping and multi-word entries
+		Map<String, Set<String>> lexicons = new HashMap<String, Set<String>>();
+		lexicons.put("FIRST_PERSON_PRONOUNS", StaticLists.listOfFirstPersonPronouns);
+		lexicons.put("THIRD_PERSON_PRONOUNS", StaticLists.listOfThirdPersonPronouns);
+		lexicons.put("DETERMINERS", StaticLists.listOfDeterminers);
+		lexicons.put("CONTRARY_EXPRESSIONS", StaticLists.listOfContraryExpressions);
+		lexicons.put("NEGATION_EXPRESSIONS", StaticLists.listOfNegationExpressions);
+		lexicons.put("SPECULATION_CUES", StaticLists.listOfSpeculationCues);
+		lexicons.put("CONJUNCTIVE_ADVERBS", StaticLists.listOfConjunctiveAdverbs);
+		for(Entry<String, Set<String>> lexicon : ConceptLexicon.coreMap.entrySet()) {
+			lexicons.put("CL_" + lexicon.getKey(), lexicon.getValue());
+		}
+		for(Entry<String, Set<String>> lexicon : ActionLexicon.coreMap.entrySet()) {
+			lexicons.put("AL_" + lexicon.getKey(), lexicon.getValue());
+		}
+		lexicons.put("OVERLAPPING", new HashSet<String>(Arrays.asList("he", "she", "hers", "his", "her", "He", "in contrast", "contrast", 
+				"in contrast to", "state of the art", "of the", "art", "the")));
+		
+		// Texts: the sentences of the test document and, for each lexicon entry, the entry alone, preceded or followed
+		// by each boundary char, inside a word and upper-cased
+		List<String> texts = new ArrayList<String>();
+		texts.add("");
+		texts.add("In contrast to the state of the art, he shows hers (his) [she] their results: in contrast.");
+		texts.add("Whether they compared theirs;the art.state of the artist");
+		try {
+			URL resourceUrl = getClass().getResource("/paper3_PDFX.xml");
+			Path resourcePath;
+			resourcePath = Paths.get(resourceUrl.toURI());
+			Document doc = Factory.createNewDocument(resourcePath.toString());
+			assertNotNull("XML doc not loaded by Dr Inventor Lib", doc);
+			
+			for(Sentence sent : doc.extractSentences(SentenceSelectorENUM.ALL, EnumSet.noneOf(SentenceDataENUM.class))) {
+				if(sent != null && sent.getText() != null) {
+					texts.add(sent.getText());
+				}
+			}
+		} catch (DRIexception e) {
+			fail("Error while extracting sentences: " + e.getMessage());
+		} catch (URISyntaxException e) {
+			fail("Error while loading the document: " + e.getMessage());
+		}
+		
+		for(Set<String> lexicon : lexicons.values()) {
+			for(String entry : lexicon) {
+				texts.add(entry);
+				texts.add("x" + entry + "x");
+				texts.add(entry.toUpperCase());
+				for(char boundaryChar : (LexiconMatcher.LEFT_BOUNDARY_CHARS + LexiconMatcher.RIGHT_BOUNDARY_CHARS).toCharArray()) {
+					texts.add("x" + boundaryChar + entry + "x");
+					texts.add("x" + entry + boundaryChar + "x");
+				}
+			}
+		}
+		
+		// The entries matched by the compiled lexicon are the ones matched by scanning the list of entries
+		for(Entry<String, Set<String>> lexicon : lexicons.entrySet()) {
+			for(boolean caseInsensitive : new boolean[] {false, true}) {
+				LexiconMatcher matcher = LexiconMatcher.getMatcher(lexicon.getValue(), caseInsensitive);
+				for(String text : texts) {
+					List<String> matchedEntries = matcher.match((caseInsensitive) ? text.toLowerCase() : text).getMatchedEntries();
+					List<String> expectedEntries = getMatchedEntries(lexicon.getValue(), text, caseInsensitive);
+					
+					Collections.sort(matchedEntries);
+					Collections.sort(expectedEntries);
+					assertEquals("Different entries of lexicon " + lexicon.getKey() + " (case insensitive: " + caseInsensitive + ") matched in: " + text,
+							expectedEntries, matchedEntries);
+					assertEquals("Different number of entries of lexicon " + lexicon.getKey() + " (case insensitive: " + caseInsensitive + ") matched in: " + text,
+							expectedEntries.size(), matcher.match((caseInsensitive) ? text.toLowerCase() : text).getMatchedEntryCount());
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Entries of a lexicon matched in a text, by scanning the list of entries as the former feature calculators did: an entry
+	 * with spaces matches anywhere, an entry without spaces matches if followed or preceded by a boundary char
+	 * 
+	 * @param lexicon
+	 * @param text
+	 * @param caseInsensitive
+	 * @return
+	 */
+	private static List<String> getMatchedEntries(Set<String> lexicon, String text, boolean caseInsensitive) {
+		String textToMatch = (caseInsensitive) ? text.toLowerCase() : text;
+		List<String> matchedEntries = new ArrayList<String>();
+		for(String entry : lexicon) {
+			if(entry != null && !entry.equals("")) {
+				String wordToMatch = (caseInsensitive) ? entry.toLowerCase() : entry;
+				boolean matched = false;
+				if(entry.contains(" ")) {
+					matched = textToMatch.contains(wordToMatch);
+				}
+				else {
+					matched = textToMatch.contains(wordToMatch + " ") || textToMatch.contains(wordToMatch + ".") || textToMatch.contains(wordToMatch + ",") ||
+							textToMatch.contains(wordToMatch + ";") || textToMatch.contains(wordToMatch + ")") || textToMatch.contains(wordToMatch + "]") ||
+							textToMatch.contains(wordToMatch + ":") || textToMatch.contains(" " + wordToMatch) || textToMatch.contains("." + wordToMatch) ||
+							textToMatch.contains("," + wordToMatch) || textToMatch.contains(";" + wordToMatch) || textToMatch.contains(":" + wordToMatch) ||
+							textToMatch.contains("(" + wordToMatch) || textToMatch.contains("[" + wordToMatch);
+				}
+				
+				if(matched) {
+					matchedEntries.add(entry);
+				}
+			}
+		}
+		return matchedEntries;
+	}
+	
+	/**
+	 * Max depth of the dependency tree of a sentence, computed as the former feature calculator did
+	 * 
+	 * @param tokensOrdered
+	 * @return
+	 */
+	private static int getDepTreeMaxDepth(List<Annotation> tokensOrdered) {
+		int maxDepth = 0;
+		for(Annotation token : tokensOrdered) {
+			String depFunct = (token.getFeatures().get(MateParser.depKindFeat) != null) ? (String) token.getFeatures().get(MateParser.depKindFeat) : "";
+			Integer depTargetId = (Integer) token.getFeatures().get(MateParser.depTargetIdFeat);
+			if(StringUtils.isNotBlank(depFunct) && depTargetId != null) {
+				Set<Integer> visitedTargets = new HashSet<Integer>();
+				visitedTargets.add(depTargetId);
+				maxDepth = Math.max(maxDepth, getDepth(tokensOrdered, depTargetId, visitedTargets));
+			}
+		}
+		
+		// Increase maxDepth by 1 because the root node is not considered
+		return maxDepth + 1;
+	}
+	
+	private static int getDepth(List<Annotation> tokensOrdered, Integer depTarget, Set<Integer> visitedTargets) {
+		int retVal = 1;
+		for(Annotation token : tokensOrdered) {
+			if(token.getId().equals(depTarget)) {
+				String depFunct = (token.getFeatures().get(MateParser.depKindFeat) != null) ? (String) token.getFeatures().get(MateParser.depKindFeat) : "";
+				Integer depTargetId = (Integer) token.getFeatures().get(MateParser.depTargetIdFeat);
+				if(StringUtils.isNotBlank(depFunct) && depTargetId != null && !visitedTargets.contains(depTargetId)) {
+					visitedTargets.add(depTargetId);
+					retVal += getDepth(tokensOrdered, depTargetId, visitedTargets);
+				}
+			}
+		}
+		return retVal;
+	}
+	
 	public static junit.framework.Test suite() {
 		return new JUnit4TestAdapter(ExtractSentencesTest.class);
 	}
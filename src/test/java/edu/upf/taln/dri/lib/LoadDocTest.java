@@ -11,7 +11,10 @@
  */
 package edu.upf.taln.dri.lib;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.BufferedWriter;
 import java.io.File;
@@ -20,6 +23,7 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 
 import org.junit.After;
 import org.junit.Before;
@@ -149,6 +153,46 @@ public class LoadDocTest {
 		}
 	}
 	
+	@Test
+	public void LoadBinaryDocument() {
+		try {
+			URL resourceUrl = getClass().getResource("/JATSfiles/paper_1.xml");
+			Path resourcePath;
+			resourcePath = Paths.get(resourceUrl.toURI());
+			Document doc = Factory.getJATSloader().parseJATS(resourcePath.toString());
+			assertNotNull("The JATS document should be correctly loaded from the JATS XML file", doc);
+			
+			byte[] binaryContents = doc.getBinary();
+			Document binaryDoc = Factory.createNewDocument();
+			binaryDoc.loadBinary(binaryContents);
+			assertEquals("The binary-serialized document should be loaded with the same contents", doc.getXMLString(), binaryDoc.getXMLString());
+			assertTrue("The binary serialization should be smaller than the XML one", binaryContents.length < doc.getXMLString().length());
+			
+			// Truncated binary contents should be rejected
+			try {
+				Factory.createNewDocument().loadBinary(Arrays.copyOf(binaryContents, binaryContents.length / 2));
+				fail("Truncated binary contents should not be loaded");
+			} catch (DRIexception e) {
+				/* Expected */
+			}
+			
+			// Documents including feature values of types not supported by the binary format should be rejected, not stored as strings
+			((DocumentImpl) doc).cacheManager.getGateDoc().getFeatures().put("unsupportedFeature", new StringBuilder("Not supported"));
+			try {
+				doc.getBinary();
+				fail("Feature values of types not supported by the binary format should not be serialized");
+			} catch (DRIexception e) {
+				/* Expected */
+			}
+			((DocumentImpl) doc).cacheManager.getGateDoc().getFeatures().remove("unsupportedFeature");
+			assertNotNull("The document should be binary-serialized once the unsupported feature value is removed", doc.getBinary());
+		} catch (DRIexception e) {
+			fail("Exception while loading the binary-serialized document: " + e.getMessage());
+		} catch (URISyntaxException e) {
+			fail("Invalid path of the JATS test file: " + e.getMessage());
+		}
+	}
+	
 	public static junit.framework.Test suite() {
 		return new JUnit4TestAdapter(LoadDocTest.class);
 	}
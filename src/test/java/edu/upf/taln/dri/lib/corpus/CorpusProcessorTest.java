@@ -0,0 +1,106 @@
+/*
+ * ******************************************************************************************************
+ * Dr. Inventor Text Mining Framework Java Library
+ * 
+ * This code has been developed by the Natural Language Processing Group of the
+ * Universitat Pompeu Fabra in the context of the FP7 European Project Dr. Inventor
+ * Call: FP7-ICT-2013.8.1 - Agreement No: 611383
+ * 
+ * Dr. Inventor Text Mining Framework Java Library is available under an open licence, GPLv3, for non-commercial applications.
+ * ******************************************************************************************************
+ */
+package edu.upf.taln.dri.lib.corpus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import edu.upf.taln.dri.lib.corpus.CorpusProcessor.Stage;
+import edu.upf.taln.dri.lib.exception.InternalProcessingException;
+import junit.framework.JUnit4TestAdapter;
+
+public class CorpusProcessorTest {
+
+	private static List<Stage> createStages(List<String> outputFiles) {
+		List<Stage> stages = new ArrayList<Stage>();
+
+		stages.add(new Stage("First", (item) -> {
+			/* Do nothing */
+		}, 2));
+
+		stages.add(new Stage("Failing", (item) -> {
+			if(item.inputFile.getName().startsWith("error")) {
+				throw new StackOverflowError("Stage error");
+			}
+			else if(item.inputFile.getName().startsWith("exception")) {
+				throw new RuntimeException("Stage exception");
+			}
+		}, 2));
+
+		stages.add(new Stage("Output", (item) -> {
+			outputFiles.add(item.inputFile.getName());
+		}, 2));
+
+		return stages;
+	}
+
+	// ***************************************************
+	// TEST METHODS:
+	@Test(timeout = 60000)
+	public void FailingStage() throws InternalProcessingException {
+		List<File> inputFiles = new ArrayList<File>();
+		for(String fileName : Arrays.asList("paper_1.pdf", "error_1.pdf", "paper_2.pdf", "exception_1.pdf", "error_2.pdf", "paper_3.pdf")) {
+			inputFiles.add(new File(fileName));
+		}
+
+		List<String> outputFiles = Collections.synchronizedList(new ArrayList<String>());
+		CorpusProcessor corpusProcessor = new CorpusProcessor(null, 3);
+		corpusProcessor.runPipeline(createStages(outputFiles), inputFiles.iterator());
+
+		assertEquals("The documents that don't fail should go through all the stages", 3, corpusProcessor.getProcessedCount());
+		assertEquals("Errors and exceptions of a stage should be counted as failed documents", 3, corpusProcessor.getFailedCount());
+		Collections.sort(outputFiles);
+		assertEquals(Arrays.asList("paper_1.pdf", "paper_2.pdf", "paper_3.pdf"), outputFiles);
+	}
+
+	@Test(timeout = 60000)
+	public void FailingInput() throws InternalProcessingException {
+		Iterator<File> failingIterator = new Iterator<File>() {
+			private int count = 0;
+
+			@Override
+			public boolean hasNext() {
+				return true;
+			}
+
+			@Override
+			public File next() {
+				if(++count > 2) {
+					throw new IllegalStateException("Input error");
+				}
+				return new File("paper_" + count + ".pdf");
+			}
+		};
+
+		CorpusProcessor corpusProcessor = new CorpusProcessor(null, 3);
+		try {
+			corpusProcessor.runPipeline(createStages(Collections.synchronizedList(new ArrayList<String>())), failingIterator);
+			fail("The exception of the input iterator should be thrown by the corpus processor");
+		} catch (IllegalStateException e) {
+			assertEquals("Input error", e.getMessage());
+		}
+	}
+
+	public static junit.framework.Test suite() {
+		return new JUnit4TestAdapter(CorpusProcessorTest.class);
+	}
+
+}